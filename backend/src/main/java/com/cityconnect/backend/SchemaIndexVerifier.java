@@ -0,0 +1,135 @@
+package com.cityconnect.backend;
+
+import jakarta.annotation.PostConstruct;
+import org.flywaydb.core.api.MigrationVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks on startup that the indexes our queries rely on exist and are usable.
+ *
+ * The schema is managed by Flyway (db/migration), but an index can still go missing:
+ * a concurrent index build that failed leaves an INVALID index, and a database
+ * restored or edited by hand may not have it at all. Both only show up as slow
+ * queries under load, so we look for them up front. The indexes to look for are
+ * the ones the migration scripts create.
+ *
+ * Runs after the migrations, before the web server starts accepting requests.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaIndexVerifier {
+
+    // CREATE [UNIQUE] INDEX [CONCURRENTLY] [IF NOT EXISTS] name ON [ONLY] table
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "create\\s+(?:unique\\s+)?index\\s+(?:concurrently\\s+)?(?:if\\s+not\\s+exists\\s+)?(\\w+)"
+                    + "\\s+on\\s+(?:only\\s+)?(\\w+)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern DROP_INDEX = Pattern.compile(
+            "drop\\s+index\\s+(?:concurrently\\s+)?(?:if\\s+exists\\s+)?(\\w+)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern SCRIPT_VERSION = Pattern.compile("^V([0-9_.]+)__.*\\.sql$");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // false = only log the problem (e.g. while an index is being rebuilt by hand)
+    @Value("${schema.index-check.fail-on-missing:true}")
+    private boolean failOnMissing;
+
+    @Value("${spring.flyway.locations:classpath:db/migration}")
+    private String[] migrationLocations;
+
+    @PostConstruct
+    public void verifyIndexes() throws IOException {
+        Map<String, String> expectedIndexes = indexesFromMigrations();
+
+        // Index name -> [table, valid?] for the indexes visible on our search_path
+        Map<String, Object[]> found = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT ic.relname, tc.relname, i.indisvalid FROM pg_index i " +
+                        "JOIN pg_class ic ON ic.oid = i.indexrelid " +
+                        "JOIN pg_class tc ON tc.oid = i.indrelid " +
+                        "WHERE pg_table_is_visible(ic.oid) AND ic.relname = ANY (?)",
+                rs -> {
+                    found.put(rs.getString(1), new Object[]{rs.getString(2), rs.getBoolean(3)});
+                },
+                (Object) expectedIndexes.keySet().toArray(new String[0]));
+
+        List<String> problems = new ArrayList<>();
+        expectedIndexes.forEach((index, table) -> {
+            Object[] actual = found.get(index);
+            if (actual == null) {
+                problems.add(index + " on " + table + " is missing");
+            } else if (!table.equals(actual[0])) {
+                problems.add(index + " is on " + actual[0] + " instead of " + table);
+            } else if (!(Boolean) actual[1]) {
+                problems.add(index + " on " + table + " is INVALID (drop and recreate it)");
+            }
+        });
+
+        if (problems.isEmpty()) {
+            System.out.println("Verified " + expectedIndexes.size() + " database indexes.");
+            return;
+        }
+        String message = "Database index check failed: " + String.join("; ", problems);
+        if (failOnMissing) {
+            throw new IllegalStateException(message);
+        }
+        System.err.println(message);
+    }
+
+    /**
+     * Index name -> table for every index the migrations create (and don't drop again),
+     * replaying the scripts in version order.
+     */
+    Map<String, String> indexesFromMigrations() throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        Map<MigrationVersion, Resource> scripts = new TreeMap<>();
+        for (String location : migrationLocations) {
+            if (location.startsWith("filesystem:")) {
+                location = "file:" + location.substring("filesystem:".length());
+            }
+            for (Resource script : resolver.getResources(location + "/*.sql")) {
+                Matcher version = SCRIPT_VERSION.matcher(Objects.requireNonNull(script.getFilename()));
+                if (version.matches()) {
+                    scripts.put(MigrationVersion.fromVersion(version.group(1).replace('_', '.')), script);
+                }
+            }
+        }
+
+        Map<String, String> indexes = new LinkedHashMap<>();
+        for (Resource script : scripts.values()) {
+            String sql = script.getContentAsString(StandardCharsets.UTF_8).replaceAll("--[^\\n]*", "");
+            for (String statement : sql.split(";")) {
+                Matcher create = CREATE_INDEX.matcher(statement);
+                if (create.find()) {
+                    indexes.put(create.group(1).toLowerCase(Locale.ROOT), create.group(2).toLowerCase(Locale.ROOT));
+                }
+                Matcher drop = DROP_INDEX.matcher(statement);
+                if (drop.find()) {
+                    indexes.remove(drop.group(1).toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return indexes;
+    }
+}
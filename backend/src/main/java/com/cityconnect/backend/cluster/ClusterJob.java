@@ -0,0 +1,29 @@
+package com.cityconnect.backend.cluster;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a (usually @Scheduled) method on one node of the cluster at a time.
+ *
+ * Each call goes through JobCoordinator.runExclusively(): on the node holding the
+ * job's lease (or able to take it) the method runs, on every other node the call
+ * returns without doing anything. Inside the method, JobCoordinator.currentLease()
+ * gives the lease, e.g. to fence writes with checkFence().
+ *
+ * The bean is proxied (see config.ClusterJobConfig), so calls from within the same
+ * class bypass this. The method must return void.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ClusterJob {
+
+    /**
+     * The lease name, shared by every node running this job (e.g. "issue-archiver").
+     */
+    String value();
+}
@@ -0,0 +1,268 @@
+package com.cityconnect.backend.cluster;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JobCoordinator backed by the job_leases table.
+ *
+ * Taking a lease is one INSERT ... ON CONFLICT UPDATE that only succeeds if the lease
+ * is ours already or has expired (judged by the database clock, so node clocks don't
+ * matter); the token goes up by one when the owner changes. A heartbeat thread renews
+ * all our leases in one UPDATE every 'jobs.lease.heartbeat-ms'. Between heartbeats a
+ * lease is trusted locally, but only for the lease duration minus one heartbeat, so a
+ * node stops using its lease before the database would let another node take it.
+ *
+ * A node that failed to take a lease doesn't ask again before one heartbeat interval
+ * has passed, so frequent jobs on standby nodes don't query the table on every run.
+ */
+@Component
+public class DatabaseJobCoordinator implements JobCoordinator {
+
+    // Takes the lease if it is free (or ours); returns the token, or no row if another node holds it
+    private static final String ACQUIRE_SQL =
+            "INSERT INTO job_leases (name, owner, token, acquired_at, expires_at) " +
+            "VALUES (?, ?, 1, now(), now() + make_interval(secs => ?)) " +
+            "ON CONFLICT (name) DO UPDATE SET " +
+            "token = CASE WHEN job_leases.owner = excluded.owner THEN job_leases.token ELSE job_leases.token + 1 END, " +
+            "acquired_at = CASE WHEN job_leases.owner = excluded.owner THEN job_leases.acquired_at ELSE now() END, " +
+            "owner = excluded.owner, expires_at = excluded.expires_at " +
+            "WHERE job_leases.owner = excluded.owner OR job_leases.expires_at <= now() " +
+            "RETURNING token";
+
+    private record Held(JobLease lease, long validUntilNanos) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${jobs.lease.duration-ms:30000}")
+    private long leaseDurationMs;
+
+    // Must be well below the lease duration (a third of it leaves room for two missed beats)
+    @Value("${jobs.lease.heartbeat-ms:10000}")
+    private long heartbeatMs;
+
+    private final MeterRegistry meterRegistry;
+
+    // pid@host plus a random part, so a restarted process never mistakes its predecessor's leases for its own
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    // Leases this node holds, and when it last failed to take the others
+    private final Map<String, Held> held = new ConcurrentHashMap<>();
+    private final Map<String, Long> nextAttemptNanos = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<JobLease> currentLease = new ThreadLocal<>();
+    private final ScheduledExecutorService heartbeat;
+
+    public DatabaseJobCoordinator(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("jobs.lease.held", held, Map::size)
+                .description("Job leases held by this node")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        // A thread of its own: a long job on the scheduler's threads must not delay the renewal
+        heartbeat.scheduleWithFixedDelay(this::renewAll, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+        for (String job : new ArrayList<>(held.keySet())) {
+            try {
+                release(job);
+            } catch (DataAccessException e) {
+                System.err.println("Could not release job lease " + job + ": " + e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean runExclusively(String job, Runnable task) {
+        JobLease lease;
+        try {
+            lease = acquire(job);
+        } catch (DataAccessException e) {
+            System.err.println("Could not acquire job lease " + job + ", skipping this run: "
+                    + e.getMostSpecificCause().getMessage());
+            return false;
+        }
+        if (lease == null) {
+            return false;
+        }
+
+        JobLease outer = currentLease.get();
+        currentLease.set(lease);
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            task.run();
+            outcome = "success";
+        } catch (LeaseLostException e) {
+            // Another node runs the job now; whatever this run did last was rolled back
+            outcome = "lease-lost";
+            System.err.println("Job " + job + " stopped: " + e.getMessage());
+        } finally {
+            currentLease.set(outer);
+            Timer.builder("jobs.run")
+                    .description("Runs of cluster-wide jobs on this node")
+                    .tag("job", job)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    @Override
+    public JobLease acquire(String job) {
+        long now = System.nanoTime();
+        Held current = held.get(job);
+        if (current != null && now - current.validUntilNanos() < 0) {
+            return current.lease();
+        }
+        Long nextAttempt = nextAttemptNanos.get(job);
+        if (current == null && nextAttempt != null && now - nextAttempt < 0) {
+            return null; // Another node had it a moment ago
+        }
+
+        List<Long> tokens = jdbcTemplate.queryForList(ACQUIRE_SQL, Long.class, job, nodeId, leaseDurationMs / 1000.0);
+        if (tokens.isEmpty()) {
+            if (current != null) {
+                lost(job);
+            }
+            nextAttemptNanos.put(job, now + TimeUnit.MILLISECONDS.toNanos(heartbeatMs));
+            return null;
+        }
+
+        JobLease lease = new JobLease(job, nodeId, tokens.get(0));
+        if (current == null || current.lease().token() != lease.token()) {
+            if (lease.token() > 1) {
+                // Someone else (or an earlier process) held it before
+                Counter.builder("jobs.lease.handoffs")
+                        .description("Job leases this node took over from another node")
+                        .tag("job", job)
+                        .register(meterRegistry)
+                        .increment();
+            }
+            System.out.println("Job lease " + job + " taken by this node (token " + lease.token() + ")");
+        }
+        held.put(job, new Held(lease, now + validityNanos()));
+        return lease;
+    }
+
+    @Override
+    public void checkFence(JobLease lease) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("checkFence() must be called inside the transaction it protects");
+        }
+        if (lease == null) {
+            throw new IllegalStateException("checkFence() needs a lease, e.g. currentLease() inside runExclusively()");
+        }
+        List<Long> tokens = jdbcTemplate.queryForList(
+                "SELECT token FROM job_leases WHERE name = ? AND owner = ? AND token = ? FOR SHARE",
+                Long.class, lease.job(), lease.owner(), lease.token());
+        if (tokens.isEmpty()) {
+            if (held.containsKey(lease.job())) {
+                lost(lease.job());
+            }
+            throw new LeaseLostException("lease " + lease.job() + " (token " + lease.token()
+                    + ") has been taken over by another node");
+        }
+    }
+
+    @Override
+    public JobLease currentLease() {
+        return currentLease.get();
+    }
+
+    @Override
+    public void release(String job) {
+        if (held.remove(job) != null) {
+            jdbcTemplate.update("UPDATE job_leases SET expires_at = now() WHERE name = ? AND owner = ?", job, nodeId);
+        }
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Extends all our leases in one statement; the ones it didn't find were taken over.
+     */
+    private void renewAll() {
+        if (held.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<String> jobs = new ArrayList<>(held.keySet());
+        try {
+            Set<String> renewed = new HashSet<>(jdbcTemplate.query(
+                    "UPDATE job_leases SET expires_at = now() + make_interval(secs => ?) " +
+                            "WHERE owner = ? AND name = ANY (?) RETURNING name",
+                    ps -> {
+                        ps.setDouble(1, leaseDurationMs / 1000.0);
+                        ps.setString(2, nodeId);
+                        ps.setArray(3, ps.getConnection().createArrayOf("varchar", jobs.toArray()));
+                    },
+                    (rs, rowNum) -> rs.getString(1)));
+            for (String job : jobs) {
+                if (renewed.contains(job)) {
+                    held.computeIfPresent(job, (name, current) -> new Held(current.lease(), start + validityNanos()));
+                } else {
+                    lost(job);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Keep beating; the leases stay trusted only until their local validity runs out
+            System.err.println("Could not renew job leases, will retry: " + e.getMessage());
+        }
+    }
+
+    private void lost(String job) {
+        if (held.remove(job) != null) {
+            Counter.builder("jobs.lease.lost")
+                    .description("Job leases this node lost before releasing them")
+                    .tag("job", job)
+                    .register(meterRegistry)
+                    .increment();
+            System.err.println("Job lease " + job + " lost to another node");
+        }
+    }
+
+    private long validityNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(leaseDurationMs - heartbeatMs);
+    }
+}
@@ -0,0 +1,55 @@
+package com.cityconnect.backend.cluster;
+
+/**
+ * Makes sure a background job runs on one node at a time when several instances of
+ * the backend run side by side.
+ *
+ * Each job has a lease. The node holding it runs the job (and keeps running it, so
+ * leadership only moves when that node goes away), a heartbeat renews it while the
+ * node lives, and another node takes it over once it has expired. Jobs opt in with
+ * @ClusterJob on their method, or by calling runExclusively()/acquire() themselves.
+ *
+ * Jobs that work on per-node state (in-memory buffers, local files, the intake
+ * journal) must keep running on every node and don't use this.
+ */
+public interface JobCoordinator {
+
+    /**
+     * Runs the task if this node holds the job's lease or can take it; otherwise does nothing.
+     * The run's duration is recorded (metric 'jobs.run'), and the lease is available
+     * from currentLease() while it runs.
+     * @return false if another node holds the lease.
+     */
+    boolean runExclusively(String job, Runnable task);
+
+    /**
+     * Takes the job's lease, or returns it if this node holds it already.
+     * @return The lease, or null if another node holds it. A different token than last
+     *         time means this node lost the lease in between.
+     */
+    JobLease acquire(String job);
+
+    /**
+     * Fencing check for writes. Call it inside the transaction that does the job's
+     * writes: it fails unless the lease still has this token, and keeps the lease row
+     * share-locked until the transaction ends, so no other node can take over before
+     * the writes are committed.
+     * @throws LeaseLostException if another node has taken the lease over.
+     */
+    void checkFence(JobLease lease);
+
+    /**
+     * The lease of the runExclusively() task running on this thread, or null.
+     */
+    JobLease currentLease();
+
+    /**
+     * Gives the job's lease up, so another node can take it over right away.
+     */
+    void release(String job);
+
+    /**
+     * This node's ID, the 'owner' of the leases it holds.
+     */
+    String nodeId();
+}
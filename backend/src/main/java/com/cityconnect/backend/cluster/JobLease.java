@@ -0,0 +1,12 @@
+package com.cityconnect.backend.cluster;
+
+/**
+ * A job lease held by this node.
+ *
+ * @param job   The lease name.
+ * @param owner This node's ID (see JobCoordinator.nodeId()).
+ * @param token Fencing token: grows every time the lease changes hands, so a write
+ *              carrying an older token comes from a node that lost the lease.
+ */
+public record JobLease(String job, String owner, long token) {
+}
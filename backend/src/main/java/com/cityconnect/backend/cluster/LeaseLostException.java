@@ -0,0 +1,13 @@
+package com.cityconnect.backend.cluster;
+
+/**
+ * Thrown by JobCoordinator.checkFence() when the lease was taken over by another node
+ * (ours expired, e.g. during a long pause). The work in the current transaction must
+ * not be committed; the other node does it now.
+ */
+public class LeaseLostException extends RuntimeException {
+
+    public LeaseLostException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,707 @@
+package com.cityconnect.backend.config;
+
+import com.cityconnect.backend.dto.BatchOperation;
+import com.cityconnect.backend.dto.BatchOperationResult;
+import com.cityconnect.backend.exception.BadRequestException;
+import com.cityconnect.backend.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.access.WebInvocationPrivilegeEvaluator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the requests of a batch (POST /api/v1/batch) side by side.
+ *
+ * Each request goes through the DispatcherServlet like a request of its own, so it
+ * hits the same controller, validation, method security and GlobalExceptionHandler,
+ * and gets the status code it would get alone. It runs on a thread of the "batch"
+ * pool with the batch's Authentication, after the URL rules of SecurityConfig have
+ * been checked for its path (the security filter chain only saw /api/v1/batch).
+ *
+ * Each request wraps the batch request, with its own path, query and attributes and a
+ * copy of the headers, cookies and locales taken up front; its response is buffered
+ * and never reaches the batch response. A request cut off by the batch's timeout is
+ * answered 504 and interrupted, and the batch is only answered once it has ended, so
+ * no request outlives the container objects it wraps.
+ * Only GETs are allowed: they don't depend on each other's order, and retrying a
+ * batch never writes twice.
+ */
+@Component
+public class BatchDispatcher {
+
+    private static final String API_PREFIX = "/api/v1/";
+
+    // As the GlobalExceptionHandler words it
+    private static final String INTERNAL_ERROR = "An unexpected internal server error occurred. Please try again later.";
+
+    // Streams, or batches within batches
+    private static final Set<String> EXCLUDED_PATHS = Set.of(
+            "/api/v1/batch",
+            "/api/v1/issues/events",
+            "/api/v1/admin/issues/export");
+
+    // The body (and the batch's idempotency) doesn't apply to a GET of its own
+    private static final Set<String> DROPPED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_TYPE.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+            IdempotencyFilter.HEADER.toLowerCase(Locale.ROOT));
+
+    @Autowired
+    private DispatcherServlet dispatcherServlet;
+
+    @Autowired
+    private WebInvocationPrivilegeEvaluator privilegeEvaluator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${batch.max-requests:20}")
+    private int maxRequests;
+
+    // For the whole batch; requests still running then are answered 504
+    @Value("${batch.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private final ThreadPoolExecutor executor;
+    private final DistributionSummary batchSize;
+
+    public BatchDispatcher(MeterRegistry meterRegistry,
+                           @Value("${batch.threads:16}") int threads,
+                           @Value("${batch.queue-size:200}") int queueSize) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.batchSize = DistributionSummary.builder("batch.requests")
+                .description("Requests per batch")
+                .register(meterRegistry);
+        Gauge.builder("batch.queued", executor, pool -> pool.getQueue().size())
+                .description("Batched requests waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the operations as the current user and returns their results in the same order.
+     */
+    public List<BatchOperationResult> dispatch(HttpServletRequest batchRequest, HttpServletResponse batchResponse,
+                                               List<BatchOperation> operations) {
+        if (operations.size() > maxRequests) {
+            throw new BadRequestException("A batch may contain at most " + maxRequests + " requests.");
+        }
+        batchSize.record(operations.size());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        // 1. What the requests read of their own, copied on this thread
+        Snapshot snapshot = Snapshot.of(batchRequest);
+
+        // 2. Checked and started side by side
+        List<SubTask> tasks = new ArrayList<>(operations.size());
+        List<Future<BatchOperationResult>> futures = new ArrayList<>(operations.size());
+        List<BatchOperationResult> results = new ArrayList<>(operations.size());
+        for (BatchOperation operation : operations) {
+            BatchOperationResult rejected = null;
+            SubTask task = null;
+            Future<BatchOperationResult> future = null;
+            String method = operation.getMethod() == null ? "GET" : operation.getMethod().toUpperCase(Locale.ROOT);
+            UriComponents uri = parse(operation.getPath());
+            if (!"GET".equals(method)) {
+                rejected = error(operation, HttpStatus.METHOD_NOT_ALLOWED, "Only GET requests can be batched.");
+            } else if (uri == null) {
+                rejected = error(operation, HttpStatus.BAD_REQUEST,
+                        "The path must be an API path starting with " + API_PREFIX + ".");
+            } else if (EXCLUDED_PATHS.contains(uri.getPath())) {
+                rejected = error(operation, HttpStatus.BAD_REQUEST, "This path can't be batched.");
+            } else if (!privilegeEvaluator.isAllowed(batchRequest.getContextPath(), uri.getPath(), method, authentication)) {
+                rejected = error(operation, HttpStatus.FORBIDDEN, "Access Denied");
+            } else {
+                task = new SubTask(operation, new SubRequest(batchRequest, uri, snapshot),
+                        new SubResponse(batchResponse, batchRequest.getContextPath() + uri.getPath()), authentication);
+                try {
+                    future = executor.submit(task);
+                } catch (RejectedExecutionException e) {
+                    task = null;
+                    rejected = error(operation, HttpStatus.SERVICE_UNAVAILABLE,
+                            "Too many batched requests at the moment. Please try again shortly.");
+                }
+            }
+            tasks.add(task);
+            futures.add(future);
+            results.add(rejected);
+        }
+
+        // 3. Collected within the batch's deadline
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Future<BatchOperationResult> future = futures.get(i);
+                if (future == null) {
+                    continue;
+                }
+                BatchOperation operation = operations.get(i);
+                try {
+                    results.set(i, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    tasks.get(i).cutOff(future);
+                    results.set(i, error(operation, HttpStatus.GATEWAY_TIMEOUT,
+                            "The request did not finish within the batch's " + timeoutMs + " ms."));
+                } catch (ExecutionException e) {
+                    // Failures of the request itself are answered by run(); this is anything else (e.g. an Error)
+                    System.err.println("Batched request " + operation.getPath() + " failed: " + e.getCause());
+                    results.set(i, error(operation, HttpStatus.INTERNAL_SERVER_ERROR, INTERNAL_ERROR));
+                }
+            }
+        } catch (InterruptedException e) {
+            for (int i = 0; i < tasks.size(); i++) {
+                if (tasks.get(i) != null) {
+                    tasks.get(i).cutOff(futures.get(i));
+                }
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the batch", e);
+        } finally {
+            // 4. Not answered (nor the container's request recycled) while a request still uses it
+            tasks.forEach(task -> {
+                if (task != null) {
+                    task.awaitEnd();
+                }
+            });
+        }
+        return results;
+    }
+
+    private BatchOperationResult run(BatchOperation operation, SubRequest request, SubResponse response,
+                                     Authentication authentication) throws IOException {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+        try {
+            try {
+                dispatcherServlet.service(request, response);
+            } catch (ServletException | IOException | RuntimeException e) {
+                // Got past the GlobalExceptionHandler: answered the way it answers unexpected errors
+                System.err.println("Batched request " + request.getRequestURI() + " failed: " + e);
+                response.reset();
+                response.sendError(HttpStatus.INTERNAL_SERVER_ERROR.value(), INTERNAL_ERROR);
+            }
+            return new BatchOperationResult(operation.getId(), response.getStatus(), body(response));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private JsonNode body(SubResponse response) throws IOException {
+        if (response.errorMessage != null && response.getContentSize() == 0) {
+            HttpStatus status = HttpStatus.resolve(response.getStatus());
+            return objectMapper.valueToTree(new ErrorResponse(Instant.now(), response.getStatus(),
+                    status != null ? status.getReasonPhrase() : "", response.errorMessage, response.path));
+        }
+        byte[] bytes = response.getContentAsByteArray();
+        if (bytes.length == 0) {
+            return null;
+        }
+        String contentType = response.getContentType();
+        if (contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return objectMapper.readTree(bytes);
+        }
+        return TextNode.valueOf(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private BatchOperationResult error(BatchOperation operation, HttpStatus status, String message) {
+        ErrorResponse errorResponse = new ErrorResponse(Instant.now(), status.value(), status.getReasonPhrase(),
+                message, operation.getPath());
+        return new BatchOperationResult(operation.getId(), status.value(), objectMapper.valueToTree(errorResponse));
+    }
+
+    /**
+     * The path and query of an operation, or null if it isn't a plain API path.
+     */
+    private static UriComponents parse(String path) {
+        if (path == null || !path.startsWith(API_PREFIX) || path.contains("..") || path.contains("#")) {
+            return null;
+        }
+        try {
+            return UriComponentsBuilder.fromUriString(path).build();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * One request of the batch on the pool, and when it's done with the batch request.
+     */
+    private final class SubTask implements Callable<BatchOperationResult> {
+
+        private final BatchOperation operation;
+        private final SubRequest request;
+        private final SubResponse response;
+        private final Authentication authentication;
+        // Taken by whichever comes first: the request starting, or the batch cutting it off
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch ended = new CountDownLatch(1);
+
+        SubTask(BatchOperation operation, SubRequest request, SubResponse response, Authentication authentication) {
+            this.operation = operation;
+            this.request = request;
+            this.response = response;
+            this.authentication = authentication;
+        }
+
+        @Override
+        public BatchOperationResult call() throws IOException {
+            if (!claimed.compareAndSet(false, true)) {
+                return null; // Cut off before it started
+            }
+            try {
+                return run(operation, request, response, authentication);
+            } finally {
+                ended.countDown();
+            }
+        }
+
+        /**
+         * Interrupts the request if it's running, or makes sure it never starts.
+         */
+        void cutOff(Future<BatchOperationResult> future) {
+            future.cancel(true);
+            if (claimed.compareAndSet(false, true)) {
+                ended.countDown();
+            }
+        }
+
+        /**
+         * Waits until the request has ended or was cut off before it started.
+         */
+        void awaitEnd() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    ended.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * What every request of a batch reads of its own, copied from the batch request.
+     */
+    private record Snapshot(Map<String, List<String>> headers, List<Locale> locales, Cookie[] cookies) {
+
+        static Snapshot of(HttpServletRequest batchRequest) {
+            LinkedCaseInsensitiveMap<List<String>> headers = new LinkedCaseInsensitiveMap<>();
+            for (String name : Collections.list(batchRequest.getHeaderNames())) {
+                if (!DROPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.put(name, Collections.list(batchRequest.getHeaders(name)));
+                }
+            }
+            List<Locale> locales = Collections.list(batchRequest.getLocales());
+            return new Snapshot(Collections.unmodifiableMap(headers),
+                    locales.isEmpty() ? List.of(Locale.getDefault()) : locales, batchRequest.getCookies());
+        }
+    }
+
+    /**
+     * A GET of the batch's user. Path, query, headers, cookies and locales are its own
+     * (the latter three from the snapshot); it starts with no attributes, as the batch
+     * request's belong to its own dispatch. The rest (the connection's details, the
+     * user as Spring Security presents it) is the batch request's.
+     */
+    private static class SubRequest extends HttpServletRequestWrapper {
+
+        private final String requestUri;
+        private final String queryString;
+        private final StringBuffer requestUrl;
+        private final Map<String, String[]> parameters = new LinkedHashMap<>();
+        private final Snapshot snapshot;
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+        SubRequest(HttpServletRequest batchRequest, UriComponents uri, Snapshot snapshot) {
+            super(batchRequest);
+            this.requestUri = batchRequest.getContextPath() + uri.getPath();
+            this.queryString = uri.getQuery();
+            StringBuffer url = batchRequest.getRequestURL();
+            this.requestUrl = new StringBuffer(url.substring(0, url.length() - batchRequest.getRequestURI().length()))
+                    .append(requestUri);
+            uri.getQueryParams().forEach((name, values) -> parameters.put(UriUtils.decode(name, StandardCharsets.UTF_8),
+                    values.stream().map(value -> value == null ? "" : UriUtils.decode(value, StandardCharsets.UTF_8))
+                            .toArray(String[]::new)));
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public String getMethod() {
+            return "GET";
+        }
+
+        @Override
+        public String getRequestURI() {
+            return requestUri;
+        }
+
+        @Override
+        public StringBuffer getRequestURL() {
+            return new StringBuffer(requestUrl);
+        }
+
+        @Override
+        public String getServletPath() {
+            return requestUri.substring(getContextPath().length());
+        }
+
+        @Override
+        public String getPathInfo() {
+            return null;
+        }
+
+        @Override
+        public String getQueryString() {
+            return queryString;
+        }
+
+        @Override
+        public String getParameter(String name) {
+            String[] values = parameters.get(name);
+            return values == null || values.length == 0 ? null : values[0];
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return Collections.unmodifiableMap(parameters);
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(parameters.keySet());
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            return parameters.get(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            List<String> values = snapshot.headers().get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return Collections.enumeration(snapshot.headers().getOrDefault(name, List.of()));
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(snapshot.headers().keySet());
+        }
+
+        /**
+         * As the servlet spec has it: -1 without the header, NumberFormatException if it isn't a number.
+         */
+        @Override
+        public int getIntHeader(String name) {
+            String value = getHeader(name);
+            return value == null ? -1 : Integer.parseInt(value.trim());
+        }
+
+        /**
+         * As the servlet spec has it: -1 without the header, IllegalArgumentException if it isn't a date.
+         */
+        @Override
+        public long getDateHeader(String name) {
+            String value = getHeader(name);
+            if (value == null) {
+                return -1;
+            }
+            HttpHeaders parsed = new HttpHeaders();
+            parsed.set(name, value);
+            return parsed.getFirstDate(name);
+        }
+
+        @Override
+        public Cookie[] getCookies() {
+            return snapshot.cookies();
+        }
+
+        @Override
+        public Locale getLocale() {
+            return snapshot.locales().get(0);
+        }
+
+        @Override
+        public Enumeration<Locale> getLocales() {
+            return Collections.enumeration(snapshot.locales());
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            return Collections.enumeration(attributes.keySet());
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (value == null) {
+                attributes.remove(name);
+            } else {
+                attributes.put(name, value);
+            }
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            attributes.remove(name);
+        }
+
+        // A GET has no body
+        @Override
+        public String getContentType() {
+            return null;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        // The API is stateless, and a batched request never creates a session
+        @Override
+        public HttpSession getSession(boolean create) {
+            if (create) {
+                throw new IllegalStateException("Batched requests can't create a session");
+            }
+            return null;
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+
+        // Batched requests run to the end on their thread
+        @Override
+        public boolean isAsyncSupported() {
+            return false;
+        }
+    }
+
+    /**
+     * Buffers the body like a ContentCachingResponseWrapper, and keeps status and
+     * headers too, so nothing reaches the batch response (nor is it ever copied there).
+     */
+    private static class SubResponse extends ContentCachingResponseWrapper {
+
+        private final String path;
+        private final HttpHeaders headers = new HttpHeaders();
+        private int status = HttpServletResponse.SC_OK;
+        private String characterEncoding = StandardCharsets.UTF_8.name();
+        private String errorMessage;
+
+        SubResponse(HttpServletResponse batchResponse, String path) {
+            super(batchResponse);
+            this.path = path;
+        }
+
+        @Override
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        @Override
+        public void sendError(int status, String message) {
+            this.status = status;
+            this.errorMessage = message != null ? message : "";
+        }
+
+        @Override
+        public void sendError(int status) {
+            HttpStatus resolved = HttpStatus.resolve(status);
+            sendError(status, resolved != null ? resolved.getReasonPhrase() : "");
+        }
+
+        @Override
+        public void sendRedirect(String location) {
+            this.status = HttpServletResponse.SC_FOUND;
+            setHeader(HttpHeaders.LOCATION, location);
+        }
+
+        @Override
+        public String getContentType() {
+            return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        }
+
+        @Override
+        public void setContentType(String contentType) {
+            setHeader(HttpHeaders.CONTENT_TYPE, contentType);
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return characterEncoding;
+        }
+
+        @Override
+        public void setCharacterEncoding(String characterEncoding) {
+            this.characterEncoding = characterEncoding;
+        }
+
+        @Override
+        public boolean containsHeader(String name) {
+            return headers.containsKey(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return headers.getFirst(name);
+        }
+
+        @Override
+        public Collection<String> getHeaders(String name) {
+            return headers.getOrEmpty(name);
+        }
+
+        @Override
+        public Collection<String> getHeaderNames() {
+            return headers.keySet();
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (value == null) {
+                headers.remove(name); // As the servlet spec has it
+            } else {
+                headers.set(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (value != null) {
+                headers.add(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            setHeader(name, String.valueOf(value));
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            addHeader(name, String.valueOf(value));
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+            headers.setDate(name, date);
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+            HttpHeaders formatted = new HttpHeaders();
+            formatted.setDate(name, date);
+            addHeader(name, formatted.getFirst(name));
+        }
+
+        @Override
+        public void setLocale(Locale locale) {
+            // Would set the batch response's Content-Language
+        }
+
+        @Override
+        public void addCookie(Cookie cookie) {
+            // The batch's cookies are the client's to set, not a batched GET's
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return false;
+        }
+
+        @Override
+        public void reset() {
+            resetBuffer();
+            headers.clear();
+            status = HttpServletResponse.SC_OK;
+            errorMessage = null;
+        }
+    }
+}
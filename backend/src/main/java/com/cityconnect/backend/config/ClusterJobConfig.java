@@ -0,0 +1,59 @@
+package com.cityconnect.backend.config;
+
+import com.cityconnect.backend.cluster.ClusterJob;
+import com.cityconnect.backend.cluster.JobCoordinator;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Proxies beans with @ClusterJob methods so each call goes through
+ * JobCoordinator.runExclusively().
+ *
+ * The post-processor runs just before the one behind @Scheduled, so the scheduler
+ * registers the proxy's methods, not the bare bean's.
+ */
+@Configuration
+public class ClusterJobConfig {
+
+    @Bean
+    public static AbstractBeanFactoryAwareAdvisingPostProcessor clusterJobPostProcessor() {
+        return new AbstractBeanFactoryAwareAdvisingPostProcessor() {
+            {
+                setProxyTargetClass(true);
+                setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+            }
+
+            @Override
+            public void setBeanFactory(BeanFactory beanFactory) {
+                super.setBeanFactory(beanFactory);
+                // Looked up on first use: the coordinator is itself a bean being created
+                ObjectProvider<JobCoordinator> coordinator = beanFactory.getBeanProvider(JobCoordinator.class);
+                MethodInterceptor interceptor = invocation -> {
+                    ClusterJob job = AnnotationUtils.findAnnotation(invocation.getMethod(), ClusterJob.class);
+                    coordinator.getObject().runExclusively(job.value(), () -> {
+                        try {
+                            invocation.proceed();
+                        } catch (RuntimeException | Error e) {
+                            throw e;
+                        } catch (Throwable t) {
+                            throw new UndeclaredThrowableException(t);
+                        }
+                    });
+                    return null;
+                };
+                this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(null, ClusterJob.class, true),
+                        interceptor);
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.cityconnect.backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Creates the caches behind Hibernate's second-level cache (switched on with the
+ * spring.jpa.properties.hibernate.cache.* settings).
+ *
+ * Every region is created here with its own size limit and time-to-live, read from
+ * 'cache.regions.<region>.max-entries' / '.ttl-seconds'. Hibernate is told to fail
+ * on any other region, so an entity can't silently end up in an unbounded cache.
+ *
+ * Hibernate keeps the regions up to date for changes made through it on this node.
+ * Changes made by other nodes are handled by SecondLevelCacheInvalidator.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    // Region -> default {max entries, TTL in seconds}; both can be overridden per region
+    private static final Map<String, long[]> REGIONS = Map.of(
+            "users", new long[]{10_000, 600},
+            "issues", new long[]{50_000, 300},
+            "issue-categories", new long[]{100, 86_400},
+            // Cached query results (IDs only, the rows come from the entity regions)
+            "default-query-results-region", new long[]{10_000, 60},
+            // Last-change time of each table, used to discard stale query results; must never expire
+            "default-update-timestamps-region", new long[]{1_000, 0}
+    );
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment, MeterRegistry meterRegistry) {
+        // A manager of our own: the provider's default one is shared by the whole JVM, so a
+        // second application context (e.g. tests with other settings) would find our regions taken
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("hibernate-second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        REGIONS.forEach((region, defaults) -> {
+            long maxEntries = environment.getProperty("cache.regions." + region + ".max-entries", Long.class, defaults[0]);
+            long ttlSeconds = environment.getProperty("cache.regions." + region + ".ttl-seconds", Long.class, defaults[1]);
+
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+            if (ttlSeconds > 0) {
+                configuration.setExpireAfterWrite(OptionalLong.of(Duration.ofSeconds(ttlSeconds).toNanos()));
+            }
+            // Hibernate only stores immutable entries, so there is no need to copy them on every get/put
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+
+            Cache<Object, Object> cache = cacheManager.createCache(region, configuration);
+            JCacheMetrics.monitor(meterRegistry, cache);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
@@ -0,0 +1,298 @@
+package com.cityconnect.backend.config;
+
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.exception.ErrorResponse;
+import com.cityconnect.backend.service.IdempotencyService;
+import com.cityconnect.backend.service.IdempotencyService.Claim;
+import com.cityconnect.backend.service.IdempotencyService.StoredResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Makes the create endpoints safe to retry: a POST sent again with the same
+ * 'Idempotency-Key' header gets the response of the first one (with an
+ * 'Idempotent-Replayed: true' header) instead of creating another issue, comment or file.
+ *
+ * Only successful (2xx) responses are kept; after an error the key is free again, so
+ * the client can correct the request and resend it with the same key. Reusing a key
+ * for a different request (another body or URL) is answered with 422, and a retry
+ * that arrives while the first request is still running with 409 and Retry-After.
+ *
+ * Runs after Spring Security (keys are per user), so requests without a valid
+ * login are left to it. Requests without the header behave as before.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    // The POST endpoints that create something
+    private static final List<String> CREATE_PATHS = List.of(
+            "/api/v1/issues",
+            "/api/v1/issues/intake",
+            "/api/v1/issues/*/comments",
+            "/api/v1/files/upload",
+            "/api/v1/users/me/areas");
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Largest body (JSON, or all parts of an upload together) a request with a key may have.
+    // JSON bodies are buffered to be hashed, the create requests are far smaller; parts are streamed.
+    @Value("${idempotency.max-body-bytes:1048576}")
+    private int maxBodyBytes;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return CREATE_PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            sendError(request, response, HttpStatus.BAD_REQUEST,
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+            return;
+        }
+
+        // 1. What the key stands for: method, URL and body
+        MessageDigest digest = sha256();
+        digest.update((request.getMethod() + " " + request.getRequestURI() + "?"
+                + Objects.toString(request.getQueryString(), ""))
+                .getBytes(StandardCharsets.UTF_8));
+        HttpServletRequest replayable = request;
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            // The container keeps the parts; Spring's multipart handling reads the same ones afterwards.
+            // They are hashed as they are read, so an upload is never held in memory here.
+            try {
+                byte[] buffer = new byte[8192];
+                long size = 0;
+                for (Part part : request.getParts()) {
+                    digest.update((part.getName() + "\0" + part.getSubmittedFileName() + "\0")
+                            .getBytes(StandardCharsets.UTF_8));
+                    try (InputStream in = part.getInputStream()) {
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            size += read;
+                            if (size > maxBodyBytes) {
+                                sendTooLarge(request, response);
+                                return;
+                            }
+                            digest.update(buffer, 0, read);
+                        }
+                    }
+                }
+            } catch (IllegalStateException | ServletException e) {
+                // Too large or malformed: the controller fails the same way and nothing is created
+                filterChain.doFilter(request, response);
+                return;
+            }
+        } else {
+            byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+            if (body.length > maxBodyBytes) {
+                sendTooLarge(request, response);
+                return;
+            }
+            digest.update(body);
+            replayable = new CachedBodyRequest(request, body);
+        }
+        byte[] requestHash = digest.digest();
+
+        // 2. First request with the key runs; the others get its response
+        Claim claim = idempotencyService.claim(user.getId(), key, requestHash);
+        if (claim.requestHash() != null && !MessageDigest.isEqual(claim.requestHash(), requestHash)) {
+            sendError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "This " + HEADER + " was already used for a different request.");
+            return;
+        }
+        switch (claim.outcome()) {
+            case IN_PROGRESS -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                sendError(request, response, HttpStatus.CONFLICT,
+                        "A request with this " + HEADER + " is still being processed.");
+            }
+            case COMPLETED -> replay(claim.response(), response);
+            case CLAIMED -> run(replayable, response, filterChain, user.getId(), key, requestHash);
+        }
+    }
+
+    private void run(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                     Long userId, String key, byte[] requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } catch (ServletException | IOException | RuntimeException e) {
+            release(userId, key, requestHash);
+            throw e;
+        }
+        if (wrapper.getStatus() >= 200 && wrapper.getStatus() < 300) {
+            try {
+                idempotencyService.complete(userId, key, new StoredResponse(requestHash, wrapper.getStatus(),
+                        wrapper.getContentType(), wrapper.getContentAsByteArray()));
+            } catch (DataAccessException e) {
+                // The write itself succeeded; a retry gets 409 until the claim times out
+                System.err.println("Could not store the response for " + HEADER + " " + key + ": "
+                        + e.getMostSpecificCause().getMessage());
+            }
+        } else {
+            release(userId, key, requestHash);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void release(Long userId, String key, byte[] requestHash) {
+        try {
+            idempotencyService.release(userId, key, requestHash);
+        } catch (DataAccessException e) {
+            // The claim times out on its own
+            System.err.println("Could not release " + HEADER + " " + key + ": " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void sendTooLarge(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        sendError(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                "Requests with an " + HEADER + " may have at most " + maxBodyBytes + " bytes.");
+    }
+
+    private void sendError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                           String message) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(Instant.now(), status.value(), status.getReasonPhrase(),
+                message, request.getRequestURI());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JVM has SHA-256
+        }
+    }
+
+    /**
+     * The request with its body already read, so the controller can read it again.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The whole body is in memory: it is available at once, and read to the end right away
+                    Objects.requireNonNull(listener, "listener");
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
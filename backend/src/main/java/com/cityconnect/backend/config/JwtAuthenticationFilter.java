@@ -26,6 +26,8 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String EVENT_STREAM_PATH = "/api/v1/issues/events";
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -74,6 +76,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7);
         }
+
+        // The browser's EventSource can't set headers, so the event stream
+        // (and only the event stream) also accepts the token as a query parameter
+        if (EVENT_STREAM_PATH.equals(request.getRequestURI())) {
+            return request.getParameter("access_token");
+        }
         return null;
     }
 
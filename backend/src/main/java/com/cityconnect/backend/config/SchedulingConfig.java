@@ -0,0 +1,45 @@
+package com.cityconnect.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Enables Spring's @Scheduled support for our background jobs
+ * (see the 'job' package).
+ *
+ * Jobs run on one of two pools, so the frequent ones keep their interval:
+ * - 'taskScheduler' (the default, spring.task.scheduling.pool.size threads): short jobs
+ *   that run every few seconds or faster, e.g. the intake drain, the SLA tick and the
+ *   upvote/view flushes. Their promises ("at most one interval of loss") depend on it.
+ * - 'bulkJobScheduler' (jobs.bulk.pool-size threads): jobs that can run for minutes,
+ *   such as the throttled file scans, the archiver and the full resyncs. They name it
+ *   with @Scheduled(scheduler = SchedulingConfig.BULK_JOBS), and wait for each other
+ *   when more of them are due than it has threads.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    public static final String BULK_JOBS = "bulkJobScheduler";
+
+    // Declared here because a second scheduler switches off Spring Boot's default one
+    @Bean
+    @Primary
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(BULK_JOBS)
+    public ThreadPoolTaskScheduler bulkJobScheduler(@Value("${jobs.bulk.pool-size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("bulk-job-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return scheduler;
+    }
+}
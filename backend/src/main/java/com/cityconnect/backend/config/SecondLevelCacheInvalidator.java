@@ -0,0 +1,88 @@
+package com.cityconnect.backend.config;
+
+import com.cityconnect.backend.entity.Issue;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.event.EventBus;
+import com.cityconnect.backend.event.IssueDeletedEvent;
+import com.cityconnect.backend.event.IssueEscalatedEvent;
+import com.cityconnect.backend.event.IssueStatusChangedEvent;
+import com.cityconnect.backend.event.IssueUpvotedEvent;
+import com.cityconnect.backend.event.IssuesRemovedEvent;
+import com.cityconnect.backend.event.UserDeletedEvent;
+import com.cityconnect.backend.event.UserUpdatedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the second-level cache of this node in line with changes made on other nodes,
+ * and with issue rows this node changes with plain SQL.
+ *
+ * Hibernate updates the cache for everything written through this node, but each node
+ * has its own cache. Committed changes reach every node as domain events, so we evict
+ * the affected entries when one arrives; the next read loads them from the database.
+ * (The bus delivers our own events too, which costs one extra cache miss.)
+ *
+ * Statements that hide or remove many issues at once (account deletion, the archiver,
+ * the purger) are plain SQL that evicts just those issues here, and announce them with
+ * IssuesRemovedEvent for the other nodes. No regular write empties a whole region.
+ */
+@Component
+public class SecondLevelCacheInvalidator {
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void subscribe() {
+        eventBus.subscribe(IssueStatusChangedEvent.class, event -> cache().evict(Issue.class, event.issueId()));
+        eventBus.subscribe(IssueDeletedEvent.class, event -> cache().evict(Issue.class, event.issueId()));
+        eventBus.subscribe(IssuesRemovedEvent.class, event ->
+                event.issueIds().forEach(id -> cache().evict(Issue.class, id)));
+        eventBus.subscribe(IssueUpvotedEvent.class, event -> cache().evict(Issue.class, event.issueId()));
+        eventBus.subscribe(IssueEscalatedEvent.class, event -> cache().evict(Issue.class, event.issueId()));
+        eventBus.subscribe(UserUpdatedEvent.class, event -> cache().evict(User.class, event.userId()));
+        eventBus.subscribe(UserDeletedEvent.class, event -> {
+            // Cached lookups by username may still point at the account
+            // (its issues arrive as IssuesRemovedEvent)
+            cache().evict(User.class, event.userId());
+            cache().evictDefaultQueryRegion();
+        });
+    }
+
+    /**
+     * Evicts issues whose rows are changed with JdbcTemplate, which Hibernate doesn't see.
+     * (A JPQL bulk UPDATE would be seen, but Hibernate then empties the whole region.)
+     * Evicted now and again after the current transaction completes, so an entry loaded
+     * from the old row in between is dropped too.
+     */
+    public void evictIssues(Collection<Long> issueIds) {
+        if (issueIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(issueIds);
+        ids.forEach(id -> cache().evict(Issue.class, id));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ids.forEach(id -> cache().evict(Issue.class, id));
+                }
+            });
+        }
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+}
@@ -1,6 +1,7 @@
 package com.cityconnect.backend.config;
 
 import com.cityconnect.backend.security.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -51,6 +52,10 @@ public class SecurityConfig {
 
                 // 4. Define authorization rules
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (e.g. the end of an SSE stream) were already authorized
+                        // when the request started; the JWT filter doesn't run for them again
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints (everyone can access)
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/hello-world").permitAll()
@@ -67,9 +72,15 @@ public class SecurityConfig {
                         // --- THIS IS THE NEW RULE FOR STEP 1.5 ---
                         // Secures the new GET, PUT, DELETE /api/v1/users/me endpoints
                         .requestMatchers("/api/v1/users/me").hasAnyRole("CITIZEN", "ADMIN")
+                        .requestMatchers("/api/v1/users/me/areas/**").hasAnyRole("CITIZEN", "ADMIN")
+                        // Citizens sync their own issues, admins every issue (see SyncServiceImpl)
+                        .requestMatchers("/api/v1/sync").hasAnyRole("CITIZEN", "ADMIN")
+                        // Each request of a batch is checked against these rules on its own (see BatchDispatcher)
+                        .requestMatchers("/api/v1/batch").hasAnyRole("CITIZEN", "ADMIN")
 
                         // Admin-only endpoints
                         .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN") // Metrics from background jobs
 
                         // All other requests must be authenticated
                         .anyRequest().authenticated()
@@ -0,0 +1,52 @@
+package com.cityconnect.backend.controller;
+
+import com.cityconnect.backend.dto.IssueViewStatsResponse;
+import com.cityconnect.backend.dto.StatusLatencyReport;
+import com.cityconnect.backend.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Admin analytics endpoints.
+ * Secured by the "/api/v1/admin/**" rule in SecurityConfig.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/analytics")
+@CrossOrigin(origins = "http://localhost:5173") // Allow requests from our React frontend
+public class AnalyticsController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    /**
+     * Time-to-acknowledge and time-to-resolve per category, per day and in total.
+     * Defaults to the last 30 days (UTC). Example:
+     * GET /api/v1/admin/analytics/status-latency?from=2025-01-01&to=2025-01-31&category=Pothole
+     */
+    @GetMapping("/status-latency")
+    public ResponseEntity<StatusLatencyReport> getStatusLatency(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String category) {
+
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(analyticsService.getStatusLatency(start, end, category));
+    }
+
+    /**
+     * The issues citizens look at most, with approximate unique viewers.
+     * Views are written in batches, so the last few seconds may be missing.
+     * GET /api/v1/admin/analytics/most-viewed?limit=20
+     */
+    @GetMapping("/most-viewed")
+    public ResponseEntity<List<IssueViewStatsResponse>> getMostViewed(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(analyticsService.getMostViewed(limit));
+    }
+}
@@ -0,0 +1,53 @@
+package com.cityconnect.backend.controller;
+
+import com.cityconnect.backend.dto.AreaSubscriptionRequest;
+import com.cityconnect.backend.dto.AreaSubscriptionResponse;
+import com.cityconnect.backend.service.AreaSubscriptionService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST API Controller for the areas the current user follows.
+ * New issues reported inside one of them are sent to the user like other notifications.
+ */
+@RestController
+@RequestMapping("/api/v1/users/me/areas")
+@CrossOrigin(origins = "http://localhost:5173") // Allow requests from our React frontend
+public class AreaSubscriptionController {
+
+    @Autowired
+    private AreaSubscriptionService areaSubscriptionService;
+
+    /**
+     * Follows a circle ({"shape": "CIRCLE", "latitude", "longitude", "radiusMetres"})
+     * or a polygon ({"shape": "POLYGON", "points": [[lat, lon], ...]}).
+     * Mapped to POST /api/v1/users/me/areas
+     */
+    @PostMapping
+    public ResponseEntity<AreaSubscriptionResponse> createSubscription(
+            @Valid @RequestBody AreaSubscriptionRequest request) {
+        return new ResponseEntity<>(areaSubscriptionService.createSubscription(request), HttpStatus.CREATED);
+    }
+
+    /**
+     * Mapped to GET /api/v1/users/me/areas
+     */
+    @GetMapping
+    public ResponseEntity<List<AreaSubscriptionResponse>> getMySubscriptions() {
+        return new ResponseEntity<>(areaSubscriptionService.getMySubscriptions(), HttpStatus.OK);
+    }
+
+    /**
+     * Mapped to DELETE /api/v1/users/me/areas/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSubscription(@PathVariable Long id) {
+        areaSubscriptionService.deleteSubscription(id);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
@@ -0,0 +1,37 @@
+package com.cityconnect.backend.controller;
+
+import com.cityconnect.backend.config.BatchDispatcher;
+import com.cityconnect.backend.dto.BatchRequest;
+import com.cityconnect.backend.dto.BatchResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST API Controller for loading several resources in one round trip
+ * (e.g. an issue, its comments and the user's profile for the issue page).
+ */
+@RestController
+@RequestMapping("/api/v1/batch")
+@CrossOrigin(origins = "http://localhost:5173") // Allow requests from our React frontend
+public class BatchController {
+
+    @Autowired
+    private BatchDispatcher batchDispatcher;
+
+    /**
+     * Runs the GET requests in {"requests": [{"id", "method", "path"}, ...]} side by side,
+     * as the current user, and answers 200 with each one's own status and body.
+     * Mapped to POST /api/v1/batch
+     */
+    @PostMapping
+    public ResponseEntity<BatchResponse> batch(@Valid @RequestBody BatchRequest batchRequest,
+                                               HttpServletRequest request, HttpServletResponse response) {
+        return new ResponseEntity<>(new BatchResponse(
+                batchDispatcher.dispatch(request, response, batchRequest.getRequests())), HttpStatus.OK);
+    }
+}
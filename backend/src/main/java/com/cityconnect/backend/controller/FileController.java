@@ -1,12 +1,15 @@
 package com.cityconnect.backend.controller;
 
+import com.cityconnect.backend.dto.SimilarImage;
 import com.cityconnect.backend.service.FileStorageService;
+import com.cityconnect.backend.service.ImageHashService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -20,6 +23,9 @@ public class FileController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ImageHashService imageHashService;
+
     /**
      * Endpoint for uploading an image.
      * The frontend must send this as 'multipart/form-data'
@@ -42,4 +48,20 @@ public class FileController {
         // 3. Return the response with an HTTP 200 OK
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Uploaded images that look like the given one (the same photo, re-encoded, resized
+     * or slightly re-cropped), with the issues using them, closest first.
+     * The submission form calls this right after an upload to offer "join existing issue";
+     * admins use it to find the same photo attached to several issues.
+     * Answers 503 with Retry-After if the upload is still being processed.
+     *
+     * @param url The web path returned by /upload (e.g. /media/123e4567-....jpg).
+     * @param maxDistance Most differing bits of the 64-bit hashes (default 10, at most 20).
+     */
+    @GetMapping("/similar")
+    public ResponseEntity<List<SimilarImage>> findSimilarImages(@RequestParam String url,
+                                                                @RequestParam(required = false) Integer maxDistance) {
+        return ResponseEntity.ok(imageHashService.findSimilar(url, maxDistance));
+    }
+}
@@ -1,13 +1,23 @@
 package com.cityconnect.backend.controller;
 
+import com.cityconnect.backend.dto.BulkStatusUpdateRequest;
+import com.cityconnect.backend.dto.BulkStatusUpdateResponse;
+import com.cityconnect.backend.dto.IntakeTicketResponse;
 import com.cityconnect.backend.dto.IssueRequest;
 import com.cityconnect.backend.dto.IssueResponse;
+import com.cityconnect.backend.dto.UpvoteResponse;
+import com.cityconnect.backend.exception.BadRequestException;
+import com.cityconnect.backend.service.IssueEventStreamService;
+import com.cityconnect.backend.service.IssueIntakeService;
 import com.cityconnect.backend.service.IssueService;
+import com.cityconnect.backend.service.IssueUpvoteService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -25,26 +35,73 @@ public class IssueController {
     @Autowired
     private IssueService issueService;
 
+    @Autowired
+    private IssueIntakeService issueIntakeService;
+
+    @Autowired
+    private IssueEventStreamService issueEventStreamService;
+
+    @Autowired
+    private IssueUpvoteService issueUpvoteService;
+
+    /**
+     * Server-Sent Events stream of status changes and new comments.
+     * Citizens get events for their own issues, admins get all of them.
+     * Browsers reconnect automatically and send 'Last-Event-ID' to resume.
+     */
+    @GetMapping(value = "/issues/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamIssueEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return issueEventStreamService.subscribe(lastEventId);
+    }
+
     // --- Slice 1: Create an Issue ---
     // We'll secure this in Slice 4. For now, it's open.
+    // With ?checkDuplicates=true, returns 409 with the likely duplicates if the same problem was
+    // reported nearby shortly before; the client can upvote one of them or resend without it.
+    // Off by default, so existing clients keep getting 201.
     @PostMapping("/issues")
-    public ResponseEntity<IssueResponse> createIssue(@Valid @RequestBody IssueRequest issueRequest) {
+    public ResponseEntity<IssueResponse> createIssue(@Valid @RequestBody IssueRequest issueRequest,
+                                                     @RequestParam(defaultValue = "false") boolean checkDuplicates) {
         // @Valid triggers our GlobalExceptionHandler if the DTO is invalid
-        IssueResponse newIssue = issueService.createIssue(issueRequest);
+        IssueResponse newIssue = issueService.createIssue(issueRequest, !checkDuplicates);
         // Return 201 Created status
         return new ResponseEntity<>(newIssue, HttpStatus.CREATED);
     }
 
+    /**
+     * Burst-friendly alternative to POST /issues.
+     * The validated issue is written to a durable local journal and a ticket is
+     * returned right away (HTTP 202); a background writer stores it shortly after.
+     * Returns 503 with Retry-After when the queue is too far behind.
+     */
+    @PostMapping("/issues/intake")
+    public ResponseEntity<IntakeTicketResponse> submitIssueToIntake(@Valid @RequestBody IssueRequest issueRequest) {
+        IntakeTicketResponse ticket = issueIntakeService.submit(issueRequest);
+        return new ResponseEntity<>(ticket, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Status of an intake ticket: PENDING, ACCEPTED (with the new issue's ID) or REJECTED.
+     */
+    @GetMapping("/issues/intake/{ticketId}")
+    public ResponseEntity<IntakeTicketResponse> getIntakeTicket(@PathVariable String ticketId) {
+        return ResponseEntity.ok(issueIntakeService.getTicketStatus(ticketId));
+    }
+
     // --- Slice 2: Get All Issues (for Admin) ---
     // We'll secure this for Admins in Slice 4.
+    // ?sort=priority&limit=50 is the admin work queue: the 50 most urgent open issues
     @GetMapping("/admin/issues")
-    public ResponseEntity<List<IssueResponse>> getAllIssues() {
-        List<IssueResponse> issues = issueService.getAllIssues();
+    public ResponseEntity<List<IssueResponse>> getAllIssues(@RequestParam(defaultValue = "newest") String sort,
+                                                            @RequestParam(required = false) Integer limit) {
+        List<IssueResponse> issues = issueService.getAllIssues(sort, limit);
         return new ResponseEntity<>(issues, HttpStatus.OK);
     }
 
     // --- Slice 3: Update Issue Status (for Admin) ---
     // We'll secure this for Admins in Slice 4.
+    // Body: {"status": "...", "version": "<IssueResponse.version>"}; the version is optional.
+    // Answers 409 if the issue changed since that version or another admin has claimed it.
     @PutMapping("/admin/issues/{id}/status")
     public ResponseEntity<IssueResponse> updateIssueStatus(
             @PathVariable Long id,
@@ -56,10 +113,55 @@ public class IssueController {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
 
-        IssueResponse updatedIssue = issueService.updateIssueStatus(id, newStatus);
+        Long expectedVersion;
+        try {
+            expectedVersion = statusUpdate.get("version") != null ? Long.valueOf(statusUpdate.get("version")) : null;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("version must be a number");
+        }
+
+        IssueResponse updatedIssue = issueService.updateIssueStatus(id, newStatus, expectedVersion);
         return new ResponseEntity<>(updatedIssue, HttpStatus.OK);
     }
 
+    /**
+     * Updates the status of many issues in one request, either an explicit
+     * list of IDs or every issue matching a filter.
+     * Returns a per-issue report (UPDATED / UNCHANGED / NOT_FOUND).
+     */
+    @PutMapping("/admin/issues/status")
+    public ResponseEntity<BulkStatusUpdateResponse> bulkUpdateIssueStatus(
+            @Valid @RequestBody BulkStatusUpdateRequest request) {
+        BulkStatusUpdateResponse report = issueService.bulkUpdateStatus(request);
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Admin work queue: hands the current admin the next n open issues nobody is
+     * working on, highest priority first. Each stays theirs until its lease runs out
+     * (renew or release it below); a status change by anyone else answers 409 meanwhile.
+     */
+    @PostMapping("/admin/queue/claim")
+    public ResponseEntity<List<IssueResponse>> claimIssues(@RequestParam(defaultValue = "1") int n) {
+        return ResponseEntity.ok(issueService.claimNextIssues(n));
+    }
+
+    @GetMapping("/admin/queue/mine")
+    public ResponseEntity<List<IssueResponse>> getMyClaimedIssues() {
+        return ResponseEntity.ok(issueService.getMyClaimedIssues());
+    }
+
+    @PostMapping("/admin/queue/{id}/renew")
+    public ResponseEntity<IssueResponse> renewClaim(@PathVariable Long id) {
+        return ResponseEntity.ok(issueService.renewClaim(id));
+    }
+
+    @PostMapping("/admin/queue/{id}/release")
+    public ResponseEntity<Void> releaseClaim(@PathVariable Long id) {
+        issueService.releaseClaim(id);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
     /**
      * Deletes an issue. This should typically be done after an
      * issue is resolved and archived.
@@ -89,4 +191,13 @@ public class IssueController {
         IssueResponse issue = issueService.getIssueById(id);
         return ResponseEntity.ok(issue);
     }
+
+    /**
+     * "Me too": the current user is affected by this issue as well.
+     * Voting again is harmless (counted = false in the response).
+     */
+    @PostMapping("/issues/{id}/upvote")
+    public ResponseEntity<UpvoteResponse> upvoteIssue(@PathVariable Long id) {
+        return ResponseEntity.ok(issueUpvoteService.upvote(id));
+    }
 }
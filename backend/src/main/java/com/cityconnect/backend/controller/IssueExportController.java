@@ -0,0 +1,49 @@
+package com.cityconnect.backend.controller;
+
+import com.cityconnect.backend.exception.BadRequestException;
+import com.cityconnect.backend.service.IssueExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * REST API Controller for bulk-exporting issues, including archived ones
+ * (e.g., for open-data publishing or moving to another system).
+ * Secured by the "/api/v1/admin/**" rule in SecurityConfig.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/issues/export")
+@CrossOrigin(origins = "http://localhost:5173") // Allow requests from our React frontend
+public class IssueExportController {
+
+    @Autowired
+    private IssueExportService issueExportService;
+
+    /**
+     * Streams all issues as NDJSON (default) or CSV. The body is written while the
+     * issues are read, so exports can be arbitrarily large.
+     */
+    @GetMapping
+    public void exportIssues(@RequestParam(defaultValue = "ndjson") String format,
+                             @RequestParam(defaultValue = "true") boolean includeArchived,
+                             HttpServletResponse response) throws IOException {
+        IssueExportService.Format exportFormat;
+        try {
+            exportFormat = IssueExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown export format: " + format + ". Use ndjson or csv.");
+        }
+
+        boolean csv = exportFormat == IssueExportService.Format.CSV;
+        response.setContentType(csv ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"issues." + (csv ? "csv" : "ndjson") + "\"");
+        issueExportService.exportIssues(response.getOutputStream(), exportFormat, includeArchived);
+    }
+}
@@ -0,0 +1,51 @@
+package com.cityconnect.backend.controller;
+
+import com.cityconnect.backend.dto.IssueImportReport;
+import com.cityconnect.backend.service.IssueImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * REST API Controller for bulk-importing issues (e.g., migrating from the old
+ * municipal system or ingesting partner hotline data).
+ * Secured by the "/api/v1/admin/**" rule in SecurityConfig.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/issues/import")
+@CrossOrigin(origins = "http://localhost:5173") // Allow requests from our React frontend
+public class IssueImportController {
+
+    @Autowired
+    private IssueImportService issueImportService;
+
+    /**
+     * Imports issues from newline-delimited JSON (one IssueImportRow object per line).
+     * The body is streamed, so uploads can be arbitrarily large.
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<IssueImportReport> importNdjson(InputStream body) {
+        return ResponseEntity.ok(issueImportService.importIssues(body, IssueImportService.Format.NDJSON));
+    }
+
+    /**
+     * Imports issues from CSV. The first line must be a header naming the columns
+     * (title, description, category, status, latitude, longitude, imageUrl, reporter).
+     */
+    @PostMapping(consumes = "text/csv")
+    public ResponseEntity<IssueImportReport> importCsv(InputStream body) {
+        return ResponseEntity.ok(issueImportService.importIssues(body, IssueImportService.Format.CSV));
+    }
+
+    /**
+     * Progress of running imports and the results of recent ones.
+     */
+    @GetMapping
+    public ResponseEntity<List<IssueImportReport>> getRecentImports() {
+        return ResponseEntity.ok(issueImportService.getRecentImports());
+    }
+}
@@ -0,0 +1,28 @@
+package com.cityconnect.backend.controller;
+
+import com.cityconnect.backend.dto.PurgeStatusResponse;
+import com.cityconnect.backend.job.DeletionPurger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Admin endpoint for monitoring the background purge of deleted issues and accounts.
+ * Secured by the "/api/v1/admin/**" rule in SecurityConfig.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/purge")
+@CrossOrigin(origins = "http://localhost:5173") // Allow requests from our React frontend
+public class PurgeController {
+
+    @Autowired
+    private DeletionPurger deletionPurger;
+
+    /**
+     * Returns how many tombstoned rows are still pending and how many were purged.
+     */
+    @GetMapping("/status")
+    public ResponseEntity<PurgeStatusResponse> getPurgeStatus() {
+        return ResponseEntity.ok(deletionPurger.getStatus());
+    }
+}
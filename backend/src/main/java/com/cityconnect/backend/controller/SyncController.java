@@ -0,0 +1,31 @@
+package com.cityconnect.backend.controller;
+
+import com.cityconnect.backend.dto.SyncResponse;
+import com.cityconnect.backend.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST API Controller for clients that keep issues and comments offline: the field
+ * workers' app (every issue) and citizens' devices (their own issues).
+ */
+@RestController
+@RequestMapping("/api/v1/sync")
+@CrossOrigin(origins = "http://localhost:5173") // Allow requests from our React frontend
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    /**
+     * The changes since 'since' (the cursor of the previous response); without it, everything.
+     * Mapped to GET /api/v1/sync?since=...&limit=...
+     */
+    @GetMapping
+    public ResponseEntity<SyncResponse> sync(@RequestParam(required = false) String since,
+                                             @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(syncService.sync(since, limit), HttpStatus.OK);
+    }
+}
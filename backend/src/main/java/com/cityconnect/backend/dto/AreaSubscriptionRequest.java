@@ -0,0 +1,29 @@
+package com.cityconnect.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A new area to follow: either a circle (latitude, longitude, radiusMetres)
+ * or a polygon (points, each [latitude, longitude]).
+ */
+@Data
+public class AreaSubscriptionRequest {
+
+    @NotBlank(message = "Name is required")
+    @Size(max = 100, message = "Name must be at most 100 characters")
+    private String name;
+
+    // "CIRCLE" or "POLYGON"
+    @NotBlank(message = "Shape is required")
+    private String shape;
+
+    private Double latitude;
+    private Double longitude;
+    private Double radiusMetres;
+
+    private List<double[]> points;
+}
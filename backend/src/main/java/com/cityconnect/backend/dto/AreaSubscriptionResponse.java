@@ -0,0 +1,28 @@
+package com.cityconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AreaSubscriptionResponse {
+
+    private Long id;
+    private String name;
+    private String shape;
+
+    // Circles only
+    private Double latitude;
+    private Double longitude;
+    private Double radiusMetres;
+
+    // Polygons only: [latitude, longitude] pairs
+    private List<double[]> points;
+
+    private Instant createdAt;
+}
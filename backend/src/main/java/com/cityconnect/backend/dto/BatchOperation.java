@@ -0,0 +1,25 @@
+package com.cityconnect.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One request of a batch, e.g. {"id": "comments", "method": "GET", "path": "/api/v1/issues/5/comments"}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperation {
+
+    // Chosen by the client, echoed in the result (optional)
+    private String id;
+
+    // Only GET for now (the default)
+    private String method;
+
+    // Absolute API path, query string included
+    @NotBlank(message = "Path is required")
+    private String path;
+}
@@ -0,0 +1,23 @@
+package com.cityconnect.backend.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The response to one request of a batch: what the endpoint would have answered on its own.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationResult {
+
+    private String id;
+
+    // HTTP status of this request (the batch itself answers 200)
+    private int status;
+
+    // Its JSON body (the ErrorResponse for errors); null if empty
+    private JsonNode body;
+}
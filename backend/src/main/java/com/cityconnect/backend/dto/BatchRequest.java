@@ -0,0 +1,18 @@
+package com.cityconnect.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Request body for POST /api/v1/batch: several GET requests answered in one round trip.
+ */
+@Data
+public class BatchRequest {
+
+    @NotEmpty(message = "At least one request is required")
+    @Valid
+    private List<BatchOperation> requests;
+}
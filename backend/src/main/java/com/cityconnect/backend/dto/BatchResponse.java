@@ -0,0 +1,18 @@
+package com.cityconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of POST /api/v1/batch: one result per request, in the order of the requests.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponse {
+
+    private List<BatchOperationResult> responses;
+}
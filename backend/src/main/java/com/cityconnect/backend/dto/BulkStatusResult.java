@@ -0,0 +1,24 @@
+package com.cityconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The outcome of a bulk status update for a single issue.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusResult {
+
+    public enum Outcome {
+        UPDATED,    // Status was changed
+        UNCHANGED,  // Issue already had the requested status
+        NOT_FOUND,  // No such issue (or it was deleted)
+        INVALID_TRANSITION // The status can't change to the requested one (see IssueStatus)
+    }
+
+    private Long id;
+    private Outcome outcome;
+}
@@ -0,0 +1,25 @@
+package com.cityconnect.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Request body for changing the status of many issues at once.
+ * Exactly one of 'ids' or 'filter' must be provided.
+ */
+@Data
+public class BulkStatusUpdateRequest {
+
+    @NotBlank(message = "Status is required")
+    private String status;
+
+    // Explicit list of issue IDs to update...
+    private List<Long> ids;
+
+    // ...or every issue matching this filter
+    @Valid
+    private IssueFilter filter;
+}
@@ -0,0 +1,21 @@
+package com.cityconnect.backend.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-issue report returned by the bulk status update endpoint.
+ */
+@Data
+public class BulkStatusUpdateResponse {
+
+    private String status;
+    private int requested;
+    private int updated;
+    private int unchanged;
+    private int notFound;
+    private int invalidTransition;
+    private List<BulkStatusResult> results = new ArrayList<>();
+}
@@ -0,0 +1,28 @@
+package com.cityconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * An existing issue that a new submission probably duplicates.
+ * The client can offer to upvote it ("me too") instead of creating a new one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateCandidate {
+
+    private Long issueId;
+    private String title;
+    private String category;
+    private Instant createdAt;
+
+    // How far the existing issue is from the submitted location
+    private double distanceMetres;
+
+    // Estimated text similarity of title and description, 0 to 1
+    private double similarity;
+}
@@ -0,0 +1,18 @@
+package com.cityconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Describes why a single row of a bulk import was rejected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError {
+
+    // 1-based row number (NDJSON line number, or CSV record number after the header)
+    private long row;
+    private String message;
+}
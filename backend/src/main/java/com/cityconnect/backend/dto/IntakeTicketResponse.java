@@ -0,0 +1,24 @@
+package com.cityconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Returned by the write-behind intake endpoint, and by the ticket status lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntakeTicketResponse {
+
+    public enum Status {
+        PENDING,   // Safely in the journal, not yet written to the database
+        ACCEPTED,  // Written to the database; issueId is set
+        REJECTED   // Could not be stored (e.g., the account was deleted meanwhile)
+    }
+
+    private String ticketId;
+    private Status status;
+    private Long issueId;
+}
@@ -0,0 +1,35 @@
+package com.cityconnect.backend.dto;
+
+import com.cityconnect.backend.entity.IssueStatus;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One issue in a bulk export (one NDJSON line or one CSV record).
+ * Uses the same column names as IssueImportRow, so an export can be imported
+ * again elsewhere (the extra columns are ignored by the import).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "title", "description", "category", "status", "latitude", "longitude",
+        "imageUrl", "reporter", "createdAt", "resolvedAt", "archived"})
+public class IssueExportRow {
+
+    private Long id;
+    private String title;
+    private String description;
+    private String category;
+    private IssueStatus status;
+    private Double latitude;
+    private Double longitude;
+    private String imageUrl;
+    private String reporter; // Username
+    private Instant createdAt;
+    private Instant resolvedAt;
+    private boolean archived;
+}
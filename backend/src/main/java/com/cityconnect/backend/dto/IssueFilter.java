@@ -0,0 +1,20 @@
+package com.cityconnect.backend.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Optional criteria for selecting issues in bulk.
+ * Every field is optional; null fields are ignored.
+ */
+@Data
+public class IssueFilter {
+
+    private String status;
+    private String category;
+
+    // Only issues created in [createdAfter, createdBefore)
+    private Instant createdAfter;
+    private Instant createdBefore;
+}
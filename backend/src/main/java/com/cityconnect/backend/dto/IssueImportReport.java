@@ -0,0 +1,27 @@
+package com.cityconnect.backend.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress / result of a bulk issue import.
+ * Returned when the import finishes, and listed while it is still running.
+ */
+@Data
+public class IssueImportReport {
+
+    private String importId;
+    private String format;
+    private Instant startedAt;
+    private Instant finishedAt; // null while still running
+    private boolean completed;
+
+    private long processedRows;
+    private long importedRows;
+    private long failedRows;
+
+    // The first few row errors (see issues.import.max-reported-errors)
+    private List<ImportRowError> errors;
+}
@@ -0,0 +1,45 @@
+package com.cityconnect.backend.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * One row of a bulk issue import (one NDJSON line or one CSV record).
+ * Rows are validated one by one while the upload is being streamed.
+ */
+@Data
+public class IssueImportRow {
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 255, message = "Title must be at most 255 characters")
+    private String title;
+
+    @NotBlank(message = "Description is required")
+    @Size(max = 255, message = "Description must be at most 255 characters")
+    private String description;
+
+    @NotBlank(message = "Category is required")
+    @Size(max = 255, message = "Category must be at most 255 characters")
+    private String category;
+
+    // Optional; defaults to PENDING
+    @Pattern(regexp = "PENDING|IN_PROGRESS|RESOLVED", message = "Status must be one of PENDING, IN_PROGRESS, RESOLVED")
+    private String status;
+
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    private String imageUrl;
+
+    // Username of the reporter. Defaults to the admin running the import.
+    private String reporter;
+}
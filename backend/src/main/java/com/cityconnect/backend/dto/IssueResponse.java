@@ -17,9 +17,33 @@ public class IssueResponse {
     private Double latitude;
     private Double longitude;
     private Instant createdAt;
+    private Instant resolvedAt;
     private String imageUrl;
     private String submittedByUsername; // To show who created the issue
 
+    // "Me too" votes, including ones not yet written to the database
+    private long upvoteCount;
+
+    // True for issues resolved long ago and moved to the (read-only) archive
+    private boolean archived;
+
+    // Stored view totals (unique viewers approximate); only the admin list fills them in
+    private Long viewCount;
+    private Long uniqueViewers;
+
+    // Admin queue ordering (see PriorityScoreServiceImpl); only filled in by the admin list and queue
+    private Double priorityScore;
+
+    // Set once the issue stayed PENDING past its category's deadline
+    private Instant escalatedAt;
+
+    // Optimistic lock: send it back with a status change to make sure nobody changed the issue meanwhile
+    private Long version;
+
+    // Admin work queue: who is working on the issue and until when (only while the claim is live)
+    private String claimedBy;
+    private Instant claimExpiresAt;
+
     // We can add more fields later, like:
     // private String submittedByUsername;
 }
@@ -0,0 +1,28 @@
+package com.cityconnect.backend.dto;
+
+import com.cityconnect.backend.entity.IssueStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One row of the "most viewed issues" report.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueViewStatsResponse {
+
+    private Long issueId;
+    private String title;
+    private IssueStatus status;
+    private long viewCount;
+
+    // Approximate (HyperLogLog, a few percent off)
+    private long uniqueViewers;
+
+    // When views were last added; views of the last few seconds are not included yet
+    private Instant updatedAt;
+}
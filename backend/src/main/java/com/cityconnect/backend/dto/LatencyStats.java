@@ -0,0 +1,31 @@
+package com.cityconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Latency statistics for one metric and category, either for a single day
+ * or (with day == null) summed up over the whole requested range.
+ * All durations are in seconds, measured from when the issue was reported.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencyStats {
+
+    private LocalDate day;
+    private String category; // "ALL" for the total over every category
+    private String metric;   // ACKNOWLEDGE or RESOLVE
+
+    private long count;
+    private double averageSeconds;
+    private long minSeconds;
+    private long maxSeconds;
+
+    // Percentiles are only available per day (they can't be added up across days)
+    private Double p50Seconds;
+    private Double p90Seconds;
+}
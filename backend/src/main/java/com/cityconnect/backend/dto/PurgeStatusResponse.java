@@ -0,0 +1,29 @@
+package com.cityconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO showing admins how far the background purge of
+ * soft-deleted issues and accounts has progressed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurgeStatusResponse {
+
+    // Tombstoned rows still waiting to be removed
+    private long pendingIssues;
+    private long pendingUsers;
+
+    // Totals removed since this instance started
+    private long purgedIssues;
+    private long purgedComments;
+    private long purgedUsers;
+    private long deletedFiles;
+
+    private Instant lastRunAt;
+}
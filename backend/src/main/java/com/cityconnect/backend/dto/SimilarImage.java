@@ -0,0 +1,25 @@
+package com.cityconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * An uploaded image that looks like the one asked about (same photo, re-encoded,
+ * resized or slightly re-cropped).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarImage {
+
+    private String imageUrl;
+
+    // Differing bits of the two 64-bit perceptual hashes (0 = same picture)
+    private int distance;
+
+    // Live issues using this image (empty for an upload not attached to an issue yet)
+    private List<Long> issueIds;
+}
@@ -0,0 +1,28 @@
+package com.cityconnect.backend.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response of the admin resolution-time analytics endpoint.
+ * Built only from the precomputed daily rollups.
+ */
+@Data
+public class StatusLatencyReport {
+
+    private LocalDate from;
+    private LocalDate to;
+
+    // When the newest rollup row was computed (data after that isn't included yet)
+    private Instant computedAt;
+
+    // Totals over the whole range, per category (plus "ALL") and metric
+    private List<LatencyStats> summary = new ArrayList<>();
+
+    // One entry per day, category and metric
+    private List<LatencyStats> daily = new ArrayList<>();
+}
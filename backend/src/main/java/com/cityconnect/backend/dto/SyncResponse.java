@@ -0,0 +1,32 @@
+package com.cityconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of GET /api/v1/sync: what changed since the client's cursor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+
+    // True if the client must drop its local copy first: this is a full sync
+    // (no cursor, or one too old to continue from)
+    private boolean reset;
+
+    // Created or changed since the cursor; replace the local copy
+    private List<IssueResponse> issues;
+    private List<CommentResponse> comments;
+
+    // Deleted (or archived) since the cursor; remove them locally
+    private List<Long> deletedIssueIds;
+    private List<Long> deletedCommentIds;
+
+    // Send it back as ?since= next time. If hasMore, call again right away for the next page.
+    private String cursor;
+    private boolean hasMore;
+}
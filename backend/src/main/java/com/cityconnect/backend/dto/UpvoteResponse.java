@@ -0,0 +1,22 @@
+package com.cityconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a "me too" upvote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpvoteResponse {
+
+    private Long issueId;
+
+    // Total votes for the issue, including this one
+    private long upvoteCount;
+
+    // False if this user had already upvoted the issue (nothing changed)
+    private boolean counted;
+}
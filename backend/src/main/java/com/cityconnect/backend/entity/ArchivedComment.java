@@ -0,0 +1,36 @@
+package com.cityconnect.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * A comment of an ArchivedIssue. Read-only; partitioned like its issue.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "comments_archive")
+public class ArchivedComment {
+
+    @Id
+    private Long id;
+
+    @Column(name = "issue_id")
+    private Long issueId;
+
+    private String content;
+
+    private Instant createdAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    private User user;
+
+    // Partition key, copied from the issue
+    private Instant issueResolvedAt;
+}
@@ -0,0 +1,60 @@
+package com.cityconnect.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcType;
+import org.hibernate.dialect.PostgreSQLEnumJdbcType;
+
+import java.time.Instant;
+
+/**
+ * An issue moved out of the live 'issues' table by the IssueArchiver.
+ *
+ * Read-only. The table is partitioned by month of resolution (the partitions
+ * are created by the archiver), and its primary key is (id, resolved_at);
+ * IDs are still unique because they come from the live table.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "issues_archive")
+public class ArchivedIssue {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "category_id")
+    private IssueCategory category;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcType(PostgreSQLEnumJdbcType.class)
+    @Column(columnDefinition = "issue_status")
+    private IssueStatus status;
+
+    private Double latitude;
+    private Double longitude;
+
+    private String imageUrl;
+
+    private String intakeTicket;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    private User user;
+
+    private Instant createdAt;
+
+    private Instant resolvedAt;
+
+    private Instant archivedAt;
+
+    private long upvoteCount;
+}
@@ -0,0 +1,49 @@
+package com.cityconnect.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * An area a user follows: new issues reported inside it are sent to them
+ * (see AreaSubscriptionServiceImpl).
+ */
+@Data
+@Entity
+@Table(name = "area_subscriptions",
+        indexes = @Index(name = "idx_area_subscriptions_user", columnList = "user_id"))
+public class AreaSubscription {
+
+    public enum Shape {
+        CIRCLE, // centerLatitude/centerLongitude and radiusMetres
+        POLYGON // polygon
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain ID rather than a relation: the index only needs the number
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Shape shape;
+
+    private Double centerLatitude;
+    private Double centerLongitude;
+    private Double radiusMetres;
+
+    // Vertices as lat1, lon1, lat2, lon2, ... (the last one connects back to the first)
+    private double[] polygon;
+
+    @CreationTimestamp
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -3,18 +3,31 @@ package com.cityconnect.backend.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcType;
+import org.hibernate.dialect.PostgreSQLEnumJdbcType;
 
 import java.time.Instant;
 import java.util.List;
 
 @Data // Lombok: Adds getters, setters, toString, etc.
 @Entity
-@Table(name = "issues") // Defines the table name
+// Second-level cached for reads by ID (see IssueRepository.findLiveById)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "issues")
+// The schema is managed by Flyway (db/migration); the indexes are listed here for reference
+@Table(name = "issues", indexes = {
+        @Index(name = "idx_issues_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_issues_status_created", columnList = "status, created_at")
+})
 public class Issue {
 
+    // Sequence-based IDs with a pooled optimizer: Hibernate reserves 50 IDs per
+    // round trip, which (unlike IDENTITY) lets it batch INSERT statements.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-incrementing ID
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "issues_seq")
+    @SequenceGenerator(name = "issues_seq", sequenceName = "issues_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false) // Cannot be null
@@ -23,12 +36,17 @@ public class Issue {
     @Column(nullable = false)
     private String description;
 
-    @Column(nullable = false)
-    private String category;
+    // Small lookup-table reference instead of the category name in every row
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "category_id", nullable = false)
+    private IssueCategory category;
 
-    // Default status to PENDING when a new issue is created
-    @Column(nullable = false)
-    private String status = "PENDING";
+    // Default status to PENDING when a new issue is created.
+    // Stored as the Postgres enum type 'issue_status'.
+    @Enumerated(EnumType.STRING)
+    @JdbcType(PostgreSQLEnumJdbcType.class)
+    @Column(nullable = false, columnDefinition = "issue_status")
+    private IssueStatus status = IssueStatus.PENDING;
 
     private Double latitude;
     private Double longitude;
@@ -36,10 +54,51 @@ public class Issue {
     //Image URL
     private String imageUrl;
 
+    // Set when the issue came in through the write-behind intake queue.
+    // Unique, so replaying the journal after a crash can't insert it twice.
+    @Column(unique = true, length = 36)
+    private String intakeTicket;
+
     // Automatically sets the timestamp when the entity is created
     @CreationTimestamp
     private Instant createdAt;
 
+    // When the issue was last resolved (cleared if it is reopened).
+    // The IssueArchiver moves issues resolved long enough ago to issues_archive.
+    private Instant resolvedAt;
+
+    // "Me too" votes. Only advanced by the batched flush in IssueUpvoteServiceImpl,
+    // so saving the entity must never write it back.
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long upvoteCount;
+
+    // Admin queue ordering. Only written by PriorityScoreServiceImpl (in the background)
+    @Column(nullable = false, insertable = false, updatable = false)
+    private double priorityScore;
+
+    // Optimistic lock: every status change is a compare-and-set on it
+    // (see IssueServiceImpl.updateIssueStatus), so concurrent admins can't overwrite each other
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // Admin work queue: who is working on the issue, and until when. An expired claim
+    // is as good as none. Only written by the queue's UPDATE statements in IssueServiceImpl.
+    @Column(insertable = false, updatable = false)
+    private String claimedBy;
+
+    @Column(insertable = false, updatable = false)
+    private Instant claimExpiresAt;
+
+    // When the issue was escalated for staying PENDING past its category's deadline.
+    // Only written by SlaEscalationServiceImpl.
+    @Column(insertable = false, updatable = false)
+    private Instant escalatedAt;
+
+    // Soft-delete tombstone. When set, the issue is hidden everywhere and
+    // the DeletionPurger removes the row (and its comments and image) later.
+    private Instant deletedAt;
+
     @ManyToOne(fetch = FetchType.LAZY) // LAZY = don't fetch the User unless we ask for it
     @JoinColumn(name = "user_id", nullable = false) // Defines the foreign key column
     @ToString.Exclude // 2. Add this to prevent infinite loops in logging
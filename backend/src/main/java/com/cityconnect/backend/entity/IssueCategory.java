@@ -0,0 +1,35 @@
+package com.cityconnect.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Lookup table of issue categories ("Pothole", "Streetlight Out", ...).
+ *
+ * Issues reference a category by its small ID instead of repeating the name in
+ * every row. Rows are managed by migrations, never by the application.
+ */
+@Data
+@Entity
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "issue-categories")
+@Table(name = "issue_categories")
+public class IssueCategory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Short id;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    // How much the category counts towards an issue's priority score (1 = neutral)
+    @Column(nullable = false)
+    private double priorityWeight;
+
+    // Hours an issue may stay PENDING before it is escalated; null = no deadline
+    private Integer slaHours;
+}
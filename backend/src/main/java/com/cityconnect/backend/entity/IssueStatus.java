@@ -0,0 +1,45 @@
+package com.cityconnect.backend.entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The statuses an issue can have, and which changes between them are allowed.
+ *
+ *  - PENDING     -> IN_PROGRESS or RESOLVED
+ *  - IN_PROGRESS -> RESOLVED
+ *  - RESOLVED    -> IN_PROGRESS (reopened)
+ *
+ * An issue never goes back to PENDING, so "leaving PENDING" happens exactly once
+ * and marks when it was acknowledged.
+ */
+public enum IssueStatus {
+    PENDING,
+    IN_PROGRESS,
+    RESOLVED;
+
+    public Set<IssueStatus> allowedNext() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(IN_PROGRESS, RESOLVED);
+            case IN_PROGRESS -> EnumSet.of(RESOLVED);
+            case RESOLVED -> EnumSet.of(IN_PROGRESS);
+        };
+    }
+
+    public boolean canTransitionTo(IssueStatus next) {
+        return allowedNext().contains(next);
+    }
+
+    /**
+     * The statuses from which an issue may move to the given one.
+     */
+    public static Set<IssueStatus> allowedPrevious(IssueStatus next) {
+        Set<IssueStatus> previous = EnumSet.noneOf(IssueStatus.class);
+        for (IssueStatus status : values()) {
+            if (status.canTransitionTo(next)) {
+                previous.add(status);
+            }
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,56 @@
+package com.cityconnect.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.JdbcType;
+import org.hibernate.dialect.PostgreSQLEnumJdbcType;
+
+import java.time.Instant;
+
+/**
+ * One status change of an issue (append-only log).
+ *
+ * Written in the same transaction as the change. Rows are never updated,
+ * and they are kept after the issue itself is purged, so analytics stay complete.
+ */
+@Data
+@Entity
+@Table(name = "issue_status_history", indexes = {
+        @Index(name = "idx_status_history_issue", columnList = "issue_id, changed_at"),
+        @Index(name = "idx_status_history_changed_at", columnList = "changed_at")
+})
+public class IssueStatusHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "issue_status_history_seq")
+    @SequenceGenerator(name = "issue_status_history_seq", sequenceName = "issue_status_history_seq", allocationSize = 50)
+    private Long id;
+
+    // Plain ID rather than a relation, so the log outlives the issue
+    @Column(name = "issue_id", nullable = false)
+    private Long issueId;
+
+    // Copied from the issue, so rollups per category don't need a join
+    @Column(nullable = false)
+    private String category;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcType(PostgreSQLEnumJdbcType.class)
+    @Column(nullable = false, columnDefinition = "issue_status")
+    private IssueStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcType(PostgreSQLEnumJdbcType.class)
+    @Column(nullable = false, columnDefinition = "issue_status")
+    private IssueStatus toStatus;
+
+    // Username of the admin who made the change
+    private String changedBy;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    // Time from the issue being reported until this change (the latency we report on)
+    @Column(nullable = false)
+    private long secondsSinceCreated;
+}
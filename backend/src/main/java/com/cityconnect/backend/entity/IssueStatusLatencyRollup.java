@@ -0,0 +1,51 @@
+package com.cityconnect.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Precomputed latency statistics for one day (UTC), category and metric.
+ * Built from issue_status_history by the StatusLatencyRollupJob; the admin
+ * analytics endpoint only ever reads these rows.
+ */
+@Data
+@Entity
+@Table(name = "issue_status_latency_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_latency_rollup_day_category_metric",
+                columnNames = {"day", "category", "metric"}))
+public class IssueStatusLatencyRollup {
+
+    public enum Metric {
+        ACKNOWLEDGE, // Reported -> first left PENDING
+        RESOLVE      // Reported -> RESOLVED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Metric metric;
+
+    private long sampleCount;
+    private long totalSeconds;
+    private long minSeconds;
+    private long maxSeconds;
+    @Column(name = "p50_seconds")
+    private double p50Seconds;
+
+    @Column(name = "p90_seconds")
+    private double p90Seconds;
+
+    private Instant computedAt;
+}
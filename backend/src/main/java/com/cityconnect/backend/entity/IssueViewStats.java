@@ -0,0 +1,31 @@
+package com.cityconnect.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * How often an issue has been viewed, and by roughly how many different users.
+ *
+ * Written only by the batched flush in IssueViewServiceImpl (with plain SQL, since
+ * the viewer sketch has to be merged under a row lock), so it is read-only here.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "issue_view_stats")
+public class IssueViewStats {
+
+    @Id
+    private Long issueId;
+
+    private long viewCount;
+
+    // HyperLogLog estimate (see util.HyperLogLog)
+    private long uniqueViewers;
+
+    // Last flush that added views
+    private Instant updatedAt;
+}
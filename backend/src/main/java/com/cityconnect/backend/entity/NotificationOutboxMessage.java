@@ -0,0 +1,62 @@
+package com.cityconnect.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * A notification waiting to be sent (transactional outbox).
+ *
+ * Rows are inserted in the same transaction as the change they announce, so a
+ * notification exists if and only if the change committed. The
+ * NotificationOutboxDispatcher sends them later and deletes them once delivered.
+ */
+@Data
+@Entity
+@Table(name = "notification_outbox",
+        indexes = @Index(name = "idx_notification_outbox_due", columnList = "status, available_at"))
+public class NotificationOutboxMessage {
+
+    public enum Status {
+        PENDING, // Waiting for (another) delivery attempt
+        DEAD     // Gave up after too many failed attempts; kept for inspection
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    // Plain ID rather than a relation: the account may be purged before we send
+    @Column(nullable = false)
+    private Long recipientUserId;
+
+    // Name of the NotificationChannel that delivers this row (e.g. "email", "webhook")
+    @Column(nullable = false, length = 32)
+    private String channel;
+
+    @Column(nullable = false, length = 64)
+    private String eventType;
+
+    // The domain event, as JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    private int attempts;
+
+    // Not sent before this time (coalescing window at first, then retry backoff)
+    @Column(name = "available_at", nullable = false)
+    private Instant availableAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    private Instant createdAt;
+}
@@ -3,15 +3,20 @@ package com.cityconnect.backend.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 
 @Data
 @Entity
+// Loaded on every authenticated request (by username), so kept in the second-level cache
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users") // Note: "user" is often a reserved keyword in SQL
 public class User implements UserDetails {
 
@@ -31,6 +36,9 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String role; // e.g., "ROLE_CITIZEN", "ROLE_ADMIN"
 
+    // Soft-delete tombstone for account deletion (purged in the background)
+    private Instant deletedAt;
+
     //A single user can have multiple Issues raised
     @OneToMany(mappedBy = "user")
     private List<Issue> issues;
@@ -74,6 +82,7 @@ public class User implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        // A deleted account can no longer be used, even before it is purged
+        return this.deletedAt == null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.cityconnect.backend.event;
+
+/**
+ * Published when an area subscription has been added or removed, so every node
+ * reloads it into its subscription index.
+ *
+ * @param subscriptionId The subscription.
+ * @param userId         The user it belongs to.
+ */
+public record AreaSubscriptionChangedEvent(
+        Long subscriptionId,
+        Long userId) implements DomainEvent {
+
+    @Override
+    public String coalesceKey() {
+        return "area-subscription:" + subscriptionId;
+    }
+}
@@ -0,0 +1,22 @@
+package com.cityconnect.backend.event;
+
+import java.time.Instant;
+
+/**
+ * Published whenever a comment is added to an issue.
+ *
+ * @param issueId        The issue that was commented on.
+ * @param reporterUserId The citizen who reported the issue.
+ * @param commentId      The new comment.
+ * @param authorUsername Who wrote the comment.
+ * @param content        The comment text.
+ * @param createdAt      When the comment was written.
+ */
+public record CommentCreatedEvent(
+        Long issueId,
+        Long reporterUserId,
+        Long commentId,
+        String authorUsername,
+        String content,
+        Instant createdAt) implements DomainEvent {
+}
@@ -0,0 +1,46 @@
+package com.cityconnect.backend.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * Something that happened to our data and that other parts of the app
+ * (on this node or on other nodes) may want to react to.
+ *
+ * Services publish domain events with ApplicationEventPublisher inside their
+ * transaction; DomainEventRelay hands them to the EventBus once it has committed.
+ * Events travel between nodes as JSON, so they must stay small and serializable.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = IssueCreatedEvent.class, name = "IssueCreated"),
+        @JsonSubTypes.Type(value = IssueStatusChangedEvent.class, name = "IssueStatusChanged"),
+        @JsonSubTypes.Type(value = IssueDeletedEvent.class, name = "IssueDeleted"),
+        @JsonSubTypes.Type(value = IssuesRemovedEvent.class, name = "IssuesRemoved"),
+        @JsonSubTypes.Type(value = IssueUpvotedEvent.class, name = "IssueUpvoted"),
+        @JsonSubTypes.Type(value = IssueEscalatedEvent.class, name = "IssueEscalated"),
+        @JsonSubTypes.Type(value = CommentCreatedEvent.class, name = "CommentCreated"),
+        @JsonSubTypes.Type(value = UserUpdatedEvent.class, name = "UserUpdated"),
+        @JsonSubTypes.Type(value = UserDeletedEvent.class, name = "UserDeleted"),
+        @JsonSubTypes.Type(value = AreaSubscriptionChangedEvent.class, name = "AreaSubscriptionChanged")
+})
+public interface DomainEvent {
+
+    /**
+     * Events with the same (non-null) key that are waiting to be sent together
+     * are merged into one with coalesce(). Null means "never merge".
+     */
+    @JsonIgnore
+    default String coalesceKey() {
+        return null;
+    }
+
+    /**
+     * Merges a later event with the same coalesceKey into this one.
+     * By default the later event simply replaces the earlier one.
+     */
+    default DomainEvent coalesce(DomainEvent later) {
+        return later;
+    }
+}
@@ -0,0 +1,22 @@
+package com.cityconnect.backend.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Forwards domain events to the EventBus once the transaction that
+ * published them has committed (rolled-back changes are never announced).
+ */
+@Component
+public class DomainEventRelay {
+
+    @Autowired
+    private EventBus eventBus;
+
+    // fallbackExecution: events published outside a transaction are forwarded right away
+    @TransactionalEventListener(fallbackExecution = true)
+    public void relay(DomainEvent event) {
+        eventBus.publish(event);
+    }
+}
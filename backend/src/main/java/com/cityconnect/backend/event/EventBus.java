@@ -0,0 +1,30 @@
+package com.cityconnect.backend.event;
+
+import java.util.function.Consumer;
+
+/**
+ * Small in-app event bus for committed domain events.
+ *
+ * Subscribers receive every event of their type, whichever node it was published on,
+ * so in-memory state (caches, SSE clients, counters) can be kept fresh everywhere.
+ * Delivery is best effort: events published while a node is disconnected are not replayed.
+ *
+ * Implementations:
+ *  - PostgresEventBus (events.bus.type=postgres): fans out over Postgres LISTEN/NOTIFY.
+ *  - LoopbackEventBus (events.bus.type=loopback, the default): this node only; for tests and single-node runs.
+ */
+public interface EventBus {
+
+    /**
+     * Publishes an event that has already been committed.
+     * Services don't call this directly; they publish through ApplicationEventPublisher
+     * and DomainEventRelay forwards the event after commit.
+     */
+    void publish(DomainEvent event);
+
+    /**
+     * Registers a listener for one type of event (and its subtypes).
+     * Listeners must be quick and must not throw; they may be called from a bus thread.
+     */
+    <T extends DomainEvent> void subscribe(Class<T> type, Consumer<? super T> listener);
+}
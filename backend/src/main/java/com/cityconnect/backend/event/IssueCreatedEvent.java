@@ -0,0 +1,22 @@
+package com.cityconnect.backend.event;
+
+import java.time.Instant;
+
+/**
+ * Published when a new issue has been stored.
+ *
+ * @param issueId        The new issue.
+ * @param reporterUserId The citizen who reported it.
+ * @param category       The issue's category.
+ * @param latitude       Where it was reported (null if no location was given).
+ * @param longitude      Where it was reported (null if no location was given).
+ * @param createdAt      When it was stored.
+ */
+public record IssueCreatedEvent(
+        Long issueId,
+        Long reporterUserId,
+        String category,
+        Double latitude,
+        Double longitude,
+        Instant createdAt) implements DomainEvent {
+}
@@ -0,0 +1,19 @@
+package com.cityconnect.backend.event;
+
+import java.time.Instant;
+
+/**
+ * Published when an issue has been (soft-)deleted.
+ *
+ * @param issueId   The deleted issue.
+ * @param deletedAt When it was deleted.
+ */
+public record IssueDeletedEvent(
+        Long issueId,
+        Instant deletedAt) implements DomainEvent {
+
+    @Override
+    public String coalesceKey() {
+        return "issue-deleted:" + issueId;
+    }
+}
@@ -0,0 +1,21 @@
+package com.cityconnect.backend.event;
+
+import java.time.Instant;
+
+/**
+ * Published when an issue was still PENDING after its category's deadline
+ * (once per issue, see SlaEscalationServiceImpl).
+ *
+ * @param issueId        The overdue issue.
+ * @param reporterUserId The citizen who reported it.
+ * @param category       The issue's category (whose SLA it missed).
+ * @param deadline       When it should have been picked up.
+ * @param escalatedAt    When it was escalated.
+ */
+public record IssueEscalatedEvent(
+        Long issueId,
+        Long reporterUserId,
+        String category,
+        Instant deadline,
+        Instant escalatedAt) implements DomainEvent {
+}
@@ -0,0 +1,36 @@
+package com.cityconnect.backend.event;
+
+import java.time.Instant;
+
+/**
+ * Published whenever an issue's status changes.
+ * Several changes to the same issue that are sent together are merged
+ * into one (from the first old status to the last new status).
+ *
+ * @param issueId        The issue that changed.
+ * @param reporterUserId The citizen who reported it (the main audience of the event).
+ * @param oldStatus      Status before the change.
+ * @param newStatus      Status after the change.
+ * @param changedBy      Username of the admin who made the change.
+ * @param changedAt      When the change happened.
+ */
+public record IssueStatusChangedEvent(
+        Long issueId,
+        Long reporterUserId,
+        String oldStatus,
+        String newStatus,
+        String changedBy,
+        Instant changedAt) implements DomainEvent {
+
+    @Override
+    public String coalesceKey() {
+        return "issue-status:" + issueId;
+    }
+
+    @Override
+    public DomainEvent coalesce(DomainEvent later) {
+        IssueStatusChangedEvent next = (IssueStatusChangedEvent) later;
+        return new IssueStatusChangedEvent(issueId, reporterUserId, oldStatus, next.newStatus(),
+                next.changedBy(), next.changedAt());
+    }
+}
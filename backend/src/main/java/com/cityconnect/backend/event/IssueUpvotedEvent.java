@@ -0,0 +1,22 @@
+package com.cityconnect.backend.event;
+
+import java.time.Instant;
+
+/**
+ * Published when new upvotes for an issue have been written to the database
+ * (by the batched flush, so one event can stand for many votes).
+ *
+ * @param issueId     The upvoted issue.
+ * @param upvoteCount Its stored total after the flush.
+ * @param flushedAt   When the votes were written.
+ */
+public record IssueUpvotedEvent(
+        Long issueId,
+        long upvoteCount,
+        Instant flushedAt) implements DomainEvent {
+
+    @Override
+    public String coalesceKey() {
+        return "issue-upvoted:" + issueId;
+    }
+}
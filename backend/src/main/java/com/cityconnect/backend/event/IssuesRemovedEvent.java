@@ -0,0 +1,33 @@
+package com.cityconnect.backend.event;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Published when one set-based statement took many issues out of the live view: the
+ * issues of a deleted account, or a batch moved by the archiver or removed by the purger.
+ * Lets every node evict exactly those issues from its caches.
+ *
+ * @param issueIds  The issues (at most MAX_IDS).
+ * @param removedAt When they were removed.
+ */
+public record IssuesRemovedEvent(
+        List<Long> issueIds,
+        Instant removedAt) implements DomainEvent {
+
+    // 500 IDs of up to 10 digits keep one event well under the NOTIFY payload limit
+    public static final int MAX_IDS = 500;
+
+    /**
+     * The events for any number of issues, MAX_IDS at a time.
+     */
+    public static List<IssuesRemovedEvent> of(List<Long> issueIds, Instant removedAt) {
+        List<IssuesRemovedEvent> events = new ArrayList<>();
+        for (int from = 0; from < issueIds.size(); from += MAX_IDS) {
+            List<Long> chunk = issueIds.subList(from, Math.min(from + MAX_IDS, issueIds.size()));
+            events.add(new IssuesRemovedEvent(List.copyOf(chunk), removedAt));
+        }
+        return events;
+    }
+}
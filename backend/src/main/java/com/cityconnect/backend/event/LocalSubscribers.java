@@ -0,0 +1,37 @@
+package com.cityconnect.backend.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The listeners registered on this node, shared by the EventBus implementations.
+ */
+class LocalSubscribers {
+
+    private record Subscription<T extends DomainEvent>(Class<T> type, Consumer<? super T> listener) {
+
+        void deliver(DomainEvent event) {
+            if (type.isInstance(event)) {
+                listener.accept(type.cast(event));
+            }
+        }
+    }
+
+    private final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+
+    <T extends DomainEvent> void add(Class<T> type, Consumer<? super T> listener) {
+        subscriptions.add(new Subscription<>(type, listener));
+    }
+
+    void deliver(DomainEvent event) {
+        for (Subscription<?> subscription : subscriptions) {
+            try {
+                subscription.deliver(event);
+            } catch (RuntimeException e) {
+                // One broken listener must not keep the event from the others
+                System.err.println("Event listener failed for " + event + ": " + e.getMessage());
+            }
+        }
+    }
+}
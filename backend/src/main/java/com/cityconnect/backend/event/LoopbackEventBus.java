@@ -0,0 +1,28 @@
+package com.cityconnect.backend.event;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * EventBus that only reaches this node. Events are delivered synchronously
+ * on the publishing thread, which keeps tests deterministic.
+ * Used for tests and single-node runs.
+ */
+@Component
+@ConditionalOnProperty(name = "events.bus.type", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackEventBus implements EventBus {
+
+    private final LocalSubscribers subscribers = new LocalSubscribers();
+
+    @Override
+    public void publish(DomainEvent event) {
+        subscribers.deliver(event);
+    }
+
+    @Override
+    public <T extends DomainEvent> void subscribe(Class<T> type, Consumer<? super T> listener) {
+        subscribers.add(type, listener);
+    }
+}
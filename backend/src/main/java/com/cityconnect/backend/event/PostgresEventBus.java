@@ -0,0 +1,291 @@
+package com.cityconnect.backend.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * EventBus that reaches every backend instance through Postgres LISTEN/NOTIFY.
+ *
+ * Publishing only queues the event. A sender thread collects events for up to
+ * 'events.bus.flush-interval-ms', merges events with the same coalesceKey, delivers
+ * the batch to this node's subscribers and sends it to the other nodes with as few
+ * NOTIFY statements as the 8000-byte payload limit allows.
+ * A listener thread keeps one pooled connection LISTENing and delivers the
+ * batches sent by other nodes (our own notifications are ignored).
+ */
+@Component
+@ConditionalOnProperty(name = "events.bus.type", havingValue = "postgres")
+public class PostgresEventBus implements EventBus {
+
+    private static final String CHANNEL = "cityconnect_events";
+
+    // Postgres rejects NOTIFY payloads of 8000 bytes or more; keep room for the envelope
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // How long the sender waits for more events before sending a batch
+    @Value("${events.bus.flush-interval-ms:20}")
+    private long flushIntervalMs;
+
+    @Value("${events.bus.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${events.bus.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    // Lets us recognize (and skip) the notifications we sent ourselves
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final LocalSubscribers subscribers = new LocalSubscribers();
+    private final BlockingQueue<DomainEvent> outgoing = new LinkedBlockingQueue<>();
+    private volatile boolean running = true;
+    private Thread senderThread;
+    private Thread listenerThread;
+    private ObjectWriter eventWriter;
+
+    private final Counter publishedEvents;
+    private final Counter coalescedEvents;
+    private final Counter receivedEvents;
+    private final Counter notifications;
+
+    public PostgresEventBus(MeterRegistry meterRegistry) {
+        this.publishedEvents = Counter.builder("events.bus.published")
+                .description("Domain events published on this node")
+                .register(meterRegistry);
+        this.coalescedEvents = Counter.builder("events.bus.coalesced")
+                .description("Domain events merged into a later event before sending")
+                .register(meterRegistry);
+        this.receivedEvents = Counter.builder("events.bus.received")
+                .description("Domain events received from other nodes")
+                .register(meterRegistry);
+        this.notifications = Counter.builder("events.bus.notifications")
+                .description("NOTIFY statements sent")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        eventWriter = objectMapper.writerFor(DomainEvent.class);
+
+        senderThread = new Thread(this::sendLoop, "event-bus-sender");
+        senderThread.setDaemon(true);
+        senderThread.start();
+
+        listenerThread = new Thread(this::listenLoop, "event-bus-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        senderThread.interrupt();
+        senderThread.join(TimeUnit.SECONDS.toMillis(5)); // Lets it send what is still queued
+        listenerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    public void publish(DomainEvent event) {
+        publishedEvents.increment();
+        outgoing.add(event);
+    }
+
+    @Override
+    public <T extends DomainEvent> void subscribe(Class<T> type, Consumer<? super T> listener) {
+        subscribers.add(type, listener);
+    }
+
+    // --- Sending ---
+
+    private void sendLoop() {
+        List<DomainEvent> batch = new ArrayList<>();
+        while (running) {
+            try {
+                // 1. Wait for the first event, then give the rest of the batch a moment to arrive
+                batch.add(outgoing.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < maxBatchSize) {
+                    DomainEvent next = outgoing.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutting down: send whatever is left below
+                outgoing.drainTo(batch);
+            }
+
+            // 2. Local subscribers first, then the other nodes
+            if (!batch.isEmpty()) {
+                Collection<DomainEvent> events = coalesce(batch);
+                events.forEach(subscribers::deliver);
+                sendToOtherNodes(events);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Merges events with the same coalesceKey, keeping the position of the first one.
+     */
+    private Collection<DomainEvent> coalesce(List<DomainEvent> batch) {
+        Map<Object, DomainEvent> merged = new LinkedHashMap<>();
+        for (DomainEvent event : batch) {
+            Object key = event.coalesceKey() != null ? event.coalesceKey() : new Object();
+            DomainEvent earlier = merged.get(key);
+            merged.put(key, earlier != null ? earlier.coalesce(event) : event);
+        }
+        coalescedEvents.increment(batch.size() - merged.size());
+        return merged.values();
+    }
+
+    private void sendToOtherNodes(Collection<DomainEvent> events) {
+        String prefix = "{\"origin\":\"" + nodeId + "\",\"events\":[";
+        String suffix = "]}";
+        int overhead = prefix.length() + suffix.length();
+
+        // Pack as many events into each NOTIFY as fit under the payload limit
+        StringBuilder payload = new StringBuilder(prefix);
+        int payloadBytes = overhead;
+        int count = 0;
+        for (DomainEvent event : events) {
+            String json;
+            try {
+                json = eventWriter.writeValueAsString(event);
+            } catch (JsonProcessingException e) {
+                System.err.println("Could not serialize event " + event + ": " + e.getMessage());
+                continue;
+            }
+            int jsonBytes = json.getBytes(StandardCharsets.UTF_8).length;
+            if (overhead + jsonBytes > MAX_PAYLOAD_BYTES) {
+                System.err.println("Event too large for NOTIFY, only delivered locally: " + event);
+                continue;
+            }
+            if (payloadBytes + jsonBytes + 1 > MAX_PAYLOAD_BYTES) {
+                notify(payload.append(suffix).toString());
+                payload.setLength(prefix.length());
+                payloadBytes = overhead;
+                count = 0;
+            }
+            if (count > 0) {
+                payload.append(',');
+                payloadBytes++;
+            }
+            payload.append(json);
+            payloadBytes += jsonBytes;
+            count++;
+        }
+        if (count > 0) {
+            notify(payload.append(suffix).toString());
+        }
+    }
+
+    private void notify(String payload) {
+        try {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+            notifications.increment();
+        } catch (DataAccessException e) {
+            // Best effort: the other nodes miss this batch, this node already has it
+            System.err.println("Could not send events to other nodes: " + e.getMessage());
+        }
+    }
+
+    // --- Receiving ---
+
+    private void listenLoop() {
+        while (running) {
+            // One connection is taken from the pool for as long as the node runs
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+
+                while (running) {
+                    // Wakes up at least once a second to notice shutdown (and dead connections)
+                    PGNotification[] received = pgConnection.getNotifications(1000);
+                    if (received != null) {
+                        for (PGNotification notification : received) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                // Events sent while we are disconnected are lost (delivery is best effort)
+                System.err.println("Event bus lost its LISTEN connection, retrying in "
+                        + reconnectDelayMs + " ms: " + e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        JsonNode envelope;
+        try {
+            envelope = objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            System.err.println("Ignoring unreadable event notification: " + e.getMessage());
+            return;
+        }
+        if (nodeId.equals(envelope.path("origin").asText())) {
+            return; // Already delivered locally by the sender
+        }
+
+        for (JsonNode node : envelope.path("events")) {
+            try {
+                DomainEvent event = objectMapper.treeToValue(node, DomainEvent.class);
+                receivedEvents.increment();
+                subscribers.deliver(event);
+            } catch (JsonProcessingException e) {
+                // e.g. a newer node sending an event type we don't know yet
+                System.err.println("Ignoring unreadable event: " + e.getOriginalMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.cityconnect.backend.event;
+
+import java.time.Instant;
+
+/**
+ * Published when an account (and with it all of its issues) has been (soft-)deleted.
+ *
+ * @param userId    The deleted account.
+ * @param deletedAt When it was deleted.
+ */
+public record UserDeletedEvent(
+        Long userId,
+        Instant deletedAt) implements DomainEvent {
+
+    @Override
+    public String coalesceKey() {
+        return "user-deleted:" + userId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cityconnect.backend.event;
+
+import java.time.Instant;
+
+/**
+ * Published when a user's profile has changed.
+ *
+ * @param userId    The user whose profile changed.
+ * @param updatedAt When it changed.
+ */
+public record UserUpdatedEvent(
+        Long userId,
+        Instant updatedAt) implements DomainEvent {
+
+    @Override
+    public String coalesceKey() {
+        return "user-updated:" + userId;
+    }
+}
@@ -0,0 +1,32 @@
+package com.cityconnect.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception for requests that are well-formed JSON but
+ * don't make sense for the business logic (e.g., conflicting parameters).
+ *
+ * When this exception is thrown from a controller, Spring will automatically
+ * return a 400 BAD_REQUEST HTTP status code.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BadRequestException extends RuntimeException {
+
+    /**
+     * Constructor that takes a custom error message.
+     * @param message The detail message.
+     */
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor that takes a message and the original cause.
+     * @param message The detail message.
+     * @param cause The original throwable cause.
+     */
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
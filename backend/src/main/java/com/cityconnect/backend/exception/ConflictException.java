@@ -0,0 +1,24 @@
+package com.cityconnect.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception for a change that lost a race: the resource was changed by
+ * someone else since the client read it, or another admin is working on it.
+ * The client should reload it and decide again.
+ *
+ * When this exception is thrown from a controller, Spring will automatically
+ * return a 409 CONFLICT HTTP status code.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+
+    /**
+     * Constructor that takes a custom error message.
+     * @param message The detail message.
+     */
+    public ConflictException(String message) {
+        super(message);
+    }
+}
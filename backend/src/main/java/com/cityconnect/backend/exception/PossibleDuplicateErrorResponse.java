@@ -0,0 +1,27 @@
+package com.cityconnect.backend.exception;
+
+import com.cityconnect.backend.dto.DuplicateCandidate;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The standard error response, plus the existing issues a rejected submission
+ * probably duplicates.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class PossibleDuplicateErrorResponse extends ErrorResponse {
+
+    private List<DuplicateCandidate> duplicates;
+
+    public PossibleDuplicateErrorResponse(Instant timestamp, int status, String error, String message, String path,
+                                          List<DuplicateCandidate> duplicates) {
+        super(timestamp, status, error, message, path);
+        this.duplicates = duplicates;
+    }
+}
@@ -0,0 +1,34 @@
+package com.cityconnect.backend.exception;
+
+import com.cityconnect.backend.dto.DuplicateCandidate;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.List;
+
+/**
+ * Custom exception for a new issue that looks like one reported nearby shortly before.
+ * Nothing has been stored; the candidates are sent back so the user can pick one,
+ * or submit again without the duplicate check.
+ *
+ * When this exception is thrown from a controller, Spring will automatically
+ * return a 409 CONFLICT HTTP status code.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class PossibleDuplicateException extends RuntimeException {
+
+    private final List<DuplicateCandidate> candidates;
+
+    /**
+     * @param message The detail message.
+     * @param candidates The likely duplicates, best match first.
+     */
+    public PossibleDuplicateException(String message, List<DuplicateCandidate> candidates) {
+        super(message);
+        this.candidates = candidates;
+    }
+
+    public List<DuplicateCandidate> getCandidates() {
+        return candidates;
+    }
+}
@@ -0,0 +1,32 @@
+package com.cityconnect.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception for when the server is temporarily overloaded
+ * (e.g., the issue intake queue is full) and the client should retry later.
+ *
+ * When this exception is thrown from a controller, Spring will automatically
+ * return a 503 SERVICE_UNAVAILABLE HTTP status code.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+    // Suggested wait before retrying, sent as the Retry-After header
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor that takes a custom error message and a retry hint.
+     * @param message The detail message.
+     * @param retryAfterSeconds How long the client should wait before retrying.
+     */
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
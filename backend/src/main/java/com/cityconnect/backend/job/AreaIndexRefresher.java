@@ -0,0 +1,41 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.config.SchedulingConfig;
+import com.cityconnect.backend.service.AreaSubscriptionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the in-memory area subscription index up to date (see AreaSubscriptionServiceImpl).
+ *
+ * refresh() applies the subscription changes announced on the event bus every second
+ * or so; resync() reloads all subscriptions now and then, for events this node missed.
+ */
+@Component
+public class AreaIndexRefresher {
+
+    @Autowired
+    private AreaSubscriptionService areaSubscriptionService;
+
+    @Scheduled(fixedDelayString = "${areas.refresh-interval-ms:1000}")
+    public void refresh() {
+        try {
+            areaSubscriptionService.refresh();
+        } catch (DataAccessException e) {
+            System.err.println("Area index refresh failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${areas.resync-interval-ms:600000}",
+            initialDelayString = "${areas.resync-interval-ms:600000}",
+            scheduler = SchedulingConfig.BULK_JOBS)
+    public void resync() {
+        try {
+            areaSubscriptionService.resync();
+        } catch (DataAccessException e) {
+            System.err.println("Area index resync failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+}
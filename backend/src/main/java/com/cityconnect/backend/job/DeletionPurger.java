@@ -0,0 +1,237 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.cluster.ClusterJob;
+import com.cityconnect.backend.cluster.JobCoordinator;
+import com.cityconnect.backend.config.SchedulingConfig;
+import com.cityconnect.backend.config.SecondLevelCacheInvalidator;
+import com.cityconnect.backend.dto.PurgeStatusResponse;
+import com.cityconnect.backend.event.IssuesRemovedEvent;
+import com.cityconnect.backend.repository.ArchivedCommentRepository;
+import com.cityconnect.backend.repository.ArchivedIssueRepository;
+import com.cityconnect.backend.repository.CommentRepository;
+import com.cityconnect.backend.repository.IssueRepository;
+import com.cityconnect.backend.repository.UserRepository;
+import com.cityconnect.backend.service.FileStorageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job that physically removes soft-deleted issues and accounts.
+ *
+ * IssueService.deleteIssue and UserService.deleteUserProfile only set a
+ * 'deletedAt' tombstone. This purger then removes the rows with set-based
+ * DELETE statements, one bounded batch per (short) transaction, and deletes
+ * image files only AFTER the batch has committed. Each batch is fenced with the job's
+ * lease, so a node that lost it stops without deleting anything more.
+ *
+ * Issue rows are deleted with plain SQL, so only the purged issues are evicted from
+ * the second-level cache (here, and on the other nodes through IssuesRemovedEvent).
+ */
+@Component
+public class DeletionPurger {
+
+    private static final String DELETE_ISSUES_SQL = "DELETE FROM issues WHERE id = ANY (?)";
+    private static final String DELETE_ARCHIVED_ISSUES_SQL = "DELETE FROM issues_archive WHERE id = ANY (?)";
+    private static final String DELETE_ARCHIVED_COMMENTS_OF_ISSUES_SQL =
+            "DELETE FROM comments_archive WHERE issue_id = ANY (?)";
+    private static final String DELETE_ARCHIVED_COMMENTS_SQL = "DELETE FROM comments_archive WHERE id = ANY (?)";
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArchivedIssueRepository archivedIssueRepository;
+
+    @Autowired
+    private ArchivedCommentRepository archivedCommentRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Value("${purge.batch-size:200}")
+    private int batchSize;
+
+    // Caps the work done per run so one huge account can't monopolize the job
+    @Value("${purge.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Progress counters, exposed to admins via getStatus()
+    private final AtomicLong purgedIssues = new AtomicLong();
+    private final AtomicLong purgedComments = new AtomicLong();
+    private final AtomicLong purgedUsers = new AtomicLong();
+    private final AtomicLong deletedFiles = new AtomicLong();
+    private volatile Instant lastRunAt;
+
+    public DeletionPurger(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @ClusterJob("deletion-purger")
+    @Scheduled(fixedDelayString = "${purge.interval-ms:10000}", scheduler = SchedulingConfig.BULK_JOBS)
+    public void purge() {
+        int batches = 0;
+
+        // 1. Issues first: users can only be removed once their issues are gone
+        while (batches < maxBatchesPerRun && purgeIssueBatch()) {
+            batches++;
+        }
+
+        // 2. Then accounts whose issues have all been purged
+        while (batches < maxBatchesPerRun && purgeUserBatch()) {
+            batches++;
+        }
+
+        lastRunAt = Instant.now();
+    }
+
+    /**
+     * Removes one batch of tombstoned issues and their comments.
+     * @return true if a batch was processed (so there may be more work).
+     */
+    private boolean purgeIssueBatch() {
+        List<Long> ids = issueRepository.findDeletedIds(PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return false;
+        }
+
+        // 1. Delete comments, then issues, in one short transaction.
+        //    We remember the image URLs so the files can be removed after commit.
+        List<String> imageUrls = transactionTemplate.execute(status -> {
+            checkFence();
+            List<String> urls = issueRepository.findImageUrlsByIdIn(ids);
+            purgedComments.addAndGet(commentRepository.deleteByIssueIdIn(ids));
+            purgedIssues.addAndGet(deleteByIds(DELETE_ISSUES_SQL, ids));
+            cacheInvalidator.evictIssues(ids);
+            IssuesRemovedEvent.of(ids, Instant.now()).forEach(eventPublisher::publishEvent);
+            return urls;
+        });
+
+        // 2. The rows are gone for good; now it's safe to delete the files
+        deleteFiles(imageUrls);
+        return true;
+    }
+
+    /**
+     * Removes one batch of tombstoned accounts (and the comments they wrote on other issues).
+     * @return true if any account or comment was removed.
+     */
+    private boolean purgeUserBatch() {
+        List<Long> userIds = userRepository.findDeletedIds(PageRequest.of(0, batchSize));
+        boolean progressed = false;
+
+        for (Long userId : userIds) {
+            // Wait until the issue purge has caught up with this user
+            if (issueRepository.existsByUserId(userId)) {
+                continue;
+            }
+
+            // 1. Remove the user's archived issues (with their comments and images)
+            List<Long> archivedIds = archivedIssueRepository.findIdsByUserId(userId, PageRequest.of(0, batchSize));
+            if (!archivedIds.isEmpty()) {
+                List<String> imageUrls = transactionTemplate.execute(status -> {
+                    checkFence();
+                    List<String> urls = archivedIssueRepository.findImageUrlsByIdIn(archivedIds);
+                    purgedComments.addAndGet(deleteByIds(DELETE_ARCHIVED_COMMENTS_OF_ISSUES_SQL, archivedIds));
+                    purgedIssues.addAndGet(deleteByIds(DELETE_ARCHIVED_ISSUES_SQL, archivedIds));
+                    return urls;
+                });
+                deleteFiles(imageUrls);
+                return true; // Come back for the rest in the next batch
+            }
+
+            // 2. Remove the user's comments on other issues (live, then archived) in bounded batches
+            List<Long> commentIds = commentRepository.findIdsByUserId(userId, PageRequest.of(0, batchSize));
+            if (!commentIds.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    checkFence();
+                    purgedComments.addAndGet(commentRepository.deleteByIdIn(commentIds));
+                });
+                return true;
+            }
+            List<Long> archivedCommentIds = archivedCommentRepository.findIdsByUserId(userId, PageRequest.of(0, batchSize));
+            if (!archivedCommentIds.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    checkFence();
+                    purgedComments.addAndGet(deleteByIds(DELETE_ARCHIVED_COMMENTS_SQL, archivedCommentIds));
+                });
+                return true;
+            }
+
+            // 3. Nothing references the account anymore, remove it
+            transactionTemplate.executeWithoutResult(status -> {
+                checkFence();
+                purgedUsers.addAndGet(userRepository.deleteByIdIn(List.of(userId)));
+            });
+            progressed = true;
+        }
+        return progressed;
+    }
+
+    // First thing in each batch's transaction: holds the lease row (FOR SHARE) until
+    // commit, so no other node can take the job over before the batch is committed
+    private void checkFence() {
+        jobCoordinator.checkFence(jobCoordinator.currentLease());
+    }
+
+    private int deleteByIds(String sql, List<Long> ids) {
+        return jdbcTemplate.update(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())));
+    }
+
+    private void deleteFiles(List<String> imageUrls) {
+        if (imageUrls == null) {
+            return;
+        }
+        for (String imageUrl : imageUrls) {
+            if (!imageUrl.isBlank()) {
+                fileStorageService.deleteFile(imageUrl);
+                deletedFiles.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Snapshot of the purge progress for the admin status endpoint.
+     */
+    public PurgeStatusResponse getStatus() {
+        return new PurgeStatusResponse(
+                issueRepository.countByDeletedAtIsNotNull(),
+                userRepository.countByDeletedAtIsNotNull(),
+                purgedIssues.get(),
+                purgedComments.get(),
+                purgedUsers.get(),
+                deletedFiles.get(),
+                lastRunAt
+        );
+    }
+}
@@ -0,0 +1,42 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.config.SchedulingConfig;
+import com.cityconnect.backend.service.DuplicateIssueService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the in-memory duplicate index up to date (see DuplicateIssueServiceImpl).
+ *
+ * refresh() applies the changes announced on the event bus every second or so;
+ * resync() reloads the whole window now and then, which also picks up events this
+ * node missed.
+ */
+@Component
+public class DuplicateIndexRefresher {
+
+    @Autowired
+    private DuplicateIssueService duplicateIssueService;
+
+    @Scheduled(fixedDelayString = "${issues.duplicates.refresh-interval-ms:1000}")
+    public void refresh() {
+        try {
+            duplicateIssueService.refresh();
+        } catch (DataAccessException e) {
+            System.err.println("Duplicate index refresh failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${issues.duplicates.resync-interval-ms:600000}",
+            initialDelayString = "${issues.duplicates.resync-interval-ms:600000}",
+            scheduler = SchedulingConfig.BULK_JOBS)
+    public void resync() {
+        try {
+            duplicateIssueService.resync();
+        } catch (DataAccessException e) {
+            System.err.println("Duplicate index resync failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.cluster.ClusterJob;
+import com.cityconnect.backend.config.SchedulingConfig;
+import com.cityconnect.backend.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes expired idempotency keys (see IdempotencyServiceImpl), so the table only
+ * holds the last 'idempotency.ttl-hours' of create requests.
+ */
+@Component
+public class IdempotencyKeyPruner {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @ClusterJob("idempotency-key-pruner")
+    @Scheduled(fixedDelayString = "${idempotency.prune-interval-ms:600000}",
+            initialDelayString = "${idempotency.prune-interval-ms:600000}",
+            scheduler = SchedulingConfig.BULK_JOBS)
+    public void prune() {
+        try {
+            idempotencyService.pruneExpired();
+        } catch (DataAccessException e) {
+            System.err.println("Idempotency key pruning failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+}
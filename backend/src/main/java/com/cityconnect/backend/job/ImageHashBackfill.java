@@ -0,0 +1,115 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.config.SchedulingConfig;
+import com.cityconnect.backend.service.FileStorageService;
+import com.cityconnect.backend.service.ImageHashService;
+import com.cityconnect.backend.util.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Background jobs for the image hashes (see ImageHashServiceImpl).
+ *
+ * The backfill walks the uploads directory like the OrphanedUploadSweeper, checks
+ * files in batches against image_hashes with one query per batch, and hashes the
+ * missing ones at a limited rate: files from before hashing existed, uploads the
+ * queue had no room for, and ones lost in a crash. The refresh loads the hashes
+ * other instances have saved.
+ */
+@Component
+public class ImageHashBackfill {
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ImageHashService imageHashService;
+
+    @Value("${images.backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${images.backfill.batch-size:500}")
+    private int batchSize;
+
+    // Decoding a photo is CPU-heavy; this keeps a backfill from competing with requests
+    @Value("${images.backfill.max-files-per-second:20}")
+    private int maxFilesPerSecond;
+
+    private final Counter backfilledFiles;
+
+    public ImageHashBackfill(MeterRegistry meterRegistry) {
+        this.backfilledFiles = Counter.builder("images.backfill.hashed")
+                .description("Uploads hashed by the backfill")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${images.backfill.interval-ms:3600000}",
+            initialDelayString = "${images.backfill.initial-delay-ms:60000}",
+            scheduler = SchedulingConfig.BULK_JOBS)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        Path root = fileStorageService.getRootLocation();
+        RateLimiter limiter = new RateLimiter(maxFilesPerSecond);
+        Map<String, Path> batch = new LinkedHashMap<>();
+        long hashed = 0;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, Files::isRegularFile)) {
+            for (Path file : files) {
+                batch.put(fileStorageService.toWebPath(file.getFileName().toString()), file);
+                if (batch.size() >= batchSize) {
+                    hashed += hashMissing(batch, limiter);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                hashed += hashMissing(batch, limiter);
+            }
+        } catch (IOException e) {
+            System.err.println("Image hash backfill failed to read " + root + ": " + e.getMessage());
+        } catch (DataAccessException e) {
+            System.err.println("Image hash backfill failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+
+        if (hashed > 0) {
+            System.out.println("Image hash backfill hashed " + hashed + " file(s).");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${images.refresh-interval-ms:30000}",
+            initialDelayString = "${images.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            imageHashService.refresh();
+        } catch (DataAccessException e) {
+            System.err.println("Image hash refresh failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private long hashMissing(Map<String, Path> batch, RateLimiter limiter) {
+        long hashed = 0;
+        for (String imageUrl : imageHashService.findUnhashed(batch.keySet())) {
+            limiter.acquire();
+            Path file = batch.get(imageUrl);
+            if (Files.exists(file)) { // Not deleted in the meantime
+                imageHashService.hash(imageUrl, file);
+                backfilledFiles.increment();
+                hashed++;
+            }
+        }
+        return hashed;
+    }
+}
@@ -0,0 +1,38 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.service.IssueIntakeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background writer for the issue intake journal.
+ *
+ * Each run drains batches until the journal is empty (or the per-run cap is hit).
+ * There is one writer per instance because the journal is local to the instance;
+ * if the database is unavailable the checkpoint doesn't move and the next run retries.
+ */
+@Component
+public class IntakeJournalDrainer {
+
+    @Autowired
+    private IssueIntakeService issueIntakeService;
+
+    @Value("${issues.intake.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${issues.intake.drain-interval-ms:200}")
+    public void drain() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (issueIntakeService.drainBatch() == 0) {
+                    return;
+                }
+            }
+        } catch (DataAccessException e) {
+            System.err.println("Intake drain failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+}
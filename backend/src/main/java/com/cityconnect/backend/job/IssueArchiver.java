@@ -0,0 +1,193 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.cluster.ClusterJob;
+import com.cityconnect.backend.cluster.JobCoordinator;
+import com.cityconnect.backend.config.SchedulingConfig;
+import com.cityconnect.backend.config.SecondLevelCacheInvalidator;
+import com.cityconnect.backend.event.IssuesRemovedEvent;
+import com.cityconnect.backend.repository.IssueRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Background job that moves issues resolved more than 'archive.resolved-after-days'
+ * ago (and their comments) out of the live tables into issues_archive / comments_archive.
+ *
+ * Keeps the tables behind the dashboard small: their indexes only cover open and
+ * recently resolved issues. Each batch runs in its own short transaction: lock the
+ * oldest candidates (SKIP LOCKED), create the monthly partitions they need, then
+ * move comments and issues with one INSERT ... SELECT FROM (DELETE ... RETURNING)
+ * statement each. Archived issues stay readable (IssueService.getIssueById, export).
+ *
+ * The statements are plain SQL: only the moved issues are evicted from the second-level
+ * cache, here and (through IssuesRemovedEvent) on the other nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "archive.enabled", havingValue = "true", matchIfMissing = true)
+public class IssueArchiver {
+
+    // Serializes partition creation (CREATE TABLE IF NOT EXISTS can still race) across nodes
+    private static final long PARTITION_LOCK_KEY = 0x61726368697665L; // "archive"
+
+    // Comments first (they reference the issue rows), each tagged with its issue's
+    // resolved_at (the partition key)
+    private static final String MOVE_COMMENTS_SQL =
+            "WITH moved AS (" +
+            "  DELETE FROM comments c USING issues i " +
+            "  WHERE c.issue_id = i.id AND i.id = ANY (?) " +
+            "  RETURNING c.id, c.issue_id, c.user_id, c.content, c.created_at, i.resolved_at) " +
+            "INSERT INTO comments_archive (id, issue_id, user_id, content, created_at, issue_resolved_at) " +
+            "SELECT * FROM moved";
+
+    private static final String MOVE_ISSUES_SQL =
+            "WITH moved AS (" +
+            "  DELETE FROM issues WHERE id = ANY (?) " +
+            "  RETURNING id, title, description, category_id, status, latitude, longitude, image_url, " +
+            "            intake_ticket, user_id, created_at, resolved_at, upvote_count) " +
+            "INSERT INTO issues_archive (id, title, description, category_id, status, latitude, longitude, image_url, " +
+            "                            intake_ticket, user_id, created_at, resolved_at, upvote_count, archived_at) " +
+            "SELECT moved.*, ? FROM moved";
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Value("${archive.resolved-after-days:180}")
+    private int resolvedAfterDays;
+
+    @Value("${archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Partitions known to exist ('YYYY-MM'), so we only issue DDL for new months
+    private final Set<String> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    private final Counter archivedIssues;
+    private final Counter archivedComments;
+
+    public IssueArchiver(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedIssues = Counter.builder("issues.archive.issues")
+                .description("Resolved issues moved to the archive")
+                .register(meterRegistry);
+        this.archivedComments = Counter.builder("issues.archive.comments")
+                .description("Comments moved to the archive with their issue")
+                .register(meterRegistry);
+    }
+
+    @ClusterJob("issue-archiver")
+    @Scheduled(fixedDelayString = "${archive.interval-ms:3600000}",
+            initialDelayString = "${archive.initial-delay-ms:120000}",
+            scheduler = SchedulingConfig.BULK_JOBS)
+    public void archive() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(resolvedAfterDays));
+        long total = 0;
+        for (int batches = 0; batches < maxBatchesPerRun; batches++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            System.out.println("Archived " + total + " issue(s) resolved before " + cutoff + ".");
+        }
+    }
+
+    /**
+     * Moves one batch. Runs inside a transaction.
+     * @return the number of issues archived.
+     */
+    private int archiveBatch(Instant cutoff) {
+        // 0. Holds the lease row (FOR SHARE) until commit, so no other node can take the
+        //    job over before this batch is committed (LeaseLostException if one has)
+        jobCoordinator.checkFence(jobCoordinator.currentLease());
+
+        // 1. Lock the oldest candidates; a concurrent status change or archiver skips them
+        List<Long> ids = issueRepository.lockArchiveCandidates(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // 2. Make sure every month we are about to write to has a partition
+        for (String month : issueRepository.findResolvedMonths(ids)) {
+            ensurePartitions(YearMonth.parse(month));
+        }
+
+        // 3. Comments first (they reference the issue rows), then the issues themselves
+        Instant now = Instant.now();
+        archivedComments.increment(jdbcTemplate.update(MOVE_COMMENTS_SQL, ps ->
+                ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray()))));
+        int moved = jdbcTemplate.update(MOVE_ISSUES_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+            ps.setTimestamp(2, Timestamp.from(now));
+        });
+        archivedIssues.increment(moved);
+
+        // 4. Nobody may read them from a cache as live issues anymore
+        cacheInvalidator.evictIssues(ids);
+        IssuesRemovedEvent.of(ids, now).forEach(eventPublisher::publishEvent);
+        return moved;
+    }
+
+    private void ensurePartitions(YearMonth month) {
+        String suffix = String.format("%04d_%02d", month.getYear(), month.getMonthValue());
+        if (knownPartitions.contains(suffix)) {
+            return;
+        }
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, PARTITION_LOCK_KEY);
+
+        // Bounds are UTC month starts; suffix and bounds come from a YearMonth, never from input
+        String from = month.atDay(1) + " 00:00:00+00";
+        String to = month.plusMonths(1).atDay(1) + " 00:00:00+00";
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS issues_archive_" + suffix +
+                " PARTITION OF issues_archive FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS comments_archive_" + suffix +
+                " PARTITION OF comments_archive FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+
+        // Only remembered once the surrounding transaction commits the DDL
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                knownPartitions.add(suffix);
+            }
+        });
+    }
+}
@@ -0,0 +1,259 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.config.SchedulingConfig;
+import com.cityconnect.backend.entity.NotificationOutboxMessage;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.event.CommentCreatedEvent;
+import com.cityconnect.backend.event.DomainEvent;
+import com.cityconnect.backend.event.IssueCreatedEvent;
+import com.cityconnect.backend.event.IssueStatusChangedEvent;
+import com.cityconnect.backend.notification.Notification;
+import com.cityconnect.backend.notification.NotificationChannel;
+import com.cityconnect.backend.notification.NotificationItem;
+import com.cityconnect.backend.repository.NotificationOutboxRepository;
+import com.cityconnect.backend.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Background job that delivers the notifications in the transactional outbox.
+ *
+ * Each batch is claimed with SELECT ... FOR UPDATE SKIP LOCKED inside one transaction,
+ * so every node can run this job without sending anything twice. Claimed rows are
+ * grouped by channel and recipient, and each recipient gets ONE message per channel
+ * however many updates are waiting. Delivered rows are deleted; failed ones are
+ * retried with exponential backoff and marked DEAD after too many attempts.
+ */
+@Component
+public class NotificationOutboxDispatcher {
+
+    // Longest comment excerpt quoted in a notification
+    private static final int MAX_EXCERPT_LENGTH = 200;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private List<NotificationChannel> channels = List.of();
+
+    @Value("${notifications.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notifications.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${notifications.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    // Delay before the first retry; doubled after every further failure
+    @Value("${notifications.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${notifications.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter deliveredNotifications;
+    private final Counter coalescedRows;
+    private final Counter failedDeliveries;
+    private final Counter deadRows;
+
+    public NotificationOutboxDispatcher(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Rows stay locked while we deliver; don't let a hung SMTP/HTTP server hold them forever
+        this.transactionTemplate.setTimeout((int) Duration.ofMinutes(2).toSeconds());
+
+        this.deliveredNotifications = Counter.builder("notifications.outbox.delivered")
+                .description("Notifications delivered (one per recipient and channel)")
+                .register(meterRegistry);
+        this.coalescedRows = Counter.builder("notifications.outbox.coalesced")
+                .description("Outbox rows merged into another row's notification")
+                .register(meterRegistry);
+        this.failedDeliveries = Counter.builder("notifications.outbox.failed")
+                .description("Notification deliveries that failed and will be retried")
+                .register(meterRegistry);
+        this.deadRows = Counter.builder("notifications.outbox.dead")
+                .description("Outbox rows given up on after the maximum number of attempts")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-interval-ms:5000}",
+            scheduler = SchedulingConfig.BULK_JOBS)
+    public void dispatch() {
+        int batches = 0;
+        while (batches < maxBatchesPerRun && Boolean.TRUE.equals(transactionTemplate.execute(status -> dispatchBatch()))) {
+            batches++;
+        }
+    }
+
+    /**
+     * Claims and delivers one batch. Runs inside a transaction.
+     * @return true if the batch was full (so there may be more work).
+     */
+    private boolean dispatchBatch() {
+        // 1. Claim due rows; other dispatchers skip them until we commit
+        List<NotificationOutboxMessage> claimed = outboxRepository.claimDue(Instant.now(), batchSize);
+        if (claimed.isEmpty()) {
+            return false;
+        }
+
+        // 2. Group by channel, then by recipient (keeping the order of the updates)
+        Map<String, Map<Long, List<NotificationOutboxMessage>>> grouped = claimed.stream()
+                .collect(Collectors.groupingBy(NotificationOutboxMessage::getChannel, LinkedHashMap::new,
+                        Collectors.groupingBy(NotificationOutboxMessage::getRecipientUserId, LinkedHashMap::new,
+                                Collectors.toList())));
+
+        Set<Long> recipientIds = claimed.stream().map(NotificationOutboxMessage::getRecipientUserId).collect(Collectors.toSet());
+        Map<Long, User> recipients = userRepository.findAllById(recipientIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Long> finished = new ArrayList<>();
+        for (Map.Entry<String, Map<Long, List<NotificationOutboxMessage>>> channelGroup : grouped.entrySet()) {
+            NotificationChannel channel = findChannel(channelGroup.getKey());
+            if (channel == null) {
+                // The channel was switched off after these rows were written
+                channelGroup.getValue().values().forEach(rows -> retryLater(rows, "Channel is not enabled"));
+                continue;
+            }
+
+            // 3. One coalesced notification per recipient
+            Map<Notification, List<NotificationOutboxMessage>> rowsByNotification = new LinkedHashMap<>();
+            for (Map.Entry<Long, List<NotificationOutboxMessage>> recipientGroup : channelGroup.getValue().entrySet()) {
+                Notification notification = buildNotification(recipients.get(recipientGroup.getKey()), recipientGroup.getValue());
+                if (notification == null) {
+                    finished.addAll(ids(recipientGroup.getValue())); // Nothing to say (or nobody to say it to)
+                } else {
+                    rowsByNotification.put(notification, recipientGroup.getValue());
+                    coalescedRows.increment(recipientGroup.getValue().size() - 1);
+                }
+            }
+            if (rowsByNotification.isEmpty()) {
+                continue;
+            }
+
+            // 4. Deliver the whole channel batch at once
+            Map<Notification, String> failures = channel.deliver(new ArrayList<>(rowsByNotification.keySet()));
+            rowsByNotification.forEach((notification, rows) -> {
+                String failure = failures.get(notification);
+                if (failure == null) {
+                    finished.addAll(ids(rows));
+                    deliveredNotifications.increment();
+                } else {
+                    retryLater(rows, failure);
+                }
+            });
+        }
+
+        // 5. Delivered rows are removed; retried rows are updated on commit
+        if (!finished.isEmpty()) {
+            outboxRepository.deleteByIdIn(finished);
+        }
+        return claimed.size() == batchSize;
+    }
+
+    private NotificationChannel findChannel(String name) {
+        for (NotificationChannel channel : channels) {
+            if (channel.name().equals(name)) {
+                return channel;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Turns a recipient's rows into one notification.
+     * @return null if the account is gone or none of the updates needs telling.
+     */
+    private Notification buildNotification(User recipient, List<NotificationOutboxMessage> rows) {
+        if (recipient == null || recipient.getDeletedAt() != null) {
+            return null;
+        }
+
+        List<NotificationItem> items = new ArrayList<>();
+        for (NotificationOutboxMessage row : rows) {
+            DomainEvent event;
+            try {
+                event = objectMapper.readValue(row.getPayload(), DomainEvent.class);
+            } catch (JsonProcessingException e) {
+                System.err.println("Skipping unreadable outbox row " + row.getId() + ": " + e.getOriginalMessage());
+                continue;
+            }
+
+            if (event instanceof IssueStatusChangedEvent changed && !recipient.getUsername().equals(changed.changedBy())) {
+                items.add(new NotificationItem(row.getEventType(), changed.issueId(),
+                        "Issue #" + changed.issueId() + " is now " + changed.newStatus()
+                                + " (was " + changed.oldStatus() + ").",
+                        changed.changedAt()));
+            } else if (event instanceof CommentCreatedEvent comment && !recipient.getUsername().equals(comment.authorUsername())) {
+                // People don't need to hear about their own comments
+                items.add(new NotificationItem(row.getEventType(), comment.issueId(),
+                        comment.authorUsername() + " commented on issue #" + comment.issueId()
+                                + ": \"" + excerpt(comment.content()) + "\"",
+                        comment.createdAt()));
+            } else if (event instanceof IssueCreatedEvent created && !recipient.getId().equals(created.reporterUserId())) {
+                // Written by AreaNotificationFanout for an area the recipient follows
+                items.add(new NotificationItem(row.getEventType(), created.issueId(),
+                        "New " + created.category() + " issue #" + created.issueId()
+                                + " was reported in an area you follow.",
+                        created.createdAt()));
+            }
+        }
+        return items.isEmpty() ? null
+                : new Notification(recipient.getId(), recipient.getUsername(), recipient.getEmail(), items);
+    }
+
+    /**
+     * Schedules another attempt with exponential backoff (plus jitter, so
+     * failures don't come back in lockstep), or gives up after maxAttempts.
+     */
+    private void retryLater(List<NotificationOutboxMessage> rows, String reason) {
+        failedDeliveries.increment();
+        for (NotificationOutboxMessage row : rows) {
+            row.setAttempts(row.getAttempts() + 1);
+            row.setLastError(reason != null && reason.length() > 1000 ? reason.substring(0, 1000) : reason);
+
+            if (row.getAttempts() >= maxAttempts) {
+                row.setStatus(NotificationOutboxMessage.Status.DEAD);
+                deadRows.increment();
+                continue;
+            }
+            long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(row.getAttempts() - 1, 20));
+            long jittered = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+            row.setAvailableAt(Instant.now().plusMillis(jittered));
+        }
+    }
+
+    private static List<Long> ids(List<NotificationOutboxMessage> rows) {
+        return rows.stream().map(NotificationOutboxMessage::getId).toList();
+    }
+
+    private static String excerpt(String text) {
+        return text.length() <= MAX_EXCERPT_LENGTH ? text : text.substring(0, MAX_EXCERPT_LENGTH) + "...";
+    }
+}
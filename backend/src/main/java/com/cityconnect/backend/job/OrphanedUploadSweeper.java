@@ -0,0 +1,180 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.config.SchedulingConfig;
+import com.cityconnect.backend.repository.ArchivedIssueRepository;
+import com.cityconnect.backend.repository.IssueRepository;
+import com.cityconnect.backend.service.FileStorageService;
+import com.cityconnect.backend.service.ImageHashService;
+import com.cityconnect.backend.service.IssueIntakeService;
+import com.cityconnect.backend.util.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Background job that removes uploaded files no issue points to.
+ *
+ * FileController.uploadFile stores the image BEFORE the issue is created,
+ * so if the user abandons the form the file is never referenced.
+ * This sweeper walks the uploads directory lazily (one entry at a time),
+ * checks files in batches against Issue.imageUrl with a single query per batch,
+ * and deletes unreferenced files older than the grace period.
+ * Files named by intake tickets still waiting in the journal count as referenced:
+ * their issues don't exist yet, however long the drain falls behind.
+ */
+@Component
+@ConditionalOnProperty(name = "uploads.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class OrphanedUploadSweeper {
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private ArchivedIssueRepository archivedIssueRepository;
+
+    @Autowired
+    private ImageHashService imageHashService;
+
+    @Autowired
+    private IssueIntakeService issueIntakeService;
+
+    // Files younger than this may belong to a form the user is still filling in
+    @Value("${uploads.sweeper.grace-period-hours:24}")
+    private long gracePeriodHours;
+
+    @Value("${uploads.sweeper.batch-size:500}")
+    private int batchSize;
+
+    // Upper bound on files examined per second, so a sweep never saturates the disk
+    @Value("${uploads.sweeper.max-files-per-second:200}")
+    private int maxFilesPerSecond;
+
+    private final Counter scannedFiles;
+    private final Counter deletedFiles;
+    private final Counter reclaimedBytes;
+    private final Timer runTimer;
+
+    public OrphanedUploadSweeper(MeterRegistry meterRegistry) {
+        this.scannedFiles = Counter.builder("uploads.sweeper.files.scanned")
+                .description("Files examined by the orphaned-upload sweeper")
+                .register(meterRegistry);
+        this.deletedFiles = Counter.builder("uploads.sweeper.files.deleted")
+                .description("Orphaned uploads deleted")
+                .register(meterRegistry);
+        this.reclaimedBytes = Counter.builder("uploads.sweeper.bytes.reclaimed")
+                .description("Disk space freed by deleting orphaned uploads")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("uploads.sweeper.run")
+                .description("Duration of a full sweep of the uploads directory")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${uploads.sweeper.interval-ms:3600000}",
+            initialDelayString = "${uploads.sweeper.interval-ms:3600000}",
+            scheduler = SchedulingConfig.BULK_JOBS)
+    public void sweep() {
+        runTimer.record(this::sweepOnce);
+    }
+
+    private void sweepOnce() {
+        Path root = fileStorageService.getRootLocation();
+        Instant cutoff = Instant.now().minus(Duration.ofHours(gracePeriodHours));
+        RateLimiter limiter = new RateLimiter(maxFilesPerSecond);
+
+        // webPath -> file, kept in insertion order for predictable deletes
+        Map<String, Path> batch = new LinkedHashMap<>();
+        long deleted = 0;
+
+        // 1. Stream the directory instead of listing it all into memory
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+            for (Path file : files) {
+                limiter.acquire();
+                scannedFiles.increment();
+
+                // 2. Cheap checks first: skip directories and recent uploads
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue; // File vanished between listing and stat
+                }
+                if (!attributes.isRegularFile() || attributes.lastModifiedTime().toInstant().isAfter(cutoff)) {
+                    continue;
+                }
+
+                batch.put(fileStorageService.toWebPath(file.getFileName().toString()), file);
+
+                // 3. Look up a whole batch of candidates in one query
+                if (batch.size() >= batchSize) {
+                    deleted += deleteUnreferenced(batch, limiter);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Orphaned-upload sweep failed to read " + root + ": " + e.getMessage());
+            return;
+        }
+
+        if (!batch.isEmpty()) {
+            deleted += deleteUnreferenced(batch, limiter);
+        }
+
+        if (deleted > 0) {
+            System.out.println("Orphaned-upload sweep deleted " + deleted + " file(s).");
+        }
+    }
+
+    /**
+     * Deletes every file in the batch whose web path is not referenced by any issue
+     * (live, archived or still in the intake journal).
+     * @return the number of files deleted.
+     */
+    private long deleteUnreferenced(Map<String, Path> batch, RateLimiter limiter) {
+        // The journal first: a ticket drained in between is in the database by the time we look there
+        Set<String> referenced = new HashSet<>(issueIntakeService.findPendingImageUrls(batch.keySet()));
+        referenced.addAll(issueRepository.findReferencedImageUrls(batch.keySet()));
+        referenced.addAll(archivedIssueRepository.findReferencedImageUrls(batch.keySet()));
+
+        long deleted = 0;
+        for (Map.Entry<String, Path> candidate : batch.entrySet()) {
+            if (referenced.contains(candidate.getKey())) {
+                continue;
+            }
+            limiter.acquire();
+            try {
+                long size = Files.size(candidate.getValue());
+                if (Files.deleteIfExists(candidate.getValue())) {
+                    imageHashService.remove(candidate.getKey());
+                    deleted++;
+                    deletedFiles.increment();
+                    reclaimedBytes.increment(size);
+                }
+            } catch (IOException e) {
+                // Not critical - we'll try again on the next sweep
+                System.err.println("Could not delete orphaned upload: " + candidate.getValue());
+            }
+        }
+        return deleted;
+    }
+}
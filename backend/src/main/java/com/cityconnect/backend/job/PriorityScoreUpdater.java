@@ -0,0 +1,56 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.cluster.ClusterJob;
+import com.cityconnect.backend.config.SchedulingConfig;
+import com.cityconnect.backend.service.PriorityScoreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background updates of issue priority scores (see PriorityScoreServiceImpl).
+ *
+ * rescoreChanged() picks up issues whose inputs changed every few seconds;
+ * rescoreAll() walks all open issues (in keyset batches) so scores follow their age,
+ * and catches up on changes whose event was lost (e.g. in a restart).
+ */
+@Component
+public class PriorityScoreUpdater {
+
+    @Autowired
+    private PriorityScoreService priorityScoreService;
+
+    @Value("${issues.priority.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${issues.priority.changed-interval-ms:5000}")
+    public void rescoreChanged() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (priorityScoreService.rescoreChanged() == 0) {
+                    return;
+                }
+            }
+        } catch (DataAccessException e) {
+            System.err.println("Priority rescore failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    @ClusterJob("priority-rescore-all")
+    @Scheduled(fixedDelayString = "${issues.priority.full-interval-ms:3600000}",
+            initialDelayString = "${issues.priority.full-initial-delay-ms:30000}",
+            scheduler = SchedulingConfig.BULK_JOBS)
+    public void rescoreAll() {
+        long afterId = 0;
+        try {
+            while (afterId >= 0) {
+                afterId = priorityScoreService.rescoreOpenIssues(afterId);
+            }
+        } catch (DataAccessException e) {
+            System.err.println("Priority pass stopped after issue " + afterId + ", will retry: "
+                    + e.getMostSpecificCause().getMessage());
+        }
+    }
+}
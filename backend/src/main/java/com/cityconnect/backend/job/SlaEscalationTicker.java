@@ -0,0 +1,44 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.config.SchedulingConfig;
+import com.cityconnect.backend.service.SlaEscalationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drives the SLA escalation timing wheel (see SlaEscalationServiceImpl).
+ *
+ * Runs on every node: a tick on a node that is not the leader only tries to become
+ * it now and then. The occasional resync reloads the deadlines on the leader.
+ */
+@Component
+public class SlaEscalationTicker {
+
+    @Autowired
+    private SlaEscalationService slaEscalationService;
+
+    @Scheduled(fixedDelayString = "${issues.sla.tick-ms:1000}")
+    public void tick() {
+        try {
+            int escalated = slaEscalationService.tick();
+            if (escalated > 0) {
+                System.out.println("Escalated " + escalated + " overdue issue(s)");
+            }
+        } catch (DataAccessException e) {
+            System.err.println("SLA escalation failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${issues.sla.resync-interval-ms:3600000}",
+            initialDelayString = "${issues.sla.resync-interval-ms:3600000}",
+            scheduler = SchedulingConfig.BULK_JOBS)
+    public void resync() {
+        try {
+            slaEscalationService.resync();
+        } catch (DataAccessException e) {
+            System.err.println("SLA deadline resync failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.cluster.ClusterJob;
+import com.cityconnect.backend.cluster.JobCoordinator;
+import com.cityconnect.backend.config.SchedulingConfig;
+import com.cityconnect.backend.repository.IssueStatusHistoryRepository;
+import com.cityconnect.backend.repository.IssueStatusLatencyRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Background job that turns issue_status_history into daily latency rollups.
+ *
+ * Each day (UTC) is recomputed with one aggregate INSERT ... ON CONFLICT UPDATE, in its
+ * own transaction. Every run redoes today and yesterday (to pick up late changes),
+ * then continues from where the previous run stopped; on an empty rollup table it
+ * backfills from the first recorded change, a bounded number of days per run.
+ * Each day's transaction is fenced with the job's lease.
+ */
+@Component
+public class StatusLatencyRollupJob {
+
+    @Autowired
+    private IssueStatusHistoryRepository historyRepository;
+
+    @Autowired
+    private IssueStatusLatencyRollupRepository rollupRepository;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    // Caps the work per run, so a long backfill is spread over several runs
+    @Value("${analytics.rollup.max-days-per-run:60}")
+    private int maxDaysPerRun;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Last day rolled up by this instance (null until the first run)
+    private LocalDate rolledUpThrough;
+
+    public StatusLatencyRollupJob(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @ClusterJob("status-latency-rollup")
+    @Scheduled(fixedDelayString = "${analytics.rollup.interval-ms:900000}",
+            initialDelayString = "${analytics.rollup.initial-delay-ms:60000}",
+            scheduler = SchedulingConfig.BULK_JOBS)
+    public void rollUp() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        // 1. Where to start: just before the last rolled-up day, or at the very first change
+        LocalDate start = rolledUpThrough;
+        if (start == null) {
+            start = rollupRepository.findLastDay()
+                    .orElseGet(() -> historyRepository.findFirstChangedAt()
+                            .map(first -> first.atZone(ZoneOffset.UTC).toLocalDate())
+                            .orElse(today));
+        }
+        start = start.minusDays(1);
+
+        // 2. Recompute each day up to today
+        int days = 0;
+        LocalDate day = start;
+        while (!day.isAfter(today) && days < maxDaysPerRun) {
+            rollUpDay(day);
+            rolledUpThrough = day;
+            day = day.plusDays(1);
+            days++;
+        }
+    }
+
+    private void rollUpDay(LocalDate day) {
+        Instant from = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant to = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Holds the lease row (FOR SHARE) until commit, so no takeover can happen in between
+            jobCoordinator.checkFence(jobCoordinator.currentLease());
+            rollupRepository.upsertDay(day, from, to);
+        });
+    }
+}
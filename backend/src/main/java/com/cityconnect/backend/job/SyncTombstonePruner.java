@@ -0,0 +1,35 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.cluster.ClusterJob;
+import com.cityconnect.backend.config.SchedulingConfig;
+import com.cityconnect.backend.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes sync tombstones older than 'sync.tombstone-retention-days' (see SyncServiceImpl).
+ * A client that hasn't synced for longer starts over with a full sync.
+ */
+@Component
+public class SyncTombstonePruner {
+
+    @Autowired
+    private SyncService syncService;
+
+    @ClusterJob("sync-tombstone-pruner")
+    @Scheduled(fixedDelayString = "${sync.prune-interval-ms:3600000}",
+            initialDelayString = "${sync.prune-initial-delay-ms:300000}",
+            scheduler = SchedulingConfig.BULK_JOBS)
+    public void prune() {
+        try {
+            int pruned = syncService.pruneTombstones();
+            if (pruned > 0) {
+                System.out.println("Pruned " + pruned + " sync tombstones");
+            }
+        } catch (DataAccessException e) {
+            System.err.println("Sync tombstone pruning failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+}
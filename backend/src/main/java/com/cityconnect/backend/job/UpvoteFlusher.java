@@ -0,0 +1,37 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.service.IssueUpvoteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background writer for upvotes (see IssueUpvoteServiceImpl).
+ *
+ * Each run flushes batches until no votes are pending (or the per-run cap is hit).
+ * Failed batches go back to the queue and are retried on the next run.
+ */
+@Component
+public class UpvoteFlusher {
+
+    @Autowired
+    private IssueUpvoteService issueUpvoteService;
+
+    @Value("${issues.upvotes.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${issues.upvotes.flush-interval-ms:2000}")
+    public void flush() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (issueUpvoteService.flushBatch() == 0) {
+                    return;
+                }
+            }
+        } catch (DataAccessException e) {
+            System.err.println("Upvote flush failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.service.IssueViewService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background writer for view counts (see IssueViewServiceImpl).
+ *
+ * The flush interval is also how many views a crash can lose at most.
+ * Tallies that could not be written are kept and retried on the next run.
+ */
+@Component
+public class ViewFlusher {
+
+    @Autowired
+    private IssueViewService issueViewService;
+
+    @Scheduled(fixedDelayString = "${issues.views.flush-interval-ms:5000}")
+    public void flush() {
+        try {
+            issueViewService.flush();
+        } catch (DataAccessException e) {
+            System.err.println("View count flush failed, will retry: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.cityconnect.backend.notification;
+
+import com.cityconnect.backend.entity.NotificationOutboxMessage;
+import com.cityconnect.backend.event.DomainEvent;
+import com.cityconnect.backend.event.IssueCreatedEvent;
+import com.cityconnect.backend.repository.NotificationOutboxRepository;
+import com.cityconnect.backend.service.AreaSubscriptionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells the users following an area (see AreaSubscriptionService) about new issues
+ * reported inside it.
+ *
+ * Runs on the node that stored the issue, after the commit, so creating an issue
+ * never waits for it. A background thread matches the issue against the area index
+ * and writes one outbox row per subscriber and channel, in batches of its own
+ * transactions; the NotificationOutboxDispatcher then coalesces and delivers them like
+ * any other notification. If the node stops in between, that issue's area
+ * notifications are lost (they are a convenience, the issue itself is safe).
+ * Issues from the intake queue and from imports are matched too: they are announced
+ * with the same IssueCreatedEvent once their batch commits.
+ */
+@Component
+public class AreaNotificationFanout {
+
+    @Autowired
+    private AreaSubscriptionService areaSubscriptionService;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private List<NotificationChannel> channels = List.of();
+
+    @Value("${notifications.outbox.coalesce-window-ms:30000}")
+    private long coalesceWindowMs;
+
+    // Outbox rows per transaction
+    @Value("${notifications.areas.batch-size:500}")
+    private int batchSize;
+
+    private final ThreadPoolExecutor fanout;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter matchedCounter;
+    private final Counter droppedCounter;
+
+    public AreaNotificationFanout(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                  @Value("${notifications.areas.queue-size:10000}") int queueSize) {
+        this.fanout = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "area-fanout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.matchedCounter = Counter.builder("notifications.areas.matched")
+                .description("Area notifications queued (one per new issue and subscriber)")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("notifications.areas.dropped")
+                .description("New issues not matched against the areas because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("notifications.areas.queued", fanout, executor -> executor.getQueue().size())
+                .description("New issues waiting to be matched against the areas")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanout.shutdown();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueCreated(IssueCreatedEvent event) {
+        if (channels.isEmpty() || event.latitude() == null || event.longitude() == null) {
+            return;
+        }
+        try {
+            fanout.execute(() -> {
+                try {
+                    notifySubscribers(event);
+                } catch (RuntimeException e) {
+                    System.err.println("Could not notify the areas of issue " + event.issueId() + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            droppedCounter.increment();
+        }
+    }
+
+    private void notifySubscribers(IssueCreatedEvent event) {
+        Set<Long> subscriberIds = areaSubscriptionService.findSubscriberIds(event.latitude(), event.longitude());
+        subscriberIds.remove(event.reporterUserId()); // They know
+        if (subscriberIds.isEmpty()) {
+            return;
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writerFor(DomainEvent.class).writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e); // Can't happen for our records
+        }
+
+        Instant availableAt = Instant.now().plusMillis(coalesceWindowMs);
+        List<NotificationOutboxMessage> batch = new ArrayList<>(batchSize);
+        for (Long subscriberId : subscriberIds) {
+            for (NotificationChannel channel : channels) {
+                NotificationOutboxMessage message = new NotificationOutboxMessage();
+                message.setRecipientUserId(subscriberId);
+                message.setChannel(channel.name());
+                message.setEventType("IssueReportedInArea");
+                message.setPayload(payload);
+                message.setAvailableAt(availableAt);
+                batch.add(message);
+                if (batch.size() == batchSize) {
+                    save(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            save(batch);
+        }
+        matchedCounter.increment(subscriberIds.size());
+    }
+
+    private void save(List<NotificationOutboxMessage> batch) {
+        // JDBC-batched INSERTs (hibernate.jdbc.batch_size)
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.saveAll(batch));
+    }
+}
@@ -0,0 +1,81 @@
+package com.cityconnect.backend.notification;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends notifications as plain-text emails over SMTP (spring.mail.*).
+ * The whole batch goes out over one SMTP connection.
+ * For local development any SMTP stub (e.g. MailHog on port 1025) will do.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.email.enabled", havingValue = "true")
+public class EmailNotificationChannel implements NotificationChannel {
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${notifications.email.from:no-reply@cityconnect.com}")
+    private String from;
+
+    @Override
+    public String name() {
+        return "email";
+    }
+
+    @Override
+    public Map<Notification, String> deliver(List<Notification> batch) {
+        Map<Object, Notification> byMessage = new HashMap<>();
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            messages[i] = toMessage(batch.get(i));
+            byMessage.put(messages[i], batch.get(i));
+        }
+
+        Map<Notification, String> failures = new HashMap<>();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // Some messages may have been sent; only the listed ones failed
+            if (e.getFailedMessages().isEmpty()) {
+                batch.forEach(notification -> failures.put(notification, e.getMessage()));
+            }
+            e.getFailedMessages().forEach((message, cause) ->
+                    failures.put(byMessage.get(message), cause.getMessage()));
+        } catch (MailException e) {
+            // e.g. the SMTP server is unreachable; nothing was sent
+            batch.forEach(notification -> failures.put(notification, e.getMessage()));
+        }
+        return failures;
+    }
+
+    private SimpleMailMessage toMessage(Notification notification) {
+        StringBuilder text = new StringBuilder("Hi ").append(notification.username()).append(",\n\n");
+        text.append(notification.items().size() == 1
+                ? "There is an update on an issue you reported or follow:\n\n"
+                : "There are " + notification.items().size() + " updates on issues you reported or follow:\n\n");
+        for (NotificationItem item : notification.items()) {
+            text.append(" - ").append(item.summary()).append('\n');
+        }
+        text.append("\nThe City Connect team");
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(notification.email());
+        message.setSubject(notification.items().size() == 1
+                ? "Update on an issue you reported or follow"
+                : notification.items().size() + " updates on issues you reported or follow");
+        message.setText(text.toString());
+        return message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cityconnect.backend.notification;
+
+import java.util.List;
+
+/**
+ * One message to one recipient. Several outbox rows for the same recipient
+ * are coalesced into a single Notification with several items.
+ *
+ * @param recipientUserId The user being notified.
+ * @param username        Their username (for the greeting).
+ * @param email           Their email address.
+ * @param items           What happened, oldest first.
+ */
+public record Notification(
+        Long recipientUserId,
+        String username,
+        String email,
+        List<NotificationItem> items) {
+}
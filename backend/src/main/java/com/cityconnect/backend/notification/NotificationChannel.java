@@ -0,0 +1,26 @@
+package com.cityconnect.backend.notification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A way of delivering notifications (email, webhook, ...).
+ *
+ * Every enabled channel is a Spring bean; the NotificationOutboxWriter queues one
+ * outbox row per channel, so each channel retries independently of the others.
+ */
+public interface NotificationChannel {
+
+    /**
+     * Stored in the outbox rows, so it must stay stable (e.g. "email").
+     */
+    String name();
+
+    /**
+     * Delivers a batch of notifications.
+     *
+     * @return the notifications that could NOT be delivered, with the reason
+     *         (an empty map means everything was delivered).
+     */
+    Map<Notification, String> deliver(List<Notification> batch);
+}
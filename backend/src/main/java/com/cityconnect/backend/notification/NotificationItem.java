@@ -0,0 +1,18 @@
+package com.cityconnect.backend.notification;
+
+import java.time.Instant;
+
+/**
+ * A single update inside a Notification.
+ *
+ * @param type       The domain event type, e.g. "IssueStatusChanged".
+ * @param issueId    The issue the update is about.
+ * @param summary    Human-readable one-line description.
+ * @param occurredAt When it happened.
+ */
+public record NotificationItem(
+        String type,
+        Long issueId,
+        String summary,
+        Instant occurredAt) {
+}
@@ -0,0 +1,78 @@
+package com.cityconnect.backend.notification;
+
+import com.cityconnect.backend.entity.NotificationOutboxMessage;
+import com.cityconnect.backend.event.CommentCreatedEvent;
+import com.cityconnect.backend.event.DomainEvent;
+import com.cityconnect.backend.event.IssueStatusChangedEvent;
+import com.cityconnect.backend.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes outbox rows for the changes reporters should be told about.
+ *
+ * Runs just BEFORE the publishing transaction commits, inside it, so the rows
+ * commit (or roll back) together with the change itself. Nothing is sent here;
+ * the NotificationOutboxDispatcher does that in the background.
+ */
+@Component
+public class NotificationOutboxWriter {
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Every enabled channel gets its own row, so each one retries on its own
+    @Autowired(required = false)
+    private List<NotificationChannel> channels = List.of();
+
+    // New rows wait this long, so a burst of changes ends up in one message
+    @Value("${notifications.outbox.coalesce-window-ms:30000}")
+    private long coalesceWindowMs;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onIssueStatusChanged(IssueStatusChangedEvent event) {
+        queue(event.reporterUserId(), "IssueStatusChanged", event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        queue(event.reporterUserId(), "CommentCreated", event);
+    }
+
+    private void queue(Long recipientUserId, String eventType, DomainEvent event) {
+        if (channels.isEmpty()) {
+            return;
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writerFor(DomainEvent.class).writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            // Can't happen for our records; don't fail the user's change over a notification
+            System.err.println("Could not queue notification for " + event + ": " + e.getMessage());
+            return;
+        }
+
+        Instant availableAt = Instant.now().plusMillis(coalesceWindowMs);
+        for (NotificationChannel channel : channels) {
+            NotificationOutboxMessage message = new NotificationOutboxMessage();
+            message.setRecipientUserId(recipientUserId);
+            message.setChannel(channel.name());
+            message.setEventType(eventType);
+            message.setPayload(payload);
+            message.setAvailableAt(availableAt);
+            outboxRepository.save(message);
+        }
+    }
+}
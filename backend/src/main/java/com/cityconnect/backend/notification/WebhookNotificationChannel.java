@@ -0,0 +1,62 @@
+package com.cityconnect.backend.notification;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.BufferingClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * POSTs each batch of notifications as one JSON document to
+ * 'notifications.webhook.url' (e.g. a push/SMS gateway, or a local HTTP stub).
+ * The batch is all-or-nothing: any non-2xx response fails all of it.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.webhook.url")
+public class WebhookNotificationChannel implements NotificationChannel {
+
+    private final RestClient restClient;
+    private final String url;
+
+    public WebhookNotificationChannel(RestClient.Builder restClientBuilder,
+                                      @Value("${notifications.webhook.url}") String url,
+                                      @Value("${notifications.webhook.timeout-ms:5000}") long timeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(timeoutMs));
+        requestFactory.setReadTimeout(Duration.ofMillis(timeoutMs));
+        // Buffered, so the request carries a Content-Length instead of being chunked
+        this.restClient = restClientBuilder
+                .requestFactory(new BufferingClientHttpRequestFactory(requestFactory))
+                .build();
+        this.url = url;
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public Map<Notification, String> deliver(List<Notification> batch) {
+        Map<Notification, String> failures = new HashMap<>();
+        try {
+            restClient.post()
+                    .uri(url)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("notifications", batch))
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientException e) {
+            batch.forEach(notification -> failures.put(notification, e.getMessage()));
+        }
+        return failures;
+    }
+}
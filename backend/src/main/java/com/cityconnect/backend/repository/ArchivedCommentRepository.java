@@ -0,0 +1,21 @@
+package com.cityconnect.backend.repository;
+
+import com.cityconnect.backend.entity.ArchivedComment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedCommentRepository extends JpaRepository<ArchivedComment, Long> {
+
+    List<ArchivedComment> findByIssueIdOrderByCreatedAtAsc(Long issueId);
+
+    // --- Purge of deleted accounts ---
+
+    @Query("SELECT c.id FROM ArchivedComment c WHERE c.user.id = :userId ORDER BY c.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+}
@@ -0,0 +1,43 @@
+package com.cityconnect.backend.repository;
+
+import com.cityconnect.backend.dto.IssueExportRow;
+import com.cityconnect.backend.entity.ArchivedIssue;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read access to archived issues. IssueArchiver moves issues into the archive and
+ * DeletionPurger removes them from it, with plain SQL (ArchivedIssue is immutable).
+ */
+@Repository
+public interface ArchivedIssueRepository extends JpaRepository<ArchivedIssue, Long> {
+
+    /**
+     * Keyset-paginated export rows of archived issues (pass afterId = 0 for the first page).
+     */
+    @Query("SELECT new com.cityconnect.backend.dto.IssueExportRow(a.id, a.title, a.description, a.category.name, " +
+            "a.status, a.latitude, a.longitude, a.imageUrl, a.user.username, a.createdAt, a.resolvedAt, true) " +
+            "FROM ArchivedIssue a WHERE a.id > :afterId ORDER BY a.id")
+    List<IssueExportRow> findExportRows(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Same as IssueRepository.findReferencedImageUrls, for archived issues.
+     */
+    @Query("SELECT a.imageUrl FROM ArchivedIssue a WHERE a.imageUrl IN :imageUrls")
+    Set<String> findReferencedImageUrls(@Param("imageUrls") Collection<String> imageUrls);
+
+    // --- Purge of deleted accounts ---
+
+    @Query("SELECT a.id FROM ArchivedIssue a WHERE a.user.id = :userId ORDER BY a.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT a.imageUrl FROM ArchivedIssue a WHERE a.id IN :ids AND a.imageUrl IS NOT NULL")
+    List<String> findImageUrlsByIdIn(@Param("ids") Collection<Long> ids);
+}
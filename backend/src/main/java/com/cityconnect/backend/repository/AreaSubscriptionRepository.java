@@ -0,0 +1,32 @@
+package com.cityconnect.backend.repository;
+
+import com.cityconnect.backend.entity.AreaSubscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AreaSubscriptionRepository extends JpaRepository<AreaSubscription, Long> {
+
+    List<AreaSubscription> findByUserIdOrderById(Long userId);
+
+    long countByUserId(Long userId);
+
+    /**
+     * The subscriptions of accounts that are not deleted, i.e. the ones to match issues against.
+     */
+    @Query("SELECT a FROM AreaSubscription a WHERE EXISTS " +
+            "(SELECT u FROM User u WHERE u.id = a.userId AND u.deletedAt IS NULL)")
+    List<AreaSubscription> findAllLive();
+
+    /**
+     * Like findAllLive(), limited to the given subscriptions.
+     */
+    @Query("SELECT a FROM AreaSubscription a WHERE a.id IN :ids AND EXISTS " +
+            "(SELECT u FROM User u WHERE u.id = a.userId AND u.deletedAt IS NULL)")
+    List<AreaSubscription> findLiveByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -2,9 +2,14 @@ package com.cityconnect.backend.repository;
 
 import com.cityconnect.backend.entity.Comment;
 import com.cityconnect.backend.entity.Issue;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +19,17 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      * Finds all comments for a specific issue, ordered by creation time (oldest first).
      */
     List<Comment> findByIssueOrderByCreatedAtAsc(Issue issue);
+
+    // --- Background purge (set-based deletes instead of cascading row by row) ---
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.issue.id IN :issueIds")
+    int deleteByIssueIdIn(@Param("issueIds") Collection<Long> issueIds);
+
+    @Query("SELECT c.id FROM Comment c WHERE c.user.id = :userId ORDER BY c.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
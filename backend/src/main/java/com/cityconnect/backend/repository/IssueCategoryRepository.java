@@ -0,0 +1,18 @@
+package com.cityconnect.backend.repository;
+
+import com.cityconnect.backend.entity.IssueCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IssueCategoryRepository extends JpaRepository<IssueCategory, Short> {
+
+    // Cached (misses too) for 'cache.regions.default-query-results-region.ttl-seconds'
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<IssueCategory> findByNameIgnoreCase(String name);
+}
@@ -1,10 +1,22 @@
 package com.cityconnect.backend.repository;
 
+import com.cityconnect.backend.dto.IssueExportRow;
 import com.cityconnect.backend.entity.Issue;
+import com.cityconnect.backend.entity.IssueStatus;
 import org.springframework.data.jpa.repository.JpaRepository;import com.cityconnect.backend.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Spring Data JPA repository for the Issue entity.
@@ -12,10 +24,196 @@ import java.util.List;
  */
 @Repository
 public interface IssueRepository extends JpaRepository<Issue, Long> {
+
+    /**
+     * Lightweight projection (no entity load) used by bulk operations.
+     */
+    interface IdAndStatus {
+        Long getId();
+        IssueStatus getStatus();
+        Long getUserId();
+        String getCategory();
+        Instant getCreatedAt();
+    }
+
+    /**
+     * What the duplicate detector keeps of an issue (see DuplicateIssueServiceImpl).
+     */
+    interface DuplicateCandidateRow {
+        Long getId();
+        Long getUserId();
+        String getTitle();
+        String getDescription();
+        String getCategory();
+        Double getLatitude();
+        Double getLongitude();
+        Instant getCreatedAt();
+    }
+
+    /**
+     * A live issue with its stored view counts (0 when it has never been viewed).
+     */
+    interface IssueWithViews {
+        Issue getIssue();
+        long getViewCount();
+        long getUniqueViewers();
+    }
+
     /**
      * Finds all issues submitted by a specific user,
      * sorted by creation date in descending order (newest first).
+     * Soft-deleted issues are excluded.
+     */
+    List<Issue> findByUserAndDeletedAtIsNullOrderByCreatedAtDesc(User user);
+
+    // Lookups that hide soft-deleted (tombstoned) issues
+    Optional<Issue> findByIdAndDeletedAtIsNull(Long id);
+
+    /**
+     * Same as findByIdAndDeletedAtIsNull, but served from the second-level cache when
+     * possible (findById goes through it, queries don't). Use it for reads; changes
+     * should start from findByIdAndDeletedAtIsNull, which always reads the current row.
+     */
+    default Optional<Issue> findLiveById(Long id) {
+        return findById(id).filter(issue -> issue.getDeletedAt() == null);
+    }
+
+    /**
+     * Live issues joined with their view counts, for the admin list. The sort may use the
+     * counts too (e.g. JpaSort.unsafe("COALESCE(s.viewCount, 0)")), so ordering and
+     * limiting by views happens in the database like any other order.
+     */
+    @Query("SELECT i AS issue, COALESCE(s.viewCount, 0) AS viewCount, COALESCE(s.uniqueViewers, 0) AS uniqueViewers " +
+            "FROM Issue i LEFT JOIN IssueViewStats s ON s.issueId = i.id WHERE i.deletedAt IS NULL")
+    List<IssueWithViews> findLiveWithViews(Sort sort);
+
+    @Query("SELECT i AS issue, COALESCE(s.viewCount, 0) AS viewCount, COALESCE(s.uniqueViewers, 0) AS uniqueViewers " +
+            "FROM Issue i LEFT JOIN IssueViewStats s ON s.issueId = i.id WHERE i.deletedAt IS NULL")
+    List<IssueWithViews> findLiveWithViews(Pageable pageable);
+
+    /**
+     * Returns the subset of the given image URLs that are still attached to an issue.
+     * Used by the orphaned-upload sweeper to check a whole batch of files in one query.
      */
-    List<Issue> findByUserOrderByCreatedAtDesc(User user);
-    List<Issue> findByUser(User user);
+    @Query("SELECT i.imageUrl FROM Issue i WHERE i.imageUrl IN :imageUrls")
+    Set<String> findReferencedImageUrls(@Param("imageUrls") Collection<String> imageUrls);
+
+    // --- Write-behind intake queue ---
+
+    @Query("SELECT i.intakeTicket FROM Issue i WHERE i.intakeTicket IN :tickets")
+    Set<String> findExistingIntakeTickets(@Param("tickets") Collection<String> tickets);
+
+    @Query("SELECT i.id FROM Issue i WHERE i.intakeTicket = :ticket")
+    Optional<Long> findIdByIntakeTicket(@Param("ticket") String ticket);
+
+    // --- Duplicate detection ---
+
+    /**
+     * Live issues with a location, in the given statuses, created since the given time
+     * (uses idx_issues_status_created).
+     */
+    @Query("SELECT i.id AS id, i.user.id AS userId, i.title AS title, i.description AS description, " +
+            "i.category.name AS category, i.latitude AS latitude, i.longitude AS longitude, i.createdAt AS createdAt " +
+            "FROM Issue i WHERE i.deletedAt IS NULL AND i.status IN :statuses AND i.createdAt >= :since " +
+            "AND i.latitude IS NOT NULL AND i.longitude IS NOT NULL")
+    List<DuplicateCandidateRow> findDuplicateCandidates(@Param("statuses") Collection<IssueStatus> statuses,
+                                                        @Param("since") Instant since);
+
+    /**
+     * Same as findDuplicateCandidates, restricted to the given issues.
+     */
+    @Query("SELECT i.id AS id, i.user.id AS userId, i.title AS title, i.description AS description, " +
+            "i.category.name AS category, i.latitude AS latitude, i.longitude AS longitude, i.createdAt AS createdAt " +
+            "FROM Issue i WHERE i.id IN :ids AND i.deletedAt IS NULL AND i.status IN :statuses AND i.createdAt >= :since " +
+            "AND i.latitude IS NOT NULL AND i.longitude IS NOT NULL")
+    List<DuplicateCandidateRow> findDuplicateCandidatesByIdIn(@Param("ids") Collection<Long> ids,
+                                                              @Param("statuses") Collection<IssueStatus> statuses,
+                                                              @Param("since") Instant since);
+
+    // --- Bulk status updates ---
+
+    /**
+     * Current status of each issue, row-locked until the end of the transaction,
+     * so the status can't change between this check and the UPDATE.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i.id AS id, i.status AS status, i.user.id AS userId, i.category.name AS category, i.createdAt AS createdAt " +
+            "FROM Issue i WHERE i.id IN :ids AND i.deletedAt IS NULL")
+    List<IdAndStatus> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset-paginated IDs of live issues matching the filter criteria.
+     * Pass afterId = 0 for the first page, then the last ID of the previous page.
+     * A null category matches anything. Statuses and the time range must always be given
+     * (Postgres can't infer the type of a null enum or timestamp parameter), so pass
+     * every status to leave it unfiltered.
+     */
+    @Query("SELECT i.id FROM Issue i WHERE i.deletedAt IS NULL AND i.id > :afterId " +
+            "AND i.status IN :statuses " +
+            "AND (:category IS NULL OR i.category.name = :category) " +
+            "AND i.createdAt >= :createdAfter AND i.createdAt < :createdBefore " +
+            "ORDER BY i.id")
+    List<Long> findIdsMatching(@Param("afterId") Long afterId,
+                               @Param("statuses") Collection<IssueStatus> statuses,
+                               @Param("category") String category,
+                               @Param("createdAfter") Instant createdAfter,
+                               @Param("createdBefore") Instant createdBefore,
+                               Pageable pageable);
+
+    // --- Admin work queue ---
+
+    /**
+     * Locks the next open issues that nobody holds a live claim on, highest priority
+     * first (the order of idx_issues_priority). Rows locked by an admin claiming at the
+     * same time are skipped instead of waited for, so concurrent claims never block
+     * each other or get the same issue.
+     */
+    @Query(value = "SELECT id FROM issues WHERE deleted_at IS NULL AND status IN ('PENDING', 'IN_PROGRESS') " +
+            "AND (claim_expires_at IS NULL OR claim_expires_at <= :now) " +
+            "ORDER BY priority_score DESC, id DESC LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimable(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Query("SELECT i FROM Issue i WHERE i.claimedBy = :claimedBy AND i.claimExpiresAt > :now " +
+            "AND i.deletedAt IS NULL ORDER BY i.priorityScore DESC, i.id DESC")
+    List<Issue> findClaimedBy(@Param("claimedBy") String claimedBy, @Param("now") Instant now);
+
+    // --- Export ---
+
+    /**
+     * Keyset-paginated export rows of live issues (pass afterId = 0 for the first page).
+     */
+    @Query("SELECT new com.cityconnect.backend.dto.IssueExportRow(i.id, i.title, i.description, i.category.name, " +
+            "i.status, i.latitude, i.longitude, i.imageUrl, i.user.username, i.createdAt, i.resolvedAt, false) " +
+            "FROM Issue i WHERE i.deletedAt IS NULL AND i.id > :afterId ORDER BY i.id")
+    List<IssueExportRow> findExportRows(@Param("afterId") Long afterId, Pageable pageable);
+
+    // --- Archiving (see IssueArchiver) ---
+
+    /**
+     * Locks the next batch of live issues resolved before the cutoff, oldest first.
+     * Rows locked by another archiver (or a concurrent update) are skipped.
+     */
+    @Query(value = "SELECT id FROM issues WHERE status = 'RESOLVED' AND deleted_at IS NULL AND resolved_at < :cutoff " +
+            "ORDER BY resolved_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockArchiveCandidates(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    /**
+     * The months ('YYYY-MM', UTC) in which the given issues were resolved,
+     * i.e. the archive partitions they will go to.
+     */
+    @Query(value = "SELECT DISTINCT to_char(resolved_at AT TIME ZONE 'UTC', 'YYYY-MM') FROM issues WHERE id IN :ids",
+            nativeQuery = true)
+    List<String> findResolvedMonths(@Param("ids") Collection<Long> ids);
+
+    // --- Soft delete / background purge ---
+
+    @Query("SELECT i.id FROM Issue i WHERE i.deletedAt IS NOT NULL ORDER BY i.id")
+    List<Long> findDeletedIds(Pageable pageable);
+
+    @Query("SELECT i.imageUrl FROM Issue i WHERE i.id IN :ids AND i.imageUrl IS NOT NULL")
+    List<String> findImageUrlsByIdIn(@Param("ids") Collection<Long> ids);
+
+    long countByDeletedAtIsNotNull();
+
+    boolean existsByUserId(Long userId);
 }
@@ -0,0 +1,19 @@
+package com.cityconnect.backend.repository;
+
+import com.cityconnect.backend.entity.IssueStatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface IssueStatusHistoryRepository extends JpaRepository<IssueStatusHistory, Long> {
+
+    /**
+     * When the oldest recorded change happened (where a rollup backfill starts).
+     */
+    @Query("SELECT MIN(h.changedAt) FROM IssueStatusHistory h")
+    Optional<Instant> findFirstChangedAt();
+}
@@ -0,0 +1,62 @@
+package com.cityconnect.backend.repository;
+
+import com.cityconnect.backend.entity.IssueStatusLatencyRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IssueStatusLatencyRollupRepository extends JpaRepository<IssueStatusLatencyRollup, Long> {
+
+    /**
+     * (Re)computes the rollup rows for one day with a single aggregate query.
+     * Idempotent: running it again for the same day overwrites that day's rows.
+     *
+     * A change out of PENDING counts as ACKNOWLEDGE, a change into RESOLVED as
+     * RESOLVE (PENDING -> RESOLVED counts as both).
+     *
+     * The table it writes is named as its query space: without it, Hibernate can't tell
+     * what a native statement changes and empties every second-level cache region.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "issue_status_latency_rollup"))
+    @Query(value = "INSERT INTO issue_status_latency_rollup " +
+            "(day, category, metric, sample_count, total_seconds, min_seconds, max_seconds, p50_seconds, p90_seconds, computed_at) " +
+            "SELECT :day, h.category, m.metric, COUNT(*), SUM(h.seconds_since_created), " +
+            "MIN(h.seconds_since_created), MAX(h.seconds_since_created), " +
+            "percentile_cont(0.5) WITHIN GROUP (ORDER BY h.seconds_since_created), " +
+            "percentile_cont(0.9) WITHIN GROUP (ORDER BY h.seconds_since_created), " +
+            "now() " +
+            "FROM issue_status_history h " +
+            "CROSS JOIN LATERAL (SELECT 'ACKNOWLEDGE' AS metric WHERE h.from_status = 'PENDING' " +
+            "                    UNION ALL SELECT 'RESOLVE' WHERE h.to_status = 'RESOLVED') m " +
+            "WHERE h.changed_at >= :from AND h.changed_at < :to " +
+            "GROUP BY h.category, m.metric " +
+            "ON CONFLICT (day, category, metric) DO UPDATE SET " +
+            "sample_count = EXCLUDED.sample_count, total_seconds = EXCLUDED.total_seconds, " +
+            "min_seconds = EXCLUDED.min_seconds, max_seconds = EXCLUDED.max_seconds, " +
+            "p50_seconds = EXCLUDED.p50_seconds, p90_seconds = EXCLUDED.p90_seconds, " +
+            "computed_at = EXCLUDED.computed_at",
+            nativeQuery = true)
+    int upsertDay(@Param("day") LocalDate day, @Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("SELECT MAX(r.day) FROM IssueStatusLatencyRollup r")
+    Optional<LocalDate> findLastDay();
+
+    @Query("SELECT MAX(r.computedAt) FROM IssueStatusLatencyRollup r")
+    Optional<Instant> findLastComputedAt();
+
+    List<IssueStatusLatencyRollup> findByDayBetweenOrderByDayAscCategoryAscMetricAsc(LocalDate from, LocalDate to);
+
+    List<IssueStatusLatencyRollup> findByDayBetweenAndCategoryOrderByDayAscMetricAsc(LocalDate from, LocalDate to, String category);
+}
@@ -0,0 +1,23 @@
+package com.cityconnect.backend.repository;
+
+import com.cityconnect.backend.dto.IssueViewStatsResponse;
+import com.cityconnect.backend.entity.IssueViewStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IssueViewStatsRepository extends JpaRepository<IssueViewStats, Long> {
+
+    /**
+     * The most viewed live issues, most views first (reads the top of idx_issue_view_stats_views).
+     */
+    @Query("SELECT new com.cityconnect.backend.dto.IssueViewStatsResponse(i.id, i.title, i.status, " +
+            "s.viewCount, s.uniqueViewers, s.updatedAt) " +
+            "FROM IssueViewStats s, Issue i WHERE i.id = s.issueId AND i.deletedAt IS NULL " +
+            "ORDER BY s.viewCount DESC")
+    List<IssueViewStatsResponse> findMostViewed(Pageable pageable);
+}
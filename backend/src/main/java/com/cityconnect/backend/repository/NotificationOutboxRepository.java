@@ -0,0 +1,31 @@
+package com.cityconnect.backend.repository;
+
+import com.cityconnect.backend.entity.NotificationOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxMessage, Long> {
+
+    /**
+     * Locks up to 'limit' due messages for the current transaction.
+     * SKIP LOCKED lets several dispatchers (one per node) work side by side:
+     * each one simply skips the rows another has already claimed.
+     */
+    @Query(value = "SELECT * FROM notification_outbox " +
+            "WHERE status = 'PENDING' AND available_at <= :now " +
+            "ORDER BY id LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutboxMessage> claimDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxMessage m WHERE m.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
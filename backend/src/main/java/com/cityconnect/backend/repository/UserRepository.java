@@ -1,9 +1,19 @@
 package com.cityconnect.backend.repository;
 
 import com.cityconnect.backend.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,9 +23,30 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // It will be used by UserDetailsServiceImpl to load a user by their username.
     Optional<User> findByUsername(String username);
 
+    // Same as above, but ignores accounts that are waiting to be purged.
+    // Runs on every authenticated request, so the result goes to the query cache
+    // (Hibernate drops it as soon as the users table is written to).
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<User> findByUsernameAndDeletedAtIsNull(String username);
+
     // We need these for our registration service (AuthService) to check for duplicates.
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
     Boolean existsByEmailAndIdNot(String email, Long id);
     Boolean existsByRole(String role);
+
+    // --- Soft delete / background purge ---
+
+    @Modifying
+    @Query("UPDATE User u SET u.deletedAt = :deletedAt WHERE u.id = :id AND u.deletedAt IS NULL")
+    int markDeleted(@Param("id") Long id, @Param("deletedAt") Instant deletedAt);
+
+    @Query("SELECT u.id FROM User u WHERE u.deletedAt IS NOT NULL ORDER BY u.id")
+    List<Long> findDeletedIds(Pageable pageable);
+
+    long countByDeletedAtIsNotNull();
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
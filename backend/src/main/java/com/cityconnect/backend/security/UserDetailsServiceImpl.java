@@ -24,7 +24,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         // We use our custom UserRepository to find the user
-        User user = userRepository.findByUsername(username)
+        // (accounts waiting to be purged are treated as already gone)
+        User user = userRepository.findByUsernameAndDeletedAtIsNull(username)
                 .orElseThrow(() ->
                         new UsernameNotFoundException("User not found with username: " + username));
 
@@ -0,0 +1,26 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.IssueViewStatsResponse;
+import com.cityconnect.backend.dto.StatusLatencyReport;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Read-only analytics for admins, served from precomputed rollups.
+ */
+public interface AnalyticsService {
+
+    /**
+     * Time-to-acknowledge and time-to-resolve statistics between two days (inclusive, UTC).
+     *
+     * @param category Only this category, or null for all of them.
+     */
+    StatusLatencyReport getStatusLatency(LocalDate from, LocalDate to, String category);
+
+    /**
+     * The most viewed live issues, with (approximate) unique viewers.
+     * @throws com.cityconnect.backend.exception.BadRequestException if the limit is out of range.
+     */
+    List<IssueViewStatsResponse> getMostViewed(int limit);
+}
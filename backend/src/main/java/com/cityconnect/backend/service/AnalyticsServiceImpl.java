@@ -0,0 +1,120 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.IssueViewStatsResponse;
+import com.cityconnect.backend.dto.LatencyStats;
+import com.cityconnect.backend.dto.StatusLatencyReport;
+import com.cityconnect.backend.entity.IssueStatusLatencyRollup;
+import com.cityconnect.backend.exception.BadRequestException;
+import com.cityconnect.backend.repository.IssueStatusLatencyRollupRepository;
+import com.cityconnect.backend.repository.IssueViewStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Implementation of the AnalyticsService.
+ *
+ * Never touches issue_status_history: the StatusLatencyRollupJob has already
+ * reduced it to one row per day, category and metric, so a year of data is
+ * at most a few thousand small rows.
+ */
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    // Keeps a single request from reading an unbounded number of rollup rows
+    private static final long MAX_RANGE_DAYS = 366;
+
+    private static final int MAX_MOST_VIEWED = 100;
+
+    @Autowired
+    private IssueStatusLatencyRollupRepository rollupRepository;
+
+    @Autowired
+    private IssueViewStatsRepository viewStatsRepository;
+
+    // Dashboards refreshing at the same time share one report
+    @Autowired
+    private SingleFlight singleFlight;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public AnalyticsServiceImpl(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public StatusLatencyReport getStatusLatency(LocalDate from, LocalDate to, String category) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("The range may span at most " + MAX_RANGE_DAYS + " days.");
+        }
+        String categoryFilter = category == null || category.isBlank() ? null : category;
+
+        // Not @Transactional: callers waiting on the single flight must not hold a connection
+        return singleFlight.execute("status-latency", Arrays.asList(from, to, categoryFilter),
+                () -> readOnlyTransaction.execute(status -> buildReport(from, to, categoryFilter)));
+    }
+
+    @Override
+    public List<IssueViewStatsResponse> getMostViewed(int limit) {
+        if (limit < 1 || limit > MAX_MOST_VIEWED) {
+            throw new BadRequestException("'limit' must be between 1 and " + MAX_MOST_VIEWED + ".");
+        }
+        return singleFlight.execute("most-viewed", limit,
+                () -> readOnlyTransaction.execute(status -> viewStatsRepository.findMostViewed(PageRequest.of(0, limit))));
+    }
+
+    private StatusLatencyReport buildReport(LocalDate from, LocalDate to, String category) {
+
+        List<IssueStatusLatencyRollup> rollups = category == null
+                ? rollupRepository.findByDayBetweenOrderByDayAscCategoryAscMetricAsc(from, to)
+                : rollupRepository.findByDayBetweenAndCategoryOrderByDayAscMetricAsc(from, to, category);
+
+        StatusLatencyReport report = new StatusLatencyReport();
+        report.setFrom(from);
+        report.setTo(to);
+        report.setComputedAt(rollupRepository.findLastComputedAt().orElse(null));
+
+        // Totals per "category|metric" and per "ALL|metric", in a stable order
+        Map<String, LatencyStats> totals = new TreeMap<>();
+        for (IssueStatusLatencyRollup rollup : rollups) {
+            report.getDaily().add(new LatencyStats(rollup.getDay(), rollup.getCategory(), rollup.getMetric().name(),
+                    rollup.getSampleCount(), average(rollup.getTotalSeconds(), rollup.getSampleCount()),
+                    rollup.getMinSeconds(), rollup.getMaxSeconds(), rollup.getP50Seconds(), rollup.getP90Seconds()));
+
+            addToTotal(totals, rollup.getCategory(), rollup);
+            addToTotal(totals, "ALL", rollup);
+        }
+        report.getSummary().addAll(totals.values());
+        return report;
+    }
+
+    private void addToTotal(Map<String, LatencyStats> totals, String category, IssueStatusLatencyRollup rollup) {
+        LatencyStats total = totals.computeIfAbsent(category + "|" + rollup.getMetric(), key -> new LatencyStats(
+                null, category, rollup.getMetric().name(), 0, 0, Long.MAX_VALUE, 0, null, null));
+
+        // Re-weight the running average by sample count
+        long count = total.getCount() + rollup.getSampleCount();
+        double totalSeconds = total.getAverageSeconds() * total.getCount() + rollup.getTotalSeconds();
+        total.setCount(count);
+        total.setAverageSeconds(count > 0 ? totalSeconds / count : 0);
+        total.setMinSeconds(Math.min(total.getMinSeconds(), rollup.getMinSeconds()));
+        total.setMaxSeconds(Math.max(total.getMaxSeconds(), rollup.getMaxSeconds()));
+    }
+
+    private static double average(long totalSeconds, long count) {
+        return count > 0 ? (double) totalSeconds / count : 0;
+    }
+}
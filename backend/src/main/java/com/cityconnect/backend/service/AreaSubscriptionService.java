@@ -0,0 +1,38 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.AreaSubscriptionRequest;
+import com.cityconnect.backend.dto.AreaSubscriptionResponse;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Areas users follow (circles or polygons), and which of them contain a point.
+ *
+ * Matching only reads an in-memory index of all subscriptions, so a new issue is
+ * matched against every area in microseconds. The index follows the domain events of
+ * all nodes and is resynced from the database now and then.
+ */
+public interface AreaSubscriptionService {
+
+    AreaSubscriptionResponse createSubscription(AreaSubscriptionRequest request);
+
+    List<AreaSubscriptionResponse> getMySubscriptions();
+
+    void deleteSubscription(Long id);
+
+    /**
+     * The users following an area that contains the point (each user once).
+     */
+    Set<Long> findSubscriberIds(double latitude, double longitude);
+
+    /**
+     * Applies the subscription changes announced since the last call. Called by the AreaIndexRefresher job.
+     */
+    void refresh();
+
+    /**
+     * Reloads the index from the database. Called by the AreaIndexRefresher job.
+     */
+    void resync();
+}
@@ -0,0 +1,324 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.AreaSubscriptionRequest;
+import com.cityconnect.backend.dto.AreaSubscriptionResponse;
+import com.cityconnect.backend.entity.AreaSubscription;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.event.AreaSubscriptionChangedEvent;
+import com.cityconnect.backend.event.EventBus;
+import com.cityconnect.backend.event.UserDeletedEvent;
+import com.cityconnect.backend.exception.BadRequestException;
+import com.cityconnect.backend.exception.ResourceNotFoundException;
+import com.cityconnect.backend.repository.AreaSubscriptionRepository;
+import com.cityconnect.backend.util.RTree;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of the AreaSubscriptionService.
+ *
+ * Every subscription is kept in memory with its bounding box, and the boxes are packed
+ * into an R-tree (see util.RTree). Matching a point walks the tree to the few boxes
+ * that contain it, then does the exact test (distance for circles, ray casting for
+ * polygons) on those only. The tree is immutable: changes go into the map, and the
+ * tree is rebuilt from it in one go (about 0.1 s for 100k areas) and swapped in, so
+ * lookups never lock.
+ *
+ * Like the duplicate index, only refresh() and resync() change the index; event
+ * listeners just queue the subscription for the next refresh.
+ */
+@Service
+public class AreaSubscriptionServiceImpl implements AreaSubscriptionService {
+
+    private static final double EARTH_RADIUS_METRES = 6_371_000;
+    private static final double METRES_PER_DEGREE = EARTH_RADIUS_METRES * Math.PI / 180;
+
+    private record Area(long id, long userId, double latitude, double longitude, double radiusMetres,
+                        double[] polygon) {
+
+        boolean contains(double lat, double lon) {
+            if (polygon == null) {
+                return distanceMetres(latitude, longitude, lat, lon) <= radiusMetres;
+            }
+            // Ray casting: count the edges a ray to the east crosses
+            boolean inside = false;
+            int n = polygon.length / 2;
+            for (int i = 0, j = n - 1; i < n; j = i++) {
+                double latI = polygon[2 * i], lonI = polygon[2 * i + 1];
+                double latJ = polygon[2 * j], lonJ = polygon[2 * j + 1];
+                if ((latI > lat) != (latJ > lat) && lon < (lonJ - lonI) * (lat - latI) / (latJ - latI) + lonI) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+    }
+
+    @Autowired
+    private AreaSubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${areas.enabled:true}")
+    private boolean enabled;
+
+    @Value("${areas.max-per-user:20}")
+    private int maxPerUser;
+
+    // Circles up to this radius; polygons must fit in a square twice as wide
+    @Value("${areas.max-radius-metres:20000}")
+    private double maxRadiusMetres;
+
+    @Value("${areas.max-points:100}")
+    private int maxPoints;
+
+    private final Timer matchTimer;
+
+    // Subscription ID -> area, and the tree built from them
+    private final Map<Long, Area> areas = new ConcurrentHashMap<>();
+    private volatile RTree<Area> tree = RTree.empty();
+
+    // Subscriptions that changed (per the event bus) since the last refresh()
+    private final Set<Long> toCheck = ConcurrentHashMap.newKeySet();
+
+    public AreaSubscriptionServiceImpl(MeterRegistry meterRegistry) {
+        this.matchTimer = Timer.builder("areas.match")
+                .description("Time to find the areas containing a new issue")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("areas.indexed", this, service -> service.tree.size())
+                .description("Area subscriptions in the in-memory index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes to changes first, then loads the subscriptions, so nothing falls in between.
+     */
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        eventBus.subscribe(AreaSubscriptionChangedEvent.class, event -> toCheck.add(event.subscriptionId()));
+        eventBus.subscribe(UserDeletedEvent.class, event -> areas.values().stream()
+                .filter(area -> area.userId() == event.userId())
+                .forEach(area -> toCheck.add(area.id())));
+        resync();
+    }
+
+    @Override
+    @Transactional
+    public AreaSubscriptionResponse createSubscription(AreaSubscriptionRequest request) {
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (subscriptionRepository.countByUserId(user.getId()) >= maxPerUser) {
+            throw new BadRequestException("You can follow at most " + maxPerUser + " areas.");
+        }
+
+        AreaSubscription subscription = new AreaSubscription();
+        subscription.setUserId(user.getId());
+        subscription.setName(request.getName().trim());
+        switch (request.getShape().trim().toUpperCase(Locale.ROOT)) {
+            case "CIRCLE" -> {
+                checkPoint(request.getLatitude(), request.getLongitude());
+                if (request.getRadiusMetres() == null || !(request.getRadiusMetres() > 0)
+                        || request.getRadiusMetres() > maxRadiusMetres) {
+                    throw new BadRequestException("radiusMetres must be between 0 and " + maxRadiusMetres);
+                }
+                subscription.setShape(AreaSubscription.Shape.CIRCLE);
+                subscription.setCenterLatitude(request.getLatitude());
+                subscription.setCenterLongitude(request.getLongitude());
+                subscription.setRadiusMetres(request.getRadiusMetres());
+            }
+            case "POLYGON" -> {
+                subscription.setShape(AreaSubscription.Shape.POLYGON);
+                subscription.setPolygon(toPolygon(request.getPoints()));
+            }
+            default -> throw new BadRequestException("Shape must be CIRCLE or POLYGON");
+        }
+
+        AreaSubscription saved = subscriptionRepository.save(subscription);
+        eventPublisher.publishEvent(new AreaSubscriptionChangedEvent(saved.getId(), user.getId()));
+        return mapToResponse(saved);
+    }
+
+    @Override
+    public List<AreaSubscriptionResponse> getMySubscriptions() {
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return subscriptionRepository.findByUserIdOrderById(user.getId()).stream()
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void deleteSubscription(Long id) {
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AreaSubscription subscription = subscriptionRepository.findById(id)
+                .filter(found -> found.getUserId().equals(user.getId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Area subscription not found with id: " + id));
+        subscriptionRepository.delete(subscription);
+        eventPublisher.publishEvent(new AreaSubscriptionChangedEvent(id, user.getId()));
+    }
+
+    @Override
+    public Set<Long> findSubscriberIds(double latitude, double longitude) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        if (enabled) {
+            matchTimer.record(() -> tree.search(longitude, latitude, area -> {
+                if (area.contains(latitude, longitude)) {
+                    userIds.add(area.userId());
+                }
+            }));
+        }
+        return userIds;
+    }
+
+    @Override
+    public synchronized void refresh() {
+        if (!enabled || toCheck.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(toCheck);
+        toCheck.removeAll(ids);
+        List<AreaSubscription> subscriptions;
+        try {
+            subscriptions = subscriptionRepository.findLiveByIdIn(ids);
+        } catch (RuntimeException e) {
+            toCheck.addAll(ids); // Try again next time
+            throw e;
+        }
+        Set<Long> found = new HashSet<>();
+        for (AreaSubscription subscription : subscriptions) {
+            areas.put(subscription.getId(), toArea(subscription));
+            found.add(subscription.getId());
+        }
+        ids.stream().filter(id -> !found.contains(id)).forEach(areas::remove);
+        rebuild();
+    }
+
+    @Override
+    public synchronized void resync() {
+        if (!enabled) {
+            return;
+        }
+        Set<Long> found = new HashSet<>();
+        for (AreaSubscription subscription : subscriptionRepository.findAllLive()) {
+            areas.put(subscription.getId(), toArea(subscription));
+            found.add(subscription.getId());
+        }
+        // Changes made while we were loading are queued and applied by the next refresh()
+        areas.keySet().removeIf(id -> !found.contains(id));
+        rebuild();
+    }
+
+    private void rebuild() {
+        RTree.Builder<Area> builder = new RTree.Builder<>();
+        for (Area area : areas.values()) {
+            if (area.polygon() == null) {
+                double latSpan = area.radiusMetres() / METRES_PER_DEGREE;
+                // Widest at the edge nearest the pole
+                double cos = Math.cos(Math.toRadians(Math.min(Math.abs(area.latitude()) + latSpan, 90)));
+                double lonSpan = area.radiusMetres() / (METRES_PER_DEGREE * Math.max(cos, 1e-6));
+                builder.add(area.longitude() - lonSpan, area.latitude() - latSpan,
+                        area.longitude() + lonSpan, area.latitude() + latSpan, area);
+            } else {
+                double[] polygon = area.polygon();
+                double minLat = Double.POSITIVE_INFINITY, minLon = Double.POSITIVE_INFINITY;
+                double maxLat = Double.NEGATIVE_INFINITY, maxLon = Double.NEGATIVE_INFINITY;
+                for (int i = 0; i < polygon.length; i += 2) {
+                    minLat = Math.min(minLat, polygon[i]);
+                    maxLat = Math.max(maxLat, polygon[i]);
+                    minLon = Math.min(minLon, polygon[i + 1]);
+                    maxLon = Math.max(maxLon, polygon[i + 1]);
+                }
+                builder.add(minLon, minLat, maxLon, maxLat, area);
+            }
+        }
+        tree = builder.build();
+    }
+
+    private static Area toArea(AreaSubscription subscription) {
+        if (subscription.getShape() == AreaSubscription.Shape.POLYGON) {
+            return new Area(subscription.getId(), subscription.getUserId(), 0, 0, 0, subscription.getPolygon());
+        }
+        return new Area(subscription.getId(), subscription.getUserId(), subscription.getCenterLatitude(),
+                subscription.getCenterLongitude(), subscription.getRadiusMetres(), null);
+    }
+
+    /**
+     * Checks the points and flattens them to lat1, lon1, lat2, lon2, ...
+     */
+    private double[] toPolygon(List<double[]> points) {
+        if (points == null || points.size() < 3 || points.size() > maxPoints) {
+            throw new BadRequestException("A polygon needs between 3 and " + maxPoints + " points");
+        }
+        double[] polygon = new double[points.size() * 2];
+        double minLat = 90, maxLat = -90, minLon = 180, maxLon = -180;
+        for (int i = 0; i < points.size(); i++) {
+            double[] point = points.get(i);
+            if (point == null || point.length != 2) {
+                throw new BadRequestException("Each point must be [latitude, longitude]");
+            }
+            checkPoint(point[0], point[1]);
+            polygon[2 * i] = point[0];
+            polygon[2 * i + 1] = point[1];
+            minLat = Math.min(minLat, point[0]);
+            maxLat = Math.max(maxLat, point[0]);
+            minLon = Math.min(minLon, point[1]);
+            maxLon = Math.max(maxLon, point[1]);
+        }
+        double height = (maxLat - minLat) * METRES_PER_DEGREE;
+        double width = (maxLon - minLon) * METRES_PER_DEGREE * Math.cos(Math.toRadians((minLat + maxLat) / 2));
+        if (height > 2 * maxRadiusMetres || width > 2 * maxRadiusMetres) {
+            throw new BadRequestException("A polygon may span at most " + 2 * maxRadiusMetres + " metres each way");
+        }
+        return polygon;
+    }
+
+    private static void checkPoint(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null || !(Math.abs(latitude) <= 90) || !(Math.abs(longitude) <= 180)) {
+            throw new BadRequestException("Latitude must be between -90 and 90, longitude between -180 and 180");
+        }
+    }
+
+    private AreaSubscriptionResponse mapToResponse(AreaSubscription subscription) {
+        List<double[]> points = null;
+        if (subscription.getPolygon() != null) {
+            points = new ArrayList<>();
+            for (int i = 0; i < subscription.getPolygon().length; i += 2) {
+                points.add(new double[]{subscription.getPolygon()[i], subscription.getPolygon()[i + 1]});
+            }
+        }
+        return new AreaSubscriptionResponse(subscription.getId(), subscription.getName(),
+                subscription.getShape().name(), subscription.getCenterLatitude(), subscription.getCenterLongitude(),
+                subscription.getRadiusMetres(), points, subscription.getCreatedAt());
+    }
+
+    // Equirectangular approximation: accurate to a few metres over a few kilometres
+    private static double distanceMetres(double lat1, double lon1, double lat2, double lon2) {
+        double x = Math.toRadians(lon2 - lon1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METRES;
+    }
+}
@@ -2,17 +2,25 @@ package com.cityconnect.backend.service;
 
 import com.cityconnect.backend.dto.CommentRequest;
 import com.cityconnect.backend.dto.CommentResponse;
+import com.cityconnect.backend.entity.ArchivedComment;
 import com.cityconnect.backend.entity.Comment;
 import com.cityconnect.backend.entity.Issue;
 import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.event.CommentCreatedEvent;
 import com.cityconnect.backend.exception.ResourceNotFoundException;
+import com.cityconnect.backend.repository.ArchivedCommentRepository;
+import com.cityconnect.backend.repository.ArchivedIssueRepository;
 import com.cityconnect.backend.repository.CommentRepository;
 import com.cityconnect.backend.repository.IssueRepository; // 1. MAKE SURE THIS IMPORT IS HERE
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,6 +34,29 @@ public class CommentServiceImpl implements CommentService {
     @Autowired
     private IssueRepository issueRepository;
 
+    // Comments of archived issues (see IssueArchiver); read-only
+    @Autowired
+    private ArchivedIssueRepository archivedIssueRepository;
+
+    @Autowired
+    private ArchivedCommentRepository archivedCommentRepository;
+
+    // New comments are announced as domain events; DomainEventRelay puts them on the EventBus after commit
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Concurrent requests for the comments of the same issue share one lookup
+    @Autowired
+    private SingleFlight singleFlight;
+
+    // Coalesced reads open their transaction inside the single flight
+    private final TransactionTemplate readOnlyTransaction;
+
+    public CommentServiceImpl(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
     // We also need the User for the mapper
     private User getAuthenticatedUser() {
         return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -34,11 +65,24 @@ public class CommentServiceImpl implements CommentService {
 
     // --- GET ALL COMMENTS (This is where the bug was) ---
     @Override
-    @Transactional(readOnly = true)
     public List<CommentResponse> getAllCommentsForIssue(Long issueId) {
+        // Not @Transactional: callers waiting on the single flight must not hold a connection
+        return singleFlight.execute("comments-by-issue", issueId,
+                () -> readOnlyTransaction.execute(status -> loadCommentsForIssue(issueId)));
+    }
+
+    private List<CommentResponse> loadCommentsForIssue(Long issueId) {
         // 3. This line will now work correctly
-        Issue issue = issueRepository.findById(issueId)
-                .orElseThrow(() -> new ResourceNotFoundException("Issue not found with id: " + issueId));
+        Issue issue = issueRepository.findLiveById(issueId).orElse(null);
+        if (issue == null) {
+            // Archived issues keep their comments in the archive
+            if (!archivedIssueRepository.existsById(issueId)) {
+                throw new ResourceNotFoundException("Issue not found with id: " + issueId);
+            }
+            return archivedCommentRepository.findByIssueIdOrderByCreatedAtAsc(issueId).stream()
+                    .map(this::mapToResponse)
+                    .collect(Collectors.toList());
+        }
 
         List<Comment> comments = commentRepository.findByIssueOrderByCreatedAtAsc(issue);
 
@@ -53,7 +97,7 @@ public class CommentServiceImpl implements CommentService {
     public CommentResponse createComment(Long issueId, CommentRequest commentRequest) {
         User currentUser = getAuthenticatedUser();
 
-        Issue issue = issueRepository.findById(issueId)
+        Issue issue = issueRepository.findLiveById(issueId)
                 .orElseThrow(() -> new ResourceNotFoundException("Issue not found with id: " + issueId));
 
         Comment newComment = new Comment();
@@ -63,6 +107,9 @@ public class CommentServiceImpl implements CommentService {
 
         Comment savedComment = commentRepository.save(newComment);
 
+        eventPublisher.publishEvent(new CommentCreatedEvent(issueId, issue.getUser().getId(), savedComment.getId(),
+                currentUser.getUsername(), savedComment.getContent(), Instant.now()));
+
         return mapToResponse(savedComment);
     }
 
@@ -82,4 +129,13 @@ public class CommentServiceImpl implements CommentService {
 
         return response;
     }
+
+    private CommentResponse mapToResponse(ArchivedComment comment) {
+        CommentResponse response = new CommentResponse();
+        response.setId(comment.getId());
+        response.setContent(comment.getContent());
+        response.setCreatedAt(comment.getCreatedAt());
+        response.setUsername(comment.getUser() != null ? comment.getUser().getUsername() : "Deleted User");
+        return response;
+    }
 }
\ No newline at end of file
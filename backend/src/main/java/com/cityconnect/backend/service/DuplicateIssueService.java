@@ -0,0 +1,41 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.DuplicateCandidate;
+import com.cityconnect.backend.dto.IssueRequest;
+
+import java.util.List;
+
+/**
+ * Spots new issues that were most likely reported already: an open issue a few metres
+ * away, created within the last hours, with a similar title and description.
+ *
+ * Lookups only read an in-memory index of recent open issues, so they can run on every
+ * submission before anything is stored. The index follows the domain events of all
+ * nodes and is resynced from the database now and then (for issues created without an
+ * event, such as intake and import, and for events a node missed).
+ */
+public interface DuplicateIssueService {
+
+    /**
+     * Likely duplicates of a submission, best match first (empty without a location).
+     */
+    List<DuplicateCandidate> findLikelyDuplicates(IssueRequest request);
+
+    /**
+     * Open issues reported within the search radius of a point during the time window
+     * (the same neighbourhood the duplicate check looks at, whatever their text).
+     * Stops after maxResults, so hot spots cost no more than quiet streets.
+     */
+    List<Long> findNearbyIssueIds(double latitude, double longitude, int maxResults);
+
+    /**
+     * Applies the issue changes announced since the last call (new, reopened, resolved,
+     * deleted) and drops issues that have fallen out of the time window. Called by the DuplicateIndexRefresher job.
+     */
+    void refresh();
+
+    /**
+     * Reloads the index from the database. Called by the DuplicateIndexRefresher job.
+     */
+    void resync();
+}
@@ -0,0 +1,308 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.DuplicateCandidate;
+import com.cityconnect.backend.dto.IssueRequest;
+import com.cityconnect.backend.entity.IssueStatus;
+import com.cityconnect.backend.event.EventBus;
+import com.cityconnect.backend.event.IssueCreatedEvent;
+import com.cityconnect.backend.event.IssueDeletedEvent;
+import com.cityconnect.backend.event.IssueStatusChangedEvent;
+import com.cityconnect.backend.event.UserDeletedEvent;
+import com.cityconnect.backend.repository.IssueRepository;
+import com.cityconnect.backend.repository.IssueRepository.DuplicateCandidateRow;
+import com.cityconnect.backend.util.MinHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of the DuplicateIssueService.
+ *
+ * Recent open issues with a location are kept in a grid of cells about one search
+ * radius wide, so the neighbours of a point are always in its own cell or one of the
+ * 8 around it. Each cell holds an array that is replaced on every change (cells hold
+ * a handful of issues), so lookups never lock. Each entry carries a MinHash signature
+ * of the title and description instead of the text itself.
+ *
+ * A lookup computes the submission's signature, reads at most 9 cells and compares
+ * signatures of the issues that are close enough and recent enough.
+ *
+ * Only refresh() and resync() change the index (one at a time); event listeners just
+ * queue the issue for the next refresh, so a change shows up within one refresh interval.
+ */
+@Service
+public class DuplicateIssueServiceImpl implements DuplicateIssueService {
+
+    private static final double EARTH_RADIUS_METRES = 6_371_000;
+    private static final double METRES_PER_DEGREE = EARTH_RADIUS_METRES * Math.PI / 180;
+
+    // Resolved issues are not offered: a new report means the problem is back
+    private static final Set<IssueStatus> OPEN_STATUSES = EnumSet.of(IssueStatus.PENDING, IssueStatus.IN_PROGRESS);
+
+    private record Entry(long issueId, long userId, String title, String category, double latitude,
+                         double longitude, Instant createdAt, int[] signature, long cell) {
+    }
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Value("${issues.duplicates.enabled:true}")
+    private boolean enabled;
+
+    @Value("${issues.duplicates.radius-metres:50}")
+    private double radiusMetres;
+
+    @Value("${issues.duplicates.window-hours:48}")
+    private long windowHours;
+
+    // Minimum estimated Jaccard similarity of the texts' 3-character shingles
+    @Value("${issues.duplicates.min-similarity:0.35}")
+    private double minSimilarity;
+
+    @Value("${issues.duplicates.max-results:5}")
+    private int maxResults;
+
+    private final Timer lookupTimer;
+    private final Counter flaggedCounter;
+
+    // Issue ID -> entry, and grid cell -> entries in it
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Entry[]> cells = new ConcurrentHashMap<>();
+
+    // Issues that changed (per the event bus) since the last refresh()
+    private final Set<Long> toCheck = ConcurrentHashMap.newKeySet();
+
+    public DuplicateIssueServiceImpl(MeterRegistry meterRegistry) {
+        this.lookupTimer = Timer.builder("issues.duplicates.lookup")
+                .description("Time to check a submission for duplicates")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.flaggedCounter = Counter.builder("issues.duplicates.flagged")
+                .description("Submissions for which likely duplicates were found")
+                .register(meterRegistry);
+        Gauge.builder("issues.duplicates.indexed", entries, Map::size)
+                .description("Recent open issues in the duplicate index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes to changes first, then loads the current window, so nothing falls in between.
+     */
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        // Listeners only note the issue; refresh() reads its current state from the database
+        eventBus.subscribe(IssueCreatedEvent.class, event -> toCheck.add(event.issueId()));
+        eventBus.subscribe(IssueStatusChangedEvent.class, event -> toCheck.add(event.issueId()));
+        eventBus.subscribe(IssueDeletedEvent.class, event -> toCheck.add(event.issueId()));
+        eventBus.subscribe(UserDeletedEvent.class, event -> entries.values().stream()
+                .filter(entry -> entry.userId() == event.userId())
+                .forEach(entry -> toCheck.add(entry.issueId())));
+        resync();
+    }
+
+    @Override
+    public List<DuplicateCandidate> findLikelyDuplicates(IssueRequest request) {
+        if (!enabled || request.getLatitude() == null || request.getLongitude() == null) {
+            return List.of();
+        }
+        List<DuplicateCandidate> candidates = lookupTimer.record(() -> lookup(request));
+        if (!candidates.isEmpty()) {
+            flaggedCounter.increment();
+        }
+        return candidates;
+    }
+
+    @Override
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        // 1. Reload the issues that changed: new and reopened ones are added, resolved
+        //    and deleted ones are dropped
+        if (!toCheck.isEmpty()) {
+            List<Long> ids = new ArrayList<>(toCheck);
+            toCheck.removeAll(ids);
+            List<DuplicateCandidateRow> rows;
+            try {
+                rows = issueRepository.findDuplicateCandidatesByIdIn(ids, OPEN_STATUSES, windowStart());
+            } catch (RuntimeException e) {
+                toCheck.addAll(ids); // Try again next time
+                throw e;
+            }
+            Set<Long> found = new HashSet<>();
+            for (DuplicateCandidateRow row : rows) {
+                add(row);
+                found.add(row.getId());
+            }
+            ids.stream().filter(id -> !found.contains(id)).forEach(this::remove);
+        }
+
+        // 2. Drop issues that are too old now
+        Instant windowStart = windowStart();
+        entries.values().stream()
+                .filter(entry -> entry.createdAt().isBefore(windowStart))
+                .forEach(entry -> remove(entry.issueId()));
+    }
+
+    @Override
+    public synchronized void resync() {
+        if (!enabled) {
+            return;
+        }
+        Set<Long> found = new HashSet<>();
+        for (DuplicateCandidateRow row : issueRepository.findDuplicateCandidates(OPEN_STATUSES, windowStart())) {
+            add(row);
+            found.add(row.getId());
+        }
+        // Whatever else is indexed no longer qualifies (we missed its event). Changes made
+        // while we were loading are queued and applied by the next refresh().
+        entries.values().stream()
+                .filter(entry -> !found.contains(entry.issueId()))
+                .forEach(entry -> remove(entry.issueId()));
+    }
+
+    @Override
+    public List<Long> findNearbyIssueIds(double latitude, double longitude, int maxResults) {
+        List<Long> issueIds = new ArrayList<>();
+        if (enabled) {
+            forEachNearby(latitude, longitude, (entry, distance) -> {
+                issueIds.add(entry.issueId());
+                return issueIds.size() < maxResults;
+            });
+        }
+        return issueIds;
+    }
+
+    private List<DuplicateCandidate> lookup(IssueRequest request) {
+        int[] signature = MinHash.signature(request.getTitle() + " " + request.getDescription());
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+        forEachNearby(request.getLatitude(), request.getLongitude(), (entry, distance) -> {
+            double similarity = MinHash.similarity(signature, entry.signature());
+            if (similarity >= minSimilarity) {
+                candidates.add(new DuplicateCandidate(entry.issueId(), entry.title(), entry.category(),
+                        entry.createdAt(), Math.round(distance * 10) / 10.0, similarity));
+            }
+            return true;
+        });
+        candidates.sort(Comparator.comparingDouble(DuplicateCandidate::getSimilarity).reversed()
+                .thenComparingDouble(DuplicateCandidate::getDistanceMetres));
+        return candidates.size() > maxResults ? new ArrayList<>(candidates.subList(0, maxResults)) : candidates;
+    }
+
+    // Gets each nearby entry and its distance; returns false to stop
+    private interface NearbyVisitor {
+        boolean visit(Entry entry, double distanceMetres);
+    }
+
+    /**
+     * Visits the indexed issues within the radius and the time window.
+     */
+    private void forEachNearby(double latitude, double longitude, NearbyVisitor visitor) {
+        Instant windowStart = windowStart();
+        long row = row(latitude);
+        for (long r = row - 1; r <= row + 1; r++) {
+            long column = column(longitude, r);
+            for (long c = column - 1; c <= column + 1; c++) {
+                Entry[] cell = cells.get(cellKey(r, c));
+                if (cell == null) {
+                    continue;
+                }
+                for (Entry entry : cell) {
+                    if (entry.createdAt().isBefore(windowStart)) {
+                        continue;
+                    }
+                    double distance = distanceMetres(latitude, longitude, entry.latitude(), entry.longitude());
+                    if (distance <= radiusMetres && !visitor.visit(entry, distance)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private void add(DuplicateCandidateRow issue) {
+        long row = row(issue.getLatitude());
+        Entry entry = new Entry(issue.getId(), issue.getUserId(), issue.getTitle(), issue.getCategory(),
+                issue.getLatitude(), issue.getLongitude(), issue.getCreatedAt(),
+                MinHash.signature(issue.getTitle() + " " + issue.getDescription()),
+                cellKey(row, column(issue.getLongitude(), row)));
+        Entry previous = entries.put(entry.issueId(), entry);
+        if (previous != null) {
+            removeFromCell(previous);
+        }
+        cells.compute(entry.cell(), (key, cell) -> {
+            if (cell == null) {
+                return new Entry[]{entry};
+            }
+            Entry[] grown = Arrays.copyOf(cell, cell.length + 1);
+            grown[cell.length] = entry;
+            return grown;
+        });
+    }
+
+    private void remove(Long issueId) {
+        Entry entry = entries.remove(issueId);
+        if (entry != null) {
+            removeFromCell(entry);
+        }
+    }
+
+    private void removeFromCell(Entry entry) {
+        cells.computeIfPresent(entry.cell(), (key, cell) -> {
+            Entry[] remaining = Arrays.stream(cell).filter(e -> e != entry).toArray(Entry[]::new);
+            return remaining.length == 0 ? null : remaining;
+        });
+    }
+
+    private Instant windowStart() {
+        return Instant.now().minus(Duration.ofHours(windowHours));
+    }
+
+    // --- Grid ---
+    // Rows are radiusMetres high. Columns are radiusMetres wide at the row's latitude,
+    // so a row's column count shrinks towards the poles like the distances do.
+
+    private long row(double latitude) {
+        return (long) Math.floor(latitude * METRES_PER_DEGREE / radiusMetres);
+    }
+
+    private long column(double longitude, long row) {
+        double rowLatitude = (row + 0.5) * radiusMetres / METRES_PER_DEGREE;
+        double metresPerDegree = METRES_PER_DEGREE * Math.max(Math.cos(Math.toRadians(rowLatitude)), 1e-6);
+        return (long) Math.floor(longitude * metresPerDegree / radiusMetres);
+    }
+
+    private static long cellKey(long row, long column) {
+        return (row << 32) ^ (column & 0xFFFFFFFFL);
+    }
+
+    // Equirectangular approximation: accurate to well under a metre over a few hundred metres
+    private static double distanceMetres(double lat1, double lon1, double lat2, double lon2) {
+        double x = Math.toRadians(lon2 - lon1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METRES;
+    }
+}
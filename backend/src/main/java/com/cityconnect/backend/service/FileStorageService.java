@@ -2,6 +2,8 @@ package com.cityconnect.backend.service;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
+
 /**
  * Interface for the file storage service,
  * which handles saving, loading, and deleting files.
@@ -27,4 +29,15 @@ public interface FileStorageService {
      * @param webPath The web-accessible path (e.g., /media/filename.jpg)
      */
     void deleteFile(String webPath);
+
+    /**
+     * The directory on disk where uploaded files are stored.
+     */
+    Path getRootLocation();
+
+    /**
+     * Converts a stored filename (e.g., foo.jpg) to its web path (e.g., /media/foo.jpg).
+     * This is the exact form we save in Issue.imageUrl.
+     */
+    String toWebPath(String filename);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.cityconnect.backend.service;
 
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
@@ -26,6 +27,10 @@ public class FileStorageServiceImpl implements FileStorageService {
     // We'll map this web path to the rootLocation in our WebMvcConfig
     private static final String WEB_PATH = "/media/";
 
+    // Uploads are hashed in the background to find the same photo attached twice
+    @Autowired
+    private ImageHashService imageHashService;
+
     /**
      * This method is run by Spring after the bean is created.
      * It creates the 'uploads' directory if it doesn't exist.
@@ -67,8 +72,12 @@ public class FileStorageServiceImpl implements FileStorageService {
                 Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
             }
 
-            // 5. Return the web-accessible path
-            return WEB_PATH + uniqueFilename;
+            // 5. Queue it for perceptual hashing (doesn't wait for it)
+            String webPath = toWebPath(uniqueFilename);
+            imageHashService.hashInBackground(webPath, destinationFile);
+
+            // 6. Return the web-accessible path
+            return webPath;
 
         } catch (IOException e) {
             throw new RuntimeException("Failed to store file.", e);
@@ -93,8 +102,9 @@ public class FileStorageServiceImpl implements FileStorageService {
             // 2. Resolve the full file path on the disk
             Path filePath = this.rootLocation.resolve(filename).toAbsolutePath();
 
-            // 3. Delete the file if it exists
+            // 3. Delete the file if it exists, and its hash
             Files.deleteIfExists(filePath);
+            imageHashService.remove(webPath);
 
         } catch (IOException e) {
             // We can log this, but we don't want to fail the whole operation
@@ -103,4 +113,14 @@ public class FileStorageServiceImpl implements FileStorageService {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public Path getRootLocation() {
+        return rootLocation;
+    }
+
+    @Override
+    public String toWebPath(String filename) {
+        return WEB_PATH + filename;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.cityconnect.backend.service;
+
+/**
+ * Responses of create requests sent with an Idempotency-Key, so a retried request
+ * gets the original response instead of running again (see config.IdempotencyFilter).
+ *
+ * Keys belong to a user. A key is claimed by the first request that uses it, and
+ * then holds that request's response until it expires ('idempotency.ttl-hours').
+ * Responses are stored in the database, so a retry that reaches another node is
+ * recognized too; the recent ones are also kept in a bounded in-memory cache.
+ */
+public interface IdempotencyService {
+
+    enum Outcome {
+        // The key is ours: run the request, then complete() or release() it
+        CLAIMED,
+        // Another request with the key is still running
+        IN_PROGRESS,
+        // The key has a stored response (in 'response')
+        COMPLETED
+    }
+
+    /**
+     * @param requestHash Digest of the request that holds the key, to detect a key reused for another request.
+     */
+    record StoredResponse(byte[] requestHash, int status, String contentType, byte[] body) {
+    }
+
+    /**
+     * @param requestHash Digest of the request that holds the key (for IN_PROGRESS and COMPLETED).
+     */
+    record Claim(Outcome outcome, byte[] requestHash, StoredResponse response) {
+    }
+
+    Claim claim(Long userId, String key, byte[] requestHash);
+
+    /**
+     * Stores the response of the request that claimed the key.
+     */
+    void complete(Long userId, String key, StoredResponse response);
+
+    /**
+     * Gives the key up without a response (the request failed), so it can be retried.
+     */
+    void release(Long userId, String key, byte[] requestHash);
+
+    /**
+     * Removes expired keys. Called by the IdempotencyKeyPruner job.
+     * @return the number of keys removed.
+     */
+    int pruneExpired();
+}
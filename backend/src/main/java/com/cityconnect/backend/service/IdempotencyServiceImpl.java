@@ -0,0 +1,147 @@
+package com.cityconnect.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Implementation of the IdempotencyService, on the idempotency_keys table.
+ *
+ * Claiming a key is one INSERT ... ON CONFLICT that only succeeds if the key is new
+ * or has expired, so two concurrent requests with the same key can't both run.
+ * A claim whose request never finished (the node died) expires after
+ * 'idempotency.claim-timeout-seconds' and can then be taken over by a retry.
+ *
+ * Completed responses are also cached in memory (up to 'idempotency.memory-max-bytes'),
+ * so a retry on the same node is answered without a query. Responses never change
+ * once stored, so the cache needs no invalidation.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, created_at, expires_at) " +
+            "VALUES (?, ?, ?, now(), now() + make_interval(secs => ?)) " +
+            "ON CONFLICT (user_id, idempotency_key) DO UPDATE SET " +
+            "request_hash = excluded.request_hash, response_status = NULL, content_type = NULL, " +
+            "response_body = NULL, created_at = excluded.created_at, expires_at = excluded.expires_at " +
+            "WHERE idempotency_keys.expires_at <= now() " +
+            "RETURNING 1";
+
+    private record Key(Long userId, String key) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Longer than any create request takes, uploads included
+    @Value("${idempotency.claim-timeout-seconds:120}")
+    private long claimTimeoutSeconds;
+
+    @Value("${idempotency.prune-batch-size:10000}")
+    private int pruneBatchSize;
+
+    private final long ttlHours;
+    private final Cache<Key, StoredResponse> recent;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyServiceImpl(MeterRegistry meterRegistry,
+                                  @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                                  @Value("${idempotency.memory-max-bytes:16777216}") long memoryMaxBytes) {
+        this.meterRegistry = meterRegistry;
+        this.ttlHours = ttlHours;
+        this.recent = Caffeine.newBuilder()
+                .maximumWeight(memoryMaxBytes)
+                // Body and hash, plus roughly what the key, record and cache entry take
+                .<Key, StoredResponse>weigher((key, response) ->
+                        response.body().length + response.requestHash().length + key.key().length() * 2 + 128)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recent, "idempotency-keys");
+    }
+
+    @Override
+    public Claim claim(Long userId, String key, byte[] requestHash) {
+        StoredResponse cached = recent.getIfPresent(new Key(userId, key));
+        if (cached != null) {
+            count("replayed", "memory");
+            return new Claim(Outcome.COMPLETED, cached.requestHash(), cached);
+        }
+
+        if (!jdbcTemplate.queryForList(CLAIM_SQL, Integer.class, userId, key, requestHash, (double) claimTimeoutSeconds)
+                .isEmpty()) {
+            count("claimed", "database");
+            return new Claim(Outcome.CLAIMED, requestHash, null);
+        }
+
+        List<StoredResponse> existing = jdbcTemplate.query(
+                "SELECT request_hash, response_status, content_type, response_body FROM idempotency_keys " +
+                "WHERE user_id = ? AND idempotency_key = ? AND expires_at > now()",
+                (rs, rowNum) -> new StoredResponse(rs.getBytes("request_hash"), rs.getInt("response_status"),
+                        rs.getString("content_type"), rs.getBytes("response_body")),
+                userId, key);
+        // None: it expired just now, the client's next retry claims it. No status (0): still running.
+        if (existing.isEmpty() || existing.get(0).status() == 0) {
+            count("in-progress", "database");
+            return new Claim(Outcome.IN_PROGRESS, existing.isEmpty() ? null : existing.get(0).requestHash(), null);
+        }
+        StoredResponse response = existing.get(0);
+        recent.put(new Key(userId, key), response);
+        count("replayed", "database");
+        return new Claim(Outcome.COMPLETED, response.requestHash(), response);
+    }
+
+    @Override
+    public void complete(Long userId, String key, StoredResponse response) {
+        int updated = jdbcTemplate.update(
+                "UPDATE idempotency_keys SET response_status = ?, content_type = ?, response_body = ?, " +
+                "expires_at = now() + make_interval(hours => ?) " +
+                "WHERE user_id = ? AND idempotency_key = ? AND request_hash = ? AND response_status IS NULL",
+                response.status(), response.contentType(), response.body(), (int) ttlHours,
+                userId, key, response.requestHash());
+        if (updated > 0) {
+            recent.put(new Key(userId, key), response);
+        }
+    }
+
+    @Override
+    public void release(Long userId, String key, byte[] requestHash) {
+        jdbcTemplate.update(
+                "DELETE FROM idempotency_keys " +
+                "WHERE user_id = ? AND idempotency_key = ? AND request_hash = ? AND response_status IS NULL",
+                userId, key, requestHash);
+    }
+
+    @Override
+    public int pruneExpired() {
+        int pruned = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(
+                    "DELETE FROM idempotency_keys WHERE (user_id, idempotency_key) IN " +
+                    "(SELECT user_id, idempotency_key FROM idempotency_keys WHERE expires_at <= now() LIMIT ?)",
+                    pruneBatchSize);
+            pruned += batch;
+        } while (batch == pruneBatchSize);
+        return pruned;
+    }
+
+    private void count(String outcome, String source) {
+        Counter.builder("idempotency.requests")
+                .description("Create requests sent with an Idempotency-Key")
+                .tag("outcome", outcome)
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+    }
+}
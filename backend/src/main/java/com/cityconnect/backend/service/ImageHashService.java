@@ -0,0 +1,55 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.SimilarImage;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Perceptual hashes of uploaded images, for finding the same photo attached more than once.
+ *
+ * Every stored upload is hashed in the background (never on the request thread); the
+ * hashes are saved in image_hashes and kept in memory in a BK-tree, so near-duplicates
+ * are found without comparing against every image.
+ */
+public interface ImageHashService {
+
+    /**
+     * Queues a freshly stored upload for hashing and returns right away.
+     * If the queue is full the file is left to the backfill.
+     */
+    void hashInBackground(String imageUrl, Path file);
+
+    /**
+     * Hashes a file now, on the calling thread, and saves the hash.
+     * Files that are not readable images are recorded as such.
+     */
+    void hash(String imageUrl, Path file);
+
+    /**
+     * The given image URLs that have no saved hash yet.
+     */
+    Set<String> findUnhashed(Collection<String> imageUrls);
+
+    /**
+     * Forgets a deleted upload.
+     */
+    void remove(String imageUrl);
+
+    /**
+     * Uploads that look like the given one, closest first (the image itself is not included).
+     * Waits briefly if the image is still being hashed.
+     *
+     * @param maxDistance Most differing hash bits to accept; null for the configured default.
+     * @throws com.cityconnect.backend.exception.ResourceNotFoundException if the image has no hash.
+     * @throws com.cityconnect.backend.exception.ServiceUnavailableException if it is still being hashed.
+     */
+    List<SimilarImage> findSimilar(String imageUrl, Integer maxDistance);
+
+    /**
+     * Loads hashes saved by other instances since the last call.
+     */
+    void refresh();
+}
@@ -0,0 +1,301 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.SimilarImage;
+import com.cityconnect.backend.exception.BadRequestException;
+import com.cityconnect.backend.exception.ResourceNotFoundException;
+import com.cityconnect.backend.exception.ServiceUnavailableException;
+import com.cityconnect.backend.util.BkTree;
+import com.cityconnect.backend.util.PerceptualHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of the ImageHashService.
+ *
+ * Uploads are hashed (dHash, see util.PerceptualHash) by a small pool of background
+ * threads with a bounded queue. Each hash is saved in image_hashes and added to an
+ * in-memory BK-tree; every instance loads the whole table on startup and then the
+ * rows other instances add (refresh()). A lookup searches the tree and checks the
+ * matches against the table in one query, which also finds the issues using them.
+ */
+@Service
+public class ImageHashServiceImpl implements ImageHashService {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+    private static final int MAX_ALLOWED_DISTANCE = 20;
+
+    // Rows are loaded from a little before the newest one seen, since transactions
+    // on other instances may commit out of hashed_at order
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Hashes differing in at most this many of the 64 bits count as the same picture
+    @Value("${images.similar.max-distance:10}")
+    private int defaultMaxDistance;
+
+    @Value("${images.similar.max-results:20}")
+    private int maxResults;
+
+    // How long a lookup waits for an upload that is still being hashed
+    @Value("${images.similar.wait-ms:3000}")
+    private long waitMs;
+
+    private final ThreadPoolExecutor hashers;
+    private final Counter hashedCounter;
+    private final Counter skippedCounter;
+
+    private final BkTree tree = new BkTree();
+    // Image URL -> hash, for every image in the tree
+    private final Map<String, Long> hashes = new ConcurrentHashMap<>();
+    // Uploads queued or being hashed; completes with the hash (null if not an image)
+    private final Map<String, CompletableFuture<Long>> pending = new ConcurrentHashMap<>();
+
+    private Instant loadedUntil = Instant.EPOCH; // Guarded by 'this'
+
+    public ImageHashServiceImpl(MeterRegistry meterRegistry,
+                                @Value("${images.hashing.threads:2}") int threads,
+                                @Value("${images.hashing.queue-size:1000}") int queueSize) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "image-hasher-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hashedCounter = Counter.builder("images.hashed")
+                .description("Uploaded images hashed")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("images.hashing.skipped")
+                .description("Uploads not queued for hashing because the queue was full (left to the backfill)")
+                .register(meterRegistry);
+        Gauge.builder("images.indexed", tree, BkTree::size)
+                .description("Image hashes in the in-memory BK-tree")
+                .register(meterRegistry);
+        Gauge.builder("images.hashing.queued", hashers, executor -> executor.getQueue().size())
+                .description("Uploads waiting to be hashed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashers.shutdownNow(); // Unhashed uploads are picked up by the backfill
+    }
+
+    @Override
+    public void hashInBackground(String imageUrl, Path file) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        if (pending.putIfAbsent(imageUrl, result) != null) {
+            return; // Already on its way
+        }
+        try {
+            hashers.execute(() -> {
+                try {
+                    result.complete(hashAndSave(imageUrl, file));
+                } catch (RuntimeException e) {
+                    System.err.println("Could not hash " + imageUrl + ": " + e.getMessage());
+                    result.completeExceptionally(e);
+                } finally {
+                    pending.remove(imageUrl, result);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(imageUrl, result);
+            result.completeExceptionally(e);
+            skippedCounter.increment();
+        }
+    }
+
+    @Override
+    public void hash(String imageUrl, Path file) {
+        hashAndSave(imageUrl, file);
+    }
+
+    @Override
+    public Set<String> findUnhashed(Collection<String> imageUrls) {
+        Set<String> unhashed = new HashSet<>(imageUrls);
+        jdbcTemplate.query("SELECT image_url FROM image_hashes WHERE image_url = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", imageUrls.toArray())),
+                rs -> {
+                    unhashed.remove(rs.getString(1));
+                });
+        return unhashed;
+    }
+
+    @Override
+    public void remove(String imageUrl) {
+        jdbcTemplate.update("DELETE FROM image_hashes WHERE image_url = ?", imageUrl);
+        forget(imageUrl);
+    }
+
+    @Override
+    public List<SimilarImage> findSimilar(String imageUrl, Integer maxDistance) {
+        int distance = maxDistance != null ? maxDistance : defaultMaxDistance;
+        if (distance < 0 || distance > MAX_ALLOWED_DISTANCE) {
+            throw new BadRequestException("maxDistance must be between 0 and " + MAX_ALLOWED_DISTANCE);
+        }
+
+        // 1. The image's own hash (wait for it if the upload is still being hashed)
+        Long hash = hashes.get(imageUrl);
+        if (hash == null) {
+            hash = awaitPending(imageUrl);
+        }
+
+        // 2. Candidates from the tree, closest first
+        Map<String, Integer> matches = new LinkedHashMap<>();
+        for (BkTree.Match match : tree.search(hash, distance)) {
+            if (!match.value().equals(imageUrl)) {
+                matches.put(match.value(), match.distance());
+            }
+            if (matches.size() >= maxResults) {
+                break;
+            }
+        }
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        // 3. One query: which of them still exist, and which live issues use them
+        Map<String, List<Long>> issueIds = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT h.image_url, i.id FROM image_hashes h " +
+                        "LEFT JOIN issues i ON i.image_url = h.image_url AND i.deleted_at IS NULL " +
+                        "WHERE h.image_url = ANY (?) ORDER BY i.id",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", matches.keySet().toArray())),
+                rs -> {
+                    List<Long> ids = issueIds.computeIfAbsent(rs.getString(1), url -> new ArrayList<>());
+                    long issueId = rs.getLong(2);
+                    if (!rs.wasNull()) {
+                        ids.add(issueId);
+                    }
+                });
+
+        List<SimilarImage> similar = new ArrayList<>();
+        matches.forEach((url, matchDistance) -> {
+            List<Long> ids = issueIds.get(url);
+            if (ids == null) {
+                forget(url); // Deleted through another instance
+            } else {
+                similar.add(new SimilarImage(url, matchDistance, ids));
+            }
+        });
+        return similar;
+    }
+
+    @Override
+    public synchronized void refresh() {
+        Instant since = loadedUntil.minus(REFRESH_OVERLAP);
+        jdbcTemplate.query("SELECT image_url, dhash, hashed_at FROM image_hashes WHERE hashed_at > ? ORDER BY hashed_at",
+                ps -> ps.setTimestamp(1, Timestamp.from(since.isBefore(Instant.EPOCH) ? Instant.EPOCH : since)),
+                rs -> {
+                    long hash = rs.getLong(2);
+                    if (!rs.wasNull()) {
+                        index(rs.getString(1), hash);
+                    }
+                    Instant hashedAt = rs.getTimestamp(3).toInstant();
+                    if (hashedAt.isAfter(loadedUntil)) {
+                        loadedUntil = hashedAt;
+                    }
+                });
+    }
+
+    private Long awaitPending(String imageUrl) {
+        CompletableFuture<Long> result = pending.get(imageUrl);
+        if (result == null) {
+            throw new ResourceNotFoundException("No image hash for " + imageUrl
+                    + " (not an upload, not a readable image, or not hashed yet)");
+        }
+        Long hash;
+        try {
+            hash = result.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("The image is still being processed. Please try again shortly.",
+                    RETRY_AFTER_SECONDS);
+        } catch (ExecutionException e) {
+            throw new ResourceNotFoundException("No image hash for " + imageUrl + " (hashing failed)");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the image.", RETRY_AFTER_SECONDS);
+        }
+        if (hash == null) {
+            throw new BadRequestException("Not a readable image: " + imageUrl);
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes the file, saves the hash and adds it to the tree.
+     * @return The hash, or null if the file is not a readable image.
+     */
+    private Long hashAndSave(String imageUrl, Path file) {
+        Long hash;
+        try {
+            BufferedImage image = ImageIO.read(file.toFile());
+            hash = image != null ? PerceptualHash.dHash(image) : null;
+        } catch (IOException e) {
+            hash = null; // Unreadable or truncated; treated like any other non-image
+        }
+
+        jdbcTemplate.update("INSERT INTO image_hashes (image_url, dhash, hashed_at) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (image_url) DO UPDATE SET dhash = excluded.dhash, hashed_at = excluded.hashed_at",
+                imageUrl, hash, Timestamp.from(Instant.now()));
+        if (hash != null) {
+            index(imageUrl, hash);
+        }
+        hashedCounter.increment();
+        return hash;
+    }
+
+    private void index(String imageUrl, long hash) {
+        Long previous = hashes.put(imageUrl, hash);
+        if (previous == null || previous != hash) {
+            if (previous != null) {
+                tree.remove(previous, imageUrl);
+            }
+            tree.add(hash, imageUrl);
+        }
+    }
+
+    private void forget(String imageUrl) {
+        Long hash = hashes.remove(imageUrl);
+        if (hash != null) {
+            tree.remove(hash, imageUrl);
+        }
+    }
+}
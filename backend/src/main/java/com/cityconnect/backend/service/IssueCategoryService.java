@@ -0,0 +1,16 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.entity.IssueCategory;
+
+/**
+ * Maps the category names used by clients to rows of the category lookup table.
+ */
+public interface IssueCategoryService {
+
+    /**
+     * Finds a category by name (case-insensitive).
+     *
+     * @throws com.cityconnect.backend.exception.BadRequestException if there is no such category.
+     */
+    IssueCategory resolve(String name);
+}
@@ -0,0 +1,32 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.entity.IssueCategory;
+import com.cityconnect.backend.exception.BadRequestException;
+import com.cityconnect.backend.repository.IssueCategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of the IssueCategoryService.
+ *
+ * Categories are a handful of rows that only change through migrations. Lookups by
+ * name go through Hibernate's query cache and the 'issue-categories' region (see
+ * HibernateCacheConfig), so they hardly ever reach the database. Misses are cached
+ * too, but only briefly, so a category added later is picked up without a restart.
+ */
+@Service
+public class IssueCategoryServiceImpl implements IssueCategoryService {
+
+    @Autowired
+    private IssueCategoryRepository categoryRepository;
+
+    @Override
+    public IssueCategory resolve(String name) {
+        if (name == null || name.isBlank()) {
+            throw new BadRequestException("Category is required.");
+        }
+        return categoryRepository.findByNameIgnoreCase(name.trim())
+                .orElseThrow(() -> new BadRequestException("Unknown category: " + name + ". Allowed: "
+                        + categoryRepository.findAll().stream().map(IssueCategory::getName).toList()));
+    }
+}
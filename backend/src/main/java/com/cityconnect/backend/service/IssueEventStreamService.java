@@ -0,0 +1,20 @@
+package com.cityconnect.backend.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes issue status changes, escalations and new comments to connected clients
+ * using Server-Sent Events.
+ */
+public interface IssueEventStreamService {
+
+    /**
+     * Opens an event stream for the currently authenticated user.
+     * Citizens receive events for their own issues; admins receive all events.
+     *
+     * @param lastEventId Value of the 'Last-Event-ID' header sent by a reconnecting
+     *                    client (may be null). Missed events are replayed if they
+     *                    are still buffered; otherwise a 'reset' event is sent.
+     */
+    SseEmitter subscribe(String lastEventId);
+}
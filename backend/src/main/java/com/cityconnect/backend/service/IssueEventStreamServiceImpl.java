@@ -0,0 +1,292 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.event.CommentCreatedEvent;
+import com.cityconnect.backend.event.EventBus;
+import com.cityconnect.backend.event.IssueEscalatedEvent;
+import com.cityconnect.backend.event.IssueStatusChangedEvent;
+import com.cityconnect.backend.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of the IssueEventStreamService (a fan-out hub).
+ *
+ * Events arrive from the EventBus, so clients connected to any node see changes
+ * made on every node.
+ *
+ * Idle connections cost no threads: SseEmitter uses async servlet requests, so
+ * a connected client is only an entry in 'subscribers' plus a small bounded queue.
+ * Publishing an event just offers it to the queues of the interested clients;
+ * a small dispatcher pool then writes each client's queue out to the socket.
+ * A client whose queue overflows (it isn't reading) is disconnected, and will
+ * catch up through Last-Event-ID when it reconnects.
+ */
+@Service
+public class IssueEventStreamServiceImpl implements IssueEventStreamService {
+
+    static final String STATUS_EVENT = "issue-status";
+    static final String COMMENT_EVENT = "comment";
+    static final String ESCALATION_EVENT = "issue-escalated";
+    static final String RESET_EVENT = "reset";
+
+    // Queue marker for a keep-alive comment line
+    private static final StreamEvent HEARTBEAT = new StreamEvent(0, null, null, null);
+
+    // How long a stream stays open; EventSource reconnects on its own afterwards
+    @Value("${events.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // Events a single client may have waiting before it is considered stuck
+    @Value("${events.sse.client-buffer-size:256}")
+    private int clientBufferSize;
+
+    // Recent events kept for Last-Event-ID replay
+    @Value("${events.sse.replay-buffer-size:1024}")
+    private int replayBufferSize;
+
+    private final ExecutorService dispatcher;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Guards 'lastEventId' and 'replayBuffer', and makes subscribe/publish atomic with respect
+    // to each other, so a new client never misses nor duplicates an event during replay
+    private final Object lock = new Object();
+    private final Deque<StreamEvent> replayBuffer = new ArrayDeque<>();
+    private long lastEventId;
+
+    // Event IDs look like '<streamId>-<number>'. Each node (and each restart) has its own
+    // streamId, so an ID handed out elsewhere is recognized as unknown instead of misread.
+    private final String streamId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Counter droppedClients;
+
+    public IssueEventStreamServiceImpl(MeterRegistry meterRegistry, EventBus eventBus,
+                                       @Value("${events.sse.dispatcher-threads:4}") int dispatcherThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-dispatcher-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("events.sse.clients", subscribers, Set::size)
+                .description("Connected Server-Sent Events clients")
+                .register(meterRegistry);
+        this.droppedClients = Counter.builder("events.sse.clients.dropped")
+                .description("SSE clients disconnected because their buffer overflowed")
+                .register(meterRegistry);
+
+        // Committed changes from every node (the bus delivers our own events too)
+        eventBus.subscribe(IssueStatusChangedEvent.class, event -> publish(STATUS_EVENT, event.reporterUserId(), event));
+        eventBus.subscribe(CommentCreatedEvent.class, event -> publish(COMMENT_EVENT, event.reporterUserId(), event));
+        eventBus.subscribe(IssueEscalatedEvent.class, event -> publish(ESCALATION_EVENT, event.reporterUserId(), event));
+    }
+
+    @Override
+    public SseEmitter subscribe(String lastEventIdHeader) {
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Subscriber subscriber = new Subscriber(user.getId(), "ROLE_ADMIN".equals(user.getRole()),
+                new SseEmitter(timeoutMs), clientBufferSize);
+
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> {
+            // Ends the stream normally; the client's EventSource reconnects with Last-Event-ID
+            subscribers.remove(subscriber);
+            subscriber.emitter.complete();
+        });
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+
+        synchronized (lock) {
+            // 1. Replay whatever the client missed while it was disconnected
+            long resumeAfter = parseEventId(lastEventIdHeader);
+            if (resumeAfter >= 0) {
+                StreamEvent oldest = replayBuffer.peekFirst();
+                long oldestBuffered = oldest != null ? oldest.id() : lastEventId + 1;
+                List<StreamEvent> missed = new ArrayList<>();
+                for (StreamEvent event : replayBuffer) {
+                    if (event.id() > resumeAfter && subscriber.canSee(event)) {
+                        missed.add(event);
+                    }
+                }
+
+                // Unknown ID (e.g. server restarted), the gap was already evicted,
+                // or there is more to catch up on than the client buffer holds
+                if (resumeAfter > lastEventId || resumeAfter + 1 < oldestBuffered || missed.size() >= clientBufferSize) {
+                    subscriber.offer(new StreamEvent(lastEventId, RESET_EVENT, null,
+                            Map.of("reason", "Missed events are no longer available, please reload.")));
+                } else {
+                    missed.forEach(subscriber::offer);
+                }
+            }
+
+            // 2. From here on, publish() delivers live events to this client
+            subscribers.add(subscriber);
+        }
+
+        // Sends the response headers right away, so proxies don't hold the stream
+        subscriber.offer(HEARTBEAT);
+        schedule(subscriber);
+        return subscriber.emitter;
+    }
+
+    /**
+     * Keeps idle connections alive through proxies/load balancers,
+     * and detects clients that have gone away.
+     */
+    @Scheduled(fixedRateString = "${events.sse.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(HEARTBEAT)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        dispatcher.shutdownNow();
+    }
+
+    // --- Private Helper Methods ---
+
+    private void publish(String name, Long reporterUserId, Object payload) {
+        List<Subscriber> ready = new ArrayList<>();
+        synchronized (lock) {
+            StreamEvent event = new StreamEvent(++lastEventId, name, reporterUserId, payload);
+            replayBuffer.addLast(event);
+            while (replayBuffer.size() > replayBufferSize) {
+                replayBuffer.pollFirst();
+            }
+
+            // Only a non-blocking offer() per client happens under the lock
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.canSee(event) && subscriber.offer(event)) {
+                    ready.add(subscriber);
+                }
+            }
+        }
+        ready.forEach(this::schedule);
+    }
+
+    /**
+     * Makes sure exactly one dispatcher task is draining this client's queue.
+     */
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            StreamEvent event;
+            while ((event = subscriber.queue.poll()) != null) {
+                if (event == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(streamId + "-" + event.id())
+                            .name(event.name())
+                            .data(event.payload(), MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client disconnected (or the emitter already completed)
+            subscribers.remove(subscriber);
+            subscriber.queue.clear();
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // Something may have been queued after the last poll() but before we released the flag
+        if (!subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private long parseEventId(String header) {
+        if (header == null || header.isBlank()) {
+            return -1;
+        }
+        String prefix = streamId + "-";
+        try {
+            if (header.startsWith(prefix)) {
+                return Long.parseLong(header.substring(prefix.length()));
+            }
+        } catch (NumberFormatException e) {
+            // Fall through
+        }
+        return Long.MAX_VALUE; // Treated as unknown -> reset
+    }
+
+    /**
+     * One event, numbered in publish order.
+     * reporterUserId decides who (besides admins) may see it.
+     */
+    private record StreamEvent(long id, String name, Long reporterUserId, Object payload) {
+    }
+
+    /**
+     * One connected client and its bounded outgoing queue.
+     */
+    private class Subscriber {
+
+        private final Long userId;
+        private final boolean admin;
+        private final SseEmitter emitter;
+        private final Queue<StreamEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(Long userId, boolean admin, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.admin = admin;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        boolean canSee(StreamEvent event) {
+            return admin || userId.equals(event.reporterUserId());
+        }
+
+        /**
+         * Queues an event; disconnects the client if its buffer is full.
+         * @return true if the event was queued.
+         */
+        boolean offer(StreamEvent event) {
+            if (queue.offer(event)) {
+                return true;
+            }
+            if (subscribers.remove(this)) {
+                droppedClients.increment();
+                emitter.complete();
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.cityconnect.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Interface for bulk-exporting issues (the counterpart of IssueImportService).
+ */
+public interface IssueExportService {
+
+    enum Format { NDJSON, CSV }
+
+    /**
+     * Streams every live issue, and optionally every archived one, to the output.
+     *
+     * @param format NDJSON (one JSON object per line) or CSV (with a header row).
+     * @param includeArchived Also export issues the IssueArchiver has moved to the archive.
+     * @return The number of issues written.
+     */
+    long exportIssues(OutputStream output, Format format, boolean includeArchived) throws IOException;
+}
@@ -0,0 +1,97 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.IssueExportRow;
+import com.cityconnect.backend.repository.ArchivedIssueRepository;
+import com.cityconnect.backend.repository.IssueRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Implementation of the IssueExportService.
+ *
+ * Like the import, the export never holds the whole data set: issues are read in
+ * keyset-paginated pages of 'issues.export.page-size' (each in its own short read-only
+ * transaction) and written to the response as they come. Live issues come first,
+ * then archived ones, each ordered by ID.
+ */
+@Service
+public class IssueExportServiceImpl implements IssueExportService {
+
+    // Same column names as the import; ISO-8601 timestamps like the JSON API
+    private static final ObjectWriter CSV_WRITER;
+
+    static {
+        CsvMapper csvMapper = new CsvMapper();
+        csvMapper.findAndRegisterModules();
+        csvMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        CSV_WRITER = csvMapper.writer(csvMapper.schemaFor(IssueExportRow.class).withHeader());
+    }
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private ArchivedIssueRepository archivedIssueRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${issues.export.page-size:1000}")
+    private int pageSize;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public IssueExportServiceImpl(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public long exportIssues(OutputStream output, Format format, boolean includeArchived) throws IOException {
+        ObjectWriter writer = format == Format.CSV ? CSV_WRITER
+                : objectMapper.writerFor(IssueExportRow.class).withRootValueSeparator("\n");
+
+        long written;
+        try (SequenceWriter rows = writer.writeValues(output)) {
+            written = writePages(rows, issueRepository::findExportRows);
+            if (includeArchived) {
+                written += writePages(rows, archivedIssueRepository::findExportRows);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Writes every page a keyset query returns, flushing after each page.
+     */
+    private long writePages(SequenceWriter rows,
+                            BiFunction<Long, PageRequest, List<IssueExportRow>> query) throws IOException {
+        long written = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<IssueExportRow> page = readOnlyTransaction.execute(status -> query.apply(from, PageRequest.of(0, pageSize)));
+            if (page == null || page.isEmpty()) {
+                return written;
+            }
+            rows.writeAll(page);
+            rows.flush();
+            written += page.size();
+            afterId = page.get(page.size() - 1).getId();
+        }
+    }
+}
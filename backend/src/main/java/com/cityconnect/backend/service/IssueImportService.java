@@ -0,0 +1,29 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.IssueImportReport;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Interface for bulk-importing issues from another system.
+ */
+public interface IssueImportService {
+
+    enum Format { NDJSON, CSV }
+
+    /**
+     * Streams rows from the input, validates each one, and inserts valid rows in batches.
+     * Invalid rows are skipped and reported; they don't abort the import.
+     *
+     * @param input The raw request body.
+     * @param format NDJSON (one JSON object per line) or CSV (with a header row).
+     * @return The final import report.
+     */
+    IssueImportReport importIssues(InputStream input, Format format);
+
+    /**
+     * Reports of running and recently finished imports, newest first.
+     */
+    List<IssueImportReport> getRecentImports();
+}
@@ -0,0 +1,352 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.ImportRowError;
+import com.cityconnect.backend.dto.IssueImportReport;
+import com.cityconnect.backend.dto.IssueImportRow;
+import com.cityconnect.backend.entity.Issue;
+import com.cityconnect.backend.entity.IssueCategory;
+import com.cityconnect.backend.entity.IssueStatus;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.event.IssueCreatedEvent;
+import com.cityconnect.backend.exception.BadRequestException;
+import com.cityconnect.backend.repository.IssueRepository;
+import com.cityconnect.backend.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the IssueImportService.
+ *
+ * The upload is never loaded into memory as a whole: rows are parsed one at a time,
+ * validated, and collected into batches of 'issues.import.batch-size'. Each batch is
+ * inserted in its own transaction with saveAll(), which Hibernate turns into
+ * batched INSERTs (possible because Issue IDs come from a pooled sequence).
+ * A batch the database refuses is retried one row at a time, so only the rows
+ * at fault are reported. Imported issues are announced like any new issue
+ * (IssueCreatedEvent) once their batch commits.
+ */
+@Service
+public class IssueImportServiceImpl implements IssueImportService {
+
+    // How many finished imports we keep around for the status endpoint
+    private static final int MAX_TRACKED_IMPORTS = 20;
+
+    // CSV records are read as plain string maps, so a bad value only fails its own row
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .readerFor(Map.class)
+            .with(CsvSchema.emptySchema().withHeader());
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IssueCategoryService categoryService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${issues.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${issues.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Deque<ImportJob> recentImports = new ConcurrentLinkedDeque<>();
+
+    public IssueImportServiceImpl(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public IssueImportReport importIssues(InputStream input, Format format) {
+        User admin = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        ImportJob job = new ImportJob(format);
+        recentImports.addFirst(job);
+        while (recentImports.size() > MAX_TRACKED_IMPORTS) {
+            recentImports.pollLast();
+        }
+
+        RowSink sink = new RowSink(job, admin);
+        try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            if (format == Format.NDJSON) {
+                readNdjson(reader, sink);
+            } else {
+                readCsv(reader, sink);
+            }
+        } catch (IOException e) {
+            // The stream itself is broken (e.g., malformed CSV quoting); keep what we have so far
+            job.reject(sink.rowNumber + 1, "Import aborted, could not read input: " + e.getMessage());
+        } finally {
+            sink.flush();
+            job.finishedAt = Instant.now();
+        }
+
+        System.out.println("Issue import " + job.id + " finished: " + job.imported.get()
+                + " imported, " + job.failed.get() + " failed.");
+        return job.toReport();
+    }
+
+    @Override
+    public List<IssueImportReport> getRecentImports() {
+        return recentImports.stream().map(ImportJob::toReport).toList();
+    }
+
+    // --- Private Helper Methods for Parsing ---
+
+    private void readNdjson(Reader reader, RowSink sink) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            sink.rowNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                sink.accept(objectMapper.readValue(line, IssueImportRow.class));
+            } catch (JsonProcessingException e) {
+                sink.reject("Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readCsv(Reader reader, RowSink sink) throws IOException {
+        try (MappingIterator<Map<String, String>> records = CSV_READER.readValues(reader)) {
+            while (records.hasNextValue()) {
+                Map<String, String> record = records.nextValue();
+                sink.rowNumber++;
+
+                // Empty cells mean "not provided"
+                record.entrySet().removeIf(e -> e.getValue() == null || e.getValue().isBlank());
+                try {
+                    sink.accept(objectMapper.convertValue(record, IssueImportRow.class));
+                } catch (IllegalArgumentException e) {
+                    sink.reject("Invalid value: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+    }
+
+    private Issue mapToEntity(IssueImportRow row, IssueCategory category, User reporter) {
+        Issue issue = new Issue();
+        issue.setTitle(row.getTitle());
+        issue.setDescription(row.getDescription());
+        issue.setCategory(category);
+        if (row.getStatus() != null && !row.getStatus().isBlank()) {
+            issue.setStatus(IssueStatus.valueOf(row.getStatus())); // Already checked by bean validation
+        }
+        if (issue.getStatus() == IssueStatus.RESOLVED) {
+            issue.setResolvedAt(Instant.now());
+        }
+        issue.setLatitude(row.getLatitude());
+        issue.setLongitude(row.getLongitude());
+        issue.setImageUrl(row.getImageUrl());
+        issue.setUser(reporter);
+        return issue;
+    }
+
+    /**
+     * Receives parsed rows, validates them and writes them out in batches.
+     * One instance per import; not thread-safe.
+     */
+    private class RowSink {
+
+        private final ImportJob job;
+        private final User defaultReporter;
+        private final Map<String, User> reporters = new HashMap<>();
+
+        private final List<Issue> batch = new ArrayList<>();
+        private final List<Long> batchRows = new ArrayList<>();
+        private long rowNumber;
+
+        RowSink(ImportJob job, User defaultReporter) {
+            this.job = job;
+            this.defaultReporter = defaultReporter;
+        }
+
+        void accept(IssueImportRow row) {
+            // 1. Bean validation (same annotations style as our request DTOs)
+            Set<ConstraintViolation<IssueImportRow>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                reject(violations.iterator().next().getMessage());
+                return;
+            }
+
+            // 2. Resolve the reporter (cached, so each username hits the DB once)
+            User reporter = defaultReporter;
+            if (row.getReporter() != null && !row.getReporter().isBlank()) {
+                reporter = reporters.computeIfAbsent(row.getReporter(),
+                        username -> userRepository.findByUsernameAndDeletedAtIsNull(username).orElse(null));
+                if (reporter == null) {
+                    reject("Unknown reporter: " + row.getReporter());
+                    return;
+                }
+            }
+
+            // 3. Resolve the category (cached by the IssueCategoryService)
+            IssueCategory category;
+            try {
+                category = categoryService.resolve(row.getCategory());
+            } catch (BadRequestException e) {
+                reject(e.getMessage());
+                return;
+            }
+
+            // 4. Queue it, and write the batch once it is full
+            job.processed.incrementAndGet();
+            batch.add(mapToEntity(row, category, reporter));
+            batchRows.add(rowNumber);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(String message) {
+            job.processed.incrementAndGet();
+            job.reject(rowNumber, message);
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                insert(batch);
+                job.imported.addAndGet(batch.size());
+            } catch (DataIntegrityViolationException e) {
+                // One bad row rolls back the whole batch: retry one by one, rejecting only the culprits
+                for (int i = 0; i < batch.size(); i++) {
+                    Issue issue = batch.get(i);
+                    issue.setId(null); // Assigned by the rolled-back insert
+                    try {
+                        insert(List.of(issue));
+                        job.imported.incrementAndGet();
+                    } catch (DataIntegrityViolationException rowError) {
+                        job.reject(batchRows.get(i), "Database rejected row: "
+                                + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                    } catch (DataAccessException rowError) {
+                        job.reject(batchRows.get(i), "Database error: "
+                                + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                    }
+                }
+            } catch (DataAccessException e) {
+                // Not the rows' fault (e.g. the database is unreachable): the whole batch failed
+                String reason = "Database error: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                for (Long row : batchRows) {
+                    job.reject(row, reason);
+                }
+            }
+            batch.clear();
+            batchRows.clear();
+        }
+
+        private void insert(List<Issue> issues) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    issueRepository.saveAllAndFlush(issues);
+                    // Delivered after the commit
+                    for (Issue issue : issues) {
+                        eventPublisher.publishEvent(new IssueCreatedEvent(issue.getId(), issue.getUser().getId(),
+                                issue.getCategory().getName(), issue.getLatitude(), issue.getLongitude(),
+                                issue.getCreatedAt()));
+                    }
+                });
+            } finally {
+                // Detach the rows, so the persistence context (shared for the whole request)
+                // neither grows with every batch nor keeps the entities of a failed insert
+                entityManager.clear();
+            }
+        }
+    }
+
+    /**
+     * Live counters for one import. Updated by the importing thread,
+     * read by the status endpoint.
+     */
+    private class ImportJob {
+
+        private final String id = UUID.randomUUID().toString();
+        private final Format format;
+        private final Instant startedAt = Instant.now();
+        private volatile Instant finishedAt;
+
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final Deque<ImportRowError> errors = new ConcurrentLinkedDeque<>();
+
+        ImportJob(Format format) {
+            this.format = format;
+        }
+
+        void reject(long row, String message) {
+            if (failed.incrementAndGet() <= maxReportedErrors) {
+                errors.addLast(new ImportRowError(row, message));
+            }
+        }
+
+        IssueImportReport toReport() {
+            IssueImportReport report = new IssueImportReport();
+            report.setImportId(id);
+            report.setFormat(format.name());
+            report.setStartedAt(startedAt);
+            report.setFinishedAt(finishedAt);
+            report.setCompleted(finishedAt != null);
+            report.setProcessedRows(processed.get());
+            report.setImportedRows(imported.get());
+            report.setFailedRows(failed.get());
+            report.setErrors(new ArrayList<>(errors));
+            return report;
+        }
+    }
+}
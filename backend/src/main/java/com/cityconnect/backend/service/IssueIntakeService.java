@@ -0,0 +1,43 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.IntakeTicketResponse;
+import com.cityconnect.backend.dto.IssueRequest;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Interface for the write-behind issue intake queue.
+ * Used during bursts (storms, outages) instead of the one-transaction-per-issue createIssue.
+ */
+public interface IssueIntakeService {
+
+    /**
+     * Appends the (already validated) request to the local journal and returns a ticket.
+     * No database work happens on the request thread.
+     *
+     * @throws com.cityconnect.backend.exception.ServiceUnavailableException if the journal is too far behind.
+     */
+    IntakeTicketResponse submit(IssueRequest issueRequest);
+
+    /**
+     * Looks up a ticket: still pending in the journal, or already stored as an issue.
+     * @throws com.cityconnect.backend.exception.ResourceNotFoundException if the ticket is unknown.
+     */
+    IntakeTicketResponse getTicketStatus(String ticketId);
+
+    /**
+     * Returns which of the given image URLs belong to tickets still waiting in the journal,
+     * i.e. will be referenced by an issue once they are drained.
+     * Used by the orphaned-upload sweeper.
+     */
+    Set<String> findPendingImageUrls(Collection<String> imageUrls);
+
+    /**
+     * Writes the next batch of journal entries to the database.
+     * Called repeatedly by the IntakeJournalDrainer job.
+     *
+     * @return The number of journal entries processed (0 when the journal is drained).
+     */
+    int drainBatch();
+}
@@ -0,0 +1,537 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.IntakeTicketResponse;
+import com.cityconnect.backend.dto.IssueRequest;
+import com.cityconnect.backend.entity.Issue;
+import com.cityconnect.backend.entity.IssueCategory;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.event.IssueCreatedEvent;
+import com.cityconnect.backend.exception.BadRequestException;
+import com.cityconnect.backend.exception.ResourceNotFoundException;
+import com.cityconnect.backend.exception.ServiceUnavailableException;
+import com.cityconnect.backend.repository.IssueRepository;
+import com.cityconnect.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the IssueIntakeService.
+ *
+ * Submissions are appended to a local append-only journal (one JSON line per ticket)
+ * and fsync'ed before the ticket is returned, so an accepted ticket survives a crash.
+ * Concurrent submitters share fsyncs ("group commit"): whoever forces the file
+ * covers every record written before it.
+ *
+ * The IntakeJournalDrainer job calls drainBatch(), which reads the journal from the
+ * last checkpoint and inserts the records in one transaction per batch (batched,
+ * multi-row INSERTs). Only after the batch commits is the checkpoint moved forward.
+ * On startup the journal is replayed from the checkpoint; records that already made
+ * it into the database are recognised by their unique intake ticket and skipped.
+ * Stored issues are announced (IssueCreatedEvent) once their batch commits, like
+ * issues created directly.
+ *
+ * The drain only reads records that have been fsync'ed. If the fsync of a record
+ * fails, the client is told so (500) and the record is skipped by the drain. Only a
+ * restart before the drain gets there could still store it, since the journal can't
+ * be changed reliably once the disk fails.
+ */
+@Service
+public class IssueIntakeServiceImpl implements IssueIntakeService {
+
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IssueCategoryService categoryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${issues.intake.journal-dir:intake}")
+    private String journalDir;
+
+    @Value("${issues.intake.batch-size:500}")
+    private int batchSize;
+
+    // Backpressure: beyond this many undrained tickets, new submissions get a 503
+    @Value("${issues.intake.max-pending:50000}")
+    private int maxPending;
+
+    // Once fully drained, a journal bigger than this is truncated
+    @Value("${issues.intake.compact-threshold-bytes:67108864}")
+    private long compactThresholdBytes;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Counter storedCounter;
+    private final Counter rejectedCounter;
+
+    // ticketId -> receivedAt, for everything in the journal that isn't in the DB yet
+    private final Map<String, Instant> pendingTickets = new ConcurrentHashMap<>();
+    // imageUrl -> number of pending tickets pointing to it, so the upload isn't swept meanwhile
+    private final Map<String, Integer> pendingImageUrls = new ConcurrentHashMap<>();
+    // Tickets we had to give up on (very rare), so clients get a definite answer for a while
+    private final Cache<String, Instant> rejectedTickets;
+    // Tickets whose fsync failed: still in the journal, but the client was told they weren't accepted
+    private final Set<String> cancelledTickets = ConcurrentHashMap.newKeySet();
+
+    private FileChannel journal;
+    private Path checkpointFile;
+
+    // Guards appends; forceLock guards fsync (group commit)
+    private final Object journalLock = new Object();
+    private final Object forceLock = new Object();
+    private volatile long appendedOffset; // End of the last complete record
+    private volatile long forcedOffset;   // Everything before this is on disk (written under forceLock)
+    private volatile long drainedOffset;  // Everything before this is in the DB (the checkpoint)
+
+    public IssueIntakeServiceImpl(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                  @Value("${issues.intake.rejected-ttl-hours:24}") long rejectedTtlHours) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rejectedTickets = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofHours(rejectedTtlHours))
+                .build();
+        this.storedCounter = Counter.builder("issues.intake.stored")
+                .description("Intake tickets written to the database")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("issues.intake.rejected")
+                .description("Intake tickets that could not be stored")
+                .register(meterRegistry);
+        Gauge.builder("issues.intake.pending", pendingTickets, Map::size)
+                .description("Intake tickets waiting in the journal")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens the journal and replays everything after the last checkpoint.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            Path dir = Paths.get(journalDir);
+            Files.createDirectories(dir);
+            checkpointFile = dir.resolve("journal.checkpoint");
+            journal = FileChannel.open(dir.resolve("journal.ndjson"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            // 1. Where did we stop last time? (A checkpoint past the end means the journal was compacted.)
+            long checkpoint = readCheckpoint();
+            long size = journal.size();
+            drainedOffset = checkpoint <= size ? checkpoint : 0;
+
+            // 2. Rebuild the pending set from the undrained tail of the journal
+            List<JournalEntry> entries = readEntries(drainedOffset, size, Integer.MAX_VALUE);
+            long end = entries.isEmpty() ? drainedOffset : entries.get(entries.size() - 1).endOffset;
+            for (JournalEntry entry : entries) {
+                if (entry.record != null) {
+                    addPending(entry.record);
+                }
+            }
+
+            // 3. Drop a half-written last line (crash in the middle of an append)
+            if (end < size) {
+                journal.truncate(end);
+            }
+            appendedOffset = end;
+            forcedOffset = end;
+
+            if (!pendingTickets.isEmpty()) {
+                System.out.println("Recovered " + pendingTickets.size() + " pending intake ticket(s) from the journal.");
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not initialize intake journal", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Override
+    public IntakeTicketResponse submit(IssueRequest issueRequest) {
+        // 1. Backpressure: refuse early instead of letting the journal grow without bound
+        if (pendingTickets.size() >= maxPending) {
+            throw new ServiceUnavailableException(
+                    "We are receiving a very high number of reports. Please try again shortly.", RETRY_AFTER_SECONDS);
+        }
+
+        // Unknown categories are refused now, while the client can still be told
+        categoryService.resolve(issueRequest.getCategory());
+
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        IntakeRecord record = new IntakeRecord(UUID.randomUUID().toString(), user.getId(), Instant.now(), issueRequest);
+
+        // 2. Append the record and make sure it is on disk before we answer
+        long end;
+        try {
+            byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+            synchronized (journalLock) {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                long position = appendedOffset;
+                while (buffer.hasRemaining()) {
+                    position += journal.write(buffer, position);
+                }
+                appendedOffset = position;
+                end = position;
+                addPending(record);
+            }
+        } catch (IOException e) {
+            removePending(record);
+            throw new UncheckedIOException("Could not write to the intake journal", e);
+        }
+        try {
+            forceUpTo(end);
+        } catch (IOException e) {
+            // The record is in the journal but maybe not on disk: drop it, so our 500 is the truth
+            cancelledTickets.add(record.getTicketId());
+            removePending(record);
+            reject(record, "journal fsync failed: " + e.getMessage());
+            throw new UncheckedIOException("Could not write to the intake journal", e);
+        }
+
+        return new IntakeTicketResponse(record.getTicketId(), IntakeTicketResponse.Status.PENDING, null);
+    }
+
+    @Override
+    public IntakeTicketResponse getTicketStatus(String ticketId) {
+        if (pendingTickets.containsKey(ticketId)) {
+            return new IntakeTicketResponse(ticketId, IntakeTicketResponse.Status.PENDING, null);
+        }
+        if (rejectedTickets.getIfPresent(ticketId) != null) {
+            return new IntakeTicketResponse(ticketId, IntakeTicketResponse.Status.REJECTED, null);
+        }
+        return issueRepository.findIdByIntakeTicket(ticketId)
+                .map(issueId -> new IntakeTicketResponse(ticketId, IntakeTicketResponse.Status.ACCEPTED, issueId))
+                .orElseThrow(() -> new ResourceNotFoundException("Intake ticket not found: " + ticketId));
+    }
+
+    @Override
+    public Set<String> findPendingImageUrls(Collection<String> imageUrls) {
+        return imageUrls.stream().filter(pendingImageUrls::containsKey).collect(Collectors.toSet());
+    }
+
+    @Override
+    public int drainBatch() {
+        try {
+            // Only what is on disk: a record still waiting for its fsync may yet be refused (500)
+            long from = drainedOffset;
+            long to = forcedOffset;
+            if (from >= to) {
+                compactIfDrained();
+                return 0;
+            }
+
+            // 1. Read the next batch of records after the checkpoint
+            List<JournalEntry> entries = readEntries(from, to, batchSize);
+            if (entries.isEmpty()) {
+                return 0;
+            }
+            List<IntakeRecord> records = entries.stream()
+                    .map(entry -> entry.record)
+                    .filter(record -> record != null)
+                    .filter(record -> !cancelledTickets.contains(record.getTicketId()))
+                    .toList();
+
+            // 2. Insert them (throws on DB outages, so the checkpoint stays put and we retry)
+            store(records);
+
+            // 3. Only now move the checkpoint forward
+            long newOffset = entries.get(entries.size() - 1).endOffset;
+            writeCheckpoint(newOffset);
+            drainedOffset = newOffset;
+            records.forEach(this::removePending);
+            entries.forEach(entry -> {
+                if (entry.record != null) {
+                    cancelledTickets.remove(entry.record.getTicketId());
+                }
+            });
+            return entries.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the intake journal", e);
+        }
+    }
+
+    // --- Private Helper Methods for the Database ---
+
+    private void store(List<IntakeRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            insertInTransaction(records);
+        } catch (DataIntegrityViolationException e) {
+            // One bad record shouldn't block the queue: retry one by one, rejecting only the culprits
+            for (IntakeRecord record : records) {
+                try {
+                    insertInTransaction(List.of(record));
+                } catch (DataIntegrityViolationException rowError) {
+                    reject(record, rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts the records in one transaction. What it rejected and stored only counts once
+     * it has committed; a batch that rolls back is retried row by row and decides again.
+     */
+    private void insertInTransaction(List<IntakeRecord> records) {
+        Map<IntakeRecord, String> rejections = new LinkedHashMap<>();
+        Integer stored = transactionTemplate.execute(status -> {
+            rejections.clear();
+            return insertAll(records, rejections);
+        });
+        rejections.forEach(this::reject);
+        storedCounter.increment(stored == null ? 0 : stored);
+    }
+
+    /**
+     * @return the number of issues inserted; the records refused are added to 'rejections'.
+     */
+    private int insertAll(List<IntakeRecord> records, Map<IntakeRecord, String> rejections) {
+        // 1. Skip records that were already stored before a crash (replay after restart)
+        Set<String> alreadyStored = issueRepository.findExistingIntakeTickets(
+                records.stream().map(IntakeRecord::getTicketId).toList());
+
+        // 2. Load all reporters of the batch in one query
+        Map<Long, User> users = userRepository.findAllById(
+                        records.stream().map(IntakeRecord::getUserId).collect(Collectors.toSet()))
+                .stream()
+                .filter(User::isEnabled) // Accounts deleted meanwhile can't file issues anymore
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // 3. Build the entities and insert them as one JDBC batch
+        List<Issue> issues = new ArrayList<>();
+        for (IntakeRecord record : records) {
+            if (alreadyStored.contains(record.getTicketId())) {
+                continue;
+            }
+            User user = users.get(record.getUserId());
+            if (user == null) {
+                rejections.put(record, "reporter account no longer exists");
+                continue;
+            }
+            IssueCategory category;
+            try {
+                category = categoryService.resolve(record.getRequest().getCategory());
+            } catch (BadRequestException e) {
+                rejections.put(record, e.getMessage()); // e.g. a journal written before the category was removed
+                continue;
+            }
+            issues.add(mapToEntity(record, category, user));
+        }
+        issueRepository.saveAllAndFlush(issues);
+        // Delivered after the commit
+        for (Issue issue : issues) {
+            eventPublisher.publishEvent(new IssueCreatedEvent(issue.getId(), issue.getUser().getId(),
+                    issue.getCategory().getName(), issue.getLatitude(), issue.getLongitude(), issue.getCreatedAt()));
+        }
+        entityManager.clear();
+        return issues.size();
+    }
+
+    private void reject(IntakeRecord record, String reason) {
+        System.err.println("Rejected intake ticket " + record.getTicketId() + ": " + reason);
+        rejectedTickets.put(record.getTicketId(), Instant.now());
+        rejectedCounter.increment();
+    }
+
+    private Issue mapToEntity(IntakeRecord record, IssueCategory category, User user) {
+        IssueRequest dto = record.getRequest();
+        Issue issue = new Issue();
+        issue.setTitle(dto.getTitle());
+        issue.setDescription(dto.getDescription());
+        issue.setCategory(category);
+        issue.setLatitude(dto.getLatitude());
+        issue.setLongitude(dto.getLongitude());
+        issue.setImageUrl(dto.getImageUrl());
+        issue.setIntakeTicket(record.getTicketId());
+        issue.setUser(user);
+        return issue;
+    }
+
+    // --- Private Helper Methods for the Journal ---
+
+    private void addPending(IntakeRecord record) {
+        pendingTickets.put(record.getTicketId(), record.getReceivedAt());
+        String imageUrl = record.getRequest().getImageUrl();
+        if (imageUrl != null) {
+            pendingImageUrls.merge(imageUrl, 1, Integer::sum);
+        }
+    }
+
+    private void removePending(IntakeRecord record) {
+        if (pendingTickets.remove(record.getTicketId()) == null) {
+            return;
+        }
+        String imageUrl = record.getRequest().getImageUrl();
+        if (imageUrl != null) {
+            pendingImageUrls.computeIfPresent(imageUrl, (url, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * fsyncs the journal unless another thread already did it past 'end'.
+     */
+    private void forceUpTo(long end) throws IOException {
+        synchronized (forceLock) {
+            if (forcedOffset >= end) {
+                return; // Someone else's fsync already covered our record
+            }
+            long target = appendedOffset;
+            journal.force(false);
+            forcedOffset = target;
+        }
+    }
+
+    /**
+     * Truncates the journal once everything in it is stored and it has grown large.
+     */
+    private void compactIfDrained() throws IOException {
+        synchronized (journalLock) {
+            if (drainedOffset != appendedOffset || appendedOffset < compactThresholdBytes) {
+                return;
+            }
+            // If we crash between these steps, the checkpoint is past the end of the
+            // journal, which init() treats as "start from 0".
+            journal.truncate(0);
+            journal.force(true);
+            appendedOffset = 0;
+            synchronized (forceLock) {
+                forcedOffset = 0;
+            }
+            writeCheckpoint(0);
+            drainedOffset = 0;
+        }
+    }
+
+    /**
+     * Reads up to 'max' complete records in [from, to). A trailing line without
+     * a newline is incomplete and ignored.
+     */
+    private List<JournalEntry> readEntries(long from, long to, int max) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long position = from;
+
+        while (position < to && entries.size() < max) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), to - position));
+            if (journal.read(buffer, position) <= 0) {
+                break;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining() && entries.size() < max) {
+                byte b = buffer.get();
+                position++;
+                if (b == '\n') {
+                    entries.add(new JournalEntry(parse(line.toByteArray()), position));
+                    line.reset();
+                } else {
+                    line.write(b);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private IntakeRecord parse(byte[] line) {
+        try {
+            return objectMapper.readValue(line, IntakeRecord.class);
+        } catch (IOException e) {
+            System.err.println("Skipping corrupt intake journal record: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(checkpointFile).trim());
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        // Write to a temp file and rename, so the checkpoint is never half-written
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.writeString(temp, Long.toString(offset), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC);
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * One line of the journal.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    private static class IntakeRecord {
+        private String ticketId;
+        private Long userId;
+        private Instant receivedAt;
+        private IssueRequest request;
+    }
+
+    /**
+     * A parsed record plus the journal offset just after it (null record = corrupt line).
+     */
+    private record JournalEntry(IntakeRecord record, long endOffset) {
+    }
+}
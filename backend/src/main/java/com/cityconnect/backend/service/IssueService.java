@@ -1,5 +1,7 @@
 package com.cityconnect.backend.service;
 
+import com.cityconnect.backend.dto.BulkStatusUpdateRequest;
+import com.cityconnect.backend.dto.BulkStatusUpdateResponse;
 import com.cityconnect.backend.dto.IssueRequest;
 import com.cityconnect.backend.dto.IssueResponse;
 
@@ -7,9 +9,37 @@ import java.util.List;
 
 public interface IssueService {
 
-    IssueResponse createIssue(IssueRequest issueRequest);
-    List<IssueResponse> getAllIssues();
-    IssueResponse updateIssueStatus(Long id, String newStatus);
+    /**
+     * Stores a new issue for the current user.
+     * @param ignoreDuplicates Store it even if it looks like an issue reported nearby shortly before.
+     * @throws com.cityconnect.backend.exception.PossibleDuplicateException with the likely duplicates
+     *         (nothing is stored) unless ignoreDuplicates is set.
+     */
+    IssueResponse createIssue(IssueRequest issueRequest, boolean ignoreDuplicates);
+    /**
+     * Live issues, for the admin dashboard.
+     * @param sortBy "newest" (default when null), "upvotes" (most upvoted first),
+     *               "views" (most viewed first, by the last flushed view counts)
+     *               or "priority" (highest priority score first).
+     * @param limit  At most this many issues (the first ones in that order); null for all.
+     * @throws com.cityconnect.backend.exception.BadRequestException for any other sort or a bad limit.
+     */
+    List<IssueResponse> getAllIssues(String sortBy, Integer limit);
+    /**
+     * Changes the status of one issue with a compare-and-set on its version.
+     * @param expectedVersion The version the client last saw (IssueResponse.version), or null
+     *                        to only guard against changes made while this request runs.
+     * @throws com.cityconnect.backend.exception.ConflictException if the issue changed since that
+     *         version, or another admin holds a live claim on it.
+     */
+    IssueResponse updateIssueStatus(Long id, String newStatus, Long expectedVersion);
+
+    /**
+     * Applies one status to many issues (by ID list or by filter) using
+     * set-based UPDATE statements, and reports the outcome for every issue.
+     * @throws com.cityconnect.backend.exception.BadRequestException if the request is ambiguous or too large.
+     */
+    BulkStatusUpdateResponse bulkUpdateStatus(BulkStatusUpdateRequest request);
     void deleteIssue(Long id);
     List<IssueResponse> getIssuesForCurrentUser();
     /**
@@ -20,4 +50,32 @@ public interface IssueService {
      */
     IssueResponse getIssueById(Long id);
 
+    // --- Admin work queue ---
+
+    /**
+     * Claims the next open issues nobody is working on, highest priority first, for the
+     * current admin until the lease runs out. Admins claiming at the same time get different
+     * issues and never wait for each other.
+     * @param count How many; fewer are returned when the queue runs dry.
+     * @throws com.cityconnect.backend.exception.BadRequestException if count is out of range.
+     */
+    List<IssueResponse> claimNextIssues(int count);
+
+    /**
+     * The issues the current admin holds a live claim on, highest priority first.
+     */
+    List<IssueResponse> getMyClaimedIssues();
+
+    /**
+     * Starts a new lease on an issue the current admin has claimed.
+     * @throws com.cityconnect.backend.exception.ConflictException if it isn't theirs (any more).
+     */
+    IssueResponse renewClaim(Long id);
+
+    /**
+     * Puts an issue the current admin has claimed back in the queue.
+     * @throws com.cityconnect.backend.exception.ConflictException if it isn't theirs.
+     */
+    void releaseClaim(Long id);
+
 }
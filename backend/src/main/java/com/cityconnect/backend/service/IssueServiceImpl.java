@@ -1,18 +1,57 @@
 package com.cityconnect.backend.service;
 
+import com.cityconnect.backend.config.SecondLevelCacheInvalidator;
+import com.cityconnect.backend.dto.BulkStatusResult;
+import com.cityconnect.backend.dto.BulkStatusUpdateRequest;
+import com.cityconnect.backend.dto.BulkStatusUpdateResponse;
+import com.cityconnect.backend.dto.DuplicateCandidate;
+import com.cityconnect.backend.dto.IssueFilter;
 import com.cityconnect.backend.dto.IssueRequest;
 import com.cityconnect.backend.dto.IssueResponse;
+import com.cityconnect.backend.entity.ArchivedIssue;
 import com.cityconnect.backend.entity.Issue;
+import com.cityconnect.backend.entity.IssueStatus;
+import com.cityconnect.backend.entity.IssueStatusHistory;
 import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.event.IssueCreatedEvent;
+import com.cityconnect.backend.event.IssueDeletedEvent;
+import com.cityconnect.backend.event.IssueStatusChangedEvent;
+import com.cityconnect.backend.exception.BadRequestException;
+import com.cityconnect.backend.exception.ConflictException;
+import com.cityconnect.backend.exception.PossibleDuplicateException;
 import com.cityconnect.backend.exception.ResourceNotFoundException;
+import com.cityconnect.backend.repository.ArchivedIssueRepository;
 import com.cityconnect.backend.repository.IssueRepository;
+import com.cityconnect.backend.repository.IssueStatusHistoryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -23,69 +62,341 @@ import java.util.stream.Collectors;
 @Service
 public class IssueServiceImpl implements IssueService {
 
+    // The writes below change single columns of many or contended rows, so they are plain
+    // SQL. Each one evicts just the issues it touched from the second-level cache (see
+    // SecondLevelCacheInvalidator.evictIssues); a JPQL UPDATE would empty the whole region.
+
+    // Compare-and-set status change: only applies if the issue is still at the expected
+    // version and nobody else holds a live claim on it. Resolving an issue also releases its claim.
+    // Returns the columns that may differ from the row read before (no row if it didn't apply).
+    private static final String COMPARE_AND_SET_STATUS_SQL =
+            "UPDATE issues SET status = CAST(? AS issue_status), resolved_at = ?, version = version + 1, " +
+            "claimed_by = CASE WHEN ? THEN NULL ELSE claimed_by END, " +
+            "claim_expires_at = CASE WHEN ? THEN NULL ELSE claim_expires_at END " +
+            "WHERE id = ? AND version = ? AND deleted_at IS NULL " +
+            "AND (claim_expires_at IS NULL OR claim_expires_at <= ? OR claimed_by = ?) " +
+            "RETURNING status, resolved_at, version, claimed_by, claim_expires_at, upvote_count, " +
+            "priority_score, escalated_at";
+
+    // Set-based status change for a chunk of (locked) issues
+    private static final String UPDATE_STATUSES_SQL =
+            "UPDATE issues SET status = CAST(? AS issue_status), resolved_at = ?, version = version + 1 " +
+            "WHERE id = ANY (?) AND deleted_at IS NULL AND status <> CAST(? AS issue_status)";
+
+    // Admin work queue: claim (the locked rows), renew and release
+    private static final String CLAIM_SQL =
+            "UPDATE issues SET claimed_by = ?, claim_expires_at = ? WHERE id = ANY (?)";
+    private static final String RENEW_CLAIM_SQL =
+            "UPDATE issues SET claim_expires_at = ? WHERE id = ? AND claimed_by = ? AND deleted_at IS NULL";
+    private static final String RELEASE_CLAIM_SQL =
+            "UPDATE issues SET claimed_by = NULL, claim_expires_at = NULL " +
+            "WHERE id = ? AND claimed_by = ? AND deleted_at IS NULL";
+
+    private static final String MARK_DELETED_SQL =
+            "UPDATE issues SET deleted_at = ? WHERE id = ? AND deleted_at IS NULL";
+
     @Autowired
     private IssueRepository issueRepository;
 
     @Autowired
-    private FileStorageService fileStorageService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private IssueCategoryService categoryService;
+
+    // Issues resolved long ago live here (moved by the IssueArchiver); read-only
+    @Autowired
+    private ArchivedIssueRepository archivedIssueRepository;
+
+    // Append-only log of status changes, written in the same transaction as each change
+    @Autowired
+    private IssueStatusHistoryRepository statusHistoryRepository;
+
+    // Changes are announced as domain events; DomainEventRelay puts them on the EventBus after commit
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Concurrent identical reads (a popular issue, the admin list) share one lookup
+    @Autowired
+    private SingleFlight singleFlight;
+
+    // Upvotes not yet written to issues.upvote_count are added to the responses
+    @Autowired
+    private IssueUpvoteService upvoteService;
+
+    // Views are counted in memory and flushed in batches; the admin list shows the stored totals
+    @Autowired
+    private IssueViewService viewService;
+
+    // Checks new submissions against recent nearby issues (in memory, before anything is stored)
+    @Autowired
+    private DuplicateIssueService duplicateIssueService;
+
+    // Number of IDs per IN (...) list / UPDATE statement in bulk operations
+    @Value("${issues.bulk-update.chunk-size:1000}")
+    private int bulkChunkSize;
+
+    // Upper bound on how many issues one bulk request may touch
+    @Value("${issues.bulk-update.max-issues:20000}")
+    private int bulkMaxIssues;
+
+    // How long a claimed issue stays with its admin without a renewal
+    @Value("${issues.queue.lease-seconds:900}")
+    private long claimLeaseSeconds;
+
+    @Value("${issues.queue.max-claim:20}")
+    private int maxClaimsPerRequest;
+
+    // Largest page of the admin list
+    private static final int MAX_LIST_LIMIT = 10000;
+
+    // Open-ended bounds used when a filter doesn't restrict createdAt
+    private static final Instant MIN_CREATED_AT = Instant.EPOCH;
+    private static final Instant MAX_CREATED_AT = Instant.parse("9999-12-31T23:59:59Z");
+
+    // For coalesced reads, which open their transaction inside the single flight
+    private final TransactionTemplate readOnlyTransaction;
+
+    public IssueServiceImpl(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     // Create an Issue
     @Override
     @Transactional
-    public IssueResponse createIssue(IssueRequest issueRequest) {
+    public IssueResponse createIssue(IssueRequest issueRequest, boolean ignoreDuplicates) {
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         //Map the DTO to an Entity
         Issue newIssue = mapToEntity(issueRequest);
 
+        // Probably reported already? Then offer the existing issues instead of storing another one
+        if (!ignoreDuplicates) {
+            List<DuplicateCandidate> duplicates = duplicateIssueService.findLikelyDuplicates(issueRequest);
+            if (!duplicates.isEmpty()) {
+                throw new PossibleDuplicateException("This issue looks like it has already been reported nearby. " +
+                        "Upvote one of the existing issues, or submit again without checkDuplicates.", duplicates);
+            }
+        }
+
         //LINK THE USER TO THE ISSUE ---
         newIssue.setUser(user);
 
         //Save the new entity
-        Issue savedIssue = issueRepository.save(newIssue);
+        Issue savedIssue = issueRepository.saveAndFlush(newIssue); // Flushed so createdAt is set for the response
+        eventPublisher.publishEvent(new IssueCreatedEvent(savedIssue.getId(), user.getId(),
+                savedIssue.getCategory().getName(), savedIssue.getLatitude(), savedIssue.getLongitude(), Instant.now()));
 
         return mapToResponse(savedIssue);
     }
 
     //Get all Issues
     @Override
-    @Transactional(readOnly = true)
-    public List<IssueResponse> getAllIssues() {
-        List<Issue> issues = issueRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
-        return issues.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public List<IssueResponse> getAllIssues(String sortBy, Integer limit) {
+        String order = sortBy == null ? "newest" : sortBy;
+        Sort sort = switch (order) {
+            case "newest" -> Sort.by(Sort.Direction.DESC, "createdAt");
+            // Stored view counts (views still being flushed don't reorder); never viewed counts as 0
+            case "views" -> JpaSort.unsafe(Sort.Direction.DESC, "COALESCE(s.viewCount, 0)")
+                    .and(Sort.by(Sort.Direction.DESC, "createdAt"));
+            // Most "me too" votes first (stored counts; votes still being flushed don't reorder)
+            case "upvotes" -> Sort.by(Sort.Direction.DESC, "upvoteCount").and(Sort.by(Sort.Direction.DESC, "createdAt"));
+            // Read in the order of idx_issues_priority, so with a limit only the top rows are touched
+            case "priority" -> Sort.by(Sort.Direction.DESC, "priorityScore").and(Sort.by(Sort.Direction.DESC, "id"));
+            default -> throw new BadRequestException("Unknown sort: " + sortBy + ". Allowed: [newest, upvotes, views, priority]");
+        };
+        if (limit != null && (limit < 1 || limit > MAX_LIST_LIMIT)) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIST_LIMIT);
+        }
+
+        // Not @Transactional: callers waiting on the single flight must not hold a connection
+        return singleFlight.execute("all-issues", Arrays.asList(order, limit), () -> readOnlyTransaction.execute(status -> {
+            // One query: the issues, their view counts, the order and the limit
+            List<IssueRepository.IssueWithViews> rows = limit != null
+                    ? issueRepository.findLiveWithViews(PageRequest.of(0, limit, sort))
+                    : issueRepository.findLiveWithViews(sort);
+
+            List<IssueResponse> responses = new ArrayList<>(rows.size());
+            for (IssueRepository.IssueWithViews row : rows) {
+                IssueResponse response = mapToResponse(row.getIssue());
+                response.setViewCount(row.getViewCount());
+                response.setUniqueViewers(row.getUniqueViewers());
+                response.setPriorityScore(row.getIssue().getPriorityScore());
+                responses.add(response);
+            }
+            return responses;
+        }));
     }
 
     // Update an Issue
     @Override
     @Transactional
-    public IssueResponse updateIssueStatus(Long id, String newStatus) {
-        Issue issueToUpdate = issueRepository.findById(id)
+    public IssueResponse updateIssueStatus(Long id, String newStatus, Long expectedVersion) {
+        Issue issueToUpdate = issueRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Issue not found with id: " + id));
 
-        issueToUpdate.setStatus(newStatus);
-        Issue updatedIssue = issueRepository.save(issueToUpdate);
-        return mapToResponse(updatedIssue);
+        // 1. The client must have seen the current state
+        if (expectedVersion != null && expectedVersion != issueToUpdate.getVersion()) {
+            throw changedMeanwhile(issueToUpdate);
+        }
+
+        // 2. Validate the change against the status state machine
+        IssueStatus target = parseStatus(newStatus);
+        IssueStatus oldStatus = issueToUpdate.getStatus();
+        if (target == oldStatus) {
+            return mapToResponse(issueToUpdate); // Nothing to change, nothing to record
+        }
+        if (!oldStatus.canTransitionTo(target)) {
+            throw new BadRequestException("Cannot change status from " + oldStatus + " to " + target + ".");
+        }
+        String changedBy = currentUsername();
+        Instant changedAt = Instant.now();
+        checkNotClaimedByOthers(issueToUpdate, changedBy, changedAt);
+
+        // 3. Apply it in one compare-and-set UPDATE on the version validated above (no row lock
+        //    is held in between). It fails if another admin changed or claimed the issue meanwhile.
+        //    On success it returns the new row, which goes into the (detached) entity for the response.
+        Long userId = issueToUpdate.getUser().getId();
+        String category = issueToUpdate.getCategory().getName();
+        Instant createdAt = issueToUpdate.getCreatedAt();
+        boolean resolved = target == IssueStatus.RESOLVED;
+        Hibernate.initialize(issueToUpdate.getUser()); // The response needs the username after the detach
+        entityManager.detach(issueToUpdate);
+        cacheInvalidator.evictIssues(List.of(id));
+        List<Issue> updated = jdbcTemplate.query(COMPARE_AND_SET_STATUS_SQL,
+                (rs, rowNum) -> applyChangedColumns(issueToUpdate, rs),
+                target.name(), resolved ? Timestamp.from(changedAt) : null, resolved, resolved, id,
+                issueToUpdate.getVersion(), Timestamp.from(changedAt), changedBy);
+        if (updated.isEmpty()) {
+            Issue current = issueRepository.findByIdAndDeletedAtIsNull(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Issue not found with id: " + id));
+            checkNotClaimedByOthers(current, changedBy, changedAt);
+            throw changedMeanwhile(current);
+        }
+
+        // 4. Log it and announce it
+        statusHistoryRepository.save(toHistory(id, category, createdAt, oldStatus, target, changedBy, changedAt));
+        eventPublisher.publishEvent(new IssueStatusChangedEvent(id, userId, oldStatus.name(), target.name(),
+                changedBy, changedAt));
+        return mapToResponse(issueToUpdate);
+    }
+
+    // Copies the columns returned by COMPARE_AND_SET_STATUS_SQL into the issue
+    private static Issue applyChangedColumns(Issue issue, ResultSet rs) throws SQLException {
+        issue.setStatus(IssueStatus.valueOf(rs.getString("status")));
+        issue.setResolvedAt(toInstant(rs.getTimestamp("resolved_at")));
+        issue.setVersion(rs.getLong("version"));
+        issue.setClaimedBy(rs.getString("claimed_by"));
+        issue.setClaimExpiresAt(toInstant(rs.getTimestamp("claim_expires_at")));
+        issue.setUpvoteCount(rs.getLong("upvote_count"));
+        issue.setPriorityScore(rs.getDouble("priority_score"));
+        issue.setEscalatedAt(toInstant(rs.getTimestamp("escalated_at")));
+        return issue;
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+
+    // Bulk-update the status of many issues
+    @Override
+    @Transactional
+    public BulkStatusUpdateResponse bulkUpdateStatus(BulkStatusUpdateRequest request) {
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean hasFilter = request.getFilter() != null;
+        if (hasIds == hasFilter) {
+            throw new BadRequestException("Provide either 'ids' or 'filter', but not both.");
+        }
+
+        IssueStatus target = parseStatus(request.getStatus());
+
+        // 1. Work out which issues the request targets
+        List<Long> targetIds = hasIds ? new ArrayList<>(new LinkedHashSet<>(request.getIds()))
+                : findIdsMatching(request.getFilter());
+        if (targetIds.size() > bulkMaxIssues) {
+            throw new BadRequestException("A bulk update may affect at most " + bulkMaxIssues
+                    + " issues, but this one matches " + targetIds.size() + ".");
+        }
+
+        String changedBy = currentUsername();
+        Instant changedAt = Instant.now();
+
+        BulkStatusUpdateResponse response = new BulkStatusUpdateResponse();
+        response.setStatus(request.getStatus());
+        response.setRequested(targetIds.size());
+
+        // 2. Process in chunks: one (locking) projection query + one UPDATE per chunk
+        for (int from = 0; from < targetIds.size(); from += bulkChunkSize) {
+            List<Long> chunk = targetIds.subList(from, Math.min(from + bulkChunkSize, targetIds.size()));
+
+            Map<Long, IssueRepository.IdAndStatus> currentStatuses = issueRepository.findStatusesByIdIn(chunk).stream()
+                    .collect(Collectors.toMap(IssueRepository.IdAndStatus::getId, current -> current));
+
+            // 3. Classify every ID for the per-issue report
+            List<Long> toUpdate = new ArrayList<>();
+            List<IssueStatusHistory> history = new ArrayList<>();
+            for (Long id : chunk) {
+                IssueRepository.IdAndStatus current = currentStatuses.get(id);
+                BulkStatusResult.Outcome outcome;
+                if (current == null) {
+                    outcome = BulkStatusResult.Outcome.NOT_FOUND;
+                    response.setNotFound(response.getNotFound() + 1);
+                } else if (current.getStatus() == target) {
+                    outcome = BulkStatusResult.Outcome.UNCHANGED;
+                    response.setUnchanged(response.getUnchanged() + 1);
+                } else if (!current.getStatus().canTransitionTo(target)) {
+                    outcome = BulkStatusResult.Outcome.INVALID_TRANSITION;
+                    response.setInvalidTransition(response.getInvalidTransition() + 1);
+                } else {
+                    outcome = BulkStatusResult.Outcome.UPDATED;
+                    toUpdate.add(id);
+                    history.add(toHistory(id, current.getCategory(), current.getCreatedAt(),
+                            current.getStatus(), target, changedBy, changedAt));
+                    eventPublisher.publishEvent(new IssueStatusChangedEvent(id, current.getUserId(),
+                            current.getStatus().name(), target.name(), changedBy, changedAt));
+                }
+                response.getResults().add(new BulkStatusResult(id, outcome));
+            }
+
+            // 4. Apply the valid changes and log them (batched inserts)
+            if (!toUpdate.isEmpty()) {
+                cacheInvalidator.evictIssues(toUpdate);
+                Timestamp resolvedAt = target == IssueStatus.RESOLVED ? Timestamp.from(changedAt) : null;
+                response.setUpdated(response.getUpdated() + jdbcTemplate.update(UPDATE_STATUSES_SQL, ps -> {
+                    ps.setString(1, target.name());
+                    ps.setTimestamp(2, resolvedAt);
+                    ps.setArray(3, ps.getConnection().createArrayOf("bigint", toUpdate.toArray()));
+                    ps.setString(4, target.name());
+                }));
+                statusHistoryRepository.saveAll(history);
+            }
+        }
+        return response;
     }
 
     // Delete an Issue
     @Override
     @Transactional
     public void deleteIssue(Long id) {
-        // 1. Find the issue first, or throw a 404.
-        //    We must use findById so we can get the imageUrl.
-        Issue issue = issueRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Issue not found with id: " + id));
+        // 1. Set the tombstone in a single UPDATE. The issue disappears from every
+        //    read immediately; the DeletionPurger removes the row, its comments
+        //    and its image file later, outside of this request.
+        Instant now = Instant.now();
+        cacheInvalidator.evictIssues(List.of(id));
+        int marked = jdbcTemplate.update(MARK_DELETED_SQL, Timestamp.from(now), id);
 
-        // 2. Check if an image is attached
-        if (issue.getImageUrl() != null && !issue.getImageUrl().isBlank()) {
-            // 3. If so, tell the file service to delete it from the disk
-            fileStorageService.deleteFile(issue.getImageUrl());
+        // 2. Nothing was marked -> it doesn't exist (or was already deleted)
+        if (marked == 0) {
+            throw new ResourceNotFoundException("Issue not found with id: " + id);
         }
-
-        // 4. Finally, delete the issue from the database
-        issueRepository.delete(issue); // We can use delete(issue) since we already fetched it
+        eventPublisher.publishEvent(new IssueDeletedEvent(id, now));
     }
 
     //Get Issues for current user
@@ -96,7 +407,7 @@ public class IssueServiceImpl implements IssueService {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         // 2. Call our new repository method
-        List<Issue> issues = issueRepository.findByUserOrderByCreatedAtDesc(currentUser);
+        List<Issue> issues = issueRepository.findByUserAndDeletedAtIsNullOrderByCreatedAtDesc(currentUser);
 
         // 3. Map the list of entities to a list of response DTOs
         return issues.stream()
@@ -105,16 +416,175 @@ public class IssueServiceImpl implements IssueService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public IssueResponse getIssueById(Long id) {
-        // 1. Find the issue by its ID or throw our 404 exception
-        Issue issue = issueRepository.findById(id)
+        // Concurrent requests for the same issue share one lookup (see getAllIssues)
+        IssueResponse response = singleFlight.execute("issue-by-id", id,
+                () -> readOnlyTransaction.execute(status -> loadIssueById(id)));
+
+        // Every request counts as a view, including the ones that shared a lookup
+        if (!response.isArchived()) {
+            User viewer = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            viewService.recordView(id, viewer.getId());
+        }
+        return response;
+    }
+
+    // --- Admin work queue ---
+
+    @Override
+    @Transactional
+    public List<IssueResponse> claimNextIssues(int count) {
+        if (count < 1 || count > maxClaimsPerRequest) {
+            throw new BadRequestException("n must be between 1 and " + maxClaimsPerRequest);
+        }
+        String admin = currentUsername();
+        Instant now = Instant.now();
+
+        // 1. Lock the next unclaimed issues; rows other admins are claiming right now are skipped
+        List<Long> ids = issueRepository.lockClaimable(now, count);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // 2. Claim them (still locked, so nobody can claim or change them in between)
+        cacheInvalidator.evictIssues(ids);
+        jdbcTemplate.update(CLAIM_SQL, ps -> {
+            ps.setString(1, admin);
+            ps.setTimestamp(2, Timestamp.from(now.plusSeconds(claimLeaseSeconds)));
+            ps.setArray(3, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        });
+
+        // 3. Return them in queue order
+        Map<Long, Issue> claimed = issueRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Issue::getId, Function.identity()));
+        return ids.stream().map(claimed::get).map(this::mapToQueueResponse).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<IssueResponse> getMyClaimedIssues() {
+        return issueRepository.findClaimedBy(currentUsername(), Instant.now()).stream()
+                .map(this::mapToQueueResponse)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public IssueResponse renewClaim(Long id) {
+        String admin = currentUsername();
+        cacheInvalidator.evictIssues(List.of(id));
+        Timestamp expiresAt = Timestamp.from(Instant.now().plusSeconds(claimLeaseSeconds));
+        if (jdbcTemplate.update(RENEW_CLAIM_SQL, expiresAt, id, admin) == 0) {
+            throw notClaimedByCurrentAdmin(id, admin);
+        }
+        return issueRepository.findByIdAndDeletedAtIsNull(id)
+                .map(this::mapToQueueResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Issue not found with id: " + id));
+    }
 
-        // 2. Map the entity to our response DTO and return it
-        return mapToResponse(issue);
+    @Override
+    @Transactional
+    public void releaseClaim(Long id) {
+        String admin = currentUsername();
+        cacheInvalidator.evictIssues(List.of(id));
+        if (jdbcTemplate.update(RELEASE_CLAIM_SQL, id, admin) == 0) {
+            throw notClaimedByCurrentAdmin(id, admin);
+        }
+    }
+
+    private IssueResponse mapToQueueResponse(Issue issue) {
+        IssueResponse response = mapToResponse(issue);
+        response.setPriorityScore(issue.getPriorityScore());
+        return response;
     }
 
+    private RuntimeException notClaimedByCurrentAdmin(Long id, String admin) {
+        Issue issue = issueRepository.findByIdAndDeletedAtIsNull(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Issue not found with id: " + id));
+        return new ConflictException("Issue " + id + " is not claimed by " + admin
+                + (issue.getClaimedBy() != null ? " (claimed by " + issue.getClaimedBy() + ")." : "."));
+    }
+
+    private static void checkNotClaimedByOthers(Issue issue, String admin, Instant now) {
+        if (issue.getClaimExpiresAt() != null && issue.getClaimExpiresAt().isAfter(now)
+                && !admin.equals(issue.getClaimedBy())) {
+            throw new ConflictException("Issue " + issue.getId() + " is being worked on by " + issue.getClaimedBy()
+                    + " until " + issue.getClaimExpiresAt() + ".");
+        }
+    }
+
+    private static ConflictException changedMeanwhile(Issue current) {
+        return new ConflictException("Issue " + current.getId() + " was changed by someone else (it is now "
+                + current.getStatus() + ", version " + current.getVersion() + "). Reload it and try again.");
+    }
+
+    private IssueResponse loadIssueById(Long id) {
+        // 1. Find the issue by its ID, in the live table first (usually from the second-level cache)
+        Issue issue = issueRepository.findLiveById(id).orElse(null);
+        if (issue != null) {
+            // 2. Map the entity to our response DTO and return it
+            return mapToResponse(issue);
+        }
+
+        // 3. Resolved long ago? Then it has been moved to the archive (or throw our 404 exception)
+        return archivedIssueRepository.findById(id)
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Issue not found with id: " + id));
+    }
+
+
+    /**
+     * Parses a requested status, rejecting anything that isn't an IssueStatus.
+     */
+    private IssueStatus parseStatus(String status) {
+        try {
+            return IssueStatus.valueOf(status);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BadRequestException("Unknown status: " + status + ". Allowed: "
+                    + Arrays.toString(IssueStatus.values()));
+        }
+    }
+
+    private static IssueStatusHistory toHistory(Long issueId, String category, Instant createdAt, IssueStatus fromStatus,
+                                                IssueStatus toStatus, String changedBy, Instant changedAt) {
+        IssueStatusHistory entry = new IssueStatusHistory();
+        entry.setIssueId(issueId);
+        entry.setCategory(category);
+        entry.setFromStatus(fromStatus);
+        entry.setToStatus(toStatus);
+        entry.setChangedBy(changedBy);
+        entry.setChangedAt(changedAt);
+        entry.setSecondsSinceCreated(createdAt != null ? Math.max(0, Duration.between(createdAt, changedAt).toSeconds()) : 0);
+        return entry;
+    }
+
+    private String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    /**
+     * Collects the IDs of all live issues matching the filter, page by page (keyset pagination).
+     * Stops one past the bulk limit so the caller can reject oversized requests.
+     */
+    private List<Long> findIdsMatching(IssueFilter filter) {
+        Instant createdAfter = filter.getCreatedAfter() != null ? filter.getCreatedAfter() : MIN_CREATED_AT;
+        Instant createdBefore = filter.getCreatedBefore() != null ? filter.getCreatedBefore() : MAX_CREATED_AT;
+        Set<IssueStatus> statuses = filter.getStatus() != null ? EnumSet.of(parseStatus(filter.getStatus()))
+                : EnumSet.allOf(IssueStatus.class);
+
+        List<Long> ids = new ArrayList<>();
+        long afterId = 0;
+        while (ids.size() <= bulkMaxIssues) {
+            List<Long> page = issueRepository.findIdsMatching(afterId, statuses, filter.getCategory(),
+                    createdAfter, createdBefore, PageRequest.of(0, bulkChunkSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            ids.addAll(page);
+            afterId = page.get(page.size() - 1);
+        }
+        return ids;
+    }
 
     // --- Private Helper Methods for Mapping ---
 
@@ -122,7 +592,7 @@ public class IssueServiceImpl implements IssueService {
         Issue issue = new Issue();
         issue.setTitle(dto.getTitle());
         issue.setDescription(dto.getDescription());
-        issue.setCategory(dto.getCategory());
+        issue.setCategory(categoryService.resolve(dto.getCategory()));
         issue.setLatitude(dto.getLatitude());
         issue.setLongitude(dto.getLongitude());
         issue.setImageUrl(dto.getImageUrl());
@@ -134,16 +604,42 @@ public class IssueServiceImpl implements IssueService {
         response.setId(entity.getId());
         response.setTitle(entity.getTitle());
         response.setDescription(entity.getDescription());
-        response.setCategory(entity.getCategory());
-        response.setStatus(entity.getStatus());
+        response.setCategory(entity.getCategory().getName());
+        response.setStatus(entity.getStatus().name());
         response.setLatitude(entity.getLatitude());
         response.setLongitude(entity.getLongitude());
         response.setCreatedAt(entity.getCreatedAt());
+        response.setResolvedAt(entity.getResolvedAt());
         response.setImageUrl(entity.getImageUrl());
+        response.setUpvoteCount(entity.getUpvoteCount() + upvoteService.pendingUpvotes(entity.getId()));
+        response.setEscalatedAt(entity.getEscalatedAt());
+        response.setVersion(entity.getVersion());
+        if (entity.getClaimExpiresAt() != null && entity.getClaimExpiresAt().isAfter(Instant.now())) {
+            response.setClaimedBy(entity.getClaimedBy());
+            response.setClaimExpiresAt(entity.getClaimExpiresAt());
+        }
         //ADD THE USERNAME TO THE RESPONSE ---
         if (entity.getUser() != null) {
             response.setSubmittedByUsername(entity.getUser().getUsername());
         }
         return response;
     }
+
+    private IssueResponse mapToResponse(ArchivedIssue entity) {
+        IssueResponse response = new IssueResponse();
+        response.setId(entity.getId());
+        response.setTitle(entity.getTitle());
+        response.setDescription(entity.getDescription());
+        response.setCategory(entity.getCategory().getName());
+        response.setStatus(entity.getStatus().name());
+        response.setLatitude(entity.getLatitude());
+        response.setLongitude(entity.getLongitude());
+        response.setCreatedAt(entity.getCreatedAt());
+        response.setResolvedAt(entity.getResolvedAt());
+        response.setImageUrl(entity.getImageUrl());
+        response.setSubmittedByUsername(entity.getUser().getUsername());
+        response.setUpvoteCount(entity.getUpvoteCount());
+        response.setArchived(true);
+        return response;
+    }
 }
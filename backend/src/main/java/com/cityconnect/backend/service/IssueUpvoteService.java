@@ -0,0 +1,31 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.UpvoteResponse;
+
+/**
+ * "Me too" upvotes on issues: one vote per user and issue.
+ *
+ * Votes are counted in memory and written to the database in batches, so a popular
+ * issue doesn't turn its row into a hot spot that every vote has to lock.
+ */
+public interface IssueUpvoteService {
+
+    /**
+     * Adds the current user's vote to a live issue. Voting twice changes nothing.
+     * @throws com.cityconnect.backend.exception.ResourceNotFoundException if the issue is not found.
+     */
+    UpvoteResponse upvote(Long issueId);
+
+    /**
+     * Votes for the issue that are counted but not yet in issues.upvote_count.
+     */
+    long pendingUpvotes(Long issueId);
+
+    /**
+     * Writes the next batch of pending votes to the database.
+     * Called repeatedly by the UpvoteFlusher job.
+     *
+     * @return The number of votes taken from the queue (0 when there are none).
+     */
+    int flushBatch();
+}
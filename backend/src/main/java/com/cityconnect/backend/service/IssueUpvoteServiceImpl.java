@@ -0,0 +1,237 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.UpvoteResponse;
+import com.cityconnect.backend.entity.Issue;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.event.IssueUpvotedEvent;
+import com.cityconnect.backend.exception.ResourceNotFoundException;
+import com.cityconnect.backend.exception.ServiceUnavailableException;
+import com.cityconnect.backend.repository.IssueRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of the IssueUpvoteService.
+ *
+ * A vote is only checked and queued on the request thread; the UpvoteFlusher writes
+ * the queue in batches. One statement per batch inserts the vote rows (the primary
+ * key on (issue_id, user_id) is what finally keeps votes unique, across nodes too)
+ * and adds the number of rows actually inserted to each issue's upvote_count.
+ *
+ * Until then, votes are counted in a LongAdder per issue, which spreads concurrent
+ * increments over several cells instead of one contended field. Responses add these
+ * pending votes to the stored count. A crash loses the votes of at most one flush
+ * interval; those users can simply vote again.
+ */
+@Service
+public class IssueUpvoteServiceImpl implements IssueUpvoteService {
+
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    // Inserts new votes (skipping existing ones and issues that are gone) and adds
+    // the inserted ones to the counts, in one round trip
+    private static final String FLUSH_SQL =
+            "WITH inserted AS (" +
+            "  INSERT INTO issue_upvotes (issue_id, user_id, created_at) " +
+            "  SELECT v.issue_id, v.user_id, v.created_at " +
+            "  FROM unnest(?::bigint[], ?::bigint[], ?::timestamptz[]) AS v(issue_id, user_id, created_at) " +
+            "  WHERE EXISTS (SELECT 1 FROM issues i WHERE i.id = v.issue_id AND i.deleted_at IS NULL) " +
+            "  ON CONFLICT DO NOTHING " +
+            "  RETURNING issue_id) " +
+            "UPDATE issues SET upvote_count = issues.upvote_count + d.votes " +
+            "FROM (SELECT issue_id, count(*) AS votes FROM inserted GROUP BY issue_id) d " +
+            "WHERE issues.id = d.issue_id " +
+            "RETURNING issues.id, issues.upvote_count";
+
+    private record Vote(Long issueId, Long userId) {
+    }
+
+    // castAt: when the vote was cast; counter: the per-issue counter it was added to
+    private record PendingVote(Instant castAt, LongAdder counter) {
+    }
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Each flushed issue is announced, so every node drops its cached copy
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${issues.upvotes.batch-size:1000}")
+    private int batchSize;
+
+    // Backpressure: beyond this many unsaved votes, new votes get a 503
+    @Value("${issues.upvotes.max-pending:100000}")
+    private int maxPending;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Counter countedVotes;
+    private final Counter duplicateVotes;
+
+    // Votes not yet taken by a flush
+    private final Map<Vote, PendingVote> pending = new ConcurrentHashMap<>();
+    // Votes taken by the running flush, until it has committed (so duplicates are still caught)
+    private final Set<Vote> flushing = ConcurrentHashMap.newKeySet();
+    // Issue ID -> counted votes not yet in issues.upvote_count
+    private final Map<Long, LongAdder> pendingCounts = new ConcurrentHashMap<>();
+
+    public IssueUpvoteServiceImpl(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.countedVotes = Counter.builder("issues.upvotes.counted")
+                .description("Upvotes accepted")
+                .register(meterRegistry);
+        this.duplicateVotes = Counter.builder("issues.upvotes.duplicate")
+                .description("Upvotes ignored because the user had already voted")
+                .register(meterRegistry);
+        Gauge.builder("issues.upvotes.pending", pending, Map::size)
+                .description("Upvotes waiting to be written to the database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(readOnly = true) // Only reads; the lookups share one connection
+    public UpvoteResponse upvote(Long issueId) {
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Issue issue = issueRepository.findLiveById(issueId)
+                .orElseThrow(() -> new ResourceNotFoundException("Issue not found with id: " + issueId));
+
+        Vote vote = new Vote(issueId, user.getId());
+        boolean counted = !alreadyVoted(vote) && queue(vote);
+        if (counted) {
+            countedVotes.increment();
+        } else {
+            duplicateVotes.increment();
+        }
+        return new UpvoteResponse(issueId, issue.getUpvoteCount() + pendingUpvotes(issueId), counted);
+    }
+
+    @Override
+    public long pendingUpvotes(Long issueId) {
+        LongAdder counter = pendingCounts.get(issueId);
+        return counter == null ? 0 : Math.max(0, counter.sum());
+    }
+
+    @Override
+    public synchronized int flushBatch() {
+        // 1. Take the next batch off the queue. Each vote moves to 'flushing' before it
+        //    leaves 'pending', so alreadyVoted() can't miss it on the way to the database.
+        List<Map.Entry<Vote, PendingVote>> batch = new ArrayList<>();
+        Iterator<Map.Entry<Vote, PendingVote>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            Map.Entry<Vote, PendingVote> entry = iterator.next();
+            flushing.add(entry.getKey());
+            batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            iterator.remove();
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // 2. Write it (on failure, the votes go back to the queue for the next run)
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (RuntimeException e) {
+            batch.forEach(entry -> pending.putIfAbsent(entry.getKey(), entry.getValue()));
+            throw e;
+        } finally {
+            batch.forEach(entry -> flushing.remove(entry.getKey()));
+        }
+
+        // 3. The votes are in upvote_count now; stop adding them on top
+        for (Map.Entry<Vote, PendingVote> entry : batch) {
+            LongAdder counter = entry.getValue().counter();
+            counter.decrement();
+            if (counter.sum() <= 0) {
+                pendingCounts.remove(entry.getKey().issueId(), counter);
+            }
+        }
+        return batch.size();
+    }
+
+    /**
+     * Writes whatever is still queued before the application stops.
+     */
+    @PreDestroy
+    public void flushAll() {
+        try {
+            while (flushBatch() > 0) {
+                // keep going until the queue is empty
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Could not write " + pending.size() + " pending upvote(s) on shutdown: " + e.getMessage());
+        }
+    }
+
+    private boolean alreadyVoted(Vote vote) {
+        // Checked in the order a vote moves: pending -> flushing -> stored
+        if (pending.containsKey(vote) || flushing.contains(vote)) {
+            return true;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM issue_upvotes WHERE issue_id = ? AND user_id = ?)",
+                Boolean.class, vote.issueId(), vote.userId()));
+    }
+
+    /**
+     * Queues a new vote and counts it. False if the same vote was queued concurrently.
+     */
+    private boolean queue(Vote vote) {
+        if (pending.size() >= maxPending) {
+            throw new ServiceUnavailableException(
+                    "We are receiving a very high number of votes. Please try again shortly.", RETRY_AFTER_SECONDS);
+        }
+        LongAdder counter = pendingCounts.computeIfAbsent(vote.issueId(), id -> new LongAdder());
+        if (pending.putIfAbsent(vote, new PendingVote(Instant.now(), counter)) != null) {
+            return false;
+        }
+        // If a flush dropped this counter in the meantime, the vote is still stored and
+        // counted correctly; it is just not shown as pending until then
+        counter.increment();
+        return true;
+    }
+
+    private void write(List<Map.Entry<Vote, PendingVote>> batch) {
+        Long[] issueIds = new Long[batch.size()];
+        Long[] userIds = new Long[batch.size()];
+        Timestamp[] castAt = new Timestamp[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            issueIds[i] = batch.get(i).getKey().issueId();
+            userIds[i] = batch.get(i).getKey().userId();
+            castAt[i] = Timestamp.from(batch.get(i).getValue().castAt());
+        }
+
+        Instant flushedAt = Instant.now();
+        List<IssueUpvotedEvent> updated = jdbcTemplate.query(FLUSH_SQL,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", issueIds));
+                    ps.setArray(2, ps.getConnection().createArrayOf("bigint", userIds));
+                    ps.setArray(3, ps.getConnection().createArrayOf("timestamptz", castAt));
+                },
+                (rs, rowNum) -> new IssueUpvotedEvent(rs.getLong(1), rs.getLong(2), flushedAt));
+        updated.forEach(eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,22 @@
+package com.cityconnect.backend.service;
+
+/**
+ * Counts how often issues are viewed, and by roughly how many different users.
+ *
+ * Views are only tallied in memory on the request thread and written to
+ * issue_view_stats in batches, so reading an issue stays a read.
+ */
+public interface IssueViewService {
+
+    /**
+     * Counts one view of a live issue.
+     */
+    void recordView(Long issueId, Long viewerUserId);
+
+    /**
+     * Writes everything tallied since the last flush. Called by the ViewFlusher job.
+     *
+     * @return The number of issues whose stats were written.
+     */
+    int flush();
+}
@@ -0,0 +1,187 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.util.HyperLogLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of the IssueViewService.
+ *
+ * Each view adds to a per-issue tally: a LongAdder for the number of views and a
+ * HyperLogLog sketch for the distinct viewers (a fixed 1 KB per issue, however many
+ * users look at it). Tallies live in a "window" that the flush swaps for a new one
+ * and then writes in batches: the view count is added to the stored one, and the
+ * sketch is merged with the stored sketch under a row lock, so several nodes can
+ * flush into the same rows.
+ *
+ * Recording takes no locks. A writer registers itself on the window before checking
+ * that it is still open, and the flush waits for the registered writers of the window
+ * it has closed, so no view recorded into an old window is missed.
+ */
+@Service
+public class IssueViewServiceImpl implements IssueViewService {
+
+    private static final class Tally {
+        final LongAdder views = new LongAdder();
+        final HyperLogLog viewers = new HyperLogLog();
+
+        Tally absorb(Tally other) {
+            views.add(other.views.sum());
+            viewers.merge(other.viewers);
+            return this;
+        }
+    }
+
+    private static final class Window {
+        final Map<Long, Tally> tallies = new ConcurrentHashMap<>();
+        // Threads currently recording into this window
+        final LongAdder writers = new LongAdder();
+        volatile boolean closed;
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Issues per transaction when writing
+    @Value("${issues.views.batch-size:500}")
+    private int batchSize;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Counter recordedViews;
+
+    private volatile Window current = new Window();
+
+    // Tallies taken from closed windows but not written yet (only touched by flush())
+    private final Map<Long, Tally> unsaved = new ConcurrentHashMap<>();
+
+    public IssueViewServiceImpl(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recordedViews = Counter.builder("issues.views.recorded")
+                .description("Issue views counted")
+                .register(meterRegistry);
+        Gauge.builder("issues.views.unsaved", unsaved, Map::size)
+                .description("Issues whose view counts could not be written yet")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordView(Long issueId, Long viewerUserId) {
+        while (true) {
+            Window window = current;
+            window.writers.increment();
+            try {
+                if (!window.closed) {
+                    Tally tally = window.tallies.computeIfAbsent(issueId, id -> new Tally());
+                    tally.views.increment();
+                    tally.viewers.add(viewerUserId);
+                    recordedViews.increment();
+                    return;
+                }
+            } finally {
+                window.writers.decrement();
+            }
+            // The flush closed this window just now; record into the new one
+        }
+    }
+
+    @Override
+    public synchronized int flush() {
+        // 1. Swap in a new window, then wait for writers still busy with the old one
+        Window window = current;
+        current = new Window();
+        window.closed = true;
+        while (window.writers.sum() != 0) {
+            Thread.onSpinWait();
+        }
+        window.tallies.forEach((issueId, tally) -> unsaved.merge(issueId, tally, Tally::absorb));
+        if (unsaved.isEmpty()) {
+            return 0;
+        }
+
+        // 2. Write in batches (in ID order, so concurrent flushes lock rows in the same order).
+        //    A failed batch stays in 'unsaved' and is merged with the next window.
+        List<Long> issueIds = new ArrayList<>(unsaved.keySet());
+        Collections.sort(issueIds);
+        int written = 0;
+        for (int from = 0; from < issueIds.size(); from += batchSize) {
+            List<Long> batch = issueIds.subList(from, Math.min(from + batchSize, issueIds.size()));
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            batch.forEach(unsaved::remove);
+            written += batch.size();
+        }
+        return written;
+    }
+
+    /**
+     * Writes the last window before the application stops.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("Could not write view counts of " + unsaved.size() + " issue(s) on shutdown: " + e.getMessage());
+        }
+    }
+
+    private void write(List<Long> issueIds) {
+        Timestamp now = Timestamp.from(Instant.now());
+
+        // 1. A row for issues viewed for the first time (issues deleted meanwhile are skipped)
+        jdbcTemplate.update("INSERT INTO issue_view_stats (issue_id, updated_at) " +
+                        "SELECT id, ? FROM issues WHERE id = ANY (?) ON CONFLICT DO NOTHING",
+                ps -> {
+                    ps.setTimestamp(1, now);
+                    ps.setArray(2, toArray(ps.getConnection(), issueIds));
+                });
+
+        // 2. Lock the rows and read the stored sketches
+        Map<Long, byte[]> storedSketches = new HashMap<>();
+        jdbcTemplate.query("SELECT issue_id, viewer_sketch FROM issue_view_stats " +
+                        "WHERE issue_id = ANY (?) ORDER BY issue_id FOR UPDATE",
+                ps -> ps.setArray(1, toArray(ps.getConnection(), issueIds)),
+                rs -> {
+                    storedSketches.put(rs.getLong(1), rs.getBytes(2));
+                });
+
+        // 3. Add our views and merge our viewers into each stored sketch
+        List<Object[]> updates = new ArrayList<>();
+        for (Long issueId : issueIds) {
+            if (!storedSketches.containsKey(issueId)) {
+                continue; // The issue is gone
+            }
+            Tally tally = unsaved.get(issueId);
+            byte[] stored = storedSketches.get(issueId);
+            HyperLogLog sketch = stored == null ? new HyperLogLog() : HyperLogLog.fromBytes(stored);
+            sketch.merge(tally.viewers);
+            updates.add(new Object[]{tally.views.sum(), sketch.toBytes(), sketch.estimate(), now, issueId});
+        }
+        jdbcTemplate.batchUpdate("UPDATE issue_view_stats SET view_count = view_count + ?, viewer_sketch = ?, " +
+                "unique_viewers = ?, updated_at = ? WHERE issue_id = ?", updates);
+    }
+
+    private static Array toArray(Connection connection, List<Long> ids) throws SQLException {
+        return connection.createArrayOf("bigint", ids.toArray());
+    }
+}
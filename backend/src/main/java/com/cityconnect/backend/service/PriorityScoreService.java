@@ -0,0 +1,28 @@
+package com.cityconnect.backend.service;
+
+/**
+ * Keeps issues.priority_score up to date; the admin queue is ordered by it.
+ *
+ * An issue is rescored in the background when one of its inputs changes (it is
+ * created, upvoted, resolved or reopened, or a new issue is reported next to it),
+ * and all open issues are rescored now and then because they age.
+ */
+public interface PriorityScoreService {
+
+    /**
+     * Rescores the next batch of changed issues.
+     * Called repeatedly by the PriorityScoreUpdater job.
+     *
+     * @return The number of issues taken from the queue (0 when there are none).
+     */
+    int rescoreChanged();
+
+    /**
+     * Rescores the next batch of open issues in ID order (keyset pagination).
+     * Called by the PriorityScoreUpdater job, starting from 0, under its lease:
+     * each batch is fenced with JobCoordinator.currentLease().
+     *
+     * @return The last ID of the batch, or -1 after the last batch.
+     */
+    long rescoreOpenIssues(long afterId);
+}
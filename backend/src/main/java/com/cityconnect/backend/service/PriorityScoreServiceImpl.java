@@ -0,0 +1,223 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.cluster.JobCoordinator;
+import com.cityconnect.backend.cluster.JobLease;
+import com.cityconnect.backend.config.SecondLevelCacheInvalidator;
+import com.cityconnect.backend.event.IssueCreatedEvent;
+import com.cityconnect.backend.event.IssueStatusChangedEvent;
+import com.cityconnect.backend.event.IssueUpvotedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of the PriorityScoreService.
+ *
+ * The score of an open issue is the product of four factors (resolved issues score 0):
+ *  - category weight (issue_categories.priority_weight, 1 = neutral)
+ *  - age:          1 + days open / 7, counted in whole hours and capped at 4 weeks (1 to 5)
+ *  - endorsements: 1 + log2(1 + upvotes)
+ *  - density:      1 + log2(1 + open issues reported nearby recently) / 2, counting up to 63
+ *                  (the neighbourhood of the duplicate check, see DuplicateIssueService)
+ *
+ * Changes are picked up from the domain events this instance publishes, after they
+ * commit, so each change is rescored once, by the instance that made it. The periodic
+ * pass over all open issues makes them age, and catches changes whose event was lost. Scores are rounded and only written
+ * when they differ, so a pass that finds nothing new writes nothing.
+ */
+@Service
+public class PriorityScoreServiceImpl implements PriorityScoreService {
+
+    private static final int MAX_AGE_DAYS = 28;
+    // Beyond this many nearby reports the density factor stops growing
+    private static final int MAX_NEARBY_REPORTS = 63;
+
+    private static final String LOAD_SQL =
+            "SELECT i.id, i.status = 'RESOLVED', i.created_at, i.upvote_count, i.latitude, i.longitude, " +
+            "       c.priority_weight " +
+            "FROM issues i JOIN issue_categories c ON c.id = i.category_id " +
+            "WHERE i.deleted_at IS NULL ";
+
+    private record Inputs(long issueId, boolean resolved, Instant createdAt, long upvotes,
+                          Double latitude, Double longitude, double categoryWeight) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DuplicateIssueService duplicateIssueService;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    // The scores are written with plain SQL, so the cached issues are evicted by hand
+    @Autowired
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    @Value("${issues.priority.batch-size:500}")
+    private int batchSize;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Counter updatedScores;
+
+    // Issues whose inputs changed, and the new ones among them (whose neighbours change too)
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final Set<Long> created = ConcurrentHashMap.newKeySet();
+
+    public PriorityScoreServiceImpl(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.updatedScores = Counter.builder("issues.priority.updated")
+                .description("Priority scores that changed")
+                .register(meterRegistry);
+        Gauge.builder("issues.priority.pending", changed, Set::size)
+                .description("Issues waiting to be rescored")
+                .register(meterRegistry);
+    }
+
+    // --- Changes made on this instance (after commit) ---
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueCreated(IssueCreatedEvent event) {
+        created.add(event.issueId());
+        changed.add(event.issueId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueUpvoted(IssueUpvotedEvent event) {
+        changed.add(event.issueId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIssueStatusChanged(IssueStatusChangedEvent event) {
+        changed.add(event.issueId());
+    }
+
+    @Override
+    public synchronized int rescoreChanged() {
+        List<Long> batch = new ArrayList<>();
+        Iterator<Long> iterator = changed.iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            List<Inputs> inputs = jdbcTemplate.query(LOAD_SQL + "AND i.id = ANY (?)",
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", batch.toArray())),
+                    (rs, rowNum) -> toInputs(rs));
+            // Each node rescores the changes it made itself, so this isn't fenced
+            save(inputs, null);
+
+            // A new issue raises the density of the open issues around it
+            for (Inputs issue : inputs) {
+                if (created.remove(issue.issueId()) && issue.latitude() != null && issue.longitude() != null) {
+                    duplicateIssueService.findNearbyIssueIds(issue.latitude(), issue.longitude(), MAX_NEARBY_REPORTS + 1).stream()
+                            .filter(id -> id != issue.issueId())
+                            .forEach(changed::add);
+                }
+            }
+        } catch (RuntimeException e) {
+            changed.addAll(batch); // Retried on the next run
+            throw e;
+        }
+        return batch.size();
+    }
+
+    @Override
+    public long rescoreOpenIssues(long afterId) {
+        List<Inputs> inputs = jdbcTemplate.query(LOAD_SQL + "AND i.status <> 'RESOLVED' AND i.id > ? ORDER BY i.id LIMIT ?",
+                (rs, rowNum) -> toInputs(rs), afterId, batchSize);
+        if (inputs.isEmpty()) {
+            return -1;
+        }
+        // One node at a time runs this pass: a node that lost its lease stops here
+        save(inputs, jobCoordinator.currentLease());
+        return inputs.get(inputs.size() - 1).issueId();
+    }
+
+    /**
+     * The priority score of an issue (see the class comment).
+     */
+    static double score(double categoryWeight, Instant createdAt, long upvotes, int nearbyReports, Instant now) {
+        long hoursOpen = Math.max(0, Duration.between(createdAt, now).toHours());
+        double age = 1 + Math.min(hoursOpen / 24.0, MAX_AGE_DAYS) / 7;
+        double endorsements = 1 + log2(1 + upvotes);
+        double density = 1 + log2(1 + nearbyReports) / 2;
+        double score = categoryWeight * age * endorsements * density;
+        return Math.round(score * 1000) / 1000.0;
+    }
+
+    /**
+     * Writes the scores that changed, in one transaction fenced with the given lease (if any).
+     */
+    private void save(List<Inputs> inputs, JobLease fence) {
+        Instant now = Instant.now();
+        Long[] ids = new Long[inputs.size()];
+        Double[] scores = new Double[inputs.size()];
+        for (int i = 0; i < inputs.size(); i++) {
+            Inputs issue = inputs.get(i);
+            ids[i] = issue.issueId();
+            scores[i] = issue.resolved() ? 0.0 : score(issue.categoryWeight(), issue.createdAt(), issue.upvotes(),
+                    nearbyReports(issue), now);
+        }
+        List<Long> updated = transactionTemplate.execute(status -> {
+            if (fence != null) {
+                jobCoordinator.checkFence(fence);
+            }
+            List<Long> updatedIds = jdbcTemplate.query(
+                    "UPDATE issues SET priority_score = v.score " +
+                    "FROM unnest(?::bigint[], ?::float8[]) AS v(id, score) " +
+                    "WHERE issues.id = v.id AND issues.priority_score <> v.score " +
+                    "RETURNING issues.id",
+                    ps -> {
+                        ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+                        ps.setArray(2, ps.getConnection().createArrayOf("float8", scores));
+                    },
+                    (rs, rowNum) -> rs.getLong(1));
+            cacheInvalidator.evictIssues(updatedIds);
+            return updatedIds;
+        });
+        updatedScores.increment(updated != null ? updated.size() : 0);
+    }
+
+    private int nearbyReports(Inputs issue) {
+        if (issue.latitude() == null || issue.longitude() == null) {
+            return 0;
+        }
+        // The issue itself is in its own neighbourhood if it is recent
+        long nearby = duplicateIssueService.findNearbyIssueIds(issue.latitude(), issue.longitude(), MAX_NEARBY_REPORTS + 1)
+                .stream()
+                .filter(id -> id != issue.issueId())
+                .count();
+        return (int) Math.min(nearby, MAX_NEARBY_REPORTS);
+    }
+
+    private static Inputs toInputs(ResultSet rs) throws SQLException {
+        return new Inputs(rs.getLong(1), rs.getBoolean(2), rs.getTimestamp(3).toInstant(), rs.getLong(4),
+                rs.getObject(5, Double.class), rs.getObject(6, Double.class), rs.getDouble(7));
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
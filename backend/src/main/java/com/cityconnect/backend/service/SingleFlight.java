@@ -0,0 +1,99 @@
+package com.cityconnect.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing ("single flight") for read services.
+ *
+ * When several threads ask for the same thing at the same time, only the first one
+ * (the leader) runs the lookup; the others wait for its result instead of running
+ * the same query again. Nothing is cached: once the leader is done, the next call
+ * runs a new lookup.
+ *
+ * The lookup must not depend on who is asking (no current-user data), and callers
+ * share the returned object, so it must not be modified. Call this outside of a
+ * transaction and open the transaction inside the lookup; otherwise every waiting
+ * thread would hold a database connection.
+ */
+@Component
+public class SingleFlight {
+
+    private record Key(String operation, Object argument) {
+    }
+
+    // In-flight lookups. A lookup is claimed with putIfAbsent, so there are no locks.
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    // Operation -> counter of calls that shared another call's result
+    private final Map<String, Counter> coalesced = new ConcurrentHashMap<>();
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("requests.in-flight.coalescable", inFlight, Map::size)
+                .description("Lookups currently running that concurrent identical requests can join")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the lookup, or waits for the identical one that is already running.
+     *
+     * @param operation Name of the lookup (e.g. "issue-by-id"), also used as the metric tag.
+     * @param argument  What is looked up; must have proper equals/hashCode (may be null).
+     * @param lookup    The actual lookup.
+     * @return the lookup's result. Exceptions are rethrown to every caller.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object argument, Supplier<T> lookup) {
+        Key key = new Key(operation, argument);
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            coalescedCounter(operation).increment();
+            return (T) await(running);
+        }
+
+        try {
+            T result = lookup.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            // Same exception as the leader got (e.g. ResourceNotFoundException -> 404)
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Counter coalescedCounter(String operation) {
+        return coalesced.computeIfAbsent(operation, name -> Counter.builder("requests.coalesced")
+                .description("Requests that shared the result of an identical in-flight lookup")
+                .tag("operation", name)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,27 @@
+package com.cityconnect.backend.service;
+
+/**
+ * Escalates issues that are still PENDING when their category's deadline
+ * (issue_categories.sla_hours after they were reported) has passed.
+ *
+ * Deadlines are kept in memory, so nothing polls the issues table for overdue rows.
+ * With several nodes, only one of them (the leader) keeps deadlines and escalates;
+ * the others take over when it goes away.
+ */
+public interface SlaEscalationService {
+
+    /**
+     * Takes or keeps the leadership, then escalates the issues whose deadline passed.
+     * Called every tick by SlaEscalationTicker.
+     * @return The number of issues escalated (0 on nodes that are not the leader).
+     */
+    int tick();
+
+    /**
+     * Reloads the deadlines of all PENDING issues from the database (leader only).
+     * Picks up events this node missed.
+     */
+    void resync();
+
+    boolean isLeader();
+}
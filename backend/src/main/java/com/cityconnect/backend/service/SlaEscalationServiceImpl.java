@@ -0,0 +1,246 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.cluster.JobCoordinator;
+import com.cityconnect.backend.cluster.JobLease;
+import com.cityconnect.backend.cluster.LeaseLostException;
+import com.cityconnect.backend.event.EventBus;
+import com.cityconnect.backend.event.IssueCreatedEvent;
+import com.cityconnect.backend.event.IssueDeletedEvent;
+import com.cityconnect.backend.event.IssueEscalatedEvent;
+import com.cityconnect.backend.event.IssueStatusChangedEvent;
+import com.cityconnect.backend.util.HashedTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of the SlaEscalationService.
+ *
+ * The leader keeps the deadline of every PENDING issue in a hashed timing wheel
+ * (see util.HashedTimingWheel): new issues are added as their IssueCreatedEvent
+ * arrives, issues that leave PENDING or are deleted are cancelled. Each tick takes
+ * the deadlines that passed out of the wheel and escalates those issues.
+ *
+ * Leadership is the "sla-escalation" job lease (see cluster.JobCoordinator): whichever
+ * node holds it is the leader, and a node that takes it over (a new token) rebuilds
+ * the wheel from the database.
+ *
+ * The wheel is only a hint. Escalating is a conditional UPDATE that checks the issue
+ * is still PENDING, overdue and not escalated yet, so a stale entry does nothing; and
+ * it is fenced with the lease token, so a node that lost the lease without noticing
+ * escalates nothing.
+ */
+@Service
+public class SlaEscalationServiceImpl implements SlaEscalationService {
+
+    private static final String JOB_NAME = "sla-escalation";
+
+    // Escalates the given issues that are still due and returns what the event needs
+    private static final String ESCALATE_SQL =
+            "UPDATE issues i SET escalated_at = ? FROM issue_categories c " +
+            "WHERE c.id = i.category_id AND i.id = ANY (?) AND i.status = 'PENDING' " +
+            "AND i.deleted_at IS NULL AND i.escalated_at IS NULL AND c.sla_hours IS NOT NULL " +
+            "AND i.created_at + make_interval(hours => c.sla_hours) <= ? " +
+            "RETURNING i.id, i.user_id, c.name, i.created_at + make_interval(hours => c.sla_hours)";
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EventBus eventBus;
+
+    // Escalations are announced as domain events (DomainEventRelay sends them after commit)
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${issues.sla.enabled:true}")
+    private boolean enabled;
+
+    // How long issues whose escalation failed wait before the next attempt
+    @Value("${issues.sla.retry-ms:10000}")
+    private long retryMs;
+
+    // Issues per UPDATE when many deadlines pass at once (e.g. after a takeover)
+    @Value("${issues.sla.batch-size:500}")
+    private int batchSize;
+
+    private final HashedTimingWheel<Long> deadlines;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter escalatedCounter;
+
+    // Category name -> SLA (loaded with the deadlines; categories only change with migrations)
+    private volatile Map<String, Duration> slaByCategory = Map.of();
+
+    // Token of the lease the wheel was loaded under (guarded by 'this')
+    private long leaderToken;
+    private volatile boolean leader;
+
+    public SlaEscalationServiceImpl(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                    @Value("${issues.sla.tick-ms:1000}") long tickMs,
+                                    @Value("${issues.sla.wheel-size:3600}") int wheelSize) {
+        this.deadlines = new HashedTimingWheel<>(Duration.ofMillis(tickMs), wheelSize, Instant.now());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.escalatedCounter = Counter.builder("issues.sla.escalated")
+                .description("Issues escalated for staying PENDING past their deadline")
+                .register(meterRegistry);
+        Gauge.builder("issues.sla.deadlines", deadlines, HashedTimingWheel::size)
+                .description("Deadlines in the timing wheel (0 on nodes that are not the leader)")
+                .register(meterRegistry);
+        Gauge.builder("issues.sla.leader", this, service -> service.isLeader() ? 1 : 0)
+                .description("1 if this node escalates overdue issues")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        // Listeners only touch the wheel, which is empty unless we lead
+        eventBus.subscribe(IssueCreatedEvent.class, event -> {
+            Duration sla = slaByCategory.get(event.category());
+            if (leader && sla != null) {
+                deadlines.schedule(event.issueId(), event.createdAt().plus(sla));
+            }
+        });
+        eventBus.subscribe(IssueStatusChangedEvent.class, event -> {
+            if (!"PENDING".equals(event.newStatus())) {
+                deadlines.cancel(event.issueId());
+            }
+        });
+        eventBus.subscribe(IssueDeletedEvent.class, event -> deadlines.cancel(event.issueId()));
+    }
+
+    @Override
+    public synchronized int tick() {
+        if (!enabled) {
+            return 0;
+        }
+        JobLease lease = holdLeadership();
+        if (lease == null) {
+            return 0;
+        }
+        Instant now = Instant.now();
+        List<Long> due = deadlines.advance(now);
+        int escalated = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                escalated += escalate(batch, now, lease);
+            } catch (LeaseLostException e) {
+                stepDown(); // The new leader loads these deadlines itself
+                System.err.println("SLA escalation: " + e.getMessage() + ", stepping down");
+                return escalated;
+            } catch (DataAccessException e) {
+                // Put the rest back and try again on a later tick
+                Instant retryAt = now.plusMillis(retryMs);
+                due.subList(from, due.size()).forEach(issueId -> deadlines.schedule(issueId, retryAt));
+                throw e;
+            }
+        }
+        return escalated;
+    }
+
+    @Override
+    public synchronized void resync() {
+        if (!leader) {
+            return;
+        }
+        Map<String, Duration> slas = new HashMap<>();
+        jdbcTemplate.query("SELECT name, sla_hours FROM issue_categories WHERE sla_hours IS NOT NULL", rs -> {
+            slas.put(rs.getString(1), Duration.ofHours(rs.getInt(2)));
+        });
+        slaByCategory = slas;
+
+        // Only adds: entries the query doesn't return anymore are harmless (see escalate())
+        // and removing them could drop a deadline an event has just added
+        jdbcTemplate.query("SELECT i.id, i.created_at + make_interval(hours => c.sla_hours) " +
+                        "FROM issues i JOIN issue_categories c ON c.id = i.category_id " +
+                        "WHERE i.status = 'PENDING' AND i.deleted_at IS NULL AND i.escalated_at IS NULL " +
+                        "AND c.sla_hours IS NOT NULL",
+                rs -> {
+                    deadlines.schedule(rs.getLong(1), rs.getTimestamp(2).toInstant());
+                });
+    }
+
+    @Override
+    public boolean isLeader() {
+        return leader;
+    }
+
+    /**
+     * Escalates the issues of a batch that are still due, and announces each of them.
+     */
+    private int escalate(List<Long> issueIds, Instant now, JobLease lease) {
+        Integer escalated = transactionTemplate.execute(status -> {
+            // Holds the lease row (FOR SHARE) until commit, so no takeover can happen in between
+            jobCoordinator.checkFence(lease);
+            List<IssueEscalatedEvent> events = jdbcTemplate.query(ESCALATE_SQL,
+                    ps -> {
+                        ps.setTimestamp(1, Timestamp.from(now));
+                        ps.setArray(2, ps.getConnection().createArrayOf("bigint", issueIds.toArray()));
+                        ps.setTimestamp(3, Timestamp.from(now));
+                    },
+                    (rs, rowNum) -> new IssueEscalatedEvent(rs.getLong(1), rs.getLong(2), rs.getString(3),
+                            rs.getTimestamp(4).toInstant(), now));
+            events.forEach(eventPublisher::publishEvent);
+            return events.size();
+        });
+        escalatedCounter.increment(escalated);
+        return escalated;
+    }
+
+    // --- Leadership ---
+
+    /**
+     * @return The lease if this node is (still, or now) the leader, otherwise null.
+     */
+    private JobLease holdLeadership() {
+        JobLease lease = jobCoordinator.acquire(JOB_NAME);
+        if (lease == null) {
+            if (leader) {
+                System.err.println("SLA escalation: lost the lease, stepping down");
+                stepDown();
+            }
+            return null;
+        }
+        if (!leader || lease.token() != leaderToken) {
+            // Newly taken (or lost and retaken): whatever the wheel held may be stale
+            deadlines.clear();
+            leader = true;
+            leaderToken = lease.token();
+            System.out.println("SLA escalation: this node is now the leader, loading deadlines");
+            try {
+                resync();
+            } catch (DataAccessException e) {
+                stepDown(); // Without the deadlines we can't lead; try again on the next tick
+                throw e;
+            }
+        }
+        return lease;
+    }
+
+    private void stepDown() {
+        leader = false;
+        deadlines.clear();
+    }
+}
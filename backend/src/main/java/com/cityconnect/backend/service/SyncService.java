@@ -0,0 +1,27 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.SyncResponse;
+
+/**
+ * Delta sync for clients that keep a local copy of the issues and their comments.
+ *
+ * A client starts without a cursor (a full sync, in pages), then keeps sending the
+ * cursor of its last response and only gets what was created, changed or deleted
+ * since. A client that is up to date gets an empty page for a few index lookups.
+ *
+ * Admins sync every issue; other users their own issues and the comments on them.
+ */
+public interface SyncService {
+
+    /**
+     * @param since the cursor of the previous response, or null for a full sync.
+     * @param limit rows per page, or null for the default.
+     */
+    SyncResponse sync(String since, Integer limit);
+
+    /**
+     * Removes tombstones older than the retention period. Called by the SyncTombstonePruner job.
+     * @return the number of tombstones removed.
+     */
+    int pruneTombstones();
+}
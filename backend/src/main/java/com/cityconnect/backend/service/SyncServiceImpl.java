@@ -0,0 +1,354 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.dto.CommentResponse;
+import com.cityconnect.backend.dto.IssueResponse;
+import com.cityconnect.backend.dto.SyncResponse;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.exception.BadRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of the SyncService, on top of the change stamps of V17.
+ *
+ * Every issue and comment carries the id of the transaction that last changed it
+ * (change_xid), and deleted rows leave a tombstone with the id of the deleting one.
+ * Transaction ids don't commit in order, so the cursor can't just be the highest stamp
+ * a client has seen: a transaction with a lower id may still commit after it. Instead
+ * a sync reads the oldest transaction still running (the xmin of the snapshot) before
+ * it reads the rows; everything below it has committed and is included, so the next
+ * sync continues from there. Rows at or above it may be sent twice, which clients
+ * handle by replacing their copy.
+ *
+ * A page reads the three (change_xid, id) indexes from the position the previous page
+ * reached, so paging is keyset-based and an up-to-date client costs three index probes.
+ *
+ * Admins sync every issue. Anyone else only gets their own issues, the comments on
+ * them and their tombstones (which record the owner, see V20); those few rows are
+ * read through the per-user indexes and sorted.
+ */
+@Service
+public class SyncServiceImpl implements SyncService {
+
+    // Sources of a page, in the order they are merged when their stamps are equal
+    private static final int ISSUES = 0;
+    private static final int COMMENTS = 1;
+    private static final int TOMBSTONES = 2;
+
+    private static final String ISSUES_SQL =
+            "SELECT i.id, i.title, i.description, c.name AS category, i.status, i.latitude, i.longitude, " +
+            "i.created_at, i.resolved_at, i.image_url, u.username, i.upvote_count, i.escalated_at, i.version, " +
+            "i.deleted_at FROM issues i " +
+            "JOIN issue_categories c ON c.id = i.category_id JOIN users u ON u.id = i.user_id " +
+            "WHERE i.id = ANY (?)";
+
+    private static final String COMMENTS_SQL =
+            "SELECT cm.id, cm.content, cm.created_at, u.username, cm.issue_id, i.deleted_at AS issue_deleted_at " +
+            "FROM comments cm JOIN users u ON u.id = cm.user_id JOIN issues i ON i.id = cm.issue_id " +
+            "WHERE cm.id = ANY (?)";
+
+    /**
+     * What a client's cursor stands for.
+     *
+     * @param from      the rows stamped below it are already on the client
+     * @param watermark lowest snapshot xmin seen by the pages of this round so far; where the next round starts
+     * @param xid       position reached by the previous page (stamp, source and id), xid -1 if none
+     * @param full      this round is a full sync (no tombstones, no deleted issues)
+     */
+    private record Cursor(long from, long watermark, long xid, int source, long key, boolean full) {
+
+        static Cursor fullSync(long xmin) {
+            return new Cursor(0, xmin, -1, 0, 0, true);
+        }
+
+        boolean hasPosition() {
+            return xid >= 0;
+        }
+
+        String encode() {
+            String value = from + "." + watermark + "." + xid + "." + source + "." + key + "." + (full ? 1 : 0);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split("\\.");
+                if (parts.length != 6) {
+                    throw new IllegalArgumentException();
+                }
+                Cursor decoded = new Cursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+                        Integer.parseInt(parts[3]), Long.parseLong(parts[4]), "1".equals(parts[5]));
+                if (decoded.from() < 0 || decoded.source() < ISSUES || decoded.source() > TOMBSTONES) {
+                    throw new IllegalArgumentException();
+                }
+                return decoded;
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid sync cursor; sync again without 'since'.");
+            }
+        }
+    }
+
+    private record Change(long xid, int source, long id, String kind, Long entityId) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${sync.page-size:500}")
+    private int defaultPageSize;
+
+    @Value("${sync.max-page-size:2000}")
+    private int maxPageSize;
+
+    @Value("${sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    @Value("${sync.prune-batch-size:10000}")
+    private int pruneBatchSize;
+
+    private final Counter resetCounter;
+
+    public SyncServiceImpl(MeterRegistry meterRegistry) {
+        this.resetCounter = Counter.builder("sync.resets")
+                .description("Syncs answered with a full sync because the cursor was older than the tombstones kept")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SyncResponse sync(String since, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BadRequestException("'limit' must be between 1 and " + maxPageSize + ".");
+        }
+        Long ownerId = scopedUserId();
+        if (since == null || since.isBlank()) {
+            return page(null, pageSize, ownerId);
+        }
+        Cursor cursor = Cursor.decode(since);
+        SyncResponse response = page(cursor, pageSize, ownerId);
+        if (response == null) {
+            resetCounter.increment();
+            response = page(null, pageSize, ownerId);
+        }
+        return response;
+    }
+
+    /**
+     * The user whose issues the caller may sync, or null for an admin (every issue).
+     */
+    private Long scopedUserId() {
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return "ROLE_ADMIN".equals(user.getRole()) ? null : user.getId();
+    }
+
+    /**
+     * Reads one page from the cursor (null: start a full sync), of one user's issues
+     * (ownerId) or of all of them (null).
+     * @return null if the cursor is too old, its tombstones have been pruned.
+     */
+    private SyncResponse page(Cursor cursor, int pageSize, Long ownerId) {
+        // 1. Before reading any row: everything below this has committed
+        Long xmin = jdbcTemplate.queryForObject("SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint", Long.class);
+        if (cursor == null) {
+            cursor = Cursor.fullSync(xmin);
+        }
+
+        // 2. The next pageSize + 1 changes after the cursor's position, merged from the three sources
+        //    (for one user: their issues, the comments on them and their tombstones)
+        boolean scoped = ownerId != null;
+        Object[] owner = scoped ? new Object[]{ownerId} : new Object[0];
+        String issueFilter = cursor.full() ? "deleted_at IS NULL" : null;
+        if (scoped) {
+            issueFilter = issueFilter == null ? "user_id = ?" : issueFilter + " AND user_id = ?";
+        }
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT change_xid, source, id, kind, entity_id FROM (");
+        sql.append(source("SELECT change_xid, 0 AS source, id, NULL::varchar AS kind, NULL::bigint AS entity_id FROM issues",
+                ISSUES, cursor, pageSize, args, issueFilter, owner));
+        sql.append(" UNION ALL ");
+        sql.append(source("SELECT change_xid, 1, id, NULL, NULL FROM comments", COMMENTS, cursor, pageSize, args,
+                scoped ? "issue_id IN (SELECT id FROM issues WHERE user_id = ?)" : null, owner));
+        if (!cursor.full()) {
+            sql.append(" UNION ALL ");
+            sql.append(source("SELECT change_xid, 2, id, kind, entity_id FROM sync_tombstones", TOMBSTONES,
+                    cursor, pageSize, args, scoped ? "owner_id = ?" : null, owner));
+        }
+        sql.append(") changes ORDER BY change_xid, source, id LIMIT ?");
+        args.add(pageSize + 1);
+        List<Change> changes = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new Change(rs.getLong(1),
+                rs.getInt(2), rs.getLong(3), rs.getString(4), rs.getObject(5, Long.class)), args.toArray());
+
+        // 3. Read after the page: a prune that committed before it is seen here
+        if (!cursor.full()) {
+            Long horizon = jdbcTemplate.queryForObject("SELECT change_xid FROM sync_horizon WHERE id = 1", Long.class);
+            if (cursor.from() < horizon) {
+                return null;
+            }
+        }
+
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        // 4. The rows themselves, in the order of the page
+        List<Long> issueIds = new ArrayList<>();
+        List<Long> commentIds = new ArrayList<>();
+        List<Long> deletedIssueIds = new ArrayList<>();
+        List<Long> deletedCommentIds = new ArrayList<>();
+        for (Change change : changes) {
+            switch (change.source()) {
+                case ISSUES -> issueIds.add(change.id());
+                case COMMENTS -> commentIds.add(change.id());
+                default -> ("ISSUE".equals(change.kind()) ? deletedIssueIds : deletedCommentIds).add(change.entityId());
+            }
+        }
+        List<IssueResponse> issues = loadIssues(issueIds, deletedIssueIds);
+        List<CommentResponse> comments = loadComments(commentIds);
+
+        // 5. Where the next page (or, after the last one, the next round) starts
+        long watermark = Math.min(cursor.watermark(), xmin);
+        Cursor next;
+        if (hasMore) {
+            Change last = changes.get(changes.size() - 1);
+            next = new Cursor(cursor.from(), watermark, last.xid(), last.source(), last.id(), cursor.full());
+        } else {
+            next = new Cursor(watermark, Long.MAX_VALUE, -1, 0, 0, false);
+        }
+        return new SyncResponse(cursor.full(), issues, comments, deletedIssueIds, deletedCommentIds,
+                next.encode(), hasMore);
+    }
+
+    /**
+     * One source of the page: its rows after the cursor's position (and matching the
+     * filter, if any, with its arguments), in index order.
+     */
+    private String source(String select, int source, Cursor cursor, int pageSize, List<Object> args,
+                          String filter, Object... filterArgs) {
+        StringBuilder sql = new StringBuilder("(").append(select).append(" WHERE ");
+        if (!cursor.hasPosition()) {
+            sql.append("change_xid >= ?");
+            args.add(cursor.from());
+        } else if (source > cursor.source()) {
+            sql.append("change_xid >= ?");
+            args.add(cursor.xid());
+        } else if (source == cursor.source()) {
+            sql.append("(change_xid, id) > (?, ?)");
+            args.add(cursor.xid());
+            args.add(cursor.key());
+        } else {
+            sql.append("change_xid > ?");
+            args.add(cursor.xid());
+        }
+        if (filter != null) {
+            sql.append(" AND ").append(filter);
+            args.addAll(List.of(filterArgs));
+        }
+        sql.append(" ORDER BY change_xid, id LIMIT ?)");
+        args.add(pageSize + 1);
+        return sql.toString();
+    }
+
+    /**
+     * The issues by id; the soft-deleted ones are added to deletedIds instead.
+     */
+    private List<IssueResponse> loadIssues(List<Long> ids, List<Long> deletedIds) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, IssueResponse> byId = new HashMap<>();
+        jdbcTemplate.query(ISSUES_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())),
+                rs -> {
+                    if (rs.getTimestamp("deleted_at") != null) {
+                        deletedIds.add(rs.getLong("id"));
+                        return;
+                    }
+                    IssueResponse response = new IssueResponse();
+                    response.setId(rs.getLong("id"));
+                    response.setTitle(rs.getString("title"));
+                    response.setDescription(rs.getString("description"));
+                    response.setCategory(rs.getString("category"));
+                    response.setStatus(rs.getString("status"));
+                    response.setLatitude(rs.getObject("latitude", Double.class));
+                    response.setLongitude(rs.getObject("longitude", Double.class));
+                    response.setCreatedAt(instant(rs, "created_at"));
+                    response.setResolvedAt(instant(rs, "resolved_at"));
+                    response.setImageUrl(rs.getString("image_url"));
+                    response.setSubmittedByUsername(rs.getString("username"));
+                    // As stored: votes still waiting for the flush arrive with a later sync
+                    response.setUpvoteCount(rs.getLong("upvote_count"));
+                    response.setEscalatedAt(instant(rs, "escalated_at"));
+                    response.setVersion(rs.getLong("version"));
+                    byId.put(response.getId(), response);
+                });
+        // Gone since the page was read (purged, archived): its tombstone comes with the next round
+        return ids.stream().map(byId::get).filter(response -> response != null).toList();
+    }
+
+    /**
+     * The comments by id, except those on deleted issues (clients drop them with the issue).
+     */
+    private List<CommentResponse> loadComments(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, CommentResponse> byId = new HashMap<>();
+        jdbcTemplate.query(COMMENTS_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())),
+                rs -> {
+                    if (rs.getTimestamp("issue_deleted_at") != null) {
+                        return;
+                    }
+                    CommentResponse response = new CommentResponse();
+                    response.setId(rs.getLong("id"));
+                    response.setContent(rs.getString("content"));
+                    response.setCreatedAt(instant(rs, "created_at"));
+                    response.setUsername(rs.getString("username"));
+                    response.setIssueId(rs.getLong("issue_id"));
+                    byId.put(response.getId(), response);
+                });
+        return ids.stream().map(byId::get).filter(response -> response != null).toList();
+    }
+
+    private static Instant instant(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    @Override
+    public int pruneTombstones() {
+        Instant cutoff = Instant.now().minus(tombstoneRetentionDays, ChronoUnit.DAYS);
+        int pruned = 0;
+        int batch;
+        do {
+            // Cursors below the highest stamp pruned would miss those deletions: raise the horizon past it
+            batch = jdbcTemplate.queryForObject(
+                    "WITH pruned AS (DELETE FROM sync_tombstones WHERE id IN " +
+                    "(SELECT id FROM sync_tombstones WHERE deleted_at < ? ORDER BY deleted_at LIMIT ?) " +
+                    "RETURNING change_xid), " +
+                    "horizon AS (UPDATE sync_horizon SET change_xid = " +
+                    "greatest(change_xid, (SELECT max(change_xid) + 1 FROM pruned)) " +
+                    "WHERE id = 1 AND EXISTS (SELECT 1 FROM pruned)) " +
+                    "SELECT count(*) FROM pruned",
+                    Integer.class, Timestamp.from(cutoff), pruneBatchSize);
+            pruned += batch;
+        } while (batch == pruneBatchSize);
+        return pruned;
+    }
+}
@@ -1,17 +1,23 @@
 package com.cityconnect.backend.service;
 
+import com.cityconnect.backend.config.SecondLevelCacheInvalidator;
 import com.cityconnect.backend.dto.UserProfileUpdateRequest;
 import com.cityconnect.backend.dto.UserProfileResponse;
-import com.cityconnect.backend.entity.Issue;
 import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.event.IssuesRemovedEvent;
+import com.cityconnect.backend.event.UserDeletedEvent;
+import com.cityconnect.backend.event.UserUpdatedEvent;
 import com.cityconnect.backend.exception.DuplicateResourceException;
-import com.cityconnect.backend.repository.IssueRepository;
 import com.cityconnect.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -20,14 +26,23 @@ import java.util.List;
 @Service
 public class UserServiceImpl implements UserService {
 
+    // Tombstones every issue of an account in one statement. Plain SQL, so only these
+    // issues are evicted from the second-level cache (a JPQL UPDATE would empty the region).
+    private static final String MARK_ISSUES_DELETED_SQL =
+            "UPDATE issues SET deleted_at = ? WHERE user_id = ? AND deleted_at IS NULL RETURNING id";
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private IssueRepository issueRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SecondLevelCacheInvalidator cacheInvalidator;
 
+    // Changes are announced as domain events; DomainEventRelay puts them on the EventBus after commit
     @Autowired
-    private IssueService issueService; // We inject IssueService to use its delete logic
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Helper method to get the currently authenticated user.
@@ -83,31 +98,32 @@ public class UserServiceImpl implements UserService {
 
         // Save and return the updated user
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserUpdatedEvent(savedUser.getId(), Instant.now()));
         return mapToResponse(savedUser);
     }
 
     /**
      * Deletes the currently authenticated user and ALL their associated data.
      * This includes issues, comments, and uploaded files.
+     *
+     * The account and its issues are only tombstoned here (two UPDATE statements),
+     * so the request returns immediately no matter how many issues the user has.
+     * The DeletionPurger removes the rows and files in the background.
      */
     @Override
     @Transactional
     public void deleteUserProfile() {
         User user = getAuthenticatedUser();
+        Instant now = Instant.now();
 
-        // 1. Find all issues created by this user.
-        //    We MUST use the new findByUser method from IssueRepository.
-        List<Issue> issuesToDelete = issueRepository.findByUser(user);
-
-        // 2. Loop through each issue and call our existing IssueService.deleteIssue().
-        //    This is CRITICAL. This is what triggers the cascade delete
-        //    of Comments (from Issue entity) and image files (from FileStorageService).
-        for (Issue issue : issuesToDelete) {
-            issueService.deleteIssue(issue.getId());
-        }
+        // 1. Hide all of the user's issues in one set-based update
+        List<Long> issueIds = jdbcTemplate.queryForList(MARK_ISSUES_DELETED_SQL, Long.class,
+                Timestamp.from(now), user.getId());
+        cacheInvalidator.evictIssues(issueIds);
 
-        // 3. After all associated issues/comments/files are deleted,
-        //    we can safely delete the user.
-        userRepository.delete(user);
+        // 2. Disable the account itself; it can no longer log in
+        userRepository.markDeleted(user.getId(), now);
+        eventPublisher.publishEvent(new UserDeletedEvent(user.getId(), now));
+        IssuesRemovedEvent.of(issueIds, now).forEach(eventPublisher::publishEvent);
     }
 }
\ No newline at end of file
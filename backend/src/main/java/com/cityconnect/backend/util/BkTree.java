@@ -0,0 +1,143 @@
+package com.cityconnect.backend.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BK-tree over 64-bit hashes with the Hamming distance: finds every hash within a
+ * given number of differing bits without comparing against all of them.
+ *
+ * Each node's children are keyed by their distance to the node. By the triangle
+ * inequality, a search within d of the target only has to descend into children
+ * whose key is within d of the node's own distance to the target.
+ *
+ * Several values may share a hash. Removing a value leaves its node in place (BK-trees
+ * can't unlink nodes cheaply); a node without values is simply never reported.
+ * Safe for concurrent use: searches share a read lock, changes take the write lock.
+ */
+public final class BkTree {
+
+    /**
+     * A value whose hash is within the searched distance.
+     */
+    public record Match(String value, long hash, int distance) {
+    }
+
+    private static final class Node {
+        final long hash;
+        final Set<String> values = new LinkedHashSet<>(1);
+        Map<Integer, Node> children; // Created on the first child
+
+        Node(long hash) {
+            this.hash = hash;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root;
+    private int size;
+
+    public void add(long hash, String value) {
+        lock.writeLock().lock();
+        try {
+            if (root == null) {
+                root = new Node(hash);
+            }
+            Node node = root;
+            while (true) {
+                int distance = PerceptualHash.distance(node.hash, hash);
+                if (distance == 0) {
+                    if (node.values.add(value)) {
+                        size++;
+                    }
+                    return;
+                }
+                if (node.children == null) {
+                    node.children = new HashMap<>(4);
+                }
+                Node child = node.children.get(distance);
+                if (child == null) {
+                    child = new Node(hash);
+                    node.children.put(distance, child);
+                }
+                node = child;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long hash, String value) {
+        lock.writeLock().lock();
+        try {
+            Node node = root;
+            while (node != null) {
+                int distance = PerceptualHash.distance(node.hash, hash);
+                if (distance == 0) {
+                    if (node.values.remove(value)) {
+                        size--;
+                    }
+                    return;
+                }
+                node = node.children == null ? null : node.children.get(distance);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * All values whose hash differs from the given one in at most maxDistance bits, closest first.
+     */
+    public List<Match> search(long hash, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (root == null) {
+                return matches;
+            }
+            Deque<Node> toVisit = new ArrayDeque<>();
+            toVisit.push(root);
+            while (!toVisit.isEmpty()) {
+                Node node = toVisit.pop();
+                int distance = PerceptualHash.distance(node.hash, hash);
+                if (distance <= maxDistance) {
+                    for (String value : node.values) {
+                        matches.add(new Match(value, node.hash, distance));
+                    }
+                }
+                if (node.children != null) {
+                    for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                        if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                            toVisit.push(child.getValue());
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort((a, b) -> Integer.compare(a.distance(), b.distance()));
+        return matches;
+    }
+
+    /**
+     * Number of values in the tree.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.cityconnect.backend.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed timing wheel: a large number of deadlines, each identified by a key, with
+ * O(1) schedule and cancel.
+ *
+ * Time is cut into ticks. The wheel is a ring of buckets, one per tick; a deadline goes
+ * into the bucket of its tick modulo the ring size, however far away it is. advance()
+ * only looks at the buckets of the ticks that passed, and takes out the entries that are
+ * due (an entry more than one turn away stays for a later turn). So the work per tick is
+ * one bucket, not every deadline, and deadlines fire at most one tick late.
+ *
+ * All methods are synchronized; each one is short.
+ */
+public final class HashedTimingWheel<K> {
+
+    private static final class Timeout<K> {
+        final K key;
+        final long deadlineTick;
+
+        Timeout(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long tickMillis;
+    private final List<Set<Timeout<K>>> buckets;
+    private final Map<K, Timeout<K>> timeouts = new HashMap<>();
+
+    // The last tick advance() has processed
+    private long currentTick;
+
+    /**
+     * @param tick      Resolution: deadlines fire within one tick after they pass.
+     * @param wheelSize Number of buckets (one turn of the wheel is wheelSize ticks).
+     * @param start     The time the wheel starts from.
+     */
+    public HashedTimingWheel(Duration tick, int wheelSize, Instant start) {
+        if (tick.toMillis() < 1 || wheelSize < 1) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive: " + tick + ", " + wheelSize);
+        }
+        this.tickMillis = tick.toMillis();
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new HashSet<>());
+        }
+        this.currentTick = tickOf(start);
+    }
+
+    /**
+     * Sets (or moves) the deadline for a key. A deadline in the past (or in the current
+     * tick) fires on the next advance() to a later tick.
+     */
+    public synchronized void schedule(K key, Instant deadline) {
+        cancel(key);
+        // Rounded up, so a deadline never fires early
+        long tick = Math.max(Math.floorDiv(deadline.toEpochMilli() + tickMillis - 1, tickMillis), currentTick + 1);
+        Timeout<K> timeout = new Timeout<>(key, tick);
+        timeouts.put(key, timeout);
+        bucket(tick).add(timeout);
+    }
+
+    /**
+     * Removes the deadline for a key.
+     * @return false if it had none.
+     */
+    public synchronized boolean cancel(K key) {
+        Timeout<K> timeout = timeouts.remove(key);
+        if (timeout == null) {
+            return false;
+        }
+        bucket(timeout.deadlineTick).remove(timeout);
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to the given time and removes the deadlines that passed.
+     * @return Their keys (in no particular order).
+     */
+    public synchronized List<K> advance(Instant now) {
+        long nowTick = tickOf(now);
+        List<K> due = new ArrayList<>();
+        // Behind by a whole turn or more? Then every bucket is visited once.
+        long ticks = Math.min(nowTick - currentTick, buckets.size());
+        for (long tick = nowTick - ticks + 1; tick <= nowTick; tick++) {
+            Iterator<Timeout<K>> entries = bucket(tick).iterator();
+            while (entries.hasNext()) {
+                Timeout<K> timeout = entries.next();
+                if (timeout.deadlineTick <= nowTick) {
+                    entries.remove();
+                    timeouts.remove(timeout.key);
+                    due.add(timeout.key);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, nowTick);
+        return due;
+    }
+
+    public synchronized int size() {
+        return timeouts.size();
+    }
+
+    public synchronized void clear() {
+        timeouts.clear();
+        buckets.forEach(Set::clear);
+    }
+
+    private Set<Timeout<K>> bucket(long tick) {
+        return buckets.get((int) Math.floorMod(tick, (long) buckets.size()));
+    }
+
+    private long tickOf(Instant time) {
+        return Math.floorDiv(time.toEpochMilli(), tickMillis);
+    }
+}
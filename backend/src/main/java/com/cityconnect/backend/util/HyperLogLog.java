@@ -0,0 +1,121 @@
+package com.cityconnect.backend.util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * HyperLogLog sketch: estimates how many distinct values were added, in a fixed
+ * amount of memory (one small register per bucket), with a typical error of
+ * about 1.04 / sqrt(buckets).
+ *
+ * add() and merge() may be called concurrently: each register only ever grows,
+ * which is done with a compare-and-set loop, so no locks are needed.
+ * The serialized form is one byte per register and can be merged later
+ * (the union of two sketches is the register-wise maximum).
+ */
+public final class HyperLogLog {
+
+    // 2^10 = 1024 registers: ~3.3% typical error, 1 KB serialized
+    public static final int DEFAULT_PRECISION = 10;
+
+    private final int precision;
+    private final AtomicIntegerArray registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("Precision must be between 4 and 16: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new AtomicIntegerArray(1 << precision);
+    }
+
+    /**
+     * Restores a sketch written by toBytes().
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        int precision = Integer.numberOfTrailingZeros(bytes.length);
+        if (bytes.length != 1 << precision) {
+            throw new IllegalArgumentException("Not a serialized sketch (length " + bytes.length + ")");
+        }
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (int i = 0; i < bytes.length; i++) {
+            sketch.registers.set(i, bytes[i]);
+        }
+        return sketch;
+    }
+
+    /**
+     * Adds a value (e.g. a user ID). Adding the same value again changes nothing.
+     */
+    public void add(long value) {
+        long hash = mix(value);
+        int index = (int) (hash >>> (64 - precision));
+        // Leading zeros of the remaining bits, +1; the sentinel bit caps the rank
+        long rest = (hash << precision) | (1L << (precision - 1));
+        raise(index, Long.numberOfLeadingZeros(rest) + 1);
+    }
+
+    /**
+     * Adds everything the other sketch has seen (it must have the same precision).
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of precision " + precision + " and " + other.precision);
+        }
+        for (int i = 0; i < registers.length(); i++) {
+            raise(i, other.registers.get(i));
+        }
+    }
+
+    /**
+     * Estimated number of distinct values added so far.
+     */
+    public long estimate() {
+        int m = registers.length();
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < m; i++) {
+            int rank = registers.get(i);
+            sum += Math.scalb(1.0, -rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+
+        // Small cardinalities: linear counting over the empty registers is more accurate
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[registers.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) registers.get(i);
+        }
+        return bytes;
+    }
+
+    private void raise(int index, int rank) {
+        int current;
+        while ((current = registers.get(index)) < rank) {
+            if (registers.compareAndSet(index, current, rank)) {
+                return;
+            }
+        }
+    }
+
+    // SplitMix64 finalizer: spreads sequential IDs over all 64 bits
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
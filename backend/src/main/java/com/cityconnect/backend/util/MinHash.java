@@ -0,0 +1,98 @@
+package com.cityconnect.backend.util;
+
+import java.util.Arrays;
+
+/**
+ * MinHash signatures for estimating how similar two texts are.
+ *
+ * A text is cut into overlapping 3-character shingles ("pot", "oth", "tho", ...).
+ * For each of NUM_HASHES hash functions the signature keeps the smallest hash of
+ * any shingle; the fraction of positions where two signatures agree estimates the
+ * Jaccard similarity of their shingle sets (standard error about 0.06 at 64 hashes).
+ *
+ * Signatures have a fixed size however long the text is, so they can be kept in
+ * memory for many issues and compared in a few nanoseconds.
+ */
+public final class MinHash {
+
+    public static final int NUM_HASHES = 64;
+    private static final int SHINGLE_LENGTH = 3;
+
+    private MinHash() {
+    }
+
+    /**
+     * Signature of a text. Case, punctuation and repeated whitespace are ignored.
+     * An empty text gets an empty signature, which is similar to nothing.
+     */
+    public static int[] signature(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return new int[0];
+        }
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        // Texts shorter than one shingle are a single shingle
+        int shingles = Math.max(1, normalized.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = 0;
+            for (int i = start; i < Math.min(start + SHINGLE_LENGTH, normalized.length()); i++) {
+                shingle = shingle * 31 + normalized.charAt(i);
+            }
+            // NUM_HASHES hash functions from two base hashes (h1 + i * h2)
+            long h1 = mix(shingle);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int hash = (int) ((h1 + i * h2) >>> 32);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Estimated Jaccard similarity (0 to 1) of the texts behind two signatures.
+     */
+    public static double similarity(int[] a, int[] b) {
+        if (a.length == 0 || a.length != b.length) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = true; // Drops leading and repeated whitespace
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+                space = false;
+            } else if (!space) {
+                normalized.append(' ');
+                space = true;
+            }
+        }
+        return normalized.toString().strip();
+    }
+
+    // SplitMix64 finalizer (see HyperLogLog)
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
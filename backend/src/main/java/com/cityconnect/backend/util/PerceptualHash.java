@@ -0,0 +1,51 @@
+package com.cityconnect.backend.util;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+
+/**
+ * Difference hash (dHash) of an image: a 64-bit fingerprint that stays (nearly) the
+ * same when the image is re-encoded, resized, slightly re-cropped or recoloured.
+ *
+ * The image is shrunk to 9x8 grey pixels (averaging away detail and size), and each
+ * bit says whether a pixel is brighter than its right-hand neighbour. Two images are
+ * near-duplicates when their hashes differ in only a few bits (see distance()).
+ */
+public final class PerceptualHash {
+
+    private static final int WIDTH = 9;
+    private static final int HEIGHT = 8;
+
+    private PerceptualHash() {
+    }
+
+    public static long dHash(BufferedImage image) {
+        // Area averaging looks at every source pixel, so large photos hash the same as their thumbnails
+        Image scaled = image.getScaledInstance(WIDTH, HEIGHT, Image.SCALE_AREA_AVERAGING);
+        BufferedImage grey = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = grey.createGraphics();
+        try {
+            graphics.drawImage(scaled, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        long hash = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH - 1; x++) {
+                int left = grey.getRaster().getSample(x, y, 0);
+                int right = grey.getRaster().getSample(x + 1, y, 0);
+                hash = (hash << 1) | (left > right ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Number of differing bits (0 = same picture, 64 = opposite).
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
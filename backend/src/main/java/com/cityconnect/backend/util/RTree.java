@@ -0,0 +1,233 @@
+package com.cityconnect.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Static R-tree of rectangles, for finding the rectangles that contain a point.
+ *
+ * Built once from all entries (use a Builder) and never changed, so readers need no
+ * locks; a change means building a new tree. The tree is packed: entries are sorted
+ * along a Hilbert curve through their centres and cut into nodes of NODE_SIZE, and
+ * each level above groups NODE_SIZE consecutive nodes of the level below. Neighbouring
+ * entries end up in the same nodes, so a lookup only descends into the few nodes
+ * whose box contains the point: O(log n) plus the matches.
+ *
+ * Everything lives in flat arrays (4 doubles per box), which keeps 100k entries in a
+ * few MB and the lookups cache-friendly.
+ */
+public final class RTree<T> {
+
+    private static final int NODE_SIZE = 16;
+    private static final int HILBERT_MAX = 0xFFFF;
+
+    private final int size;
+    // minX, minY, maxX, maxY of each box: the entries first, then each level of nodes, the root last
+    private final double[] boxes;
+    // For an entry: its index in 'values'; for a node: the position of its first child
+    private final int[] indices;
+    // End position of each level (level 0 = the entries)
+    private final int[] levelEnds;
+    private final Object[] values;
+
+    private RTree(int size, double[] boxes, int[] indices, int[] levelEnds, Object[] values) {
+        this.size = size;
+        this.boxes = boxes;
+        this.indices = indices;
+        this.levelEnds = levelEnds;
+        this.values = values;
+    }
+
+    public static <T> RTree<T> empty() {
+        return new Builder<T>().build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Calls the visitor with the value of every entry whose rectangle contains (x, y),
+     * borders included.
+     */
+    @SuppressWarnings("unchecked")
+    public void search(double x, double y, Consumer<T> visitor) {
+        if (size == 0) {
+            return;
+        }
+        // Pairs of (position, level) still to descend into
+        int[] stack = new int[2 * NODE_SIZE * levelEnds.length];
+        int top = 0;
+        stack[top++] = boxes.length / 4 - 1;
+        stack[top++] = levelEnds.length - 1;
+        while (top > 0) {
+            int level = stack[--top];
+            int position = stack[--top];
+            int childLevel = level - 1;
+            int end = Math.min(indices[position] + NODE_SIZE, levelEnds[childLevel]);
+            for (int child = indices[position]; child < end; child++) {
+                if (!contains(child, x, y)) {
+                    continue;
+                }
+                if (childLevel == 0) {
+                    visitor.accept((T) values[indices[child]]);
+                } else {
+                    stack[top++] = child;
+                    stack[top++] = childLevel;
+                }
+            }
+        }
+    }
+
+    private boolean contains(int position, double x, double y) {
+        int i = position * 4;
+        return x >= boxes[i] && y >= boxes[i + 1] && x <= boxes[i + 2] && y <= boxes[i + 3];
+    }
+
+    /**
+     * Collects entries, then packs them into a tree. Not thread-safe.
+     */
+    public static final class Builder<T> {
+
+        private double[] boxes = new double[64];
+        private final List<T> values = new ArrayList<>();
+
+        public Builder<T> add(double minX, double minY, double maxX, double maxY, T value) {
+            if (minX > maxX || minY > maxY) {
+                throw new IllegalArgumentException("Empty rectangle: " + minX + "," + minY + " " + maxX + "," + maxY);
+            }
+            int i = values.size() * 4;
+            if (i + 4 > boxes.length) {
+                boxes = Arrays.copyOf(boxes, boxes.length * 2);
+            }
+            boxes[i] = minX;
+            boxes[i + 1] = minY;
+            boxes[i + 2] = maxX;
+            boxes[i + 3] = maxY;
+            values.add(value);
+            return this;
+        }
+
+        public RTree<T> build() {
+            int n = values.size();
+            if (n == 0) {
+                return new RTree<>(0, new double[0], new int[0], new int[]{0}, new Object[0]);
+            }
+
+            // 1. Size of every level, up to a single root (a lone entry still gets a root node)
+            List<Integer> ends = new ArrayList<>();
+            int count = n;
+            int total = n;
+            ends.add(total);
+            do {
+                count = (count + NODE_SIZE - 1) / NODE_SIZE;
+                total += count;
+                ends.add(total);
+            } while (count > 1);
+
+            // 2. Sort the entries by the Hilbert value of their centre within the overall bounds
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                minX = Math.min(minX, boxes[i * 4]);
+                minY = Math.min(minY, boxes[i * 4 + 1]);
+                maxX = Math.max(maxX, boxes[i * 4 + 2]);
+                maxY = Math.max(maxY, boxes[i * 4 + 3]);
+            }
+            double width = maxX - minX, height = maxY - minY;
+            long[] order = new long[n];
+            for (int i = 0; i < n; i++) {
+                int hx = width == 0 ? 0 : (int) (HILBERT_MAX * ((boxes[i * 4] + boxes[i * 4 + 2]) / 2 - minX) / width);
+                int hy = height == 0 ? 0 : (int) (HILBERT_MAX * ((boxes[i * 4 + 1] + boxes[i * 4 + 3]) / 2 - minY) / height);
+                order[i] = (hilbert(hx, hy) << 31) | i; // Hilbert value in the high bits, entry in the low 31
+            }
+            Arrays.sort(order);
+
+            double[] packed = new double[total * 4];
+            int[] indices = new int[total];
+            for (int position = 0; position < n; position++) {
+                int entry = (int) (order[position] & Integer.MAX_VALUE);
+                System.arraycopy(boxes, entry * 4, packed, position * 4, 4);
+                indices[position] = entry;
+            }
+
+            // 3. Each level: one node per NODE_SIZE consecutive children, with their bounding box
+            int childStart = 0;
+            for (int level = 1; level < ends.size(); level++) {
+                int childEnd = ends.get(level - 1);
+                int position = childEnd;
+                for (int first = childStart; first < childEnd; first += NODE_SIZE, position++) {
+                    int last = Math.min(first + NODE_SIZE, childEnd);
+                    double nodeMinX = Double.POSITIVE_INFINITY, nodeMinY = Double.POSITIVE_INFINITY;
+                    double nodeMaxX = Double.NEGATIVE_INFINITY, nodeMaxY = Double.NEGATIVE_INFINITY;
+                    for (int child = first; child < last; child++) {
+                        nodeMinX = Math.min(nodeMinX, packed[child * 4]);
+                        nodeMinY = Math.min(nodeMinY, packed[child * 4 + 1]);
+                        nodeMaxX = Math.max(nodeMaxX, packed[child * 4 + 2]);
+                        nodeMaxY = Math.max(nodeMaxY, packed[child * 4 + 3]);
+                    }
+                    packed[position * 4] = nodeMinX;
+                    packed[position * 4 + 1] = nodeMinY;
+                    packed[position * 4 + 2] = nodeMaxX;
+                    packed[position * 4 + 3] = nodeMaxY;
+                    indices[position] = first;
+                }
+                childStart = childEnd;
+            }
+
+            return new RTree<>(n, packed, indices, ends.stream().mapToInt(Integer::intValue).toArray(),
+                    values.toArray());
+        }
+    }
+
+    /**
+     * Position of (x, y) along a Hilbert curve through a 2^16 x 2^16 grid.
+     * Branch-free version from "Hacker's Delight" (as used by e.g. the Flatbush library).
+     */
+    static long hilbert(int x, int y) {
+        int a = x ^ y;
+        int b = 0xFFFF ^ a;
+        int c = 0xFFFF ^ (x | y);
+        int d = x & (y ^ 0xFFFF);
+
+        int A = a | (b >> 1);
+        int B = (a >> 1) ^ a;
+        int C = ((c >> 1) ^ (b & (d >> 1))) ^ c;
+        int D = ((a & (c >> 1)) ^ (d >> 1)) ^ d;
+
+        a = A; b = B; c = C; d = D;
+        A = (a & (a >> 2)) ^ (b & (b >> 2));
+        B = (a & (b >> 2)) ^ (b & ((a ^ b) >> 2));
+        C ^= (a & (c >> 2)) ^ (b & (d >> 2));
+        D ^= (b & (c >> 2)) ^ ((a ^ b) & (d >> 2));
+
+        a = A; b = B; c = C; d = D;
+        A = (a & (a >> 4)) ^ (b & (b >> 4));
+        B = (a & (b >> 4)) ^ (b & ((a ^ b) >> 4));
+        C ^= (a & (c >> 4)) ^ (b & (d >> 4));
+        D ^= (b & (c >> 4)) ^ ((a ^ b) & (d >> 4));
+
+        a = A; b = B; c = C; d = D;
+        C ^= (a & (c >> 8)) ^ (b & (d >> 8));
+        D ^= (b & (c >> 8)) ^ ((a ^ b) & (d >> 8));
+
+        a = C ^ (C >> 1);
+        b = D ^ (D >> 1);
+
+        int i0 = x ^ y;
+        int i1 = b | (0xFFFF ^ (i0 | a));
+
+        return ((long) interleave(i1) << 1 | interleave(i0)) & 0xFFFFFFFFL;
+    }
+
+    // Spreads the low 16 bits of v to the even bits
+    private static int interleave(int v) {
+        v = (v | (v << 8)) & 0x00FF00FF;
+        v = (v | (v << 4)) & 0x0F0F0F0F;
+        v = (v | (v << 2)) & 0x33333333;
+        v = (v | (v << 1)) & 0x55555555;
+        return v;
+    }
+}
@@ -0,0 +1,36 @@
+package com.cityconnect.backend.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal pacing helper: spaces operations evenly so a background job
+ * never exceeds the configured number of operations per second.
+ * Not thread-safe; each run of a job uses its own.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextSlot = System.nanoTime();
+
+    /**
+     * @param permitsPerSecond 0 or less means no limit.
+     */
+    public RateLimiter(int permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / permitsPerSecond : 0;
+    }
+
+    public void acquire() {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (nextSlot > now) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(nextSlot - now);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        nextSlot = Math.max(nextSlot, now) + intervalNanos;
+    }
+}
@@ -0,0 +1,5 @@
+-- Finds the issues using a given image (near-duplicate lookups, orphaned-upload sweeps).
+-- Built CONCURRENTLY (outside a transaction), like V4.
+
+create index concurrently if not exists idx_issues_image_url on issues (image_url)
+    where image_url is not null;
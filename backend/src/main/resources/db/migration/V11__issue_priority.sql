@@ -0,0 +1,11 @@
+-- Priority score for the admin queue (see PriorityScoreServiceImpl).
+-- Computed in the background from age, category weight, nearby reports and upvotes;
+-- new and not-yet-scored issues start at 0 until the next pass.
+
+alter table issue_categories add column priority_weight double precision not null default 1.0;
+update issue_categories set priority_weight = 1.5 where name = 'Pothole';
+update issue_categories set priority_weight = 1.3 where name = 'Streetlight Out';
+update issue_categories set priority_weight = 1.2 where name = 'Sanitation';
+update issue_categories set priority_weight = 0.8 where name = 'Vandalism';
+
+alter table issues add column priority_score double precision not null default 0;
@@ -0,0 +1,5 @@
+-- "By priority" admin queue: reads the top of this index instead of sorting every issue.
+-- Built CONCURRENTLY (outside a transaction), like V4.
+
+create index concurrently if not exists idx_issues_priority on issues (priority_score desc, id desc)
+    where deleted_at is null;
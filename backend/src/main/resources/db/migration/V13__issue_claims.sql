@@ -0,0 +1,9 @@
+-- Admin work queue (POST /api/v1/admin/queue/claim, see IssueServiceImpl).
+-- An issue handed to an admin is claimed by them until claim_expires_at (a lease:
+-- when it runs out the issue goes back to the queue). 'version' is the optimistic
+-- lock for status changes, which are compare-and-set UPDATEs on it.
+-- The queue is read in idx_issues_priority order, so no new index is needed.
+
+alter table issues add column version bigint not null default 0;
+alter table issues add column claimed_by varchar(255);
+alter table issues add column claim_expires_at timestamptz;
@@ -0,0 +1,10 @@
+-- SLA escalation (see SlaEscalationServiceImpl): an issue still PENDING this many hours
+-- after it was reported is escalated once. Null means the category has no deadline.
+
+alter table issue_categories add column sla_hours integer;
+update issue_categories set sla_hours = 24 where name = 'Sanitation';
+update issue_categories set sla_hours = 48 where name = 'Streetlight Out';
+update issue_categories set sla_hours = 72 where name = 'Pothole';
+update issue_categories set sla_hours = 168 where name in ('Vandalism', 'Other');
+
+alter table issues add column escalated_at timestamptz;
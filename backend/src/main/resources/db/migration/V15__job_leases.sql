@@ -0,0 +1,12 @@
+-- Leases for background jobs that must run on one node at a time (see cluster.DatabaseJobCoordinator).
+-- A lease belongs to 'owner' until expires_at and is renewed by a heartbeat. 'token' grows by one
+-- every time the lease changes hands, so writes can be fenced against a node whose lease ran out.
+-- Rows are never deleted: a released lease just expires, and its token keeps counting.
+
+create table job_leases (
+    name varchar(100) primary key,
+    owner varchar(255) not null,
+    token bigint not null,
+    acquired_at timestamptz not null,
+    expires_at timestamptz not null
+);
@@ -0,0 +1,17 @@
+-- Areas users follow (see AreaSubscriptionServiceImpl): new issues reported inside one
+-- notify its owner. An area is a circle (centre and radius) or a polygon, whose vertices
+-- are stored as one flat array: lat1, lon1, lat2, lon2, ...
+create table area_subscriptions (
+    id bigint generated by default as identity,
+    user_id bigint not null references users on delete cascade,
+    name varchar(100) not null,
+    shape varchar(16) not null check (shape in ('CIRCLE','POLYGON')),
+    center_latitude float(53),
+    center_longitude float(53),
+    radius_metres float(53),
+    polygon float(53)[],
+    created_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_area_subscriptions_user on area_subscriptions (user_id);
@@ -0,0 +1,85 @@
+-- Delta sync (GET /api/v1/sync, see SyncServiceImpl).
+-- Every insert, and every update of a column clients see, stamps the row with the id of
+-- the writing transaction (change_xid). Physical deletes (purge, archive) leave a row in
+-- sync_tombstones instead. A client's cursor is a transaction id below which everything
+-- was committed when it last synced; it asks for the rows stamped at or above it.
+-- Rows written before this migration keep 0: clients get them with their first (full) sync.
+-- The change_xid indexes are built CONCURRENTLY in V18.
+
+alter table issues add column change_xid bigint not null default 0;
+alter table comments add column change_xid bigint not null default 0;
+
+create function sync_touch() returns trigger language plpgsql as $$
+begin
+    new.change_xid := pg_current_xact_id()::text::bigint;
+    return new;
+end;
+$$;
+
+create trigger issues_sync_insert before insert on issues
+    for each row execute function sync_touch();
+
+-- Not for priority rescores or work-queue claims: clients don't see those columns
+create trigger issues_sync_update before update on issues
+    for each row when (
+        (old.title, old.description, old.category_id, old.status, old.latitude, old.longitude,
+         old.image_url, old.resolved_at, old.upvote_count, old.escalated_at, old.version,
+         old.deleted_at, old.user_id)
+        is distinct from
+        (new.title, new.description, new.category_id, new.status, new.latitude, new.longitude,
+         new.image_url, new.resolved_at, new.upvote_count, new.escalated_at, new.version,
+         new.deleted_at, new.user_id))
+    execute function sync_touch();
+
+create trigger comments_sync_insert before insert on comments
+    for each row execute function sync_touch();
+
+create trigger comments_sync_update before update on comments
+    for each row when (old.content is distinct from new.content)
+    execute function sync_touch();
+
+-- Deleted rows, kept for 'sync.tombstone-retention-days' (see SyncTombstonePruner)
+create table sync_tombstones (
+    id bigint generated by default as identity,
+    kind varchar(16) not null check (kind in ('ISSUE', 'COMMENT')),
+    entity_id bigint not null,
+    change_xid bigint not null,
+    deleted_at timestamptz not null default now(),
+    primary key (id)
+);
+
+create index idx_sync_tombstones_change on sync_tombstones (change_xid, id);
+create index idx_sync_tombstones_deleted_at on sync_tombstones (deleted_at);
+
+-- One statement-level trigger per DELETE, so purging a batch writes its tombstones in one INSERT
+create function sync_tombstone_issues() returns trigger language plpgsql as $$
+begin
+    insert into sync_tombstones (kind, entity_id, change_xid)
+        select 'ISSUE', id, pg_current_xact_id()::text::bigint from deleted;
+    return null;
+end;
+$$;
+
+create function sync_tombstone_comments() returns trigger language plpgsql as $$
+begin
+    insert into sync_tombstones (kind, entity_id, change_xid)
+        select 'COMMENT', id, pg_current_xact_id()::text::bigint from deleted;
+    return null;
+end;
+$$;
+
+create trigger issues_sync_delete after delete on issues
+    referencing old table as deleted
+    for each statement execute function sync_tombstone_issues();
+
+create trigger comments_sync_delete after delete on comments
+    referencing old table as deleted
+    for each statement execute function sync_tombstone_comments();
+
+-- Cursors below this have missed pruned tombstones and must start over with a full sync
+create table sync_horizon (
+    id smallint primary key check (id = 1),
+    change_xid bigint not null
+);
+
+insert into sync_horizon (id, change_xid) values (1, 0);
@@ -0,0 +1,5 @@
+-- Delta sync reads the rows changed since a cursor in change_xid order (see V17).
+-- Built CONCURRENTLY (outside a transaction), like V4.
+
+create index concurrently if not exists idx_issues_change on issues (change_xid, id);
+create index concurrently if not exists idx_comments_change on comments (change_xid, id);
@@ -0,0 +1,18 @@
+-- Idempotency-Key support for the create endpoints (see config.IdempotencyFilter).
+-- One row per (user, key): claimed when the first request arrives (response_status null
+-- while it runs), then holding its response until expires_at. A claim whose request
+-- never finished (the node died) expires too and may be taken over.
+
+create table idempotency_keys (
+    user_id bigint not null references users on delete cascade,
+    idempotency_key varchar(255) not null,
+    request_hash bytea not null,
+    response_status integer,
+    content_type varchar(255),
+    response_body bytea,
+    created_at timestamptz not null,
+    expires_at timestamptz not null,
+    primary key (user_id, idempotency_key)
+);
+
+create index idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
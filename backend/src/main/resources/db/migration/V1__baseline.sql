@@ -0,0 +1,40 @@
+-- Baseline: the schema as Hibernate's ddl-auto=update created it before the first schema change
+-- (users, issues and comments, with IDENTITY ids and free-form status/category strings).
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and skip it;
+-- new databases are built from it. Everything added since is in the later versions.
+
+create table users (
+    id bigint generated by default as identity,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    role varchar(255) not null,
+    username varchar(255) not null unique,
+    primary key (id)
+);
+
+create table issues (
+    latitude float(53),
+    longitude float(53),
+    created_at timestamp(6) with time zone,
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    category varchar(255) not null,
+    description varchar(255) not null,
+    image_url varchar(255),
+    status varchar(255) not null,
+    title varchar(255) not null,
+    primary key (id)
+);
+
+create table comments (
+    created_at timestamp(6) with time zone,
+    id bigint generated by default as identity,
+    issue_id bigint not null,
+    user_id bigint not null,
+    content varchar(1000) not null,
+    primary key (id)
+);
+
+alter table if exists comments add constraint FK287j1dpionjmfs2yycfjmy5j2 foreign key (issue_id) references issues;
+alter table if exists comments add constraint FK8omq0tc18jd43bu5tjh6jvraq foreign key (user_id) references users;
+alter table if exists issues add constraint FKcigc16s3flsg53i2sy0m37e foreign key (user_id) references users;
@@ -0,0 +1,25 @@
+-- Citizens sync only their own issues and the comments on them (see SyncServiceImpl).
+-- A tombstone outlives its row, so it records whose issue the deleted row belonged to:
+-- the reporter for an issue, the reporter of its issue for a comment.
+-- Tombstones written before this migration keep NULL and only reach admins.
+-- The index for it is built CONCURRENTLY in V21.
+
+alter table sync_tombstones add column owner_id bigint;
+
+create or replace function sync_tombstone_issues() returns trigger language plpgsql as $$
+begin
+    insert into sync_tombstones (kind, entity_id, owner_id, change_xid)
+        select 'ISSUE', id, user_id, pg_current_xact_id()::text::bigint from deleted;
+    return null;
+end;
+$$;
+
+-- Comments are deleted before their issue (purge, archive), so the issue row is still there
+create or replace function sync_tombstone_comments() returns trigger language plpgsql as $$
+begin
+    insert into sync_tombstones (kind, entity_id, owner_id, change_xid)
+        select 'COMMENT', d.id, i.user_id, pg_current_xact_id()::text::bigint
+        from deleted d left join issues i on i.id = d.issue_id;
+    return null;
+end;
+$$;
@@ -0,0 +1,4 @@
+-- A citizen's sync reads their tombstones in change_xid order (see V20).
+-- Built CONCURRENTLY (outside a transaction), like V4.
+
+create index concurrently if not exists idx_sync_tombstones_owner_change on sync_tombstones (owner_id, change_xid, id);
@@ -0,0 +1,83 @@
+-- The schema changes made while Hibernate's ddl-auto=update still managed the schema.
+-- A database baselined at V1 may be from before any of them, or ddl-auto may already
+-- have applied some or all of them, so every step only adds what is missing.
+
+-- 1. Issue and comment IDs come from pooled sequences instead of IDENTITY columns, so
+--    Hibernate can batch their inserts (bulk import, intake). Databases from before still
+--    have the identity attached, and their sequences may be missing or behind the data
+--    (this used to be fixed on every startup by SequenceInitializer).
+create sequence if not exists issues_seq start with 1 increment by 50;
+create sequence if not exists comments_seq start with 1 increment by 50;
+alter table issues alter column id drop identity if exists;
+alter table comments alter column id drop identity if exists;
+select setval('issues_seq', greatest((select coalesce(max(id), 0) from issues) + 50, last_value)) from issues_seq;
+select setval('comments_seq', greatest((select coalesce(max(id), 0) from comments) + 50, last_value)) from comments_seq;
+
+-- 2. Soft deletion of issues and accounts (purged later by DeletionPurger)
+alter table users add column if not exists deleted_at timestamp(6) with time zone;
+alter table issues add column if not exists deleted_at timestamp(6) with time zone;
+
+-- 3. Intake ticket of issues submitted through the write-behind queue; unique, so a
+--    journal record replayed after a crash is only stored once
+do $$
+begin
+    if not exists (select from information_schema.columns
+                   where table_schema = current_schema() and table_name = 'issues'
+                     and column_name = 'intake_ticket') then
+        alter table issues add column intake_ticket varchar(36);
+        alter table issues add constraint uk_issues_intake_ticket unique (intake_ticket);
+    end if;
+end $$;
+
+-- 4. Transactional outbox of reporter notifications (see NotificationOutboxDispatcher)
+create sequence if not exists notification_outbox_seq start with 1 increment by 50;
+
+create table if not exists notification_outbox (
+    attempts integer not null,
+    available_at timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone,
+    id bigint not null,
+    recipient_user_id bigint not null,
+    status varchar(16) not null check (status in ('PENDING','DEAD')),
+    channel varchar(32) not null,
+    event_type varchar(64) not null,
+    last_error varchar(1000),
+    payload TEXT not null,
+    primary key (id)
+);
+
+create index if not exists idx_notification_outbox_due on notification_outbox (status, available_at);
+
+-- 5. Status history, and the daily resolution-time rollups computed from it
+create sequence if not exists issue_status_history_seq start with 1 increment by 50;
+
+create table if not exists issue_status_history (
+    changed_at timestamp(6) with time zone not null,
+    id bigint not null,
+    issue_id bigint not null,
+    seconds_since_created bigint not null,
+    from_status varchar(32) not null,
+    to_status varchar(32) not null,
+    category varchar(255) not null,
+    changed_by varchar(255),
+    primary key (id)
+);
+
+create index if not exists idx_status_history_issue on issue_status_history (issue_id, changed_at);
+create index if not exists idx_status_history_changed_at on issue_status_history (changed_at);
+
+create table if not exists issue_status_latency_rollup (
+    day date not null,
+    p50_seconds float(53),
+    p90_seconds float(53),
+    computed_at timestamp(6) with time zone,
+    id bigint generated by default as identity,
+    max_seconds bigint not null,
+    min_seconds bigint not null,
+    sample_count bigint not null,
+    total_seconds bigint not null,
+    metric varchar(16) not null check (metric in ('ACKNOWLEDGE','RESOLVE')),
+    category varchar(255) not null,
+    primary key (id),
+    constraint uk_latency_rollup_day_category_metric unique (day, category, metric)
+);
@@ -0,0 +1,41 @@
+-- Issue status becomes a Postgres enum and the category a reference to a lookup table,
+-- so every issue row (and history row) stores a few bytes instead of repeated strings,
+-- and values outside the known set can't be written.
+
+-- 1. Status: normalize legacy free-form values ('In Progress' -> IN_PROGRESS),
+--    anything still unknown starts over as PENDING
+create type issue_status as enum ('PENDING', 'IN_PROGRESS', 'RESOLVED');
+
+update issues set status = upper(replace(trim(status), ' ', '_'))
+    where status not in ('PENDING', 'IN_PROGRESS', 'RESOLVED');
+update issues set status = 'PENDING'
+    where status not in ('PENDING', 'IN_PROGRESS', 'RESOLVED');
+alter table issues alter column status type issue_status using status::issue_status;
+
+update issue_status_history set from_status = upper(replace(trim(from_status), ' ', '_'))
+    where from_status not in ('PENDING', 'IN_PROGRESS', 'RESOLVED');
+update issue_status_history set from_status = 'PENDING'
+    where from_status not in ('PENDING', 'IN_PROGRESS', 'RESOLVED');
+alter table issue_status_history
+    alter column from_status type issue_status using from_status::issue_status,
+    alter column to_status type issue_status using to_status::issue_status;
+
+-- 2. Category: the categories offered by the frontend, plus whatever is already in use
+create table issue_categories (
+    id smallint generated by default as identity,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+insert into issue_categories (name)
+    values ('Pothole'), ('Streetlight Out'), ('Sanitation'), ('Vandalism'), ('Other');
+insert into issue_categories (name)
+    select distinct category from issues
+    on conflict (name) do nothing;
+
+alter table issues add column category_id smallint;
+update issues i set category_id = c.id from issue_categories c where c.name = i.category;
+alter table issues
+    alter column category_id set not null,
+    add constraint fk_issues_category foreign key (category_id) references issue_categories,
+    drop column category;
@@ -0,0 +1,10 @@
+-- Composite indexes for the hot read paths:
+--   "my issues" (user, newest first), admin/bulk filters (status + time range),
+--   and the comment thread of an issue (oldest first).
+-- Built CONCURRENTLY so a large table stays writable; Flyway runs this script outside
+-- a transaction. A failed concurrent build leaves an INVALID index behind, which
+-- SchemaIndexVerifier reports on startup.
+
+create index concurrently if not exists idx_issues_user_created on issues (user_id, created_at);
+create index concurrently if not exists idx_issues_status_created on issues (status, created_at);
+create index concurrently if not exists idx_comments_issue_created on comments (issue_id, created_at);
@@ -0,0 +1,49 @@
+-- Archive for issues resolved long ago (see IssueArchiver).
+-- Both archive tables are range-partitioned by month of resolution; the archiver
+-- creates the partitions it needs, so old months can later be detached or dropped whole.
+
+-- 1. When an issue was (last) resolved. Backfilled from the status history;
+--    issues resolved before the history existed fall back to their creation time.
+alter table issues add column resolved_at timestamp(6) with time zone;
+
+update issues i set resolved_at = coalesce(
+        (select max(h.changed_at) from issue_status_history h
+            where h.issue_id = i.id and h.to_status = 'RESOLVED'),
+        i.created_at,
+        now())
+    where i.status = 'RESOLVED';
+
+-- 2. Archived issues: same columns as issues (minus the soft-delete tombstone)
+create table issues_archive (
+    id bigint not null,
+    title varchar(255) not null,
+    description varchar(255) not null,
+    category_id smallint not null references issue_categories,
+    status issue_status not null,
+    latitude float(53),
+    longitude float(53),
+    image_url varchar(255),
+    intake_ticket varchar(36),
+    user_id bigint not null references users,
+    created_at timestamp(6) with time zone,
+    resolved_at timestamp(6) with time zone not null,
+    archived_at timestamp(6) with time zone not null,
+    primary key (id, resolved_at)
+) partition by range (resolved_at);
+
+create index idx_issues_archive_id on issues_archive (id);
+create index idx_issues_archive_user on issues_archive (user_id);
+
+-- 3. Their comments, partitioned like the issue they belong to
+create table comments_archive (
+    id bigint not null,
+    issue_id bigint not null,
+    user_id bigint not null references users,
+    content varchar(1000) not null,
+    created_at timestamp(6) with time zone,
+    issue_resolved_at timestamp(6) with time zone not null,
+    primary key (id, issue_resolved_at)
+) partition by range (issue_resolved_at);
+
+create index idx_comments_archive_issue on comments_archive (issue_id, created_at);
+create index idx_comments_archive_user on comments_archive (user_id);
@@ -0,0 +1,5 @@
+-- Lets the archiver find resolved issues past the cutoff without scanning the table.
+-- Built CONCURRENTLY (outside a transaction), like V4.
+
+create index concurrently if not exists idx_issues_resolved_at on issues (resolved_at)
+    where status = 'RESOLVED' and deleted_at is null;
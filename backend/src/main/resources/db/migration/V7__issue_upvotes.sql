@@ -0,0 +1,16 @@
+-- "Me too" upvotes (see IssueUpvoteServiceImpl).
+-- One row per (issue, user) is what makes votes unique; upvote_count is the running
+-- total, advanced in batches by the write-behind flush (never by entity updates).
+
+alter table issues add column upvote_count bigint not null default 0;
+alter table issues_archive add column upvote_count bigint not null default 0;
+
+-- Votes go away with their issue (purge, archive) or their account; the count stays
+create table issue_upvotes (
+    issue_id bigint not null references issues on delete cascade,
+    user_id bigint not null references users on delete cascade,
+    created_at timestamp(6) with time zone not null,
+    primary key (issue_id, user_id)
+);
+
+create index idx_issue_upvotes_user on issue_upvotes (user_id);
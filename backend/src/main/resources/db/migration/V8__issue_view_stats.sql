@@ -0,0 +1,15 @@
+-- View counters (see IssueViewServiceImpl).
+-- Kept out of the issues table: they change on every flush, and rewriting the
+-- issue row (and dropping it from every node's cache) each time would defeat the cache.
+
+create table issue_view_stats (
+    issue_id bigint primary key references issues on delete cascade,
+    view_count bigint not null default 0,
+    -- HyperLogLog estimate of distinct viewers, and the sketch it comes from
+    unique_viewers bigint not null default 0,
+    viewer_sketch bytea,
+    updated_at timestamp(6) with time zone not null
+);
+
+-- "Most viewed" reads the top N rows of this index
+create index idx_issue_view_stats_views on issue_view_stats (view_count desc);
@@ -0,0 +1,12 @@
+-- Perceptual hashes of uploaded images (see ImageHashServiceImpl).
+-- One row per file in uploads/, written once it has been hashed; dhash is null for
+-- files that are not readable images, so the backfill doesn't try them again.
+
+create table image_hashes (
+    image_url varchar(255) primary key,
+    dhash bigint,
+    hashed_at timestamp(6) with time zone not null
+);
+
+-- Lets every node load the hashes written by the others since its last look
+create index idx_image_hashes_hashed_at on image_hashes (hashed_at);
@@ -0,0 +1,36 @@
+package com.cityconnect.backend;
+
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.repository.UserRepository;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+
+/**
+ * Accounts for the tests that run against the database. Every call creates a new
+ * user with a unique name, so tests don't see each other's data.
+ */
+public final class TestUsers {
+
+	private TestUsers() {
+	}
+
+	public static User create(UserRepository userRepository, String role) {
+		String name = "test-" + UUID.randomUUID().toString().substring(0, 13);
+		User user = new User();
+		user.setUsername(name);
+		user.setEmail(name + "@test.cityconnect.com");
+		user.setPassword("{noop}unused");
+		user.setRole(role);
+		return userRepository.save(user);
+	}
+
+	/**
+	 * Runs the rest of the test as this user, as JwtAuthenticationFilter would.
+	 */
+	public static void logIn(User user) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+	}
+}
@@ -0,0 +1,162 @@
+package com.cityconnect.backend.benchmark;
+
+import com.cityconnect.backend.entity.AreaSubscription;
+import com.cityconnect.backend.repository.AreaSubscriptionRepository;
+import com.cityconnect.backend.service.AreaSubscriptionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Matching new issues against 100k followed areas: the R-tree of AreaSubscriptionServiceImpl
+ * against a linear scan over every area.
+ *
+ * The areas lie in a 40 x 40 km city: 3/4 are circles of 100-1000 m, 1/4 octagons
+ * 1-4 km across. The tree is queried with 200k random points; the linear scan with the
+ * first 2000 of them, and both must find the same subscribers for those.
+ *
+ * Not part of the normal test run (the name doesn't end in "Tests"). Run it with
+ *   mvn test -Dtest=AreaMatchBenchmark
+ */
+class AreaMatchBenchmark {
+
+	private static final int AREAS = 100_000;
+	private static final int POINTS = 200_000;
+	private static final int SCANNED_POINTS = 2_000;
+
+	private static final double CENTER_LAT = 12.97;
+	private static final double CENTER_LON = 77.59;
+	private static final double CITY_METRES = 40_000;
+	private static final double EARTH_RADIUS_METRES = 6_371_000;
+	private static final double METRES_PER_DEGREE = EARTH_RADIUS_METRES * Math.PI / 180;
+
+	@Test
+	void treeAgainstLinearScan() {
+		Random random = new Random(42);
+		List<AreaSubscription> subscriptions = new ArrayList<>(AREAS);
+		for (long id = 1; id <= AREAS; id++) {
+			subscriptions.add(random.nextInt(4) < 3 ? circle(id, random) : octagon(id, random));
+		}
+		double[][] points = new double[POINTS][];
+		for (int i = 0; i < POINTS; i++) {
+			points[i] = randomPoint(random);
+		}
+
+		AreaSubscriptionRepository repository = mock(AreaSubscriptionRepository.class);
+		when(repository.findAllLive()).thenReturn(subscriptions);
+		AreaSubscriptionServiceImpl service = new AreaSubscriptionServiceImpl(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(service, "subscriptionRepository", repository);
+		ReflectionTestUtils.setField(service, "enabled", true);
+
+		long start = System.nanoTime();
+		service.resync();
+		long buildMs = (System.nanoTime() - start) / 1_000_000;
+
+		// Warm-up, then the measured pass
+		long matches = 0;
+		for (double[] point : points) {
+			matches += service.findSubscriberIds(point[0], point[1]).size();
+		}
+		start = System.nanoTime();
+		for (double[] point : points) {
+			service.findSubscriberIds(point[0], point[1]);
+		}
+		double treeMicros = (System.nanoTime() - start) / 1000.0 / POINTS;
+
+		start = System.nanoTime();
+		for (int i = 0; i < SCANNED_POINTS; i++) {
+			assertThat(service.findSubscriberIds(points[i][0], points[i][1]))
+					.isEqualTo(scan(subscriptions, points[i][0], points[i][1]));
+		}
+		double scanMicros = (System.nanoTime() - start) / 1000.0 / SCANNED_POINTS;
+
+		System.out.printf("%d areas: build %d ms, %.1f matches per point, R-tree %.1f us per lookup, "
+				+ "linear scan %.1f us per lookup%n", AREAS, buildMs, (double) matches / POINTS, treeMicros, scanMicros);
+	}
+
+	private static AreaSubscription circle(long id, Random random) {
+		double[] center = randomPoint(random);
+		AreaSubscription subscription = subscription(id, AreaSubscription.Shape.CIRCLE);
+		subscription.setCenterLatitude(center[0]);
+		subscription.setCenterLongitude(center[1]);
+		subscription.setRadiusMetres(100 + random.nextDouble() * 900);
+		return subscription;
+	}
+
+	private static AreaSubscription octagon(long id, Random random) {
+		double[] center = randomPoint(random);
+		double radiusMetres = 500 + random.nextDouble() * 1500;
+		double[] polygon = new double[16];
+		for (int i = 0; i < 8; i++) {
+			double angle = Math.PI / 4 * i;
+			polygon[2 * i] = center[0] + radiusMetres * Math.sin(angle) / METRES_PER_DEGREE;
+			polygon[2 * i + 1] = center[1] + radiusMetres * Math.cos(angle)
+					/ (METRES_PER_DEGREE * Math.cos(Math.toRadians(center[0])));
+		}
+		AreaSubscription subscription = subscription(id, AreaSubscription.Shape.POLYGON);
+		subscription.setPolygon(polygon);
+		return subscription;
+	}
+
+	private static AreaSubscription subscription(long id, AreaSubscription.Shape shape) {
+		AreaSubscription subscription = new AreaSubscription();
+		subscription.setId(id);
+		subscription.setUserId(id);
+		subscription.setName("Area " + id);
+		subscription.setShape(shape);
+		return subscription;
+	}
+
+	private static double[] randomPoint(Random random) {
+		double north = (random.nextDouble() - 0.5) * CITY_METRES;
+		double east = (random.nextDouble() - 0.5) * CITY_METRES;
+		return new double[]{
+				CENTER_LAT + north / METRES_PER_DEGREE,
+				CENTER_LON + east / (METRES_PER_DEGREE * Math.cos(Math.toRadians(CENTER_LAT)))
+		};
+	}
+
+	// The same tests as the service, on every area
+	private static Set<Long> scan(List<AreaSubscription> subscriptions, double lat, double lon) {
+		Set<Long> userIds = new HashSet<>();
+		for (AreaSubscription subscription : subscriptions) {
+			boolean inside = subscription.getPolygon() == null
+					? distanceMetres(subscription.getCenterLatitude(), subscription.getCenterLongitude(), lat, lon)
+							<= subscription.getRadiusMetres()
+					: inPolygon(subscription.getPolygon(), lat, lon);
+			if (inside) {
+				userIds.add(subscription.getUserId());
+			}
+		}
+		return userIds;
+	}
+
+	private static boolean inPolygon(double[] polygon, double lat, double lon) {
+		boolean inside = false;
+		int n = polygon.length / 2;
+		for (int i = 0, j = n - 1; i < n; j = i++) {
+			double latI = polygon[2 * i], lonI = polygon[2 * i + 1];
+			double latJ = polygon[2 * j], lonJ = polygon[2 * j + 1];
+			if ((latI > lat) != (latJ > lat) && lon < (lonJ - lonI) * (lat - latI) / (latJ - latI) + lonI) {
+				inside = !inside;
+			}
+		}
+		return inside;
+	}
+
+	private static double distanceMetres(double lat1, double lon1, double lat2, double lon2) {
+		double x = Math.toRadians(lon2 - lon1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+		double y = Math.toRadians(lat2 - lat1);
+		return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METRES;
+	}
+}
@@ -0,0 +1,143 @@
+package com.cityconnect.backend.benchmark;
+
+import com.cityconnect.backend.TestUsers;
+import com.cityconnect.backend.dto.IssueRequest;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.repository.UserRepository;
+import com.cityconnect.backend.security.JwtUtil;
+import com.cityconnect.backend.service.IssueService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statements per request with the second-level cache on and off.
+ *
+ * 1000 requests, alternating GET /issues/{id} and GET /issues/{id}/comments over 20
+ * issues, each authenticated with a JWT (so the user lookup is part of it). Only the
+ * statements of the requests themselves are counted, not those of the background jobs.
+ *
+ * Not part of the normal test run (the name doesn't end in "Tests"). Run it with
+ *   mvn test -Dtest='SecondLevelCacheBenchmark*'
+ */
+class SecondLevelCacheBenchmark {
+
+	private static final int ISSUES = 20;
+	private static final int ROUNDS = 25;
+
+	@Nested
+	@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+			+ "com.cityconnect.backend.benchmark.SecondLevelCacheBenchmark$StatementCounter")
+	@AutoConfigureMockMvc
+	class CacheOn extends Workload {
+
+		@Test
+		void readIssuesAndComments() throws Exception {
+			run("cache on");
+		}
+	}
+
+	@Nested
+	@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+			+ "com.cityconnect.backend.benchmark.SecondLevelCacheBenchmark$StatementCounter")
+	@TestPropertySource(properties = {
+			"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+			"spring.jpa.properties.hibernate.cache.use_query_cache=false"
+	})
+	@AutoConfigureMockMvc
+	class CacheOff extends Workload {
+
+		@Test
+		void readIssuesAndComments() throws Exception {
+			run("cache off");
+		}
+	}
+
+	/**
+	 * Counts the statements Hibernate prepares on the current thread. MockMvc runs
+	 * each request on the calling thread, so this is exactly what the requests cost.
+	 */
+	public static class StatementCounter implements StatementInspector {
+
+		private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+		@Override
+		public String inspect(String sql) {
+			COUNT.get()[0]++;
+			return sql;
+		}
+
+		static long get() {
+			return COUNT.get()[0];
+		}
+	}
+
+	abstract static class Workload {
+
+		@Autowired
+		private MockMvc mockMvc;
+
+		@Autowired
+		private IssueService issueService;
+
+		@Autowired
+		private UserRepository userRepository;
+
+		@Autowired
+		private JwtUtil jwtUtil;
+
+		void run(String label) throws Exception {
+			User reporter = TestUsers.create(userRepository, "ROLE_CITIZEN");
+			TestUsers.logIn(reporter);
+			List<Long> ids = new ArrayList<>();
+			for (int i = 0; i < ISSUES; i++) {
+				IssueRequest request = new IssueRequest();
+				request.setTitle("Benchmark " + UUID.randomUUID());
+				request.setDescription("Broken streetlight");
+				request.setCategory("Streetlight Out");
+				ids.add(issueService.createIssue(request, true).getId());
+			}
+			SecurityContextHolder.clearContext();
+			String authorization = "Bearer " + jwtUtil.generateToken(reporter);
+
+			// Warm-up: fills the cache (when on) and the JIT
+			for (Long id : ids) {
+				read(id, authorization);
+			}
+
+			long statements = StatementCounter.get();
+			long start = System.nanoTime();
+			for (int round = 0; round < ROUNDS; round++) {
+				for (Long id : ids) {
+					read(id, authorization);
+				}
+			}
+			long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+			statements = StatementCounter.get() - statements;
+
+			int requests = ROUNDS * ISSUES * 2;
+			System.out.printf("%s: %d requests, %d statements (%.2f per request), %d ms%n",
+					label, requests, statements, (double) statements / requests, elapsedMs);
+		}
+
+		private void read(Long id, String authorization) throws Exception {
+			mockMvc.perform(get("/api/v1/issues/{id}", id).header("Authorization", authorization))
+					.andExpect(status().isOk());
+			mockMvc.perform(get("/api/v1/issues/{id}/comments", id).header("Authorization", authorization))
+					.andExpect(status().isOk());
+		}
+	}
+}
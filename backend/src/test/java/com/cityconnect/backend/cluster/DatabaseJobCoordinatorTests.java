@@ -0,0 +1,154 @@
+package com.cityconnect.backend.cluster;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two coordinators on the same database play two nodes of a cluster.
+ */
+@SpringBootTest
+class DatabaseJobCoordinatorTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final String job = "test-" + UUID.randomUUID();
+	private DatabaseJobCoordinator nodeA;
+	private DatabaseJobCoordinator nodeB;
+	private TransactionTemplate transaction;
+
+	@BeforeEach
+	void startNodes() {
+		nodeA = node();
+		nodeB = node();
+		transaction = new TransactionTemplate(transactionManager);
+	}
+
+	@AfterEach
+	void removeLease() {
+		jdbcTemplate.update("DELETE FROM job_leases WHERE name LIKE ?", job + "%");
+	}
+
+	@Test
+	void onlyOneNodeHoldsTheLease() {
+		JobLease lease = nodeA.acquire(job);
+
+		assertThat(lease.token()).isEqualTo(1);
+		assertThat(nodeB.acquire(job)).isNull();
+		assertThat(nodeA.acquire(job)).isEqualTo(lease);
+	}
+
+	@Test
+	void nodeThatLostTheLeaseIsFencedOut() {
+		JobLease stale = nodeA.acquire(job);
+		// Node A pauses for longer than the lease lasts
+		expire();
+		JobLease current = nodeB.acquire(job);
+		assertThat(current.token()).isEqualTo(stale.token() + 1);
+
+		// Node A still trusts its lease locally, but its writes are refused and rolled back
+		assertThatThrownBy(() -> transaction.executeWithoutResult(status -> {
+			write(stale);
+			nodeA.checkFence(stale);
+		})).isInstanceOf(LeaseLostException.class);
+		transaction.executeWithoutResult(status -> {
+			nodeB.checkFence(current);
+			write(current);
+		});
+
+		assertThat(writes()).containsExactly(current.token());
+		// Having seen the takeover, node A no longer uses the old lease
+		assertThat(nodeA.acquire(job)).isNull();
+	}
+
+	@Test
+	void leaseIsNotTakenOverWhileAFencedTransactionIsOpen() throws Exception {
+		JobLease lease = nodeA.acquire(job);
+		expire();
+
+		CompletableFuture<JobLease> takeover = new CompletableFuture<>();
+		transaction.executeWithoutResult(status -> {
+			nodeA.checkFence(lease);
+			CompletableFuture.runAsync(() -> {
+				try {
+					takeover.complete(nodeB.acquire(job));
+				} catch (RuntimeException e) {
+					takeover.completeExceptionally(e);
+				}
+			});
+			// Node B waits for the lease row until node A's writes are committed
+			sleep(500);
+			assertThat(takeover).isNotDone();
+			write(lease);
+		});
+
+		assertThat(takeover.get(10, TimeUnit.SECONDS).token()).isEqualTo(lease.token() + 1);
+		assertThat(writes()).containsExactly(lease.token());
+	}
+
+	@Test
+	void releasedLeaseIsTakenOverRightAway() {
+		JobLease lease = nodeA.acquire(job);
+
+		nodeA.release(job);
+
+		assertThat(nodeB.acquire(job).token()).isEqualTo(lease.token() + 1);
+	}
+
+	@Test
+	void fenceCheckNeedsATransaction() {
+		JobLease lease = nodeA.acquire(job);
+
+		assertThatThrownBy(() -> nodeA.checkFence(lease)).isInstanceOf(IllegalStateException.class);
+	}
+
+	private DatabaseJobCoordinator node() {
+		// No heartbeat (start() isn't called): the tests decide when a lease expires
+		DatabaseJobCoordinator node = new DatabaseJobCoordinator(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(node, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(node, "leaseDurationMs", 30_000L);
+		ReflectionTestUtils.setField(node, "heartbeatMs", 10_000L);
+		return node;
+	}
+
+	private void expire() {
+		jdbcTemplate.update("UPDATE job_leases SET expires_at = now() - interval '1 second' WHERE name = ?", job);
+	}
+
+	// The job's "work": a row of its own that records the token it was written with
+	private void write(JobLease lease) {
+		jdbcTemplate.update("INSERT INTO job_leases (name, owner, token, acquired_at, expires_at) " +
+				"VALUES (?, ?, ?, now(), now())", lease.job() + "/write", lease.owner(), lease.token());
+	}
+
+	private List<Long> writes() {
+		return jdbcTemplate.queryForList("SELECT token FROM job_leases WHERE name = ?", Long.class, job + "/write");
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.cityconnect.backend.config;
+
+import com.cityconnect.backend.TestUsers;
+import com.cityconnect.backend.dto.IssueRequest;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.repository.UserRepository;
+import com.cityconnect.backend.security.JwtUtil;
+import com.cityconnect.backend.service.IssueService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every request of a batch is authorized on its own, as if it had been sent alone.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BatchDispatcherTests {
+
+	// A real server: the batched requests go through the container's DispatcherServlet
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private IssueService issueService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private BatchDispatcher batchDispatcher;
+
+	private User citizen;
+	private Long issueId;
+
+	@BeforeEach
+	void createIssue() {
+		citizen = TestUsers.create(userRepository, "ROLE_CITIZEN");
+		TestUsers.logIn(citizen);
+		IssueRequest request = new IssueRequest();
+		request.setTitle("Batch " + UUID.randomUUID());
+		request.setDescription("Graffiti on the bus stop");
+		request.setCategory("Vandalism");
+		issueId = issueService.createIssue(request, true).getId();
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void citizenGetsOnlyTheRequestsACitizenMaySend() {
+		JsonNode responses = batch(citizen, pageRequests());
+
+		assertThat(responses.get(0).get("id").asText()).isEqualTo("issue");
+		assertThat(responses.get(0).get("status").asInt()).isEqualTo(200);
+		assertThat(responses.get(0).get("body").get("id").asLong()).isEqualTo(issueId);
+		assertThat(responses.get(1).get("status").asInt()).isEqualTo(403);
+		assertThat(responses.get(1).get("body").get("message").asText()).isEqualTo("Access Denied");
+		assertThat(responses.get(2).get("status").asInt()).isEqualTo(403);
+		assertThat(responses.get(3).get("status").asInt()).isEqualTo(200);
+		assertThat(responses.get(3).get("body").get("username").asText()).isEqualTo(citizen.getUsername());
+		// Only their own issue
+		assertThat(responses.get(4).get("status").asInt()).isEqualTo(200);
+		assertThat(responses.get(4).get("body").get("issues")).extracting(issue -> issue.get("id").asLong())
+				.containsExactly(issueId);
+	}
+
+	@Test
+	void adminGetsAllOfThem() {
+		User admin = TestUsers.create(userRepository, "ROLE_ADMIN");
+
+		JsonNode responses = batch(admin, pageRequests());
+
+		assertThat(responses).extracting(response -> response.get("status").asInt()).containsOnly(200);
+		// Its own query parameters, not the batch request's
+		assertThat(responses.get(1).get("body")).hasSize(1);
+		assertThat(responses.get(3).get("body").get("username").asText()).isEqualTo(admin.getUsername());
+	}
+
+	@Test
+	void errorsKeepTheirStatusAndBody() {
+		JsonNode responses = batch(citizen, List.of(
+				Map.of("id", "missing", "path", "/api/v1/issues/" + Long.MAX_VALUE),
+				Map.of("id", "write", "method", "DELETE", "path", "/api/v1/issues/" + issueId),
+				Map.of("id", "outside", "path", "/actuator/health")));
+
+		assertThat(responses.get(0).get("status").asInt()).isEqualTo(404);
+		assertThat(responses.get(0).get("body").get("message").asText()).isNotEmpty();
+		assertThat(responses.get(1).get("status").asInt()).isEqualTo(405);
+		assertThat(responses.get(2).get("status").asInt()).isEqualTo(400);
+	}
+
+	@Test
+	void requestsCutOffByTheTimeoutAreAnswered504() {
+		long timeoutMs = (long) ReflectionTestUtils.getField(batchDispatcher, "timeoutMs");
+		// More requests than threads: some are cut off while running, some before they start
+		List<Map<String, String>> requests = IntStream.range(0, 20)
+				.mapToObj(i -> Map.of("id", "issue-" + i, "path", "/api/v1/issues/" + issueId))
+				.toList();
+
+		ReflectionTestUtils.setField(batchDispatcher, "timeoutMs", 0L);
+		JsonNode responses;
+		try {
+			responses = batch(citizen, requests);
+		} finally {
+			ReflectionTestUtils.setField(batchDispatcher, "timeoutMs", timeoutMs);
+		}
+
+		assertThat(responses).extracting(response -> response.get("status").asInt()).containsOnly(200, 504)
+				.contains(504);
+		assertThat(responses).filteredOn(response -> response.get("status").asInt() == 504)
+				.allSatisfy(response -> assertThat(response.get("body").get("message").asText())
+						.startsWith("The request did not finish"));
+		// The requests cut off have ended and left the threads to the next batch
+		assertThat(batch(citizen, pageRequests()).get(0).get("status").asInt()).isEqualTo(200);
+	}
+
+	// One citizen request, two admin-only ones, two for any logged-in user
+	private List<Map<String, String>> pageRequests() {
+		return List.of(
+				Map.of("id", "issue", "path", "/api/v1/issues/" + issueId),
+				Map.of("id", "queue", "path", "/api/v1/admin/issues?sort=priority&limit=1"),
+				Map.of("id", "claims", "path", "/api/v1/admin/queue/mine"),
+				Map.of("id", "me", "path", "/api/v1/users/me"),
+				Map.of("id", "sync", "path", "/api/v1/sync?limit=2000"));
+	}
+
+	private JsonNode batch(User user, List<Map<String, String>> requests) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setBearerAuth(jwtUtil.generateToken(user));
+		ResponseEntity<JsonNode> response = restTemplate.postForEntity("/api/v1/batch",
+				new HttpEntity<>(Map.of("requests", requests), headers), JsonNode.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		return response.getBody().get("responses");
+	}
+}
@@ -0,0 +1,225 @@
+package com.cityconnect.backend.config;
+
+import com.cityconnect.backend.TestUsers;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.repository.UserRepository;
+import com.cityconnect.backend.security.JwtUtil;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockPart;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyFilterTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private IdempotencyFilter idempotencyFilter;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final String key = UUID.randomUUID().toString();
+	private final String title = "Idempotent " + UUID.randomUUID();
+	private User user;
+
+	@BeforeEach
+	void createUser() {
+		user = TestUsers.create(userRepository, "ROLE_CITIZEN");
+	}
+
+	@AfterEach
+	void logOut() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void retryGetsTheFirstResponse() throws Exception {
+		MvcResult first = create(user, issue(title)).andExpect(status().isCreated())
+				.andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER)).andReturn();
+
+		create(user, issue(title)).andExpect(status().isCreated())
+				.andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+				.andExpect(result -> assertThat(result.getResponse().getContentAsString())
+						.isEqualTo(first.getResponse().getContentAsString()));
+
+		assertThat(issuesCreated()).isEqualTo(1);
+	}
+
+	@Test
+	void keyReusedForAnotherRequestIsRejected() throws Exception {
+		create(user, issue(title)).andExpect(status().isCreated());
+
+		create(user, issue(title + " (edited)")).andExpect(status().isUnprocessableEntity());
+
+		assertThat(issuesCreated()).isEqualTo(1);
+	}
+
+	@Test
+	void keysBelongToAUser() throws Exception {
+		create(user, issue(title)).andExpect(status().isCreated());
+
+		create(TestUsers.create(userRepository, "ROLE_CITIZEN"), issue(title)).andExpect(status().isCreated())
+				.andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+		assertThat(issuesCreated()).isEqualTo(2);
+	}
+
+	@Test
+	void failedRequestFreesTheKey() throws Exception {
+		create(user, "{\"description\": \"No title\", \"category\": \"Pothole\"}").andExpect(status().isBadRequest());
+
+		create(user, issue(title)).andExpect(status().isCreated())
+				.andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+	}
+
+	@Test
+	void retryWhileTheFirstIsStillRunningIsAskedToWait() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch finish = new CountDownLatch(1);
+		// The first request, held in the controller until the retry has been answered
+		CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> {
+			TestUsers.logIn(user);
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			try {
+				idempotencyFilter.doFilter(request(issue(title)), response, (req, res) -> {
+					running.countDown();
+					await(finish);
+					((HttpServletResponse) res).setStatus(HttpServletResponse.SC_CREATED);
+				});
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			} finally {
+				SecurityContextHolder.clearContext();
+			}
+			return response.getStatus();
+		});
+		assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+
+		create(user, issue(title)).andExpect(status().isConflict()).andExpect(header().string("Retry-After", "1"));
+
+		finish.countDown();
+		assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(HttpServletResponse.SC_CREATED);
+		create(user, issue(title)).andExpect(status().isCreated())
+				.andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+		// Only the held request ran, and it didn't reach the controller
+		assertThat(issuesCreated()).isZero();
+	}
+
+	@Test
+	void bufferedBodyCanBeReadWithAReadListener() throws Exception {
+		String body = issue(title);
+		ByteArrayOutputStream read = new ByteArrayOutputStream();
+		boolean[] allRead = new boolean[1];
+		TestUsers.logIn(user);
+
+		idempotencyFilter.doFilter(request(body), new MockHttpServletResponse(), (req, res) -> {
+			ServletInputStream in = req.getInputStream();
+			in.setReadListener(new ReadListener() {
+				@Override
+				public void onDataAvailable() throws IOException {
+					byte[] buffer = new byte[16];
+					while (in.isReady() && !in.isFinished()) {
+						read.write(buffer, 0, in.read(buffer));
+					}
+				}
+
+				@Override
+				public void onAllDataRead() {
+					allRead[0] = true;
+				}
+
+				@Override
+				public void onError(Throwable t) {
+					throw new AssertionError(t);
+				}
+			});
+			((HttpServletResponse) res).setStatus(HttpServletResponse.SC_CREATED);
+		});
+
+		assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(body);
+		assertThat(allRead[0]).isTrue();
+	}
+
+	@Test
+	void uploadLargerThanTheLimitIsRejected() throws Exception {
+		int maxBodyBytes = (int) ReflectionTestUtils.getField(idempotencyFilter, "maxBodyBytes");
+		// Each part is under the limit, both together are over it
+		mockMvc.perform(multipart("/api/v1/files/upload")
+						.part(new MockPart("file", "large.jpg", new byte[maxBodyBytes / 2]))
+						.part(new MockPart("file", "larger.jpg", new byte[maxBodyBytes / 2 + 1]))
+						.header("Authorization", "Bearer " + jwtUtil.generateToken(user))
+						.header(IdempotencyFilter.HEADER, key))
+				.andExpect(status().isPayloadTooLarge());
+	}
+
+	private ResultActions create(User user, String body) throws Exception {
+		return mockMvc.perform(post("/api/v1/issues")
+				.header("Authorization", "Bearer " + jwtUtil.generateToken(user))
+				.header(IdempotencyFilter.HEADER, key)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body));
+	}
+
+	private MockHttpServletRequest request(String body) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/issues");
+		request.addHeader(IdempotencyFilter.HEADER, key);
+		request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+
+	private static String issue(String title) {
+		return "{\"title\": \"" + title + "\", \"description\": \"Deep pothole\", \"category\": \"Pothole\"}";
+	}
+
+	private int issuesCreated() {
+		return jdbcTemplate.queryForObject("SELECT count(*) FROM issues WHERE title LIKE ?", Integer.class, title + "%");
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
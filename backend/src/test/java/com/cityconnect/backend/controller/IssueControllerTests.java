@@ -0,0 +1,92 @@
+package com.cityconnect.backend.controller;
+
+import com.cityconnect.backend.TestUsers;
+import com.cityconnect.backend.dto.IssueRequest;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.repository.UserRepository;
+import com.cityconnect.backend.security.JwtUtil;
+import com.cityconnect.backend.service.DuplicateIssueService;
+import com.cityconnect.backend.service.IssueService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IssueControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private IssueService issueService;
+
+	@Autowired
+	private DuplicateIssueService duplicateIssueService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final IssueRequest report = new IssueRequest();
+	private User neighbour;
+
+	@BeforeEach
+	void reportIssue() {
+		// A spot of its own, so no other test's issues are nearby
+		Random random = new Random();
+		report.setTitle("Overflowing bin " + UUID.randomUUID());
+		report.setDescription("The bin at the corner has not been emptied for a week");
+		report.setCategory("Sanitation");
+		report.setLatitude(-60 + random.nextDouble());
+		report.setLongitude(-120 + random.nextDouble());
+
+		TestUsers.logIn(TestUsers.create(userRepository, "ROLE_CITIZEN"));
+		issueService.createIssue(report, true);
+		SecurityContextHolder.clearContext();
+		// Straight from the database: its created event may not have reached the index yet
+		duplicateIssueService.resync();
+
+		neighbour = TestUsers.create(userRepository, "ROLE_CITIZEN");
+	}
+
+	@Test
+	void sameReportIsStoredByDefault() throws Exception {
+		create("").andExpect(status().isCreated());
+	}
+
+	@Test
+	void duplicateCheckIsOptIn() throws Exception {
+		create("?checkDuplicates=true")
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.duplicates").isNotEmpty());
+
+		create("?checkDuplicates=false").andExpect(status().isCreated());
+	}
+
+	private ResultActions create(String query) throws Exception {
+		return mockMvc.perform(post("/api/v1/issues" + query)
+				.header("Authorization", "Bearer " + jwtUtil.generateToken(neighbour))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(report)));
+	}
+}
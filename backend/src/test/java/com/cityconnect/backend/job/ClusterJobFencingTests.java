@@ -0,0 +1,126 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.TestUsers;
+import com.cityconnect.backend.cluster.JobCoordinator;
+import com.cityconnect.backend.dto.IssueRequest;
+import com.cityconnect.backend.repository.UserRepository;
+import com.cityconnect.backend.service.IssueService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.AopTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A cluster job whose lease another node has taken over stops at its next batch,
+ * without writing it.
+ *
+ * The jobs run under a lease of their own (not their scheduled one), which the test
+ * hands to a made-up node while the job still trusts it.
+ */
+@SpringBootTest
+class ClusterJobFencingTests {
+
+	@Autowired
+	private JobCoordinator jobCoordinator;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private IssueService issueService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private DeletionPurger deletionPurger;
+
+	@Autowired
+	private IssueArchiver issueArchiver;
+
+	@Autowired
+	private StatusLatencyRollupJob statusLatencyRollupJob;
+
+	@Autowired
+	private PriorityScoreUpdater priorityScoreUpdater;
+
+	private final String job = "test-" + UUID.randomUUID();
+	private Long issueId;
+
+	@BeforeEach
+	void createIssue() {
+		TestUsers.logIn(TestUsers.create(userRepository, "ROLE_CITIZEN"));
+		IssueRequest request = new IssueRequest();
+		request.setTitle("Fenced " + UUID.randomUUID());
+		request.setDescription("Streetlight flickering all night");
+		request.setCategory("Streetlight Out");
+		issueId = issueService.createIssue(request, true).getId();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		SecurityContextHolder.clearContext();
+		jdbcTemplate.update("DELETE FROM job_leases WHERE name = ?", job);
+	}
+
+	@Test
+	void purgerStopsOnceItsLeaseIsLost() {
+		issueService.deleteIssue(issueId);
+
+		runAfterTakeover(() -> target(deletionPurger).purge());
+
+		assertThat(issueExists()).isTrue();
+	}
+
+	@Test
+	void archiverStopsOnceItsLeaseIsLost() {
+		jdbcTemplate.update("UPDATE issues SET status = 'RESOLVED', resolved_at = now() - interval '400 days' " +
+				"WHERE id = ?", issueId);
+
+		runAfterTakeover(() -> target(issueArchiver).archive());
+
+		assertThat(issueExists()).isTrue();
+	}
+
+	@Test
+	void rollupStopsOnceItsLeaseIsLost() {
+		runAfterTakeover(() -> target(statusLatencyRollupJob).rollUp());
+	}
+
+	@Test
+	void priorityPassStopsOnceItsLeaseIsLost() {
+		runAfterTakeover(() -> target(priorityScoreUpdater).rescoreAll());
+	}
+
+	private void runAfterTakeover(Runnable run) {
+		boolean ran = jobCoordinator.runExclusively(job, () -> {
+			// Another node takes the lease over while this one still trusts it locally
+			jdbcTemplate.update("UPDATE job_leases SET owner = 'other-node', token = token + 1 WHERE name = ?", job);
+			run.run();
+		});
+
+		assertThat(ran).isTrue();
+		assertThat(meterRegistry.get("jobs.run").tag("job", job).tag("outcome", "lease-lost").timer().count())
+				.isEqualTo(1);
+	}
+
+	private boolean issueExists() {
+		return jdbcTemplate.queryForObject("SELECT count(*) FROM issues WHERE id = ?", Integer.class, issueId) == 1;
+	}
+
+	private static <T> T target(T job) {
+		return AopTestUtils.getUltimateTargetObject(job);
+	}
+}
@@ -0,0 +1,102 @@
+package com.cityconnect.backend.job;
+
+import com.cityconnect.backend.repository.ArchivedIssueRepository;
+import com.cityconnect.backend.repository.IssueRepository;
+import com.cityconnect.backend.service.FileStorageService;
+import com.cityconnect.backend.service.ImageHashService;
+import com.cityconnect.backend.service.IssueIntakeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrphanedUploadSweeperTests {
+
+	@TempDir
+	Path uploads;
+
+	private final IssueRepository issueRepository = mock(IssueRepository.class);
+	private final ArchivedIssueRepository archivedIssueRepository = mock(ArchivedIssueRepository.class);
+	private final IssueIntakeService issueIntakeService = mock(IssueIntakeService.class);
+	private OrphanedUploadSweeper sweeper;
+
+	@BeforeEach
+	void setUp() {
+		FileStorageService fileStorageService = mock(FileStorageService.class);
+		when(fileStorageService.getRootLocation()).thenReturn(uploads);
+		when(fileStorageService.toWebPath(anyString())).thenAnswer(call -> "/media/" + call.getArgument(0));
+		when(issueRepository.findReferencedImageUrls(anyCollection())).thenReturn(Set.of());
+		when(archivedIssueRepository.findReferencedImageUrls(anyCollection())).thenReturn(Set.of());
+		when(issueIntakeService.findPendingImageUrls(anyCollection())).thenReturn(Set.of());
+
+		sweeper = new OrphanedUploadSweeper(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(sweeper, "fileStorageService", fileStorageService);
+		ReflectionTestUtils.setField(sweeper, "issueRepository", issueRepository);
+		ReflectionTestUtils.setField(sweeper, "archivedIssueRepository", archivedIssueRepository);
+		ReflectionTestUtils.setField(sweeper, "imageHashService", mock(ImageHashService.class));
+		ReflectionTestUtils.setField(sweeper, "issueIntakeService", issueIntakeService);
+		ReflectionTestUtils.setField(sweeper, "gracePeriodHours", 24L);
+		ReflectionTestUtils.setField(sweeper, "batchSize", 2);
+		ReflectionTestUtils.setField(sweeper, "maxFilesPerSecond", 1000);
+	}
+
+	@Test
+	void deletesOnlyOldUnreferencedFiles() throws Exception {
+		Path orphan = upload("orphan.jpg", Duration.ofDays(2));
+		Path referenced = upload("referenced.jpg", Duration.ofDays(2));
+		Path archived = upload("archived.jpg", Duration.ofDays(2));
+		Path recent = upload("recent.jpg", Duration.ofHours(1));
+		when(issueRepository.findReferencedImageUrls(anyCollection()))
+				.thenAnswer(call -> retain(call.getArgument(0), "/media/referenced.jpg"));
+		when(archivedIssueRepository.findReferencedImageUrls(anyCollection()))
+				.thenAnswer(call -> retain(call.getArgument(0), "/media/archived.jpg"));
+
+		sweeper.sweep();
+
+		assertThat(orphan).doesNotExist();
+		assertThat(referenced).exists();
+		assertThat(archived).exists();
+		assertThat(recent).exists();
+	}
+
+	@Test
+	void keepsFilesOfTicketsStillInTheIntakeJournal() throws Exception {
+		Path pending = upload("pending.jpg", Duration.ofDays(3));
+		Path orphan = upload("orphan.jpg", Duration.ofDays(3));
+		when(issueIntakeService.findPendingImageUrls(anyCollection()))
+				.thenAnswer(call -> retain(call.getArgument(0), "/media/pending.jpg"));
+
+		sweeper.sweep();
+
+		assertThat(pending).exists();
+		assertThat(orphan).doesNotExist();
+	}
+
+	private Path upload(String name, Duration age) throws Exception {
+		Path file = Files.write(uploads.resolve(name), new byte[]{1, 2, 3});
+		Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+		return file;
+	}
+
+	private static Set<String> retain(Collection<String> candidates, String url) {
+		Set<String> found = new HashSet<>(candidates);
+		found.retainAll(Set.of(url));
+		return found;
+	}
+}
@@ -0,0 +1,277 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.TestUsers;
+import com.cityconnect.backend.cluster.JobCoordinator;
+import com.cityconnect.backend.dto.CommentRequest;
+import com.cityconnect.backend.dto.CommentResponse;
+import com.cityconnect.backend.dto.IssueRequest;
+import com.cityconnect.backend.entity.Issue;
+import com.cityconnect.backend.entity.IssueStatus;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.event.DomainEvent;
+import com.cityconnect.backend.event.EventBus;
+import com.cityconnect.backend.event.IssuesRemovedEvent;
+import com.cityconnect.backend.event.UserDeletedEvent;
+import com.cityconnect.backend.job.DeletionPurger;
+import com.cityconnect.backend.job.IssueArchiver;
+import com.cityconnect.backend.repository.ArchivedIssueRepository;
+import com.cityconnect.backend.repository.IssueRepository;
+import com.cityconnect.backend.repository.IssueStatusLatencyRollupRepository;
+import com.cityconnect.backend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Issue rows changed with plain SQL must leave the second-level cache with only the
+ * changed issues evicted: the others stay cached, and the changed ones are read fresh.
+ */
+@SpringBootTest
+class IssueCacheEvictionTests {
+
+	@Autowired
+	private IssueService issueService;
+
+	@Autowired
+	private PriorityScoreService priorityScoreService;
+
+	@Autowired
+	private IssueRepository issueRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private ArchivedIssueRepository archivedIssueRepository;
+
+	@Autowired
+	private IssueArchiver issueArchiver;
+
+	@Autowired
+	private DeletionPurger deletionPurger;
+
+	@Autowired
+	private JobCoordinator jobCoordinator;
+
+	@Autowired
+	private EventBus eventBus;
+
+	@Autowired
+	private IssueStatusLatencyRollupRepository rollupRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Long changed;
+	private Long untouched;
+
+	@BeforeEach
+	void createIssues() {
+		TestUsers.logIn(TestUsers.create(userRepository, "ROLE_CITIZEN"));
+		changed = issueService.createIssue(request(), true).getId();
+		untouched = issueService.createIssue(request(), true).getId();
+		TestUsers.logIn(TestUsers.create(userRepository, "ROLE_ADMIN"));
+
+		issueRepository.findLiveById(changed);
+		issueRepository.findLiveById(untouched);
+		assertThat(cached(changed)).isTrue();
+		assertThat(cached(untouched)).isTrue();
+	}
+
+	@AfterEach
+	void logOut() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void statusChangeEvictsOnlyThatIssue() {
+		issueService.updateIssueStatus(changed, "IN_PROGRESS", null);
+
+		assertThat(cached(untouched)).isTrue();
+		assertThat(issueRepository.findLiveById(changed)).get()
+				.extracting(Issue::getStatus).isEqualTo(IssueStatus.IN_PROGRESS);
+	}
+
+	@Test
+	void releasedClaimIsNotServedFromTheCache() {
+		String admin = SecurityContextHolder.getContext().getAuthentication().getName();
+		jdbcTemplate.update("UPDATE issues SET claimed_by = ?, claim_expires_at = now() + interval '1 hour' WHERE id = ?",
+				admin, changed);
+		issueService.renewClaim(changed);
+		issueRepository.findLiveById(changed);
+
+		issueService.releaseClaim(changed);
+
+		assertThat(cached(untouched)).isTrue();
+		assertThat(issueRepository.findLiveById(changed)).get()
+				.extracting(Issue::getClaimedBy).isNull();
+	}
+
+	@Test
+	void deletedIssueIsNotServedFromTheCache() {
+		issueService.deleteIssue(changed);
+
+		assertThat(cached(untouched)).isTrue();
+		assertThat(issueRepository.findLiveById(changed)).isEmpty();
+	}
+
+	@Test
+	void cachedIssueShowsItsNewPriorityScore() {
+		while (priorityScoreService.rescoreChanged() > 0) {
+			// Drains every issue created or changed so far, ours included
+		}
+
+		double stored = jdbcTemplate.queryForObject("SELECT priority_score FROM issues WHERE id = ?",
+				Double.class, changed);
+		assertThat(stored).isPositive();
+		assertThat(issueRepository.findLiveById(changed)).get()
+				.extracting(Issue::getPriorityScore).isEqualTo(stored);
+	}
+
+	@Test
+	void archivedIssueIsNotServedFromTheCache() {
+		CommentResponse comment = commentService.createComment(changed, comment());
+		jdbcTemplate.update("UPDATE issues SET status = 'RESOLVED', resolved_at = now() - interval '400 days' " +
+				"WHERE id = ?", changed);
+
+		runJob(() -> target(issueArchiver).archive());
+
+		assertThat(archivedIssueRepository.existsById(changed)).isTrue();
+		assertThat(cached(untouched)).isTrue();
+		assertThat(issueRepository.findLiveById(changed)).isEmpty();
+		assertThat(commentService.getAllCommentsForIssue(changed)).extracting(CommentResponse::getId)
+				.containsExactly(comment.getId());
+	}
+
+	@Test
+	void purgedIssueLeavesTheCache() {
+		issueService.deleteIssue(changed);
+		issueRepository.findById(changed);
+		assertThat(cached(changed)).isTrue();
+
+		runJob(() -> target(deletionPurger).purge());
+
+		assertThat(cached(changed)).isFalse();
+		assertThat(cached(untouched)).isTrue();
+	}
+
+	@Test
+	void deletedAccountTakesOnlyItsOwnIssuesOutOfTheCache() throws InterruptedException {
+		User user = TestUsers.create(userRepository, "ROLE_CITIZEN");
+		TestUsers.logIn(user);
+		Long own = issueService.createIssue(request(), true).getId();
+		issueRepository.findLiveById(own);
+		CountDownLatch delivered = awaitEvent(UserDeletedEvent.class, event -> event.userId().equals(user.getId()));
+
+		userService.deleteUserProfile();
+
+		// The account's event has reached the cache invalidator too
+		assertThat(delivered.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(cached(own)).isFalse();
+		assertThat(cached(untouched)).isTrue();
+		assertThat(issueRepository.findLiveById(own)).isEmpty();
+	}
+
+	@Test
+	void issuesRemovedOnAnotherNodeAreEvicted() throws InterruptedException {
+		CountDownLatch delivered = awaitEvent(IssuesRemovedEvent.class, event -> event.issueIds().contains(changed));
+
+		eventBus.publish(new IssuesRemovedEvent(List.of(changed), Instant.now()));
+
+		assertThat(delivered.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(cached(changed)).isFalse();
+		assertThat(cached(untouched)).isTrue();
+	}
+
+	@Test
+	void latencyRollupLeavesTheCacheAlone() {
+		LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> rollupRepository.upsertDay(today,
+				today.atStartOfDay(ZoneOffset.UTC).toInstant(), today.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+
+		assertThat(cached(changed)).isTrue();
+		assertThat(cached(untouched)).isTrue();
+	}
+
+	@Test
+	void manyRemovedIssuesAreSplitIntoSeveralEvents() {
+		List<Long> ids = LongStream.range(0, 1200).boxed().toList();
+
+		assertThat(IssuesRemovedEvent.of(ids, Instant.now()))
+				.extracting(event -> event.issueIds().size()).containsExactly(500, 500, 200);
+	}
+
+	// Runs a cluster job's body under a lease of its own, so a scheduled run in
+	// another test context holding the job's lease doesn't turn it into a no-op
+	private void runJob(Runnable job) {
+		assertThat(jobCoordinator.runExclusively("test-" + UUID.randomUUID(), job)).isTrue();
+	}
+
+	private static <T> T target(T job) {
+		return AopTestUtils.getUltimateTargetObject(job);
+	}
+
+	// Counts down once the event has been delivered to the listeners subscribed before this one
+	private <T extends DomainEvent> CountDownLatch awaitEvent(Class<T> type, Predicate<T> matches) {
+		CountDownLatch latch = new CountDownLatch(1);
+		eventBus.subscribe(type, event -> {
+			if (matches.test(event)) {
+				latch.countDown();
+			}
+		});
+		return latch;
+	}
+
+	private static CommentRequest comment() {
+		CommentRequest request = new CommentRequest();
+		request.setContent("Still there");
+		return request;
+	}
+
+	private boolean cached(Long issueId) {
+		return entityManagerFactory.getCache().contains(Issue.class, issueId);
+	}
+
+	private static IssueRequest request() {
+		IssueRequest request = new IssueRequest();
+		request.setTitle("Cache " + UUID.randomUUID());
+		request.setDescription("Pothole in front of the bakery");
+		request.setCategory("Pothole");
+		request.setLatitude(12.95);
+		request.setLongitude(77.61);
+		return request;
+	}
+}
@@ -0,0 +1,112 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.TestUsers;
+import com.cityconnect.backend.dto.IssueImportReport;
+import com.cityconnect.backend.event.IssueCreatedEvent;
+import com.cityconnect.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@RecordApplicationEvents
+class IssueImportServiceTests {
+
+	@Autowired
+	private IssueImportService issueImportService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ApplicationEvents events;
+
+	private final String marker = UUID.randomUUID().toString();
+
+	@BeforeEach
+	void logIn() {
+		TestUsers.logIn(TestUsers.create(userRepository, "ROLE_ADMIN"));
+	}
+
+	@AfterEach
+	void logOut() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void rowTheDatabaseRefusesIsRejectedAloneAndTheRestOfItsBatchIsImported() {
+		// Row 3 passes validation, but its image URL is longer than the column
+		String ndjson = row("first", "\"/media/a.jpg\"") + "\n"
+				+ row("second", "null") + "\n"
+				+ row("too long", "\"/media/" + "x".repeat(300) + ".jpg\"") + "\n"
+				+ row("fourth", "null") + "\n";
+
+		IssueImportReport report = issueImportService.importIssues(
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), IssueImportService.Format.NDJSON);
+
+		assertThat(report.getProcessedRows()).isEqualTo(4);
+		assertThat(report.getImportedRows()).isEqualTo(3);
+		assertThat(report.getFailedRows()).isEqualTo(1);
+		assertThat(report.getErrors()).singleElement().satisfies(error -> {
+			assertThat(error.getRow()).isEqualTo(3);
+			assertThat(error.getMessage()).startsWith("Database rejected row");
+		});
+		assertThat(importedTitles()).containsExactlyInAnyOrder(
+				marker + " first", marker + " second", marker + " fourth");
+	}
+
+	@Test
+	void validationErrorsAreReportedPerRow() {
+		String ndjson = row("ok", "null") + "\n"
+				+ "{\"title\":\"" + marker + " no category\",\"description\":\"d\"}\n"
+				+ "not json\n";
+
+		IssueImportReport report = issueImportService.importIssues(
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), IssueImportService.Format.NDJSON);
+
+		assertThat(report.getImportedRows()).isEqualTo(1);
+		assertThat(report.getErrors()).extracting(error -> error.getRow()).containsExactly(2L, 3L);
+		assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Category is required");
+		assertThat(report.getErrors().get(1).getMessage()).startsWith("Malformed JSON");
+	}
+
+	@Test
+	void everyImportedIssuePublishesIssueCreatedEvent() {
+		String ndjson = row("one", "null") + "\n" + row("two", "null") + "\n";
+
+		issueImportService.importIssues(
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), IssueImportService.Format.NDJSON);
+
+		List<Long> ids = jdbcTemplate.queryForList(
+				"SELECT id FROM issues WHERE title LIKE ?", Long.class, marker + "%");
+		assertThat(events.stream(IssueCreatedEvent.class).map(IssueCreatedEvent::issueId))
+				.containsExactlyInAnyOrderElementsOf(ids);
+		assertThat(events.stream(IssueCreatedEvent.class))
+				.allSatisfy(event -> assertThat(event.category()).isEqualTo("Pothole"));
+	}
+
+	private String row(String title, String imageUrl) {
+		return "{\"title\":\"" + marker + " " + title + "\",\"description\":\"Imported\",\"category\":\"Pothole\","
+				+ "\"latitude\":12.9,\"longitude\":77.6,\"imageUrl\":" + imageUrl + "}";
+	}
+
+	private List<String> importedTitles() {
+		return jdbcTemplate.queryForList("SELECT title FROM issues WHERE title LIKE ?", String.class, marker + "%");
+	}
+}
@@ -0,0 +1,250 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.TestUsers;
+import com.cityconnect.backend.dto.IntakeTicketResponse;
+import com.cityconnect.backend.dto.IssueRequest;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.event.IssueCreatedEvent;
+import com.cityconnect.backend.repository.IssueRepository;
+import com.cityconnect.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs private intake services on a temporary journal directory. "Crashing" one means
+ * dropping it without draining, then opening the same directory again.
+ */
+@SpringBootTest
+@RecordApplicationEvents
+class IssueIntakeServiceTests {
+
+	@TempDir
+	Path journalDir;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private IssueRepository issueRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private IssueCategoryService categoryService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ApplicationEvents events;
+
+	private final String marker = UUID.randomUUID().toString();
+	private final List<IssueIntakeServiceImpl> opened = new ArrayList<>();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private User reporter;
+
+	@BeforeEach
+	void logIn() {
+		reporter = TestUsers.create(userRepository, "ROLE_CITIZEN");
+		TestUsers.logIn(reporter);
+	}
+
+	@AfterEach
+	void close() throws Exception {
+		SecurityContextHolder.clearContext();
+		for (IssueIntakeServiceImpl intake : opened) {
+			intake.close();
+		}
+	}
+
+	@Test
+	void drainStoresTicketsAndAnnouncesThem() {
+		IssueIntakeServiceImpl intake = open();
+		List<String> tickets = submit(intake, 3);
+		assertThat(tickets).allSatisfy(ticket ->
+				assertThat(intake.getTicketStatus(ticket).getStatus()).isEqualTo(IntakeTicketResponse.Status.PENDING));
+
+		assertThat(intake.drainBatch()).isEqualTo(3);
+		assertThat(intake.drainBatch()).isZero();
+
+		List<Long> issueIds = new ArrayList<>();
+		for (String ticket : tickets) {
+			IntakeTicketResponse status = intake.getTicketStatus(ticket);
+			assertThat(status.getStatus()).isEqualTo(IntakeTicketResponse.Status.ACCEPTED);
+			issueIds.add(status.getIssueId());
+		}
+		assertThat(events.stream(IssueCreatedEvent.class).map(IssueCreatedEvent::issueId))
+				.containsExactlyInAnyOrderElementsOf(issueIds);
+		assertThat(events.stream(IssueCreatedEvent.class))
+				.allSatisfy(event -> assertThat(event.reporterUserId()).isEqualTo(reporter.getId()));
+	}
+
+	@Test
+	void ticketsAcceptedBeforeACrashAreStoredAfterTheRestart() throws Exception {
+		IssueIntakeServiceImpl beforeCrash = open();
+		List<String> tickets = submit(beforeCrash, 2);
+		// Killed in the middle of the next append
+		Files.writeString(journalDir.resolve("journal.ndjson"), "{\"ticketId\":\"half-writ",
+				StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		beforeCrash.close();
+
+		IssueIntakeServiceImpl afterRestart = open();
+		assertThat(tickets).allSatisfy(ticket ->
+				assertThat(afterRestart.getTicketStatus(ticket).getStatus()).isEqualTo(IntakeTicketResponse.Status.PENDING));
+		assertThat(afterRestart.drainBatch()).isEqualTo(2);
+
+		assertThat(storedTickets()).containsExactlyInAnyOrderElementsOf(tickets);
+		// The torn line is gone, so the next ticket starts on a line of its own
+		String next = submit(afterRestart, 1).get(0);
+		assertThat(afterRestart.drainBatch()).isEqualTo(1);
+		assertThat(afterRestart.getTicketStatus(next).getStatus()).isEqualTo(IntakeTicketResponse.Status.ACCEPTED);
+	}
+
+	@Test
+	void batchStoredJustBeforeACrashIsNotStoredTwice() throws Exception {
+		IssueIntakeServiceImpl beforeCrash = open();
+		List<String> tickets = submit(beforeCrash, 3);
+		assertThat(beforeCrash.drainBatch()).isEqualTo(3);
+		// Crashed after the commit, before the checkpoint was moved
+		Files.writeString(journalDir.resolve("journal.checkpoint"), "0");
+		beforeCrash.close();
+
+		IssueIntakeServiceImpl afterRestart = open();
+		assertThat(afterRestart.drainBatch()).isEqualTo(3);
+
+		assertThat(storedTickets()).containsExactlyInAnyOrderElementsOf(tickets);
+		assertThat(tickets).allSatisfy(ticket ->
+				assertThat(afterRestart.getTicketStatus(ticket).getStatus()).isEqualTo(IntakeTicketResponse.Status.ACCEPTED));
+	}
+
+	@Test
+	void recordsStillWaitingForTheirFsyncAreNotDrained() throws Exception {
+		IssueIntakeServiceImpl intake = open();
+		String forced = submit(intake, 1).get(0);
+		// Another submitter has appended its record, but not fsync'ed it yet
+		String unforced = UUID.randomUUID().toString();
+		Path journal = journalDir.resolve("journal.ndjson");
+		Files.writeString(journal, objectMapper.writeValueAsString(Map.of("ticketId", unforced,
+						"userId", reporter.getId(), "receivedAt", Instant.now().toString(), "request", request("unforced")))
+				+ "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		ReflectionTestUtils.setField(intake, "appendedOffset", Files.size(journal));
+
+		assertThat(intake.drainBatch()).isEqualTo(1);
+		assertThat(storedTickets()).containsExactly(forced);
+
+		// The next fsync covers it too
+		String next = submit(intake, 1).get(0);
+		assertThat(intake.drainBatch()).isEqualTo(2);
+		assertThat(storedTickets()).containsExactlyInAnyOrder(forced, unforced, next);
+	}
+
+	@Test
+	void recordsRejectedInABatchThatRolledBackCountOnce() {
+		IssueIntakeServiceImpl intake = open();
+		String stored = submit(intake, 1).get(0);
+		// Fails the batch's INSERT, so the batch is retried row by row
+		String tooLong = intake.submit(request("x".repeat(300))).getTicketId();
+		User leaving = TestUsers.create(userRepository, "ROLE_CITIZEN");
+		TestUsers.logIn(leaving);
+		String orphaned = intake.submit(request("reporter left")).getTicketId();
+		leaving.setDeletedAt(Instant.now());
+		userRepository.save(leaving);
+
+		assertThat(intake.drainBatch()).isEqualTo(3);
+
+		assertThat(intake.getTicketStatus(stored).getStatus()).isEqualTo(IntakeTicketResponse.Status.ACCEPTED);
+		assertThat(intake.getTicketStatus(tooLong).getStatus()).isEqualTo(IntakeTicketResponse.Status.REJECTED);
+		assertThat(intake.getTicketStatus(orphaned).getStatus()).isEqualTo(IntakeTicketResponse.Status.REJECTED);
+		assertThat(meterRegistry.counter("issues.intake.rejected").count()).isEqualTo(2);
+		assertThat(meterRegistry.counter("issues.intake.stored").count()).isEqualTo(1);
+	}
+
+	@Test
+	void pendingTicketsKeepTheirImagesFromTheSweeper() {
+		IssueIntakeServiceImpl intake = open();
+		IssueRequest request = request("with photo");
+		request.setImageUrl("/media/" + marker + ".jpg");
+		intake.submit(request);
+
+		assertThat(intake.findPendingImageUrls(List.of(request.getImageUrl(), "/media/other.jpg")))
+				.containsExactly(request.getImageUrl());
+		intake.drainBatch();
+		assertThat(intake.findPendingImageUrls(List.of(request.getImageUrl()))).isEmpty();
+	}
+
+	private IssueIntakeServiceImpl open() {
+		IssueIntakeServiceImpl intake = new IssueIntakeServiceImpl(transactionManager, meterRegistry, 24);
+		ReflectionTestUtils.setField(intake, "issueRepository", issueRepository);
+		ReflectionTestUtils.setField(intake, "userRepository", userRepository);
+		ReflectionTestUtils.setField(intake, "categoryService", categoryService);
+		ReflectionTestUtils.setField(intake, "objectMapper", objectMapper);
+		ReflectionTestUtils.setField(intake, "eventPublisher", eventPublisher);
+		ReflectionTestUtils.setField(intake, "entityManager", entityManager);
+		ReflectionTestUtils.setField(intake, "journalDir", journalDir.toString());
+		ReflectionTestUtils.setField(intake, "batchSize", 500);
+		ReflectionTestUtils.setField(intake, "maxPending", 1000);
+		ReflectionTestUtils.setField(intake, "compactThresholdBytes", 1L << 20);
+		intake.init();
+		opened.add(intake);
+		return intake;
+	}
+
+	private List<String> submit(IssueIntakeServiceImpl intake, int count) {
+		List<String> tickets = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			tickets.add(intake.submit(request("report " + i)).getTicketId());
+		}
+		return tickets;
+	}
+
+	private IssueRequest request(String title) {
+		IssueRequest request = new IssueRequest();
+		request.setTitle(marker + " " + title);
+		request.setDescription("Submitted during a storm");
+		request.setCategory("Streetlight Out");
+		request.setLatitude(12.97);
+		request.setLongitude(77.59);
+		return request;
+	}
+
+	private List<String> storedTickets() {
+		return jdbcTemplate.queryForList("SELECT intake_ticket FROM issues WHERE title LIKE ?",
+				String.class, marker + "%");
+	}
+}
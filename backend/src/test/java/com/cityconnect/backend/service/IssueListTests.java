@@ -0,0 +1,94 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.TestUsers;
+import com.cityconnect.backend.dto.IssueRequest;
+import com.cityconnect.backend.dto.IssueResponse;
+import com.cityconnect.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class IssueListTests {
+
+	@Autowired
+	private IssueService issueService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Created in this order, so the last one is the newest
+	private final List<Long> issues = new ArrayList<>();
+
+	@BeforeEach
+	void createIssues() {
+		TestUsers.logIn(TestUsers.create(userRepository, "ROLE_CITIZEN"));
+		for (int i = 0; i < 4; i++) {
+			IssueRequest request = new IssueRequest();
+			request.setTitle("List " + UUID.randomUUID());
+			request.setDescription("Overflowing bin");
+			request.setCategory("Sanitation");
+			issues.add(issueService.createIssue(request, true).getId());
+		}
+	}
+
+	@AfterEach
+	void logOut() {
+		SecurityContextHolder.clearContext();
+		jdbcTemplate.update("DELETE FROM issue_view_stats WHERE issue_id = ANY (?)",
+				(Object) issues.toArray(new Long[0]));
+	}
+
+	@Test
+	void mostViewedComeFirstAndTheLimitIsApplied() {
+		// More views than anything else in the database, so these are the top three
+		long base = Long.MAX_VALUE / 2;
+		views(issues.get(0), base + 2, 7);
+		views(issues.get(1), base + 5, 3);
+		views(issues.get(2), base + 2, 1);
+
+		List<IssueResponse> top = issueService.getAllIssues("views", 3);
+
+		// Equal view counts are listed newest first
+		assertThat(top).extracting(IssueResponse::getId)
+				.containsExactly(issues.get(1), issues.get(2), issues.get(0));
+		assertThat(top).extracting(IssueResponse::getViewCount).containsExactly(base + 5, base + 2, base + 2);
+		assertThat(top).extracting(IssueResponse::getUniqueViewers).containsExactly(3L, 1L, 7L);
+	}
+
+	@Test
+	void issuesNobodyViewedCountAsZero() {
+		List<IssueResponse> all = issueService.getAllIssues("newest", null);
+
+		assertThat(all).filteredOn(issue -> issue.getId().equals(issues.get(3))).singleElement()
+				.satisfies(issue -> {
+					assertThat(issue.getViewCount()).isZero();
+					assertThat(issue.getUniqueViewers()).isZero();
+				});
+	}
+
+	@Test
+	void newestFirstWithALimit() {
+		List<IssueResponse> newest = issueService.getAllIssues("newest", 2);
+
+		assertThat(newest).extracting(IssueResponse::getId).containsExactly(issues.get(3), issues.get(2));
+	}
+
+	private void views(Long issueId, long viewCount, long uniqueViewers) {
+		jdbcTemplate.update("INSERT INTO issue_view_stats (issue_id, view_count, unique_viewers, updated_at) " +
+				"VALUES (?, ?, ?, now())", issueId, viewCount, uniqueViewers);
+	}
+}
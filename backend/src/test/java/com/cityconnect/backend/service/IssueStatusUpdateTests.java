@@ -0,0 +1,152 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.TestUsers;
+import com.cityconnect.backend.dto.IssueRequest;
+import com.cityconnect.backend.dto.IssueResponse;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.exception.ConflictException;
+import com.cityconnect.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Status changes are a compare-and-set on the issue's version (and its claim).
+ */
+@SpringBootTest
+class IssueStatusUpdateTests {
+
+	@Autowired
+	private IssueService issueService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private User admin;
+	private Long issueId;
+
+	@BeforeEach
+	void createIssue() {
+		TestUsers.logIn(TestUsers.create(userRepository, "ROLE_CITIZEN"));
+		IssueRequest request = new IssueRequest();
+		request.setTitle("Status " + UUID.randomUUID());
+		request.setDescription("Fallen tree on the footpath");
+		request.setCategory("Other");
+		issueId = issueService.createIssue(request, true).getId();
+
+		admin = TestUsers.create(userRepository, "ROLE_ADMIN");
+		TestUsers.logIn(admin);
+	}
+
+	@AfterEach
+	void logOut() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void responseIsTheRowTheUpdateWrote() {
+		IssueResponse inProgress = issueService.updateIssueStatus(issueId, "IN_PROGRESS", 0L);
+		assertThat(inProgress.getStatus()).isEqualTo("IN_PROGRESS");
+		assertThat(inProgress.getVersion()).isEqualTo(1);
+		assertThat(inProgress.getResolvedAt()).isNull();
+
+		// Resolving releases the admin's own claim
+		claim(admin.getUsername());
+		IssueResponse resolved = issueService.updateIssueStatus(issueId, "RESOLVED", 1L);
+		assertThat(resolved.getStatus()).isEqualTo("RESOLVED");
+		assertThat(resolved.getVersion()).isEqualTo(2);
+		assertThat(resolved.getResolvedAt()).isNotNull();
+		assertThat(resolved.getClaimedBy()).isNull();
+		assertThat(resolved.getSubmittedByUsername()).isNotBlank();
+
+		assertThat(jdbcTemplate.queryForObject("SELECT version FROM issues WHERE id = ?", Long.class, issueId))
+				.isEqualTo(2);
+		assertThat(history()).containsExactly("PENDING->IN_PROGRESS", "IN_PROGRESS->RESOLVED");
+	}
+
+	@Test
+	void staleVersionIsRejected() {
+		issueService.updateIssueStatus(issueId, "IN_PROGRESS", 0L);
+
+		assertThatThrownBy(() -> issueService.updateIssueStatus(issueId, "RESOLVED", 0L))
+				.isInstanceOf(ConflictException.class)
+				.hasMessageContaining("version 1");
+		assertThat(history()).containsExactly("PENDING->IN_PROGRESS");
+	}
+
+	@Test
+	void issueClaimedByAnotherAdminIsNotChanged() {
+		claim("someone-else");
+
+		assertThatThrownBy(() -> issueService.updateIssueStatus(issueId, "IN_PROGRESS", null))
+				.isInstanceOf(ConflictException.class)
+				.hasMessageContaining("someone-else");
+		assertThat(history()).isEmpty();
+	}
+
+	@Test
+	void ofTwoConcurrentChangesToTheSameVersionOnlyOneApplies() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<IssueResponse>> results = new ArrayList<>();
+			for (String target : List.of("IN_PROGRESS", "RESOLVED")) {
+				User other = TestUsers.create(userRepository, "ROLE_ADMIN");
+				Callable<IssueResponse> change = () -> {
+					TestUsers.logIn(other);
+					start.await();
+					return issueService.updateIssueStatus(issueId, target, 0L);
+				};
+				results.add(executor.submit(change));
+			}
+			start.countDown();
+
+			int applied = 0;
+			int conflicts = 0;
+			for (Future<IssueResponse> result : results) {
+				try {
+					assertThat(result.get().getVersion()).isEqualTo(1);
+					applied++;
+				} catch (ExecutionException e) {
+					assertThat(e.getCause()).isInstanceOf(ConflictException.class);
+					conflicts++;
+				}
+			}
+			assertThat(applied).isEqualTo(1);
+			assertThat(conflicts).isEqualTo(1);
+			assertThat(history()).hasSize(1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void claim(String claimedBy) {
+		jdbcTemplate.update("UPDATE issues SET claimed_by = ?, claim_expires_at = now() + interval '1 hour' WHERE id = ?",
+				claimedBy, issueId);
+	}
+
+	private List<String> history() {
+		return jdbcTemplate.queryForList("SELECT from_status || '->' || to_status FROM issue_status_history " +
+				"WHERE issue_id = ? ORDER BY changed_at, id", String.class, issueId);
+	}
+}
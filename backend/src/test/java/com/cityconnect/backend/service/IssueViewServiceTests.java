@@ -0,0 +1,144 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.TestUsers;
+import com.cityconnect.backend.dto.IssueRequest;
+import com.cityconnect.backend.repository.UserRepository;
+import com.cityconnect.backend.util.HyperLogLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Views recorded while the flush swaps windows are written exactly once: none stay
+ * behind in a closed window, none are counted in two.
+ */
+@SpringBootTest
+class IssueViewServiceTests {
+
+	private static final int RECORDERS = 6;
+
+	@Autowired
+	private IssueViewService issueViewService;
+
+	@Autowired
+	private IssueService issueService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<Long> issues = new ArrayList<>();
+
+	@BeforeEach
+	void createIssues() {
+		TestUsers.logIn(TestUsers.create(userRepository, "ROLE_CITIZEN"));
+		for (int i = 0; i < 3; i++) {
+			IssueRequest request = new IssueRequest();
+			request.setTitle("Viewed " + UUID.randomUUID());
+			request.setDescription("Graffiti on the underpass");
+			request.setCategory("Vandalism");
+			issues.add(issueService.createIssue(request, true).getId());
+		}
+	}
+
+	@AfterEach
+	void cleanUp() {
+		SecurityContextHolder.clearContext();
+		jdbcTemplate.update("DELETE FROM issue_view_stats WHERE issue_id = ANY (?)",
+				(Object) issues.toArray(new Long[0]));
+	}
+
+	@Test
+	void viewsRecordedDuringFlushesAreWrittenExactlyOnce() throws Exception {
+		AtomicBoolean stop = new AtomicBoolean();
+		ExecutorService executor = Executors.newFixedThreadPool(RECORDERS);
+		List<Future<Recorded>> futures = new ArrayList<>();
+		try {
+			for (int t = 0; t < RECORDERS; t++) {
+				long firstViewer = t * 1_000L;
+				futures.add(executor.submit(() -> record(firstViewer, stop)));
+			}
+
+			// 1. Keep swapping windows under the recorders
+			for (int flush = 0; flush < 30; flush++) {
+				issueViewService.flush();
+			}
+			stop.set(true);
+
+			// 2. Add up what every recorder counted
+			Recorded expected = new Recorded();
+			for (Future<Recorded> future : futures) {
+				expected.absorb(future.get());
+			}
+			issueViewService.flush();
+
+			// 3. Every view once, and the stored sketch is the one of all viewers
+			for (int i = 0; i < issues.size(); i++) {
+				Map<String, Object> stats = jdbcTemplate.queryForMap("SELECT view_count, unique_viewers, viewer_sketch " +
+						"FROM issue_view_stats WHERE issue_id = ?", issues.get(i));
+				assertThat(expected.views[i]).isPositive();
+				assertThat(((Number) stats.get("view_count")).longValue()).isEqualTo(expected.views[i]);
+				assertThat((byte[]) stats.get("viewer_sketch")).isEqualTo(expected.viewers[i].toBytes());
+				assertThat(((Number) stats.get("unique_viewers")).longValue()).isEqualTo(expected.viewers[i].estimate());
+			}
+		} finally {
+			stop.set(true);
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void flushWithNothingRecordedWritesNothing() {
+		issueViewService.flush();
+
+		assertThat(issueViewService.flush()).isZero();
+	}
+
+	private Recorded record(long firstViewer, AtomicBoolean stop) {
+		Recorded recorded = new Recorded();
+		for (long n = 0; !stop.get(); n++) {
+			int issue = (int) (n % issues.size());
+			// 500 different viewers per recorder, some of them shared with the next recorder
+			long viewer = firstViewer + (n * 7) % 500 + (n % 3) * 300;
+			issueViewService.recordView(issues.get(issue), viewer);
+			recorded.views[issue]++;
+			recorded.viewers[issue].add(viewer);
+		}
+		return recorded;
+	}
+
+	private final class Recorded {
+		final long[] views = new long[issues.size()];
+		final HyperLogLog[] viewers = new HyperLogLog[issues.size()];
+
+		Recorded() {
+			for (int i = 0; i < viewers.length; i++) {
+				viewers[i] = new HyperLogLog();
+			}
+		}
+
+		void absorb(Recorded other) {
+			for (int i = 0; i < views.length; i++) {
+				views[i] += other.views[i];
+				viewers[i].merge(other.viewers[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,268 @@
+package com.cityconnect.backend.service;
+
+import com.cityconnect.backend.TestUsers;
+import com.cityconnect.backend.dto.CommentRequest;
+import com.cityconnect.backend.dto.CommentResponse;
+import com.cityconnect.backend.dto.IssueRequest;
+import com.cityconnect.backend.dto.IssueResponse;
+import com.cityconnect.backend.dto.SyncResponse;
+import com.cityconnect.backend.entity.User;
+import com.cityconnect.backend.exception.BadRequestException;
+import com.cityconnect.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The sync cursor and its tombstones. Other tests write to the same database, so the
+ * assertions only look at the issues and comments created here.
+ */
+@SpringBootTest
+class SyncServiceTests {
+
+	@Autowired
+	private SyncService syncService;
+
+	@Autowired
+	private IssueService issueService;
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void logIn() {
+		TestUsers.logIn(TestUsers.create(userRepository, "ROLE_ADMIN"));
+	}
+
+	@AfterEach
+	void logOut() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void onlyWhatChangedAfterTheCursorIsReturned() {
+		Long untouched = createIssue();
+		Long changed = createIssue();
+		String cursor = caughtUp();
+
+		Long created = createIssue();
+		issueService.updateIssueStatus(changed, "IN_PROGRESS", 0L);
+		CommentResponse comment = comment(untouched);
+
+		SyncResponse response = syncService.sync(cursor, null);
+		assertThat(response.isReset()).isFalse();
+		assertThat(response.isHasMore()).isFalse();
+		assertThat(issueIds(response)).contains(changed, created).doesNotContain(untouched);
+		assertThat(response.getIssues()).filteredOn(issue -> issue.getId().equals(changed)).singleElement()
+				.satisfies(issue -> assertThat(issue.getStatus()).isEqualTo("IN_PROGRESS"));
+		assertThat(commentIds(response)).contains(comment.getId());
+	}
+
+	@Test
+	void rescoresAndClaimsAreNotChangesForClients() {
+		Long issue = createIssue();
+		String cursor = caughtUp();
+
+		jdbcTemplate.update("UPDATE issues SET priority_score = priority_score + 1, claimed_by = 'someone', " +
+				"claim_expires_at = now() + interval '1 hour' WHERE id = ?", issue);
+
+		assertThat(issueIds(syncService.sync(cursor, null))).doesNotContain(issue);
+	}
+
+	@Test
+	void pagesNeitherSkipNorRepeatRows() {
+		String cursor = caughtUp();
+		List<Long> issues = new ArrayList<>();
+		List<Long> comments = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			Long issue = createIssue();
+			issues.add(issue);
+			comments.add(comment(issue).getId());
+		}
+
+		List<Long> syncedIssues = new ArrayList<>();
+		List<Long> syncedComments = new ArrayList<>();
+		SyncResponse page;
+		int pages = 0;
+		do {
+			page = syncService.sync(cursor, 3);
+			assertThat(page.getIssues().size() + page.getComments().size()
+					+ page.getDeletedIssueIds().size() + page.getDeletedCommentIds().size()).isLessThanOrEqualTo(3);
+			syncedIssues.addAll(issueIds(page));
+			syncedComments.addAll(commentIds(page));
+			cursor = page.getCursor();
+			pages++;
+		} while (page.isHasMore());
+
+		assertThat(pages).isGreaterThanOrEqualTo(4);
+		// Each row once per round, in the order it was written
+		assertThat(syncedIssues).filteredOn(issues::contains).containsExactlyElementsOf(issues);
+		assertThat(syncedComments).filteredOn(comments::contains).containsExactlyElementsOf(comments);
+	}
+
+	@Test
+	void deletionsArriveAsIds() {
+		Long softDeleted = createIssue();
+		Long purged = createIssue();
+		Long commented = createIssue();
+		CommentResponse comment = comment(commented);
+		String cursor = caughtUp();
+
+		// Deleted by a user (the row stays until the DeletionPurger runs) ...
+		issueService.deleteIssue(softDeleted);
+		// ... and removed from the table, as the purger and the archiver do
+		jdbcTemplate.update("DELETE FROM issues WHERE id = ?", purged);
+		jdbcTemplate.update("DELETE FROM comments WHERE id = ?", comment.getId());
+
+		SyncResponse response = syncService.sync(cursor, null);
+		assertThat(response.getDeletedIssueIds()).contains(softDeleted, purged);
+		assertThat(response.getDeletedCommentIds()).contains(comment.getId());
+		assertThat(issueIds(response)).doesNotContain(softDeleted, purged);
+	}
+
+	@Test
+	void fullSyncLeavesOutDeletedIssues() {
+		Long live = createIssue();
+		Long deleted = createIssue();
+		issueService.deleteIssue(deleted);
+
+		List<Long> synced = new ArrayList<>();
+		SyncResponse page = syncService.sync(null, null);
+		assertThat(page.isReset()).isTrue();
+		synced.addAll(issueIds(page));
+		while (page.isHasMore()) {
+			page = syncService.sync(page.getCursor(), null);
+			assertThat(page.isReset()).isTrue();
+			synced.addAll(issueIds(page));
+		}
+
+		assertThat(synced).contains(live).doesNotContain(deleted);
+	}
+
+	@Test
+	void cursorOlderThanThePrunedTombstonesStartsOver() {
+		Long issue = createIssue();
+		String cursor = caughtUp();
+		jdbcTemplate.update("DELETE FROM issues WHERE id = ?", issue);
+		jdbcTemplate.update("UPDATE sync_tombstones SET deleted_at = now() - interval '365 days' " +
+				"WHERE kind = 'ISSUE' AND entity_id = ?", issue);
+
+		assertThat(syncService.pruneTombstones()).isGreaterThanOrEqualTo(1);
+
+		// The client would never hear of the deletion: it gets a full sync instead
+		SyncResponse response = syncService.sync(cursor, null);
+		assertThat(response.isReset()).isTrue();
+		assertThat(response.getDeletedIssueIds()).isEmpty();
+		while (response.isHasMore()) {
+			response = syncService.sync(response.getCursor(), null);
+		}
+		// After that round it syncs normally again
+		Long next = createIssue();
+		response = syncService.sync(response.getCursor(), null);
+		assertThat(response.isReset()).isFalse();
+		assertThat(issueIds(response)).contains(next);
+	}
+
+	@Test
+	void citizenSyncsOnlyTheirOwnIssuesAndTheCommentsOnThem() {
+		User citizen = TestUsers.create(userRepository, "ROLE_CITIZEN");
+		User neighbour = TestUsers.create(userRepository, "ROLE_CITIZEN");
+		TestUsers.logIn(citizen);
+		Long deleted = createIssue();
+		Long purged = createIssue();
+		TestUsers.logIn(neighbour);
+		Long othersPurged = createIssue();
+		TestUsers.logIn(citizen);
+		String cursor = caughtUp();
+
+		Long own = createIssue();
+		issueService.deleteIssue(deleted);
+		TestUsers.logIn(neighbour);
+		Long others = createIssue();
+		CommentResponse onOwn = comment(own);
+		CommentResponse onOthers = comment(others);
+		jdbcTemplate.update("DELETE FROM issues WHERE id IN (?, ?)", purged, othersPurged);
+
+		TestUsers.logIn(citizen);
+		SyncResponse response = syncService.sync(cursor, null);
+		assertThat(issueIds(response)).contains(own).doesNotContain(others);
+		assertThat(commentIds(response)).contains(onOwn.getId()).doesNotContain(onOthers.getId());
+		assertThat(response.getDeletedIssueIds()).contains(deleted, purged).doesNotContain(othersPurged);
+
+		// A full sync, too, only has the citizen's issues
+		List<IssueResponse> synced = new ArrayList<>();
+		SyncResponse page = syncService.sync(null, null);
+		synced.addAll(page.getIssues());
+		while (page.isHasMore()) {
+			page = syncService.sync(page.getCursor(), null);
+			synced.addAll(page.getIssues());
+		}
+		assertThat(synced).extracting(IssueResponse::getId).containsExactly(own);
+	}
+
+	@Test
+	void invalidCursorIsRejected() {
+		assertThatThrownBy(() -> syncService.sync("not-a-cursor", null)).isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> syncService.sync(null, 0)).isInstanceOf(BadRequestException.class);
+	}
+
+	private Long createIssue() {
+		IssueRequest request = new IssueRequest();
+		request.setTitle("Sync " + UUID.randomUUID());
+		request.setDescription("Broken streetlight");
+		request.setCategory("Streetlight Out");
+		return issueService.createIssue(request, true).getId();
+	}
+
+	private CommentResponse comment(Long issueId) {
+		CommentRequest request = new CommentRequest();
+		request.setContent("Still broken");
+		return commentService.createComment(issueId, request);
+	}
+
+	/**
+	 * The cursor of a client that has synced everything written so far.
+	 */
+	private String caughtUp() {
+		// Wait until every transaction up to now has ended, so nothing written before
+		// this point is sent again (rows of transactions still open at a sync may be)
+		long written = jdbcTemplate.queryForObject("SELECT pg_current_xact_id()::text::bigint", Long.class);
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (jdbcTemplate.queryForObject("SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint", Long.class)
+				<= written) {
+			assertThat(System.currentTimeMillis()).isLessThan(deadline);
+			Thread.onSpinWait();
+		}
+
+		SyncResponse page = syncService.sync(null, 2000);
+		while (page.isHasMore()) {
+			page = syncService.sync(page.getCursor(), 2000);
+		}
+		return page.getCursor();
+	}
+
+	private static List<Long> issueIds(SyncResponse response) {
+		return response.getIssues().stream().map(IssueResponse::getId).toList();
+	}
+
+	private static List<Long> commentIds(SyncResponse response) {
+		return response.getComments().stream().map(CommentResponse::getId).toList();
+	}
+}
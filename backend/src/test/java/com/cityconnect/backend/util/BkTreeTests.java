@@ -0,0 +1,136 @@
+package com.cityconnect.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Searches must find exactly what comparing against every hash finds, also after
+ * removals (which leave empty nodes behind that the search still has to walk through).
+ */
+class BkTreeTests {
+
+	private final Random random = new Random(11);
+	private final BkTree tree = new BkTree();
+	// Value -> hash, the brute-force index
+	private final Map<String, Long> hashes = new HashMap<>();
+
+	@Test
+	void searchFindsWhatAFullScanFinds() {
+		List<Long> centers = addClusters();
+
+		checkSearches(centers);
+	}
+
+	@Test
+	void searchFindsWhatAFullScanFindsAfterRemovals() {
+		List<Long> centers = addClusters();
+		List<String> values = new ArrayList<>(hashes.keySet());
+		values.sort(Comparator.naturalOrder());
+
+		// Half of the values, among them whole nodes and some of the values sharing a hash
+		for (int i = 0; i < values.size(); i += 2) {
+			tree.remove(hashes.remove(values.get(i)), values.get(i));
+		}
+		// Not in the tree: nothing happens
+		tree.remove(centers.get(0), "never added");
+		tree.remove(~centers.get(0), "never added");
+
+		assertThat(tree.size()).isEqualTo(hashes.size());
+		checkSearches(centers);
+
+		// Some values come back under new hashes, partly into the nodes left behind
+		for (int i = 0; i < values.size(); i += 4) {
+			String value = values.get(i);
+			long hash = mutate(centers.get(random.nextInt(centers.size())), 6);
+			tree.add(hash, value);
+			hashes.put(value, hash);
+		}
+		assertThat(tree.size()).isEqualTo(hashes.size());
+		checkSearches(centers);
+	}
+
+	@Test
+	void sameValueUnderTheSameHashIsStoredOnce() {
+		tree.add(42L, "a.jpg");
+		tree.add(42L, "a.jpg");
+		tree.add(42L, "b.jpg");
+
+		assertThat(tree.size()).isEqualTo(2);
+		assertThat(tree.search(42L, 0)).extracting(BkTree.Match::value).containsExactly("a.jpg", "b.jpg");
+	}
+
+	@Test
+	void emptyTreeFindsNothing() {
+		assertThat(tree.search(0L, 64)).isEmpty();
+
+		tree.add(7L, "only.jpg");
+		tree.remove(7L, "only.jpg");
+
+		assertThat(tree.size()).isZero();
+		assertThat(tree.search(7L, 64)).isEmpty();
+	}
+
+	/**
+	 * Random hashes would all be about 32 bits apart, so most searches would find
+	 * nothing: near-duplicates come in clusters around a few random pictures instead.
+	 */
+	private List<Long> addClusters() {
+		List<Long> centers = new ArrayList<>();
+		for (int c = 0; c < 40; c++) {
+			centers.add(random.nextLong());
+		}
+		for (int i = 0; i < 4000; i++) {
+			long hash = mutate(centers.get(random.nextInt(centers.size())), random.nextInt(12));
+			// Now and then a second upload of the same picture
+			if (i > 0 && random.nextInt(10) == 0) {
+				hash = hashes.get("upload-" + random.nextInt(i));
+			}
+			String value = "upload-" + i;
+			tree.add(hash, value);
+			hashes.put(value, hash);
+		}
+		assertThat(tree.size()).isEqualTo(hashes.size());
+		return centers;
+	}
+
+	private void checkSearches(List<Long> centers) {
+		for (int i = 0; i < 300; i++) {
+			long target = random.nextInt(5) == 0 ? random.nextLong()
+					: mutate(centers.get(random.nextInt(centers.size())), random.nextInt(8));
+			int maxDistance = new int[]{0, 1, 4, 10, 20, 64}[random.nextInt(6)];
+
+			List<BkTree.Match> found = tree.search(target, maxDistance);
+
+			assertThat(found).containsExactlyInAnyOrderElementsOf(scan(target, maxDistance));
+			assertThat(found).extracting(BkTree.Match::distance).isSorted();
+		}
+	}
+
+	private List<BkTree.Match> scan(long target, int maxDistance) {
+		List<BkTree.Match> matches = new ArrayList<>();
+		hashes.forEach((value, hash) -> {
+			int distance = PerceptualHash.distance(hash, target);
+			if (distance <= maxDistance) {
+				matches.add(new BkTree.Match(value, hash, distance));
+			}
+		});
+		return matches;
+	}
+
+	// Flips the given number of distinct random bits
+	private long mutate(long hash, int bits) {
+		long mask = 0;
+		while (Long.bitCount(mask) < bits) {
+			mask |= 1L << random.nextInt(64);
+		}
+		return hash ^ mask;
+	}
+}
@@ -0,0 +1,136 @@
+package com.cityconnect.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTests {
+
+	// One-second ticks, one turn of the wheel is 8 seconds
+	private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+	private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(Duration.ofSeconds(1), 8, START);
+
+	@Test
+	void deadlineTurnsAwayWaitsForItsTurn() {
+		wheel.schedule("sla", at(20));
+
+		// Its bucket (20 mod 8 = 4) comes by at 4 s and 12 s, too early both times
+		assertThat(wheel.advance(at(4))).isEmpty();
+		assertThat(wheel.advance(at(12))).isEmpty();
+		assertThat(wheel.advance(at(19))).isEmpty();
+		assertThat(wheel.advance(at(20))).containsExactly("sla");
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void wheelBehindBySeveralTurnsCatchesUpInOneAdvance() {
+		wheel.schedule("soon", at(3));
+		wheel.schedule("later", at(30));
+		wheel.schedule("next turn", at(45));
+		wheel.schedule("far", at(100));
+
+		assertThat(wheel.advance(at(50))).containsExactlyInAnyOrder("soon", "later", "next turn");
+		assertThat(wheel.size()).isEqualTo(1);
+		assertThat(wheel.advance(at(99))).isEmpty();
+		assertThat(wheel.advance(at(100))).containsExactly("far");
+	}
+
+	@Test
+	void deadlineNeverFiresEarly() {
+		wheel.schedule("half", START.plusMillis(10_500));
+
+		// Rounded up to the tick after it
+		assertThat(wheel.advance(START.plusMillis(10_999))).isEmpty();
+		assertThat(wheel.advance(at(11))).containsExactly("half");
+	}
+
+	@Test
+	void pastDeadlineFiresWithTheNextTick() {
+		wheel.advance(at(10));
+
+		wheel.schedule("overdue", at(2));
+		wheel.schedule("due now", at(10));
+
+		// Put in the bucket of tick 11, not of a tick already processed
+		assertThat(wheel.advance(START.plusMillis(10_999))).isEmpty();
+		assertThat(wheel.advance(at(11))).containsExactlyInAnyOrder("overdue", "due now");
+	}
+
+	@Test
+	void cancelledDeadlineDoesNotFire() {
+		wheel.schedule("resolved", at(5));
+
+		assertThat(wheel.cancel("resolved")).isTrue();
+		assertThat(wheel.cancel("resolved")).isFalse();
+		assertThat(wheel.size()).isZero();
+		assertThat(wheel.advance(at(30))).isEmpty();
+	}
+
+	@Test
+	void rescheduleMovesTheDeadline() {
+		wheel.schedule("moved", at(5));
+		wheel.schedule("moved", at(21));
+
+		assertThat(wheel.size()).isEqualTo(1);
+		assertThat(wheel.advance(at(13))).isEmpty();
+		assertThat(wheel.advance(at(21))).containsExactly("moved");
+
+		// And back to earlier, in the bucket it was in before
+		wheel.schedule("moved", at(40));
+		wheel.schedule("moved", at(29));
+		assertThat(wheel.advance(at(29))).containsExactly("moved");
+		assertThat(wheel.advance(at(40))).isEmpty();
+	}
+
+	@Test
+	void matchesAPlainMapOfDeadlines() {
+		Random random = new Random(7);
+		HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(Duration.ofMillis(10), 16, START);
+		// Key -> the first time (ms since START) at which it may fire
+		Map<Integer, Long> expected = new HashMap<>();
+		long now = 0;
+
+		for (int step = 0; step < 20_000; step++) {
+			int key = random.nextInt(200);
+			switch (random.nextInt(4)) {
+				case 0, 1 -> {
+					// From well in the past to several turns ahead
+					long deadline = now - 100 + random.nextInt(800);
+					wheel.schedule(key, START.plusMillis(deadline));
+					// Never before the deadline's tick ends, nor within the current tick
+					long tickAfterNow = (Math.floorDiv(now, 10) + 1) * 10;
+					expected.put(key, Math.max(Math.floorDiv(deadline + 9, 10) * 10, tickAfterNow));
+				}
+				case 2 -> assertThat(wheel.cancel(key)).isEqualTo(expected.remove(key) != null);
+				default -> {
+					// Mostly small steps, sometimes several turns at once
+					now += random.nextInt(10) == 0 ? random.nextInt(1000) : random.nextInt(25);
+					List<Integer> due = new ArrayList<>();
+					long time = now;
+					expected.entrySet().removeIf(entry -> {
+						if (entry.getValue() <= time) {
+							due.add(entry.getKey());
+							return true;
+						}
+						return false;
+					});
+					assertThat(wheel.advance(START.plusMillis(now))).containsExactlyInAnyOrderElementsOf(due);
+				}
+			}
+			assertThat(wheel.size()).isEqualTo(expected.size());
+		}
+	}
+
+	private static Instant at(long seconds) {
+		return START.plusSeconds(seconds);
+	}
+}
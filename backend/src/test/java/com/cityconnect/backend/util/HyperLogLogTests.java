@@ -0,0 +1,144 @@
+package com.cityconnect.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTests {
+
+	@Test
+	void emptySketchEstimatesZero() {
+		assertThat(new HyperLogLog().estimate()).isZero();
+	}
+
+	@Test
+	void smallCountsAreNearlyExact() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (long id = 1; id <= 50; id++) {
+			sketch.add(id);
+			// Repeated views by the same users
+			sketch.add(id);
+		}
+
+		// Linear counting over 1024 mostly empty registers
+		assertThat(sketch.estimate()).isCloseTo(50, within(1L));
+	}
+
+	@Test
+	void estimateStaysWithinThreeStandardErrors() {
+		// From linear counting, through the switch to the raw estimate, to far beyond
+		for (int precision : new int[]{HyperLogLog.DEFAULT_PRECISION, 14}) {
+			double bound = 3 * 1.04 / Math.sqrt(1 << precision);
+			Random random = new Random(precision);
+			for (int distinct : new int[]{100, 1_000, 2_500, 5_000, 20_000, 100_000, 1_000_000}) {
+				HyperLogLog sketch = new HyperLogLog(precision);
+				for (int i = 0; i < distinct; i++) {
+					sketch.add(random.nextLong());
+				}
+
+				assertThat((double) sketch.estimate())
+						.as("%d distinct values at precision %d", distinct, precision)
+						.isCloseTo(distinct, within(distinct * bound));
+			}
+		}
+	}
+
+	@Test
+	void sequentialIdsAreSpreadLikeRandomOnes() {
+		// User IDs are handed out in sequence
+		HyperLogLog sketch = new HyperLogLog();
+		for (long id = 1; id <= 100_000; id++) {
+			sketch.add(id);
+		}
+
+		assertThat((double) sketch.estimate()).isCloseTo(100_000, within(100_000 * 3 * 1.04 / 32));
+	}
+
+	@Test
+	void roundTripKeepsEveryRegister() {
+		HyperLogLog sketch = new HyperLogLog(12);
+		Random random = new Random(3);
+		for (int i = 0; i < 30_000; i++) {
+			sketch.add(random.nextLong());
+		}
+
+		byte[] bytes = sketch.toBytes();
+		HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+		assertThat(bytes).hasSize(4096);
+		assertThat(restored.toBytes()).isEqualTo(bytes);
+		assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+
+		// And it keeps counting where the original left off
+		restored.add(Long.MIN_VALUE);
+		sketch.add(Long.MIN_VALUE);
+		assertThat(restored.toBytes()).isEqualTo(sketch.toBytes());
+	}
+
+	@Test
+	void mergeIsTheSketchOfTheUnion() {
+		HyperLogLog left = new HyperLogLog();
+		HyperLogLog right = new HyperLogLog();
+		HyperLogLog union = new HyperLogLog();
+		// Overlapping ranges: 1..60000 and 40001..100000
+		for (long id = 1; id <= 60_000; id++) {
+			left.add(id);
+			union.add(id);
+		}
+		for (long id = 40_001; id <= 100_000; id++) {
+			right.add(id);
+			union.add(id);
+		}
+
+		left.merge(right);
+
+		assertThat(left.toBytes()).isEqualTo(union.toBytes());
+		assertThat(left.estimate()).isEqualTo(union.estimate());
+	}
+
+	@Test
+	void concurrentAddsLoseNothing() throws Exception {
+		HyperLogLog shared = new HyperLogLog();
+		HyperLogLog expected = new HyperLogLog();
+		for (long id = 0; id < 200_000; id++) {
+			expected.add(id);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			Future<?>[] futures = new Future<?>[8];
+			for (int t = 0; t < futures.length; t++) {
+				int thread = t;
+				// Every thread adds all of them, so the same registers are raised at the same time
+				futures[t] = executor.submit(() -> {
+					for (long id = 0; id < 200_000; id++) {
+						shared.add(thread % 2 == 0 ? id : 199_999 - id);
+					}
+				});
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(shared.toBytes()).isEqualTo(expected.toBytes());
+	}
+
+	@Test
+	void rejectsWhatItCannotHold() {
+		assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new HyperLogLog(17)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[1000])).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new HyperLogLog(10).merge(new HyperLogLog(12)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
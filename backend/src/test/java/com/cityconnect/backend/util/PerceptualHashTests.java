@@ -0,0 +1,88 @@
+package com.cityconnect.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerceptualHashTests {
+
+	// What ImageHashService treats as the same picture
+	private static final int NEAR_DUPLICATE_BITS = 10;
+
+	@Test
+	void distanceCountsDifferingBits() {
+		assertThat(PerceptualHash.distance(0x0F0FL, 0x0F0FL)).isZero();
+		assertThat(PerceptualHash.distance(0b1010L, 0b0110L)).isEqualTo(2);
+		assertThat(PerceptualHash.distance(0L, -1L)).isEqualTo(64);
+	}
+
+	@Test
+	void resizedCopyHashesNearlyTheSame() {
+		BufferedImage photo = pothole(1200, 900);
+
+		long original = PerceptualHash.dHash(photo);
+
+		assertThat(PerceptualHash.distance(original, PerceptualHash.dHash(resize(photo, 300, 225))))
+				.isLessThanOrEqualTo(NEAR_DUPLICATE_BITS);
+		assertThat(PerceptualHash.distance(original, PerceptualHash.dHash(resize(photo, 1600, 1200))))
+				.isLessThanOrEqualTo(NEAR_DUPLICATE_BITS);
+	}
+
+	@Test
+	void reencodedCopyHashesNearlyTheSame() throws IOException {
+		BufferedImage photo = pothole(800, 600);
+
+		assertThat(PerceptualHash.distance(PerceptualHash.dHash(photo), PerceptualHash.dHash(jpeg(photo))))
+				.isLessThanOrEqualTo(NEAR_DUPLICATE_BITS);
+	}
+
+	@Test
+	void differentPictureHashesFarApart() {
+		BufferedImage mirrored = pothole(800, 600);
+		Graphics2D graphics = mirrored.createGraphics();
+		graphics.drawImage(pothole(800, 600), 800, 0, -800, 600, null);
+		graphics.dispose();
+
+		assertThat(PerceptualHash.distance(PerceptualHash.dHash(pothole(800, 600)), PerceptualHash.dHash(mirrored)))
+				.isGreaterThan(NEAR_DUPLICATE_BITS);
+	}
+
+	// A grey road with a dark hole off-centre and a lane marking: enough structure for the hash
+	private static BufferedImage pothole(int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setPaint(new GradientPaint(0, 0, new Color(170, 170, 160), width, height, new Color(90, 90, 85)));
+		graphics.fillRect(0, 0, width, height);
+		graphics.setColor(new Color(30, 25, 20));
+		graphics.fillOval(width / 5, height / 3, width / 3, height / 4);
+		graphics.setColor(Color.WHITE);
+		graphics.fillRect(width * 3 / 4, 0, width / 20, height);
+		graphics.dispose();
+		return image;
+	}
+
+	private static BufferedImage resize(BufferedImage image, int width, int height) {
+		BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = resized.createGraphics();
+		graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		graphics.drawImage(image, 0, 0, width, height, null);
+		graphics.dispose();
+		return resized;
+	}
+
+	private static BufferedImage jpeg(BufferedImage image) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "jpg", out);
+		return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+	}
+}